@@ -0,0 +1,73 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import co.edu.escuelaing.microsptingboot.controller.CalcuteController;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Costo del enlace de parámetros e invocación precompilada de
+ * CalcuteController.calculate frente a la llamada directa
+ *
+ * @author sebastian.cardona-p
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ControllerBenchmark {
+
+    public int a = 12;
+    public int b = 30;
+
+    private RouteInvoker calculate;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        calculate = RouteInvoker.compile(CalcuteController.class.getMethod("calculate", int.class, int.class));
+    }
+
+    /**
+     * Solicitud nueva, enlace de a y b, e invocación
+     */
+    @Benchmark
+    public Object invoker() throws Throwable {
+        HttpResponse response = HttpResponse.acquire();
+        try {
+            return calculate.invoke(new HttpRequest("GET", "/app/calculate/suma", "a=12&b=30", "HTTP/1.1", Map.of()), response);
+        } finally {
+            response.release();
+        }
+    }
+
+    /**
+     * El valor retornado escrito en la respuesta, como en processRequest
+     */
+    @Benchmark
+    public int invokeAndWrite() throws Throwable {
+        HttpResponse response = HttpResponse.acquire();
+        try {
+            Object result = calculate.invoke(new HttpRequest("GET", "/app/calculate/suma", "a=12&b=30", "HTTP/1.1", Map.of()), response);
+            calculate.writeResult(result, response);
+            return response.getBodyLength();
+        } finally {
+            response.release();
+        }
+    }
+
+    @Benchmark
+    public String direct() {
+        return CalcuteController.calculate(a, b);
+    }
+}
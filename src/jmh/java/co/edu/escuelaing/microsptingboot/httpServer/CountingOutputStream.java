@@ -0,0 +1,28 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.OutputStream;
+
+/**
+ * Destino de las respuestas en los benchmarks: solo cuenta los bytes, así
+ * el JIT no puede eliminar la escritura y no se mide un socket
+ *
+ * @author sebastian.cardona-p
+ */
+final class CountingOutputStream extends OutputStream {
+
+    private long count;
+
+    @Override
+    public void write(int b) {
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        count += len;
+    }
+
+    long count() {
+        return count;
+    }
+}
@@ -0,0 +1,74 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Despacho completo de un endpoint REST en processRequest: ruta, enlace de
+ * parámetros, invocación y respuesta renderizada. calculate es
+ * {@code @Cacheable}, así que mide un acierto de caché; resta, hello y
+ * greeting/json se invocan siempre.
+ *
+ * @author sebastian.cardona-p
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatchBenchmark {
+
+    private static final MethodHandle PROCESS_REQUEST;
+
+    static {
+        try {
+            // processRequest es privado; handlerequestType agrega un println por solicitud
+            PROCESS_REQUEST = MethodHandles.privateLookupIn(HttpServer.class, MethodHandles.lookup())
+                    .findStatic(HttpServer.class, "processRequest",
+                            MethodType.methodType(void.class, HttpRequest.class, OutputStream.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"/app/calculate/suma?a=12&b=30", "/app/calculate/resta?a=12&b=30",
+        "/app/hello?name=Ana&age=20", "/app/greeting/json?name=Ana"})
+    public String uri;
+
+    private String path;
+    private String query;
+    private CountingOutputStream out;
+
+    @Setup
+    public void setUp() {
+        HttpServer.loadServices(new String[]{
+            "co.edu.escuelaing.microsptingboot.controller.GreetingController",
+            "co.edu.escuelaing.microsptingboot.controller.CalcuteController"});
+        int question = uri.indexOf('?');
+        path = uri.substring(0, question);
+        query = uri.substring(question + 1);
+        out = new CountingOutputStream();
+    }
+
+    @Benchmark
+    public long processRequest() throws Throwable {
+        PROCESS_REQUEST.invokeExact(new HttpRequest("GET", path, query, "HTTP/1.1", Map.of()), (OutputStream) out);
+        return out.count();
+    }
+}
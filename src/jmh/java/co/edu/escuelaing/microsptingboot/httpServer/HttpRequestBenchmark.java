@@ -0,0 +1,84 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lectura de parámetros del query y parseo de la solicitud completa
+ *
+ * @author sebastian.cardona-p
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HttpRequestBenchmark {
+
+    @Param({"name=Ana", "a=12&b=30&op=suma&name=Mar%C3%ADa&age=20&city=Bogot%C3%A1"})
+    public String query;
+
+    private HttpRequest parsed;
+    private HttpRequestParser parser;
+    private ByteBuffer raw;
+
+    @Setup
+    public void setUp() {
+        parsed = new HttpRequest("GET", "/app/greeting", query, "HTTP/1.1", Map.of());
+        parsed.getValue("name");
+        parser = new HttpRequestParser();
+        raw = ByteBuffer.wrap(("GET /app/greeting?" + query + " HTTP/1.1\r\n"
+                + "Host: localhost:35000\r\n"
+                + "User-Agent: Mozilla/5.0 (X11; Linux x86_64) Gecko/20100101 Firefox/128.0\r\n"
+                + "Accept: text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8\r\n"
+                + "Accept-Encoding: gzip, deflate\r\n"
+                + "Connection: keep-alive\r\n"
+                + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Primer getValue de una solicitud nueva: incluye ubicar los parámetros
+     */
+    @Benchmark
+    public String getValueFirst() {
+        return new HttpRequest("GET", "/app/greeting", query, "HTTP/1.1", Map.of()).getValue("name");
+    }
+
+    /**
+     * getValue con los parámetros ya ubicados y el valor decodificado
+     */
+    @Benchmark
+    public String getValueRepeated() {
+        return parsed.getValue("name");
+    }
+
+    @Benchmark
+    public int intValue() throws HttpParseException {
+        HttpRequest request = new HttpRequest("GET", "/app/calculate/suma", query, "HTTP/1.1", Map.of());
+        int index = request.indexOf("a");
+        return index < 0 ? 0 : request.intValueAt(index);
+    }
+
+    /**
+     * Línea inicial y headers de una solicitud típica de navegador
+     */
+    @Benchmark
+    public HttpRequest parse() throws HttpParseException {
+        raw.rewind();
+        return parser.parse(raw);
+    }
+}
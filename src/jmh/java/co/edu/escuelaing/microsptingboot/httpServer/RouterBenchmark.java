@@ -0,0 +1,56 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Búsqueda de rutas en el árbol compilado de {@link HttpServer#services}:
+ * ruta fija, ruta fija que comparte prefijo con una variable, ruta con
+ * variable y ruta inexistente
+ *
+ * @author sebastian.cardona-p
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouterBenchmark {
+
+    @Param({"/greeting", "/calculate/suma", "/calculate/division", "/calculate/suma/extra"})
+    public String path;
+
+    private Router router;
+
+    @Setup
+    public void setUp() {
+        HttpServer.loadServices(new String[]{
+            "co.edu.escuelaing.microsptingboot.controller.GreetingController",
+            "co.edu.escuelaing.microsptingboot.controller.CalcuteController"});
+        router = HttpServer.routes("GET").router();
+    }
+
+    @Benchmark
+    public Object match() {
+        return router.match(path);
+    }
+
+    /**
+     * Lo que hace processRequest: quitar "/app" y buscar en el registro del método
+     */
+    @Benchmark
+    public Object matchFromRequestPath() {
+        return HttpServer.routes("GET").router().match(("/app" + path).substring(4));
+    }
+}
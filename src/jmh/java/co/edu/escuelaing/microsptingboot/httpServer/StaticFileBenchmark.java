@@ -0,0 +1,105 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Respuesta de archivos estáticos: getHTML desde la caché de respuestas
+ * renderizadas (con y sin gzip) y getImage con el envío de archivos
+ *
+ * @author sebastian.cardona-p
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StaticFileBenchmark {
+
+    private static final MethodHandle GET_HTML;
+    private static final MethodHandle GET_IMAGE;
+    private static final VarHandle BASE_PATH;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(HttpServer.class, MethodHandles.lookup());
+            MethodType handler = MethodType.methodType(void.class, HttpRequest.class, OutputStream.class);
+            GET_HTML = lookup.findStatic(HttpServer.class, "getHTML", handler);
+            GET_IMAGE = lookup.findStatic(HttpServer.class, "getImage", handler);
+            BASE_PATH = lookup.findStaticVarHandle(HttpServer.class, "basePath", String.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"", "gzip"})
+    public String acceptEncoding;
+
+    private Path root;
+    private String originalBasePath;
+    private Map<String, String> headers;
+    private CountingOutputStream out;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("static-benchmark");
+        StringBuilder html = new StringBuilder("<!DOCTYPE html>\n<html><head><title>Inicio</title></head><body>\n");
+        for (int i = 0; i < 100; i++) {
+            html.append("<p class=\"item\">Elemento ").append(i).append(" de la lista</p>\n");
+        }
+        Files.writeString(root.resolve("index.html"), html.append("</body></html>\n"));
+        byte[] image = new byte[64 * 1024];
+        new Random(42).nextBytes(image);
+        Files.createDirectories(root.resolve("images"));
+        Files.write(root.resolve("images/logo.png"), image);
+
+        originalBasePath = (String) BASE_PATH.get();
+        BASE_PATH.set(root + "/");
+        headers = acceptEncoding.isEmpty() ? Map.of() : Map.of("accept-encoding", acceptEncoding);
+        out = new CountingOutputStream();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BASE_PATH.set(originalBasePath);
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long html() throws Throwable {
+        GET_HTML.invokeExact(new HttpRequest("GET", "/index.html", null, "HTTP/1.1", headers), (OutputStream) out);
+        return out.count();
+    }
+
+    @Benchmark
+    public long image() throws Throwable {
+        GET_IMAGE.invokeExact(new HttpRequest("GET", "/images/logo.png", null, "HTTP/1.1", headers), (OutputStream) out);
+        return out.count();
+    }
+}
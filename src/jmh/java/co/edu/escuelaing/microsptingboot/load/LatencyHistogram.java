@@ -0,0 +1,92 @@
+package co.edu.escuelaing.microsptingboot.load;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas log-lineales, como
+ * HdrHistogram: exacto hasta 256 ns y con un error relativo menor a 1/128
+ * por encima. Cada hilo registra en el suyo y al final se suman con
+ * {@link #add(LatencyHistogram)}. Los valores mayores a una hora se
+ * registran como una hora.
+ *
+ * @author sebastian.cardona-p
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 128;
+    private static final long MAX_VALUE = 3_600_000_000_000L;
+
+    private final long[] counts = new long[indexOf(MAX_VALUE) + 1];
+    private long total;
+    private long max;
+    private double sum;
+
+    void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts[indexOf(value)]++;
+        total++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return total;
+    }
+
+    long max() {
+        return max;
+    }
+
+    double mean() {
+        return total == 0 ? 0 : sum / total;
+    }
+
+    /**
+     * Valor bajo el que queda el porcentaje indicado de las muestras: el
+     * mayor valor de la cubeta donde cae, sin pasar del máximo registrado
+     *
+     * @param percentile entre 0 y 100
+     */
+    long valueAtPercentile(double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Debajo de 256 una cubeta por valor; encima, 128 cubetas por cada
+     * potencia de dos
+     */
+    static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 7;
+        return 2 * SUB_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - 2 * SUB_BUCKETS) / SUB_BUCKETS + 1;
+        long top = (index - 2 * SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
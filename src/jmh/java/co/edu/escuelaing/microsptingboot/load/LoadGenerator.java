@@ -0,0 +1,458 @@
+package co.edu.escuelaing.microsptingboot.load;
+
+import co.edu.escuelaing.microsptingboot.httpServer.HttpServer;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de extremo a extremo: inicia el servidor en un puerto
+ * libre dentro del mismo proceso y lo recorre con una mezcla de solicitudes
+ * a tasa fija sobre conexiones keep-alive con sockets, cada una en su hilo
+ * virtual.
+ *
+ * La carga es de lazo abierto: la solicitud n tiene una hora de envío
+ * programada (inicio + n / tasa) y su latencia se mide desde esa hora, no
+ * desde que se pudo enviar. Si el servidor se atrasa, las solicitudes que
+ * esperaban en la conexión cuentan todo lo que esperaron, así que los
+ * percentiles no sufren de omisión coordinada.
+ *
+ * Uso (desde la raíz del proyecto, para que encuentre los archivos estáticos):
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec@load -Dload.args="--rate=2000 --duration=30"
+ * </pre>
+ *
+ * Opciones: --rate (solicitudes por segundo), --duration y --warmup (segundos),
+ * --connections, --engine (BLOCKING o NIO), --loops (event loops de NIO),
+ * --mix (nombre o ruta:peso separados por coma), --label, --output (archivo
+ * JSON del resultado) y --access-log (archivo del registro de acceso; sin
+ * él no se registran las solicitudes).
+ *
+ * @author sebastian.cardona-p
+ */
+public final class LoadGenerator {
+
+    // Rutas con nombre para --mix; cualquier otra ruta también se acepta
+    private static final Map<String, String> TARGETS = Map.of(
+            "greeting", "/app/greeting?name=Ana",
+            "calculate", "/app/calculate/suma?a=12&b=30",
+            "html", "/index.html",
+            "image", "/images/favicon.png");
+    private static final String DEFAULT_MIX = "greeting:40,calculate:40,html:10,image:10";
+    private static final int SOCKET_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Una ruta de la mezcla con su peso y las solicitudes ya codificadas
+     */
+    private record Endpoint(String name, String path, int weight, byte[] request) {
+    }
+
+    private final int rate;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final int connections;
+    private final List<Endpoint> endpoints;
+    // Endpoint de cada posición de la secuencia, repartido según los pesos
+    private final int[] schedule;
+
+    private LoadGenerator(int rate, long warmupNanos, long durationNanos, int connections, List<Endpoint> endpoints) {
+        this.rate = rate;
+        this.warmupNanos = warmupNanos;
+        this.durationNanos = durationNanos;
+        this.connections = connections;
+        this.endpoints = endpoints;
+        this.schedule = schedule(endpoints);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int rate = intOption(options, "rate", 1000);
+        int warmup = intOption(options, "warmup", 5);
+        int duration = intOption(options, "duration", 30);
+        int connections = intOption(options, "connections", 16);
+        HttpServer.Engine engine = HttpServer.Engine.valueOf(options.getOrDefault("engine", "BLOCKING").toUpperCase(Locale.ROOT));
+        int loops = intOption(options, "loops", Runtime.getRuntime().availableProcessors());
+        List<Endpoint> endpoints = parseMix(options.getOrDefault("mix", DEFAULT_MIX));
+        String label = options.getOrDefault("label", "");
+        Path output = Path.of(options.getOrDefault("output", "target/load/result.json"));
+        if (rate <= 0 || duration <= 0 || warmup < 0 || connections <= 0) {
+            throw new IllegalArgumentException("rate, duration and connections must be positive and warmup not negative");
+        }
+
+        // El registro de acceso va a la consola por defecto; a esta tasa solo estorba
+        String accessLog = options.get("access-log");
+        HttpServer.configureAccessLog(accessLog != null ? HttpServer.AccessLogLevel.ALL : HttpServer.AccessLogLevel.OFF, accessLog);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        HttpServer.configureEngine(engine, loops);
+        Thread server = Thread.ofPlatform().name("load-server").start(() -> {
+            try {
+                HttpServer.startServer(new String[0], 0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        String json;
+        try {
+            int port = waitForPort();
+            LoadGenerator generator = new LoadGenerator(rate, TimeUnit.SECONDS.toNanos(warmup),
+                    TimeUnit.SECONDS.toNanos(duration), connections, endpoints);
+            Result result = generator.run(port);
+            json = result.toJson(label, engine, loops, rate, warmup, duration, connections, endpoints);
+        } finally {
+            HttpServer.stopServer();
+            server.join(TimeUnit.SECONDS.toMillis(30));
+            System.setOut(console);
+        }
+
+        System.out.println(json);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Files.writeString(output, json + "\n");
+        System.out.println("Resultado en " + output.toAbsolutePath());
+    }
+
+    private static int waitForPort() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            if (HttpServer.isRunning() && HttpServer.getLocalPort() > 0) {
+                return HttpServer.getLocalPort();
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("Server did not start");
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value: " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be an integer: " + value, e);
+        }
+    }
+
+    /**
+     * "greeting:40,/app/hello?name=x:10": nombre de {@link #TARGETS} o
+     * ruta, y peso después del último ':'
+     */
+    private static List<Endpoint> parseMix(String mix) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (String item : mix.split(",")) {
+            int colon = item.lastIndexOf(':');
+            String target = colon < 0 ? item.trim() : item.substring(0, colon).trim();
+            int weight;
+            try {
+                weight = colon < 0 ? 1 : Integer.parseInt(item.substring(colon + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight in --mix: " + item, e);
+            }
+            String path = TARGETS.getOrDefault(target, target);
+            if (!path.startsWith("/") || weight <= 0) {
+                throw new IllegalArgumentException("Expected name:weight or /path:weight in --mix: " + item);
+            }
+            byte[] request = ("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nUser-Agent: microsptingboot-load\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            endpoints.add(new Endpoint(target, path, weight, request));
+        }
+        return endpoints;
+    }
+
+    /**
+     * Secuencia de endpoints con cada uno repetido según su peso, mezclada
+     * con una semilla fija para que las corridas sean comparables
+     */
+    private static int[] schedule(List<Endpoint> endpoints) {
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < endpoints.size(); i++) {
+            for (int w = 0; w < endpoints.get(i).weight(); w++) {
+                slots.add(i);
+            }
+        }
+        Collections.shuffle(slots, new Random(42));
+        return slots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private Result run(int port) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+
+        Worker[] workers = new Worker[connections];
+        Thread[] threads = new Thread[connections];
+        for (int c = 0; c < connections; c++) {
+            workers[c] = new Worker(port, c, start, intervalNanos, measureFrom, end);
+            threads[c] = Thread.ofVirtual().name("load-" + c).start(workers[c]);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Result result = new Result(endpoints.size());
+        long lastCompletion = measureFrom;
+        for (Worker worker : workers) {
+            result.add(worker);
+            lastCompletion = Math.max(lastCompletion, worker.lastCompletion);
+        }
+        result.elapsedNanos = lastCompletion - measureFrom;
+        return result;
+    }
+
+    /**
+     * Una conexión: envía las solicitudes c, c + conexiones, c + 2 *
+     * conexiones... de la secuencia, cada una a su hora programada o en
+     * cuanto termine la anterior si ya pasó
+     */
+    private final class Worker implements Runnable {
+
+        private final int port;
+        private final int index;
+        private final long start;
+        private final long intervalNanos;
+        private final long measureFrom;
+        private final long end;
+        final LatencyHistogram[] histograms = new LatencyHistogram[endpoints.size()];
+        final long[] errors = new long[endpoints.size()];
+        long lastCompletion;
+        private Socket socket;
+        private InputStream in;
+        private OutputStream out;
+
+        Worker(int port, int index, long start, long intervalNanos, long measureFrom, long end) {
+            this.port = port;
+            this.index = index;
+            this.start = start;
+            this.intervalNanos = intervalNanos;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (long n = index;; n += connections) {
+                    long intended = start + n * intervalNanos;
+                    if (intended >= end) {
+                        return;
+                    }
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    int endpoint = schedule[(int) (n % schedule.length)];
+                    boolean ok = send(endpoints.get(endpoint).request());
+                    long done = System.nanoTime();
+                    if (intended < measureFrom) {
+                        continue;
+                    }
+                    lastCompletion = done;
+                    if (ok) {
+                        histograms[endpoint].record(done - intended);
+                    } else {
+                        errors[endpoint]++;
+                    }
+                }
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Envía una solicitud y lee la respuesta completa, reconectando si
+         * hace falta
+         *
+         * @return false si falló la conexión o el estado no es 2xx/3xx
+         */
+        private boolean send(byte[] request) {
+            try {
+                if (socket == null) {
+                    socket = new Socket("localhost", port);
+                    socket.setTcpNoDelay(true);
+                    socket.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+                    in = new BufferedInputStream(socket.getInputStream());
+                    out = socket.getOutputStream();
+                }
+                out.write(request);
+                out.flush();
+                return readResponse();
+            } catch (IOException e) {
+                close();
+                return false;
+            }
+        }
+
+        private boolean readResponse() throws IOException {
+            String statusLine = readLine();
+            int status = Integer.parseInt(statusLine.substring(9, 12));
+            long contentLength = -1;
+            boolean chunked = false;
+            boolean close = false;
+            for (String line = readLine(); !line.isEmpty(); line = readLine()) {
+                int colon = line.indexOf(':');
+                String name = line.substring(0, colon).trim();
+                String value = line.substring(colon + 1).trim();
+                if (name.equalsIgnoreCase("Content-Length")) {
+                    contentLength = Long.parseLong(value);
+                } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                    chunked = value.equalsIgnoreCase("chunked");
+                } else if (name.equalsIgnoreCase("Connection")) {
+                    close = value.equalsIgnoreCase("close");
+                }
+            }
+            if (chunked) {
+                for (long size = Long.parseLong(readLine().trim(), 16); size > 0; size = Long.parseLong(readLine().trim(), 16)) {
+                    in.skipNBytes(size);
+                    readLine();
+                }
+                readLine();
+            } else if (contentLength >= 0) {
+                in.skipNBytes(contentLength);
+            } else {
+                // Sin largo el cuerpo termina al cerrar la conexión
+                in.transferTo(OutputStream.nullOutputStream());
+                close = true;
+            }
+            if (close) {
+                close();
+            }
+            return status < 400;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int b = in.read(); b != '\n'; b = in.read()) {
+                if (b < 0) {
+                    throw new EOFException("Connection closed");
+                }
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+            }
+            return line.toString();
+        }
+
+        private void close() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // La conexión ya no se usa
+                }
+                socket = null;
+            }
+        }
+    }
+
+    /**
+     * Histogramas y errores de todas las conexiones, por endpoint
+     */
+    private static final class Result {
+
+        final LatencyHistogram total = new LatencyHistogram();
+        final LatencyHistogram[] histograms;
+        final long[] errors;
+        long elapsedNanos;
+
+        Result(int endpoints) {
+            histograms = new LatencyHistogram[endpoints];
+            errors = new long[endpoints];
+            for (int i = 0; i < endpoints; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+
+        void add(Worker worker) {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i].add(worker.histograms[i]);
+                total.add(worker.histograms[i]);
+                errors[i] += worker.errors[i];
+            }
+        }
+
+        String toJson(String label, HttpServer.Engine engine, int loops, int rate, int warmup, int duration,
+                int connections, List<Endpoint> endpoints) {
+            long totalErrors = 0;
+            for (long e : errors) {
+                totalErrors += e;
+            }
+            double seconds = Math.max(elapsedNanos, 1) / 1e9;
+            StringBuilder json = new StringBuilder("{\n");
+            json.append("  \"label\": \"").append(escape(label)).append("\",\n");
+            json.append("  \"engine\": \"").append(engine).append("\",\n");
+            json.append("  \"eventLoops\": ").append(engine == HttpServer.Engine.NIO ? loops : 0).append(",\n");
+            json.append("  \"targetRate\": ").append(rate).append(",\n");
+            json.append("  \"connections\": ").append(connections).append(",\n");
+            json.append("  \"warmupSeconds\": ").append(warmup).append(",\n");
+            json.append("  \"durationSeconds\": ").append(duration).append(",\n");
+            json.append("  \"requests\": ").append(total.count() + totalErrors).append(",\n");
+            json.append("  \"errors\": ").append(totalErrors).append(",\n");
+            json.append("  \"throughput\": ").append(format((total.count() + totalErrors) / seconds)).append(",\n");
+            json.append("  \"latencyMicros\": ").append(latency(total)).append(",\n");
+            json.append("  \"endpoints\": {");
+            for (int i = 0; i < endpoints.size(); i++) {
+                Endpoint endpoint = endpoints.get(i);
+                json.append(i == 0 ? "\n" : ",\n");
+                json.append("    \"").append(escape(endpoint.name())).append("\": {")
+                        .append("\"path\": \"").append(escape(endpoint.path())).append("\", ")
+                        .append("\"weight\": ").append(endpoint.weight()).append(", ")
+                        .append("\"requests\": ").append(histograms[i].count() + errors[i]).append(", ")
+                        .append("\"errors\": ").append(errors[i]).append(", ")
+                        .append("\"latencyMicros\": ").append(latency(histograms[i])).append("}");
+            }
+            return json.append("\n  }\n}").toString();
+        }
+
+        private static String latency(LatencyHistogram histogram) {
+            return "{\"p50\": " + micros(histogram.valueAtPercentile(50))
+                    + ", \"p90\": " + micros(histogram.valueAtPercentile(90))
+                    + ", \"p99\": " + micros(histogram.valueAtPercentile(99))
+                    + ", \"p999\": " + micros(histogram.valueAtPercentile(99.9))
+                    + ", \"max\": " + micros(histogram.max())
+                    + ", \"mean\": " + format(histogram.mean() / 1000) + "}";
+        }
+
+        private static String micros(long nanos) {
+            return format(nanos / 1000.0);
+        }
+
+        private static String format(double value) {
+            return String.format(Locale.ROOT, "%.1f", value);
+        }
+
+        private static String escape(String text) {
+            return text.replace("\\", "\\\\").replace("\"", "\\\"");
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package co.edu.escuelaing.microsptingboot;
 
 import co.edu.escuelaing.microsptingboot.httpServer.HttpServer;
+import co.edu.escuelaing.microsptingboot.httpServer.ServerConfig;
 import java.io.IOException;
 import java.net.URISyntaxException;
 
@@ -12,7 +13,10 @@ public class MicroSptingBoot {
 
     public static void main(String[] args) throws IOException, URISyntaxException {
         System.out.println("Starting MicroSpringBoot");
-        
-        HttpServer.startServer(args);
+
+        // Puerto, sockets y demás opciones desde --opciones, -D, el entorno o application.properties
+        ServerConfig config = ServerConfig.load(args);
+        config.apply();
+        HttpServer.startServer(config.arguments());
     }
 }
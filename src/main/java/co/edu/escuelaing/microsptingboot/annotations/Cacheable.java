@@ -0,0 +1,24 @@
+package co.edu.escuelaing.microsptingboot.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Guarda en caché la respuesta de un GetMapping por ruta y valor de sus
+ * parámetros. Solo para métodos que dependen únicamente de sus parámetros.
+ *
+ * @author Sebastian
+ */
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cacheable {
+
+    /**
+     * Milisegundos que la respuesta sigue siendo válida
+     */
+    public long ttlMillis() default 60_000;
+
+}
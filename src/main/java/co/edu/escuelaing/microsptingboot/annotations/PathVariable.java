@@ -0,0 +1,19 @@
+package co.edu.escuelaing.microsptingboot.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enlaza un parámetro con una variable de la ruta, por ejemplo
+ * {@code {op}} en {@code @GetMapping("/calculate/{op}")}
+ *
+ * @author Sebastian
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface PathVariable {
+
+    String value();
+}
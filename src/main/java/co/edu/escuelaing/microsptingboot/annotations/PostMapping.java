@@ -0,0 +1,19 @@
+package co.edu.escuelaing.microsptingboot.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registra un método estático como endpoint para solicitudes POST
+ * a la ruta indicada
+ *
+ * @author Sebastian
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface PostMapping {
+
+    String value();
+}
@@ -0,0 +1,19 @@
+package co.edu.escuelaing.microsptingboot.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enlaza un parámetro con el cuerpo de la solicitud. El tipo puede ser
+ * {@code InputStream} (el cuerpo se lee a medida que llega), o
+ * {@code byte[]}, {@code String} o {@code ByteBuffer} (el cuerpo se lee
+ * completo, con el límite configurado en el servidor).
+ *
+ * @author Sebastian
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface RequestBody {
+}
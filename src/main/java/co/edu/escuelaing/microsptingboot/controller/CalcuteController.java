@@ -1,6 +1,8 @@
 package co.edu.escuelaing.microsptingboot.controller;
 
+import co.edu.escuelaing.microsptingboot.annotations.Cacheable;
 import co.edu.escuelaing.microsptingboot.annotations.GetMapping;
+import co.edu.escuelaing.microsptingboot.annotations.PathVariable;
 import co.edu.escuelaing.microsptingboot.annotations.RequestParam;
 import co.edu.escuelaing.microsptingboot.annotations.RestController;
 
@@ -8,33 +10,36 @@ import co.edu.escuelaing.microsptingboot.annotations.RestController;
 public class CalcuteController {
 
     @GetMapping("/calculate/suma")
+    @Cacheable
     public static String calculate(
-            @RequestParam(value = "a", defaultValue = "0") String a,
-            @RequestParam(value = "b", defaultValue = "0") String b
+            @RequestParam(value = "a", defaultValue = "0") int a,
+            @RequestParam(value = "b", defaultValue = "0") int b
     ) {
-        try {
-            int numA = Integer.parseInt(a);
-            int numB = Integer.parseInt(b);
-            int sum = numA + numB;
-            return "La suma de " + a + " + " + b + " = " + sum;
-        } catch (NumberFormatException e) {
-            return "Error: Los parámetros deben ser números válidos";
-        }
+        return "La suma de " + a + " + " + b + " = " + (a + b);
     }
 
     @GetMapping("/calculate/resta")
     public static String resta(
-            @RequestParam(value = "a", defaultValue = "0") String a,
-            @RequestParam(value = "b", defaultValue = "0") String b
+            @RequestParam(value = "a", defaultValue = "0") int a,
+            @RequestParam(value = "b", defaultValue = "0") int b
     ) {
-        try {
-            int numA = Integer.parseInt(a);
-            int numB = Integer.parseInt(b);
-            int res = numA - numB;
-            return "La resta de " + a + " - " + b + " = " + res;
-        } catch (NumberFormatException e) {
-            return "Error: Los parámetros deben ser números válidos";
-        }
+        return "La resta de " + a + " - " + b + " = " + (a - b);
+    }
+
+    @GetMapping("/calculate/{op}")
+    @Cacheable
+    public static String operate(
+            @PathVariable("op") String op,
+            @RequestParam(value = "a", defaultValue = "0") int a,
+            @RequestParam(value = "b", defaultValue = "0") int b
+    ) {
+        return switch (op) {
+            case "multiplicacion" -> "La multiplicación de " + a + " * " + b + " = " + (a * b);
+            case "division" -> b == 0
+                    ? "Error: No se puede dividir por cero"
+                    : "La división de " + a + " / " + b + " = " + (a / b);
+            default -> "Error: Operación desconocida " + op;
+        };
     }
 
 }
@@ -1,9 +1,20 @@
 package co.edu.escuelaing.microsptingboot.controller;
 
+import co.edu.escuelaing.microsptingboot.annotations.Cacheable;
 import co.edu.escuelaing.microsptingboot.annotations.GetMapping;
+import co.edu.escuelaing.microsptingboot.annotations.PostMapping;
+import co.edu.escuelaing.microsptingboot.annotations.PutMapping;
+import co.edu.escuelaing.microsptingboot.annotations.RequestBody;
 import co.edu.escuelaing.microsptingboot.annotations.RequestParam;
 import co.edu.escuelaing.microsptingboot.annotations.RestController;
+import co.edu.escuelaing.microsptingboot.httpServer.HttpParseException;
+import co.edu.escuelaing.microsptingboot.httpServer.HttpResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  *
@@ -12,7 +23,19 @@ import java.util.concurrent.atomic.AtomicLong;
 @RestController
 public class GreetingController {
 
+    private static final AtomicLong counter = new AtomicLong();
+
+    // Máximo de números que envía /count
+    static final int MAX_COUNT = 100_000;
+
+    /**
+     * Saludo numerado que se envía como JSON
+     */
+    public record Greeting(long id, String content) {
+    }
+
     @GetMapping("/greeting")
+    @Cacheable(ttlMillis = 10_000)
     public static String greeting(@RequestParam(value = "name", defaultValue = "World") String name) {
         return "Hola " + name;
     }
@@ -37,4 +60,55 @@ public class GreetingController {
     ) {
         return "Bienvenido " + name + ", tienes " + age + " años y vives en " + city;
     }
+
+    @PostMapping("/greeting")
+    public static String greetingFromBody(@RequestBody String name) {
+        return "Hola " + name;
+    }
+
+    /**
+     * Cuenta los bytes del cuerpo a medida que llegan, sin guardarlo
+     */
+    @PutMapping("/upload")
+    public static String upload(@RequestBody InputStream body) throws IOException {
+        long size = body.transferTo(OutputStream.nullOutputStream());
+        return "Recibidos " + size + " bytes";
+    }
+
+    /**
+     * Devuelve el cuerpo tal como llegó. El tipo es siempre binario y con
+     * nosniff: si lo eligiera el cliente, un formulario de otro sitio podría
+     * hacer que el servidor respondiera HTML escrito por un atacante.
+     */
+    @PostMapping("/echo")
+    public static void echo(@RequestBody byte[] body, HttpResponse response) {
+        response.setContentType("application/octet-stream");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.write(body);
+    }
+
+    /**
+     * Envía los números del 1 al n, uno por línea, a medida que se generan.
+     * n está acotado: el motor NIO guarda en memoria lo que el cliente aún
+     * no ha leído, y un n sin límite lo dejaría sin heap.
+     *
+     * @throws HttpParseException 400 si n es negativo o mayor que MAX_COUNT
+     */
+    @GetMapping("/count")
+    public static Stream<String> count(@RequestParam(value = "n", defaultValue = "10") int n, HttpResponse response)
+            throws HttpParseException {
+        if (n < 0 || n > MAX_COUNT) {
+            throw new HttpParseException("400 Bad Request", "n must be between 0 and " + MAX_COUNT);
+        }
+        response.setContentType("text/plain");
+        return IntStream.rangeClosed(1, n).mapToObj(i -> i + "\n");
+    }
+
+    /**
+     * Saludo como objeto JSON, por ejemplo {"id":1,"content":"Hola Ana"}
+     */
+    @GetMapping("/greeting/json")
+    public static Greeting greetingJson(@RequestParam(value = "name", defaultValue = "World") String name) {
+        return new Greeting(counter.incrementAndGet(), "Hola " + name);
+    }
 }
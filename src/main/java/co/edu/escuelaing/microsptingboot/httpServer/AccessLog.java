@@ -0,0 +1,375 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro de acceso asíncrono. Los hilos que atienden solicitudes solo
+ * copian los campos de la solicitud a una casilla de un buffer circular
+ * sin locks (una cola acotada de varios productores, como la de Vyukov);
+ * un hilo de fondo arma las líneas y las escribe en lotes con un
+ * FileChannel, o con un canal sobre {@link System#out} si no hay archivo.
+ * El archivo rota al superar su tamaño máximo: access.log
+ * pasa a access.log.1, access.log.1 a access.log.2 y así hasta maxFiles.
+ * <p>
+ * Cada línea tiene la hora, el método, la ruta, el estado, los bytes de la
+ * respuesta ("-" si no se conocen) y la duración en microsegundos:
+ * <pre>2026-10-17T15:04:05.123Z GET /app/greeting 200 68 142</pre>
+ *
+ * @author sebastian.cardona-p
+ */
+final class AccessLog {
+
+    static final int DEFAULT_CAPACITY = 8192;
+    static final long DEFAULT_MAX_FILE_BYTES = 64L * 1024 * 1024;
+    static final int DEFAULT_MAX_FILES = 5;
+    private static final int BATCH_BYTES = 64 * 1024;
+    // Espera del hilo de escritura cuando no hay entradas; agrupa las escrituras
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    // Espera de un productor cuando el buffer está lleno y la política es bloquear
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long FLUSH_TIMEOUT_MILLIS = 1000;
+
+    private final HttpServer.AccessLogLevel level;
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final boolean blockWhenFull;
+    private final Slot[] slots;
+    private final int mask;
+    // Siguiente posición a reservar; la comparten los productores
+    private final AtomicLong tail = new AtomicLong();
+    // Siguiente posición a leer; solo la usa el hilo de escritura
+    private long head;
+    // Posición hasta la que las entradas ya se escribieron
+    private volatile long written;
+    private final LongAdder dropped = new LongAdder();
+    private long droppedReported;
+    private volatile boolean closed;
+    private final Thread writer;
+
+    private WritableByteChannel channel;
+    // Salida estándar sobre la que se creó el canal; cambia con System.setOut
+    private PrintStream stdout;
+    private long fileSize;
+
+    /**
+     * Casilla del buffer: sequence == posición indica que está libre para
+     * esa posición y sequence == posición + 1 que ya tiene la entrada
+     */
+    private static final class Slot {
+
+        volatile long sequence;
+        long timestamp;
+        String method;
+        String path;
+        int status;
+        long bytes;
+        long nanos;
+    }
+
+    /**
+     * @param level solicitudes que se registran
+     * @param file archivo del registro, o null para la salida estándar
+     * @param maxFileBytes tamaño a partir del cual el archivo rota
+     * @param maxFiles archivos rotados que se conservan
+     * @param capacity entradas en el buffer; se redondea a potencia de dos
+     * @param blockWhenFull si un productor espera cuando el buffer está
+     * lleno; si no, la entrada se descarta y se cuenta
+     */
+    AccessLog(HttpServer.AccessLogLevel level, Path file, long maxFileBytes, int maxFiles, int capacity, boolean blockWhenFull) {
+        this.level = level;
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.blockWhenFull = blockWhenFull;
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            slots[i].sequence = i;
+        }
+        this.mask = size - 1;
+        if (level == HttpServer.AccessLogLevel.OFF) {
+            writer = null;
+        } else {
+            writer = Thread.ofPlatform().daemon().name("access-log").unstarted(this::run);
+            writer.start();
+        }
+    }
+
+    AccessLog() {
+        this(HttpServer.AccessLogLevel.ALL, null, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILES, DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Registra una solicitud atendida si el nivel la incluye
+     *
+     * @param request solicitud con su código de respuesta
+     * @param bytes bytes de la respuesta, o -1 si no se conocen
+     * @param nanos duración de la solicitud
+     */
+    void log(HttpRequest request, long bytes, long nanos) {
+        int status = request.getResponseStatus();
+        if (level == HttpServer.AccessLogLevel.OFF
+                || (level == HttpServer.AccessLogLevel.ERRORS && status != 0 && status < 400) || closed) {
+            return;
+        }
+        long position = reserve();
+        if (position < 0) {
+            dropped.increment();
+            return;
+        }
+        Slot slot = slots[(int) position & mask];
+        slot.timestamp = System.currentTimeMillis();
+        slot.method = request.getMethod();
+        slot.path = request.getPath();
+        slot.status = status;
+        slot.bytes = bytes;
+        slot.nanos = nanos;
+        slot.sequence = position + 1;
+    }
+
+    /**
+     * Reserva la siguiente casilla libre
+     *
+     * @return la posición reservada, o -1 si el buffer está lleno y la
+     * política es descartar
+     */
+    private long reserve() {
+        long position = tail.get();
+        while (true) {
+            long sequence = slots[(int) position & mask].sequence;
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+                position = tail.get();
+            } else if (sequence < position) {
+                // La casilla aún tiene la entrada de la vuelta anterior
+                if (!blockWhenFull || closed) {
+                    return -1;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                position = tail.get();
+            } else {
+                // Otro productor reservó esta posición
+                position = tail.get();
+            }
+        }
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Espera a que las entradas registradas hasta ahora se escriban, como
+     * máximo un segundo
+     */
+    void flush() {
+        if (writer == null) {
+            return;
+        }
+        long target = tail.get();
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MILLIS;
+        while (written < target && writer.isAlive() && System.currentTimeMillis() < deadline) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Escribe lo pendiente y detiene el hilo de escritura. Las entradas
+     * que lleguen después se ignoran.
+     */
+    void close() {
+        closed = true;
+        if (writer == null) {
+            return;
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join(FLUSH_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+        StringBuilder line = new StringBuilder(256);
+        try {
+            while (true) {
+                boolean stopping = closed;
+                int drained = drain(batch, line);
+                boolean full = !batch.hasRemaining();
+                if (batch.position() > 0 && (drained == 0 || full)) {
+                    write(batch);
+                }
+                if (drained == 0 && !full) {
+                    written = head;
+                    if (stopping) {
+                        break;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        } finally {
+            closeChannel();
+        }
+    }
+
+    /**
+     * Pasa al lote las entradas listas mientras quepan. Si una línea no
+     * cabe, el lote queda sin espacio restante para que se escriba.
+     *
+     * @return número de entradas leídas
+     */
+    private int drain(ByteBuffer batch, StringBuilder line) {
+        int drained = 0;
+        long missing = dropped.sum() - droppedReported;
+        if (missing > 0) {
+            line.setLength(0);
+            line.append("# ").append(missing).append(" access log entries dropped, buffer full\n");
+            if (!append(batch, line)) {
+                return 0;
+            }
+            droppedReported += missing;
+        }
+        while (true) {
+            Slot slot = slots[(int) head & mask];
+            if (slot.sequence != head + 1) {
+                return drained;
+            }
+            line.setLength(0);
+            DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(slot.timestamp), line);
+            line.append(' ').append(slot.method).append(' ').append(slot.path).append(' ').append(slot.status).append(' ');
+            if (slot.bytes < 0) {
+                line.append('-');
+            } else {
+                line.append(slot.bytes);
+            }
+            line.append(' ').append(TimeUnit.NANOSECONDS.toMicros(slot.nanos)).append('\n');
+            if (!append(batch, line)) {
+                // El lote está lleno: la entrada se lee en la siguiente vuelta
+                return drained;
+            }
+            slot.method = null;
+            slot.path = null;
+            slot.sequence = head + slots.length;
+            head++;
+            drained++;
+        }
+    }
+
+    private static boolean append(ByteBuffer batch, StringBuilder line) {
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > batch.remaining()) {
+            if (batch.position() > 0) {
+                batch.limit(batch.position());
+                return false;
+            }
+            // Una línea más grande que el lote se recorta
+            batch.put(bytes, 0, batch.remaining() - 1).put((byte) '\n');
+            return true;
+        }
+        batch.put(bytes);
+        return true;
+    }
+
+    private void write(ByteBuffer batch) {
+        batch.flip();
+        try {
+            WritableByteChannel target = channel(batch.remaining());
+            while (batch.hasRemaining()) {
+                fileSize += target.write(batch);
+            }
+            if (file == null) {
+                stdout.flush();
+            }
+        } catch (IOException e) {
+            System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, "Cannot write access log", e);
+            closeChannel();
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * Canal donde se escribe el siguiente lote; rota el archivo si el lote
+     * lo haría superar el tamaño máximo
+     */
+    private WritableByteChannel channel(int batchBytes) throws IOException {
+        if (file == null) {
+            // Se escribe a través de System.out y no del descriptor 1, para
+            // respetar System.setOut; el canal no se cierra
+            if (channel == null || stdout != System.out) {
+                stdout = System.out;
+                channel = Channels.newChannel(stdout);
+            }
+            return channel;
+        }
+        if (channel != null && fileSize > 0 && fileSize + batchBytes > maxFileBytes) {
+            closeChannel();
+            rotate();
+        }
+        if (channel == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            fileSize = opened.size();
+            channel = opened;
+            if (fileSize > 0 && fileSize + batchBytes > maxFileBytes) {
+                closeChannel();
+                rotate();
+                return channel(batchBytes);
+            }
+        }
+        return channel;
+    }
+
+    private void rotate() throws IOException {
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path older = rotated(i);
+            if (Files.exists(older)) {
+                Files.move(older, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void closeChannel() {
+        if (channel != null && file != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Ignorar: el lote ya se escribió o se reportó
+            }
+        }
+        channel = null;
+    }
+}
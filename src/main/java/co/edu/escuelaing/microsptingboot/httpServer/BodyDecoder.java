@@ -0,0 +1,158 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodificador incremental del cuerpo de una solicitud, con
+ * Content-Length o Transfer-Encoding: chunked. Igual que el parser de
+ * solicitudes, recibe los bytes a medida que llegan y conserva su estado,
+ * así que el cuerpo nunca se tiene que acumular completo. Al terminar, los
+ * bytes de la siguiente solicitud quedan sin consumir en el buffer de
+ * entrada.
+ *
+ * @author sebastian.cardona-p
+ */
+final class BodyDecoder {
+
+    private static final int MAX_CHUNK_SIZE_DIGITS = 15;
+    private static final int MAX_TRAILER_SIZE = 8 * 1024;
+
+    private enum State {
+        SIZE, EXTENSION, SIZE_LF, DATA, DATA_CR, DATA_LF, TRAILER, TRAILER_LF, DONE
+    }
+
+    private final boolean chunked;
+    private State state;
+    // Bytes que faltan del cuerpo (Content-Length) o del chunk actual
+    private long remaining;
+    private int sizeDigits;
+    private int trailerSize;
+    private int trailerLineLength;
+
+    private BodyDecoder(boolean chunked, long contentLength) {
+        this.chunked = chunked;
+        this.remaining = contentLength;
+        this.state = chunked ? State.SIZE : contentLength > 0 ? State.DATA : State.DONE;
+    }
+
+    /**
+     * Decodificador para el cuerpo de la solicitud
+     *
+     * @return el decodificador, o null si la solicitud no tiene cuerpo
+     */
+    static BodyDecoder forRequest(HttpRequest request) {
+        if (request.isChunked()) {
+            return new BodyDecoder(true, 0);
+        }
+        long contentLength = request.getContentLength();
+        return contentLength > 0 ? new BodyDecoder(false, contentLength) : null;
+    }
+
+    /**
+     * Tamaño del cuerpo según Content-Length, o -1 si va por chunks
+     */
+    long contentLength() {
+        return chunked ? -1 : remaining;
+    }
+
+    boolean isFinished() {
+        return state == State.DONE;
+    }
+
+    /**
+     * Consume bytes de {@code in} y copia el contenido decodificado a
+     * {@code out} hasta que se agote la entrada, se llene la salida o
+     * termine el cuerpo
+     *
+     * @return bytes copiados a {@code out}
+     * @throws IOException si el cuerpo chunked está mal formado
+     */
+    int decode(ByteBuffer in, ByteBuffer out) throws IOException {
+        int copied = 0;
+        while (in.hasRemaining() && state != State.DONE) {
+            if (state == State.DATA) {
+                if (!out.hasRemaining()) {
+                    break;
+                }
+                int n = (int) Math.min(remaining, Math.min(in.remaining(), out.remaining()));
+                ByteBuffer slice = in.slice(in.position(), n);
+                out.put(slice);
+                in.position(in.position() + n);
+                copied += n;
+                remaining -= n;
+                if (remaining == 0) {
+                    state = chunked ? State.DATA_CR : State.DONE;
+                }
+                continue;
+            }
+            byte b = in.get();
+            switch (state) {
+                case SIZE -> {
+                    int digit = Character.digit(b, 16);
+                    if (digit >= 0) {
+                        if (++sizeDigits > MAX_CHUNK_SIZE_DIGITS) {
+                            throw malformed("Chunk size too large");
+                        }
+                        remaining = remaining * 16 + digit;
+                    } else if (sizeDigits == 0) {
+                        throw malformed("Missing chunk size");
+                    } else if (b == ';' || b == ' ' || b == '\t') {
+                        state = State.EXTENSION;
+                    } else if (b == '\r') {
+                        state = State.SIZE_LF;
+                    } else {
+                        throw malformed("Invalid chunk size");
+                    }
+                }
+                case EXTENSION -> {
+                    // Las extensiones de chunk se ignoran
+                    if (b == '\r') {
+                        state = State.SIZE_LF;
+                    }
+                }
+                case SIZE_LF -> {
+                    expect(b, '\n');
+                    sizeDigits = 0;
+                    state = remaining == 0 ? State.TRAILER : State.DATA;
+                }
+                case DATA_CR -> {
+                    expect(b, '\r');
+                    state = State.DATA_LF;
+                }
+                case DATA_LF -> {
+                    expect(b, '\n');
+                    state = State.SIZE;
+                }
+                case TRAILER -> {
+                    if (++trailerSize > MAX_TRAILER_SIZE) {
+                        throw malformed("Trailer too large");
+                    }
+                    if (b == '\r') {
+                        state = State.TRAILER_LF;
+                    } else {
+                        trailerLineLength++;
+                    }
+                }
+                case TRAILER_LF -> {
+                    expect(b, '\n');
+                    // Una línea vacía termina los trailers (que se ignoran)
+                    state = trailerLineLength == 0 ? State.DONE : State.TRAILER;
+                    trailerLineLength = 0;
+                }
+                default -> throw new IllegalStateException("Unknown state " + state);
+            }
+        }
+        return copied;
+    }
+
+    private static void expect(byte actual, char expected) throws IOException {
+        if (actual != expected) {
+            throw malformed("Expected " + (expected == '\n' ? "LF" : "CR"));
+        }
+    }
+
+    private static IOException malformed(String message) {
+        return new IOException("Malformed chunked body: " + message);
+    }
+}
@@ -0,0 +1,127 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Interpretación del header Range (solo unidades "bytes")
+ *
+ * @author sebastian.cardona-p
+ */
+final class ByteRanges {
+
+    // Más rangos que esto (ya unidos) se atienden con el archivo completo
+    static final int MAX_RANGES = 16;
+
+    private ByteRanges() {
+    }
+
+    /**
+     * Rango de bytes con extremos inclusivos
+     */
+    record Range(long start, long end) {
+
+        long length() {
+            return end - start + 1;
+        }
+
+        String contentRange(long size) {
+            return "bytes " + start + "-" + end + "/" + size;
+        }
+    }
+
+    /**
+     * Interpreta el header Range para un archivo de {@code size} bytes. Los
+     * rangos que se solapan o son contiguos se unen y se ordenan.
+     *
+     * @param header valor del header Range
+     * @param size tamaño del archivo
+     * @return los rangos a enviar; lista vacía si ninguno es satisfacible
+     *         (416); null si el header no es válido o pide demasiados rangos
+     *         y se debe enviar el archivo completo
+     */
+    static List<Range> parse(String header, long size) {
+        if (!header.startsWith("bytes=")) {
+            return null;
+        }
+        String[] specs = header.substring(6).split(",");
+        List<Range> ranges = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            String s = spec.trim();
+            int dash = s.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            long first;
+            long last;
+            try {
+                if (dash == 0) {
+                    // Sufijo: los últimos N bytes
+                    long suffix = Long.parseLong(s.substring(1));
+                    if (suffix <= 0) {
+                        continue;
+                    }
+                    first = Math.max(0, size - suffix);
+                    last = size - 1;
+                } else {
+                    first = Long.parseLong(s.substring(0, dash));
+                    last = dash == s.length() - 1 ? Long.MAX_VALUE : Long.parseLong(s.substring(dash + 1));
+                    if (last < first) {
+                        return null;
+                    }
+                    last = Math.min(last, size - 1);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (first < 0) {
+                return null;
+            }
+            if (first < size) {
+                ranges.add(new Range(first, last));
+            }
+        }
+        return coalesce(ranges);
+    }
+
+    private static List<Range> coalesce(List<Range> ranges) {
+        if (ranges.size() <= 1) {
+            return ranges;
+        }
+        ranges.sort(Comparator.comparingLong(Range::start));
+        List<Range> merged = new ArrayList<>(ranges.size());
+        Range current = ranges.get(0);
+        for (int i = 1; i < ranges.size(); i++) {
+            Range next = ranges.get(i);
+            if (next.start() <= current.end() + 1) {
+                current = new Range(current.start(), Math.max(current.end(), next.end()));
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged.size() > MAX_RANGES ? null : merged;
+    }
+
+    /**
+     * Evalúa If-Range: el rango solo aplica si el validador coincide
+     * exactamente (ETag fuerte o fecha de modificación)
+     *
+     * @param ifRange valor del header, o cadena vacía
+     * @param etag ETag actual del archivo
+     * @param lastModified fecha de modificación del archivo en milisegundos
+     */
+    static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange.isEmpty()) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            return value.equals(etag);
+        }
+        long date = ConditionalRequest.parseDate(value);
+        return date >= 0 && date / 1000 == lastModified / 1000;
+    }
+}
@@ -0,0 +1,304 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.BaseStream;
+
+/**
+ * Cuerpo de respuesta que produce un controlador por partes: un
+ * {@code Stream}, un {@code Iterator} o un {@code Flow.Publisher}. Cada
+ * elemento se envía como un chunk (byte[] y ByteBuffer tal cual, el resto
+ * con String.valueOf en UTF-8) y solo se pide el siguiente cuando el
+ * anterior ya se pudo escribir, así que el socket regula al productor.
+ *
+ * @author sebastian.cardona-p
+ */
+abstract class ChunkedBody implements AutoCloseable {
+
+    // Elementos que se piden a un Publisher por adelantado
+    static final int PUBLISHER_WINDOW = 16;
+
+    /**
+     * Cuerpo para el valor retornado por un controlador
+     *
+     * @return el cuerpo, o null si el valor no se envía por partes
+     */
+    static ChunkedBody of(Object result) {
+        if (result instanceof BaseStream<?, ?> stream) {
+            return new IteratorBody(stream.iterator(), stream);
+        }
+        if (result instanceof Iterator<?> iterator) {
+            return new IteratorBody(iterator, null);
+        }
+        if (result instanceof Flow.Publisher<?> publisher) {
+            PublisherBody body = new PublisherBody();
+            publisher.subscribe(body);
+            return body;
+        }
+        return null;
+    }
+
+    /**
+     * Siguiente elemento sin bloquear
+     *
+     * @return el elemento, o null si el productor aún no tiene uno o ya
+     * terminó (ver {@link #isDone()})
+     * @throws IOException si el productor falló
+     */
+    abstract ByteBuffer poll() throws IOException;
+
+    /**
+     * Siguiente elemento, esperando al productor si hace falta
+     *
+     * @return el elemento, o null si el productor terminó
+     * @throws IOException si el productor falló
+     */
+    abstract ByteBuffer take() throws IOException;
+
+    /**
+     * Indica si el productor terminó y ya se entregaron todos sus elementos
+     */
+    abstract boolean isDone();
+
+    /**
+     * Registra una acción que se ejecuta (en el hilo del productor) cada vez
+     * que hay un elemento nuevo después de que {@link #poll()} retornó null
+     */
+    void onReady(Runnable listener) {
+    }
+
+    /**
+     * Libera el productor, por ejemplo si la conexión se cerró antes de terminar
+     */
+    @Override
+    public abstract void close();
+
+    /**
+     * Escribe todos los elementos como chunks, bloqueando mientras el
+     * socket o el productor no estén listos. El socket se vacía después
+     * del primer chunk y cada vez que hay que esperar al productor.
+     *
+     * @param out stream de la conexión, después de los headers
+     * @param framed false para HTTP/1.0 (sin formato de chunks)
+     */
+    void writeTo(OutputStream out, boolean framed) throws IOException {
+        ChunkedOutputStream chunks = new ChunkedOutputStream(out, framed);
+        try {
+            boolean first = true;
+            while (true) {
+                ByteBuffer data = poll();
+                if (data == null) {
+                    if (isDone()) {
+                        break;
+                    }
+                    chunks.flush();
+                    data = take();
+                    if (data == null) {
+                        break;
+                    }
+                }
+                chunks.write(data);
+                if (first) {
+                    chunks.flush();
+                    first = false;
+                }
+            }
+            chunks.finish();
+        } finally {
+            close();
+        }
+    }
+
+    static ByteBuffer toBuffer(Object element) {
+        if (element instanceof byte[] bytes) {
+            return ByteBuffer.wrap(bytes);
+        }
+        if (element instanceof ByteBuffer buffer) {
+            return buffer;
+        }
+        return ByteBuffer.wrap(String.valueOf(element).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Elementos de un Iterator o Stream, que se piden en el hilo que escribe
+     */
+    private static final class IteratorBody extends ChunkedBody {
+
+        private final Iterator<?> iterator;
+        private final AutoCloseable resource;
+        private boolean done = false;
+
+        IteratorBody(Iterator<?> iterator, AutoCloseable resource) {
+            this.iterator = iterator;
+            this.resource = resource;
+        }
+
+        @Override
+        ByteBuffer poll() throws IOException {
+            while (!done) {
+                Object element;
+                try {
+                    if (!iterator.hasNext()) {
+                        done = true;
+                        break;
+                    }
+                    element = iterator.next();
+                } catch (RuntimeException e) {
+                    throw new IOException("Response stream failed", e);
+                }
+                ByteBuffer data = toBuffer(element);
+                if (data.hasRemaining()) {
+                    return data;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        ByteBuffer take() throws IOException {
+            return poll();
+        }
+
+        @Override
+        boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public void close() {
+            done = true;
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    // Ignorar: el cuerpo ya no se usa
+                }
+            }
+        }
+    }
+
+    /**
+     * Elementos de un Flow.Publisher. Se piden {@link #PUBLISHER_WINDOW}
+     * al suscribirse y uno más por cada elemento que se consume, así que
+     * nunca hay más de esa cantidad esperando en memoria.
+     */
+    private static final class PublisherBody extends ChunkedBody implements Flow.Subscriber<Object> {
+
+        private static final Object COMPLETE = new Object();
+
+        private record Failure(Throwable error) {
+        }
+
+        private final LinkedBlockingQueue<Object> items = new LinkedBlockingQueue<>();
+        private volatile Flow.Subscription subscription;
+        private volatile Runnable listener;
+        private volatile boolean closed = false;
+        private boolean done = false;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (closed) {
+                subscription.cancel();
+            } else {
+                subscription.request(PUBLISHER_WINDOW);
+            }
+        }
+
+        @Override
+        public void onNext(Object item) {
+            signal(item);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            signal(new Failure(error));
+        }
+
+        @Override
+        public void onComplete() {
+            signal(COMPLETE);
+        }
+
+        private void signal(Object item) {
+            items.add(item);
+            Runnable ready = listener;
+            if (ready != null) {
+                ready.run();
+            }
+        }
+
+        @Override
+        void onReady(Runnable listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        ByteBuffer poll() throws IOException {
+            while (!done) {
+                Object item = items.poll();
+                if (item == null) {
+                    return null;
+                }
+                ByteBuffer data = consume(item);
+                if (data != null && data.hasRemaining()) {
+                    return data;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        ByteBuffer take() throws IOException {
+            while (!done) {
+                Object item;
+                try {
+                    item = items.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for the publisher");
+                }
+                ByteBuffer data = consume(item);
+                if (data != null && data.hasRemaining()) {
+                    return data;
+                }
+            }
+            return null;
+        }
+
+        private ByteBuffer consume(Object item) throws IOException {
+            if (item == COMPLETE) {
+                done = true;
+                return null;
+            }
+            if (item instanceof Failure failure) {
+                done = true;
+                throw new IOException("Response publisher failed", failure.error());
+            }
+            subscription.request(1);
+            return toBuffer(item);
+        }
+
+        @Override
+        boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            done = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+            items.clear();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escribe el cuerpo de una respuesta con Transfer-Encoding: chunked: cada
+ * escritura es un chunk y {@link #finish()} envía el chunk final. Para
+ * clientes HTTP/1.0, que no entienden chunks, escribe los bytes sin
+ * formato y el cuerpo termina al cerrar la conexión.
+ *
+ * @author sebastian.cardona-p
+ */
+final class ChunkedOutputStream extends OutputStream {
+
+    static final byte[] CRLF = {'\r', '\n'};
+    static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final boolean framed;
+    private final byte[] copyBuffer = new byte[8 * 1024];
+    private boolean finished = false;
+
+    /**
+     * @param out stream de la conexión
+     * @param framed false para enviar los bytes sin formato (HTTP/1.0)
+     */
+    ChunkedOutputStream(OutputStream out, boolean framed) {
+        this.out = out;
+        this.framed = framed;
+    }
+
+    boolean isFramed() {
+        return framed;
+    }
+
+    /**
+     * Línea con el tamaño de un chunk, por ejemplo "1f40\r\n"
+     */
+    static byte[] sizeLine(int size) {
+        return (Integer.toHexString(size) + "\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("Chunked body already finished");
+        }
+        // Un chunk vacío terminaría el cuerpo
+        if (len == 0) {
+            return;
+        }
+        if (framed) {
+            out.write(sizeLine(len));
+        }
+        out.write(b, off, len);
+        if (framed) {
+            out.write(CRLF);
+        }
+    }
+
+    /**
+     * Escribe el contenido del buffer como un chunk
+     */
+    void write(ByteBuffer data) throws IOException {
+        if (data.hasArray()) {
+            write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            data.position(data.limit());
+            return;
+        }
+        if (!data.hasRemaining()) {
+            return;
+        }
+        if (framed) {
+            out.write(sizeLine(data.remaining()));
+        }
+        while (data.hasRemaining()) {
+            int n = Math.min(copyBuffer.length, data.remaining());
+            data.get(copyBuffer, 0, n);
+            out.write(copyBuffer, 0, n);
+        }
+        if (framed) {
+            out.write(CRLF);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Envía el chunk final. No cierra la conexión.
+     */
+    void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            if (framed) {
+                out.write(LAST_CHUNK);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+}
@@ -0,0 +1,310 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Exploración del classpath que detecta una anotación de clase leyendo
+ * directamente los bytes del .class, sin cargar ni inicializar la clase.
+ * Los directorios y las entradas de los JAR se reparten en un ForkJoinPool;
+ * solo las clases que tienen la anotación se cargan después con
+ * Class.forName.
+ *
+ * @author sebastian.cardona-p
+ */
+final class ClassScanner {
+
+    // Entradas de JAR que procesa cada tarea sin dividirse
+    private static final int JAR_CHUNK = 64;
+
+    private static final byte[] RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations".getBytes(StandardCharsets.UTF_8);
+
+    // Descriptor de la anotación, por ejemplo "Lpaquete/RestController;"
+    private final byte[] annotationBytes;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param annotation anotación a buscar; debe tener retención RUNTIME
+     */
+    ClassScanner(Class<?> annotation) {
+        this(annotation, ForkJoinPool.commonPool());
+    }
+
+    ClassScanner(Class<?> annotation, ForkJoinPool pool) {
+        this.annotationBytes = ("L" + annotation.getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+        this.pool = pool;
+    }
+
+    /**
+     * Busca en el classpath las clases del paquete (y subpaquetes) que
+     * tienen la anotación
+     *
+     * @param classLoader class loader a explorar
+     * @param packageName paquete raíz
+     * @return nombres binarios de las clases encontradas
+     * @throws IOException si no se pueden listar los recursos del paquete
+     */
+    Set<String> scan(ClassLoader classLoader, String packageName) throws IOException {
+        String path = packageName.replace('.', '/');
+        Set<String> classNames = new HashSet<>();
+        Enumeration<URL> resources = classLoader.getResources(path);
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            if (resource.getProtocol().equals("file")) {
+                File directory = new File(URI.create(resource.toString()));
+                classNames.addAll(pool.invoke(new DirectoryTask(directory, packageName)));
+            } else if (resource.getProtocol().equals("jar")) {
+                classNames.addAll(scanJar(resource, path));
+            }
+        }
+        return classNames;
+    }
+
+    private List<String> scanJar(URL jarUrl, String path) throws IOException {
+        // jar:file:/ruta/archivo.jar!/paquete
+        String jarPath = jarUrl.getPath().substring(0, jarUrl.getPath().indexOf("!"));
+        try (JarFile jarFile = new JarFile(new File(URI.create(jarPath)))) {
+            List<JarEntry> candidates = new ArrayList<>();
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (entry.getName().endsWith(".class") && entry.getName().startsWith(path)) {
+                    candidates.add(entry);
+                }
+            }
+            return pool.invoke(new JarTask(jarFile, candidates, 0, candidates.size()));
+        }
+    }
+
+    /**
+     * Explora un directorio; cada subdirectorio es una subtarea
+     */
+    private final class DirectoryTask extends RecursiveTask<List<String>> {
+
+        private final File directory;
+        private final String packageName;
+
+        DirectoryTask(File directory, String packageName) {
+            this.directory = directory;
+            this.packageName = packageName;
+        }
+
+        @Override
+        protected List<String> compute() {
+            File[] files = directory.listFiles();
+            if (files == null) {
+                return Collections.emptyList();
+            }
+            List<DirectoryTask> subtasks = new ArrayList<>();
+            List<String> found = new ArrayList<>();
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    DirectoryTask subtask = new DirectoryTask(file, packageName + "." + file.getName());
+                    subtask.fork();
+                    subtasks.add(subtask);
+                } else if (file.getName().endsWith(".class")) {
+                    try (InputStream in = Files.newInputStream(file.toPath())) {
+                        if (hasAnnotation(in)) {
+                            found.add(packageName + '.' + file.getName().substring(0, file.getName().length() - 6));
+                        }
+                    } catch (IOException e) {
+                        // Ignorar archivos que no se pueden leer
+                    }
+                }
+            }
+            for (DirectoryTask subtask : subtasks) {
+                found.addAll(subtask.join());
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Explora un rango de entradas de un JAR, dividiéndolo por mitades
+     */
+    private final class JarTask extends RecursiveTask<List<String>> {
+
+        private final JarFile jarFile;
+        private final List<JarEntry> entries;
+        private final int from;
+        private final int to;
+
+        JarTask(JarFile jarFile, List<JarEntry> entries, int from, int to) {
+            this.jarFile = jarFile;
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<String> compute() {
+            if (to - from > JAR_CHUNK) {
+                int middle = (from + to) >>> 1;
+                JarTask left = new JarTask(jarFile, entries, from, middle);
+                left.fork();
+                List<String> found = new JarTask(jarFile, entries, middle, to).compute();
+                found.addAll(left.join());
+                return found;
+            }
+            List<String> found = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                JarEntry entry = entries.get(i);
+                try (InputStream in = jarFile.getInputStream(entry)) {
+                    if (hasAnnotation(in)) {
+                        String name = entry.getName();
+                        found.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                    }
+                } catch (IOException e) {
+                    // Ignorar entradas que no se pueden leer
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Lee el class file hasta los atributos de la clase y revisa si
+     * RuntimeVisibleAnnotations contiene la anotación buscada. Si el
+     * descriptor de la anotación no aparece en el pool de constantes se
+     * descarta sin leer el resto.
+     */
+    boolean hasAnnotation(InputStream classFile) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(classFile.readAllBytes());
+        try {
+            return hasAnnotation(in);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            // Class file truncado o mal formado
+            return false;
+        }
+    }
+
+    private boolean hasAnnotation(ByteBuffer in) {
+        if (in.getInt() != 0xCAFEBABE) {
+            return false;
+        }
+        in.position(in.position() + 4); // minor_version, major_version
+
+        int constantCount = in.getShort() & 0xFFFF;
+        // Posición de cada constante Utf8 (en su campo de longitud)
+        int[] utf8 = new int[constantCount];
+        boolean referenced = false;
+        for (int i = 1; i < constantCount; i++) {
+            int tag = in.get();
+            switch (tag) {
+                case 1 -> {
+                    utf8[i] = in.position();
+                    int length = in.getShort() & 0xFFFF;
+                    referenced |= equalsUtf8(in, utf8[i], annotationBytes);
+                    in.position(in.position() + length);
+                }
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> in.position(in.position() + 4);
+                case 5, 6 -> {
+                    in.position(in.position() + 8);
+                    i++;
+                }
+                case 7, 8, 16, 19, 20 -> in.position(in.position() + 2);
+                case 15 -> in.position(in.position() + 3);
+                default -> {
+                    return false;
+                }
+            }
+        }
+        if (!referenced) {
+            return false;
+        }
+
+        in.position(in.position() + 6); // access_flags, this_class, super_class
+        int interfaces = in.getShort() & 0xFFFF;
+        in.position(in.position() + 2 * interfaces);
+        skipMembers(in); // fields
+        skipMembers(in); // methods
+
+        int attributes = in.getShort() & 0xFFFF;
+        for (int a = 0; a < attributes; a++) {
+            int name = in.getShort() & 0xFFFF;
+            int length = in.getInt();
+            int end = in.position() + length;
+            if (equalsUtf8(in, utf8[name], RUNTIME_VISIBLE_ANNOTATIONS)) {
+                int annotations = in.getShort() & 0xFFFF;
+                for (int n = 0; n < annotations; n++) {
+                    if (equalsUtf8(in, utf8[in.getShort(in.position()) & 0xFFFF], annotationBytes)) {
+                        return true;
+                    }
+                    skipAnnotation(in);
+                }
+            }
+            in.position(end);
+        }
+        return false;
+    }
+
+    private static void skipMembers(ByteBuffer in) {
+        int count = in.getShort() & 0xFFFF;
+        for (int m = 0; m < count; m++) {
+            in.position(in.position() + 6); // access_flags, name_index, descriptor_index
+            int attributes = in.getShort() & 0xFFFF;
+            for (int a = 0; a < attributes; a++) {
+                in.position(in.position() + 2);
+                int length = in.getInt();
+                in.position(in.position() + length);
+            }
+        }
+    }
+
+    private static void skipAnnotation(ByteBuffer in) {
+        in.position(in.position() + 2); // type_index
+        int pairs = in.getShort() & 0xFFFF;
+        for (int p = 0; p < pairs; p++) {
+            in.position(in.position() + 2); // element_name_index
+            skipElementValue(in);
+        }
+    }
+
+    private static void skipElementValue(ByteBuffer in) {
+        int tag = in.get();
+        switch (tag) {
+            case 'e' -> in.position(in.position() + 4);
+            case '@' -> skipAnnotation(in);
+            case '[' -> {
+                int values = in.getShort() & 0xFFFF;
+                for (int v = 0; v < values; v++) {
+                    skipElementValue(in);
+                }
+            }
+            default -> in.position(in.position() + 2);
+        }
+    }
+
+    /**
+     * Compara la constante Utf8 que empieza en {@code offset} con los bytes
+     * dados, sin crear un String
+     */
+    private static boolean equalsUtf8(ByteBuffer in, int offset, byte[] expected) {
+        if (offset == 0 || (in.getShort(offset) & 0xFFFF) != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (in.get(offset + 2 + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,85 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Evaluación de If-None-Match / If-Modified-Since y formato de fechas HTTP
+ *
+ * @author sebastian.cardona-p
+ */
+final class ConditionalRequest {
+
+    // IMF-fixdate: el día siempre con dos dígitos, a diferencia de RFC_1123_DATE_TIME
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+            .withZone(ZoneOffset.UTC);
+
+    private ConditionalRequest() {
+    }
+
+    /**
+     * Formatea una fecha para headers como Last-Modified
+     */
+    static String formatDate(long millis) {
+        return HTTP_DATE.format(Instant.ofEpochMilli(millis));
+    }
+
+    /**
+     * Interpreta una fecha HTTP
+     *
+     * @return milisegundos desde epoch, o -1 si la fecha no es válida
+     */
+    static long parseDate(String value) {
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Indica si se puede responder 304 Not Modified. Si la solicitud trae
+     * If-None-Match se ignora If-Modified-Since.
+     *
+     * @param request
+     * @param etag ETag de la representación que se enviaría
+     * @param lastModified fecha de modificación del archivo en milisegundos
+     */
+    static boolean isNotModified(HttpRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (!ifNoneMatch.isEmpty()) {
+            return matches(ifNoneMatch, etag);
+        }
+        String ifModifiedSince = request.getHeader("If-Modified-Since");
+        if (ifModifiedSince.isEmpty()) {
+            return false;
+        }
+        long since = parseDate(ifModifiedSince);
+        // Las fechas HTTP tienen resolución de segundos
+        return since >= 0 && lastModified / 1000 <= since / 1000;
+    }
+
+    /**
+     * Comparación débil de If-None-Match: se ignora el prefijo W/
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        for (String token : ifNoneMatch.split(",")) {
+            String candidate = token.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
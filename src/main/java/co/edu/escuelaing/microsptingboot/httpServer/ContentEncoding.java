@@ -0,0 +1,109 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Negociación y compresión de Content-Encoding (gzip y deflate)
+ *
+ * @author sebastian.cardona-p
+ */
+final class ContentEncoding {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+    static final int DEFAULT_MIN_SIZE = 1024;
+
+    private ContentEncoding() {
+    }
+
+    /**
+     * Elige la codificación según el header Accept-Encoding. Se prefiere
+     * gzip; una codificación con q=0 no se acepta.
+     *
+     * @param acceptEncoding valor del header, o cadena vacía
+     * @return GZIP, DEFLATE o null si solo se acepta identity
+     */
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        boolean gzip = false;
+        boolean deflate = false;
+        boolean wildcard = false;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    accepted = !isZero(param.substring(2).trim());
+                }
+            }
+            switch (coding) {
+                case GZIP, "x-gzip" -> gzip = accepted;
+                case DEFLATE -> deflate = accepted;
+                case "*" -> wildcard = accepted;
+                default -> {
+                }
+            }
+        }
+        if (gzip || wildcard) {
+            return GZIP;
+        }
+        return deflate ? DEFLATE : null;
+    }
+
+    private static boolean isZero(String q) {
+        try {
+            return Double.parseDouble(q) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Indica si vale la pena comprimir el tipo de contenido. Las imágenes
+     * PNG/JPG ya están comprimidas.
+     */
+    static boolean isCompressible(String contentType) {
+        return contentType.startsWith("text/")
+                || contentType.startsWith("application/json")
+                || contentType.startsWith("application/javascript")
+                || contentType.startsWith("image/svg+xml");
+    }
+
+    /**
+     * Comprime el contenido con la codificación indicada
+     */
+    static byte[] encode(byte[] body, String encoding) {
+        return encode(body, 0, body.length, encoding);
+    }
+
+    /**
+     * Comprime una parte de un arreglo con la codificación indicada
+     */
+    static byte[] encode(byte[] body, int offset, int length, String encoding) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, length / 3));
+        try (DeflaterOutputStream out = encoder(compressed, encoding)) {
+            out.write(body, offset, length);
+        } catch (IOException e) {
+            // No ocurre al escribir en memoria
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Stream que comprime con la codificación indicada lo que se escribe en
+     * él; close() escribe el final del formato y cierra {@code out}
+     */
+    static DeflaterOutputStream encoder(OutputStream out, String encoding) throws IOException {
+        return GZIP.equals(encoding) ? new GZIPOutputStream(out) : new DeflaterOutputStream(out);
+    }
+}
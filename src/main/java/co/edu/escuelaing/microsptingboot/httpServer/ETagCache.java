@@ -0,0 +1,127 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ETags fuertes calculados con un hash del contenido. Para los archivos que
+ * no pasan por la caché de estáticos (imágenes) el hash se guarda por ruta y
+ * solo se recalcula cuando cambian la fecha de modificación o el tamaño; los
+ * de más de MAX_HASHED_SIZE usan esos dos atributos en lugar del hash.
+ *
+ * @author sebastian.cardona-p
+ */
+final class ETagCache {
+
+    static final int DEFAULT_MAX_FILES = 1024;
+    // Archivos más grandes usan fromAttributes: hashearlos bloquearía al hilo que atiende la solicitud
+    static final long MAX_HASHED_SIZE = 256 * 1024;
+    private static final int HASH_BYTES = 16;
+    private static final int READ_CHUNK = 64 * 1024;
+
+    private final Map<Path, Tag> tags;
+
+    ETagCache() {
+        this(DEFAULT_MAX_FILES);
+    }
+
+    ETagCache(int maxFiles) {
+        // LRU: se descarta el ETag usado hace más tiempo
+        this.tags = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Tag> eldest) {
+                return size() > maxFiles;
+            }
+        };
+    }
+
+    private record Tag(long lastModified, long size, String etag) {
+    }
+
+    /**
+     * ETag del contenido dado, entre comillas
+     */
+    static String compute(byte[] content) {
+        MessageDigest digest = newDigest();
+        digest.update(content);
+        return format(digest.digest());
+    }
+
+    /**
+     * ETag de un archivo armado con su fecha de modificación y su tamaño,
+     * para archivos que no conviene leer completos solo para el hash
+     */
+    static String fromAttributes(long lastModified, long size) {
+        return '"' + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + '"';
+    }
+
+    /**
+     * ETag de una representación codificada: cada codificación es una
+     * representación distinta y necesita su propio ETag fuerte
+     *
+     * @param etag ETag de la versión sin codificar
+     * @param encoding codificación, o null para la versión sin codificar
+     */
+    static String forEncoding(String etag, String encoding) {
+        return encoding == null ? etag : etag.substring(0, etag.length() - 1) + "-" + encoding + '"';
+    }
+
+    /**
+     * Obtiene el ETag de un archivo; lo calcula leyéndolo por bloques solo
+     * si no está en caché o si cambió.
+     *
+     * @param file archivo
+     * @param lastModified fecha de modificación conocida del archivo
+     * @param size tamaño conocido del archivo
+     * @return el ETag entre comillas
+     * @throws IOException si el archivo no se puede leer
+     */
+    String get(Path file, long lastModified, long size) throws IOException {
+        synchronized (this) {
+            Tag tag = tags.get(file);
+            if (tag != null && tag.lastModified() == lastModified && tag.size() == size) {
+                return tag.etag();
+            }
+        }
+
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(READ_CHUNK, Math.max(size, 1)));
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        String etag = format(digest.digest());
+        synchronized (this) {
+            tags.put(file, new Tag(lastModified, size, etag));
+        }
+        return etag;
+    }
+
+    synchronized boolean contains(Path file) {
+        return tags.containsKey(file);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Toda JVM incluye SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String format(byte[] hash) {
+        return '"' + HexFormat.of().formatHex(hash, 0, HASH_BYTES) + '"';
+    }
+}
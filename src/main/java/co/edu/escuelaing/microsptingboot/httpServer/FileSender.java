@@ -0,0 +1,112 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Envía archivos sin pasar los bytes por el heap. Los archivos de hasta
+ * {@code mappedThreshold} bytes se mapean en memoria y el mapeo se reutiliza
+ * mientras el archivo no cambie (archivos pequeños y consultados con
+ * frecuencia); los más grandes se envían con FileChannel.transferTo.
+ *
+ * @author sebastian.cardona-p
+ */
+final class FileSender {
+
+    static final long DEFAULT_MAPPED_THRESHOLD = 1024 * 1024;
+    static final int DEFAULT_MAX_MAPPED_FILES = 64;
+
+    private final long mappedThreshold;
+    private final int maxMappedFiles;
+    private final Map<Path, Mapping> mappings;
+
+    FileSender() {
+        this(DEFAULT_MAPPED_THRESHOLD, DEFAULT_MAX_MAPPED_FILES);
+    }
+
+    FileSender(long mappedThreshold, int maxMappedFiles) {
+        // Un mapeo no puede pasar de Integer.MAX_VALUE bytes; más allá se usa transferTo
+        this.mappedThreshold = Math.min(mappedThreshold, Integer.MAX_VALUE);
+        this.maxMappedFiles = maxMappedFiles;
+        // LRU: se descarta el mapeo usado hace más tiempo
+        this.mappings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Mapping> eldest) {
+                return size() > FileSender.this.maxMappedFiles;
+            }
+        };
+    }
+
+    private record Mapping(long lastModified, long size, MappedByteBuffer buffer) {
+    }
+
+    /**
+     * Envía una región de un archivo
+     *
+     * @param out stream de la respuesta; si implementa {@link ResponseSink} no hay copia al heap
+     * @param file archivo a enviar
+     * @param lastModified fecha de modificación conocida del archivo
+     * @param size tamaño conocido del archivo
+     * @param position byte inicial
+     * @param count número de bytes
+     * @throws IOException
+     */
+    void send(OutputStream out, Path file, long lastModified, long size, long position, long count) throws IOException {
+        if (size <= mappedThreshold) {
+            ByteBuffer region = mapping(file, lastModified, size).slice((int) position, (int) count);
+            if (out instanceof ResponseSink sink) {
+                sink.sendBuffer(region);
+            } else {
+                WritableByteChannel channel = Channels.newChannel(out);
+                while (region.hasRemaining()) {
+                    channel.write(region);
+                }
+            }
+        } else if (out instanceof ResponseSink sink) {
+            sink.sendFile(file, position, count);
+        } else {
+            try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                WritableByteChannel channel = Channels.newChannel(out);
+                long sent = 0;
+                while (sent < count) {
+                    long transferred = fileChannel.transferTo(position + sent, count - sent, channel);
+                    if (transferred <= 0) {
+                        throw new IOException("File shorter than announced: " + file);
+                    }
+                    sent += transferred;
+                }
+            }
+        }
+    }
+
+    synchronized boolean isMapped(Path file) {
+        return mappings.containsKey(file);
+    }
+
+    private MappedByteBuffer mapping(Path file, long lastModified, long size) throws IOException {
+        synchronized (this) {
+            Mapping mapping = mappings.get(file);
+            if (mapping != null && mapping.lastModified() == lastModified && mapping.size() == size) {
+                return mapping.buffer();
+            }
+        }
+
+        MappedByteBuffer buffer;
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        synchronized (this) {
+            mappings.put(file, new Mapping(lastModified, size, buffer));
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,94 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Stream de respuesta para solicitudes HEAD. Deja pasar los headers que
+ * arman los manejadores de GET, incluido Content-Length, y descarta todo
+ * lo que se escriba después de la línea vacía que los termina: en una
+ * conexión persistente el cliente no espera cuerpo y tomaría esos bytes
+ * como el inicio de la siguiente respuesta. Los archivos y buffers no se
+ * leen y los cuerpos por partes se cierran sin pedir elementos.
+ *
+ * @author sebastian.cardona-p
+ */
+final class HeadResponseStream extends OutputStream implements ResponseSink {
+
+    private static final byte[] HEADERS_END = {'\r', '\n', '\r', '\n'};
+
+    private final OutputStream out;
+    // Bytes de "\r\n\r\n" ya vistos; al llegar a 4 empieza el cuerpo
+    private int matched;
+
+    HeadResponseStream(OutputStream out) {
+        this.out = out;
+    }
+
+    private boolean inBody() {
+        return matched == HEADERS_END.length;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (inBody()) {
+            return;
+        }
+        out.write(b);
+        advance((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (inBody()) {
+            return;
+        }
+        int end = off;
+        while (end < off + len && !inBody()) {
+            advance(b[end++]);
+        }
+        out.write(b, off, end - off);
+    }
+
+    private void advance(byte b) {
+        if (b == HEADERS_END[matched]) {
+            matched++;
+        } else {
+            matched = b == '\r' ? 1 : 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * No cierra la conexión: la siguiente solicitud la sigue usando
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    @Override
+    public void sendBuffer(ByteBuffer data) {
+        data.position(data.limit());
+    }
+
+    @Override
+    public void sendFile(Path file, long position, long count) {
+    }
+
+    @Override
+    public void sendStream(ChunkedBody body, boolean framed) {
+        body.close();
+    }
+
+    @Override
+    public long written() {
+        return out instanceof ResponseSink sink ? sink.written() : 0;
+    }
+}
@@ -0,0 +1,24 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+/**
+ * Error al interpretar una solicitud HTTP. Incluye la línea de estado con
+ * la que se debe responder antes de cerrar la conexión.
+ *
+ * @author sebastian.cardona-p
+ */
+public class HttpParseException extends Exception {
+
+    private final String status;
+
+    public HttpParseException(String status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * Código y razón de la respuesta, por ejemplo "400 Bad Request"
+     */
+    public String getStatus() {
+        return status;
+    }
+}
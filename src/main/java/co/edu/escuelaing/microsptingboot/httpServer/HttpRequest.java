@@ -4,8 +4,12 @@
  */
 package co.edu.escuelaing.microsptingboot.httpServer;
 
+import java.io.InputStream;
 import java.net.URI;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -14,35 +18,347 @@ import java.util.Map;
  */
 public class HttpRequest {
 
-    URI reuestUri = null;
+    private final String method;
+    private final String path;
+    // Query sin decodificar, o null si la solicitud no tiene
+    private final String query;
+    private final String version;
+    // Nombres de header en minúscula
+    private final Map<String, String> headers;
+    private boolean keepAlive;
+    // Posiciones de cada parámetro en el query (inicio y fin del nombre y
+    // del valor); paramCount es -1 hasta parsearlos
+    private int[] paramBounds;
+    // Valores ya decodificados, en la misma posición que paramBounds
+    private String[] paramValues;
+    private int paramCount = -1;
+    // Variables de la ruta que coincidió, en arreglos paralelos
+    private String[] pathVariableNames;
+    private String[] pathVariableValues;
+    // Cuerpo decodificado; lo asigna el motor que atiende la conexión
+    private InputStream body;
+    // Código de la respuesta enviada y métricas de la ruta que la atendió
+    private int responseStatus;
+    private Metrics.Route routeMetrics;
+
     HttpRequest(URI requestUri) {
-        reuestUri = requestUri;
+        // toASCIIString escapa en UTF-8 los caracteres no ASCII, igual que un cliente HTTP
+        this("GET", requestUri.getPath(), URI.create(requestUri.toASCIIString()).getRawQuery(), "HTTP/1.1", Collections.emptyMap());
+    }
+
+    HttpRequest(String method, String path, String query, String version, Map<String, String> headers) {
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.version = version;
+        this.headers = headers;
+        this.keepAlive = defaultKeepAlive();
+    }
+
+    /**
+     * En HTTP/1.1 la conexión es persistente salvo "Connection: close";
+     * en HTTP/1.0 solo lo es si el cliente envía "Connection: keep-alive".
+     */
+    private boolean defaultKeepAlive() {
+        String connection = getHeader("Connection");
+        if ("HTTP/1.1".equals(version)) {
+            return !connection.equalsIgnoreCase("close");
+        }
+        return connection.equalsIgnoreCase("keep-alive");
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Query sin decodificar, o null si la solicitud no tiene
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Obtiene el valor de un header sin distinguir mayúsculas.
+     * Si el header no existe, retorna una cadena vacía.
+     *
+     * @param name Nombre del header
+     * @return Valor del header o cadena vacía si no existe
+     */
+    public String getHeader(String name) {
+        String value = headers.get(name.toLowerCase());
+        return value != null ? value : "";
+    }
+
+    /**
+     * Longitud del cuerpo según Content-Length, o 0 si no se indicó
+     *
+     * @throws NumberFormatException si el header no es un número
+     */
+    public long getContentLength() {
+        String contentLength = getHeader("Content-Length");
+        return contentLength.isEmpty() ? 0 : Long.parseLong(contentLength);
+    }
+
+    /**
+     * Indica si el cuerpo llega con Transfer-Encoding: chunked
+     */
+    public boolean isChunked() {
+        return getHeader("Transfer-Encoding").trim().equalsIgnoreCase("chunked");
+    }
+
+    /**
+     * Cuerpo de la solicitud ya decodificado (sin chunks). Se lee a medida
+     * que llega por la conexión, así que solo se puede consumir una vez.
+     *
+     * @return el cuerpo, o un stream vacío si la solicitud no tiene
+     */
+    public InputStream getBody() {
+        return body != null ? body : InputStream.nullInputStream();
+    }
+
+    void setBody(InputStream body) {
+        this.body = body;
+    }
+
+    int getResponseStatus() {
+        return responseStatus;
+    }
+
+    void setResponseStatus(int responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    Metrics.Route getRouteMetrics() {
+        return routeMetrics;
+    }
+
+    void setRouteMetrics(Metrics.Route routeMetrics) {
+        this.routeMetrics = routeMetrics;
+    }
+
+    /**
+     * Indica si la conexión debe seguir abierta después de responder
+     */
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Obtiene el valor de una variable de la ruta, por ejemplo {@code op}
+     * en {@code /calculate/{op}}. Si la variable no existe, retorna una
+     * cadena vacía.
+     *
+     * @param name Nombre de la variable
+     * @return Valor de la variable o cadena vacía si no existe
+     */
+    public String getPathVariable(String name) {
+        if (pathVariableNames != null) {
+            for (int i = 0; i < pathVariableNames.length; i++) {
+                if (name.equals(pathVariableNames[i])) {
+                    return pathVariableValues[i];
+                }
+            }
+        }
+        return "";
+    }
+
+    void setPathVariables(String[] names, String[] values) {
+        this.pathVariableNames = names;
+        this.pathVariableValues = values;
     }
 
-    
     /**
      * Obtiene el valor de un parámetro de consulta por su nombre.
-     * Si el parámetro no existe, retorna una cadena vacía.
+     * Si el parámetro no existe, retorna una cadena vacía. Si se repite,
+     * retorna el primer valor.
      *
      * @param paramName Nombre del parámetro a buscar
      * @return Valor del parámetro o cadena vacía si no existe
      */
     public String getValue(String paramName) {
-        String query = reuestUri.getQuery();
-        if (query == null) {
-            return "";
-        }
-        String[] queryParams = query.split("&");
-        Map<String, String> queryMap = new HashMap<>();
-        for (String param : queryParams) {
-            String[] nameValue = param.split("=");
-            if (nameValue.length == 2) {
-                queryMap.put(nameValue[0], nameValue[1]);
-            } else if (nameValue.length == 1) {
-                queryMap.put(nameValue[0], "");
+        int index = indexOf(paramName);
+        return index < 0 ? "" : valueAt(index);
+    }
+
+    /**
+     * Obtiene todos los valores de un parámetro que se repite en el query,
+     * en el orden en que aparecen.
+     *
+     * @param paramName Nombre del parámetro a buscar
+     * @return Valores del parámetro o lista vacía si no existe
+     */
+    public List<String> getValues(String paramName) {
+        parseQuery();
+        List<String> values = null;
+        for (int i = 0; i < paramCount; i++) {
+            if (nameMatches(i, paramName)) {
+                if (values == null) {
+                    values = new ArrayList<>(2);
+                }
+                values.add(valueAt(i));
             }
         }
+        return values == null ? Collections.emptyList() : Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Posición del primer parámetro con ese nombre, o -1 si no existe
+     */
+    int indexOf(String paramName) {
+        parseQuery();
+        for (int i = 0; i < paramCount; i++) {
+            if (nameMatches(i, paramName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Valor decodificado del parámetro en esa posición; se decodifica una
+     * sola vez
+     */
+    String valueAt(int index) {
+        String value = paramValues[index];
+        if (value == null) {
+            value = decode(query, paramBounds[4 * index + 2], paramBounds[4 * index + 3]);
+            paramValues[index] = value;
+        }
+        return value;
+    }
+
+    boolean isEmptyValue(int index) {
+        return paramBounds[4 * index + 2] == paramBounds[4 * index + 3];
+    }
 
-        return queryMap.get(paramName) != null ? queryMap.get(paramName) : "";
+    /**
+     * Valor del parámetro como int. Si no tiene escapes se lee
+     * directamente del query, sin crear un String.
+     *
+     * @throws NumberFormatException si el valor no es un entero
+     */
+    int intValueAt(int index) {
+        int from = paramBounds[4 * index + 2];
+        int to = paramBounds[4 * index + 3];
+        return isEscaped(query, from, to) ? Integer.parseInt(valueAt(index)) : Integer.parseInt(query, from, to, 10);
+    }
+
+    /**
+     * Igual que {@link #intValueAt(int)} para long
+     */
+    long longValueAt(int index) {
+        int from = paramBounds[4 * index + 2];
+        int to = paramBounds[4 * index + 3];
+        return isEscaped(query, from, to) ? Long.parseLong(valueAt(index)) : Long.parseLong(query, from, to, 10);
+    }
+
+    /**
+     * Compara el nombre del parámetro con el query sin decodificarlo,
+     * salvo que tenga escapes
+     */
+    private boolean nameMatches(int index, String paramName) {
+        if (paramName == null) {
+            return false;
+        }
+        int from = paramBounds[4 * index];
+        int to = paramBounds[4 * index + 1];
+        if (isEscaped(query, from, to)) {
+            return decode(query, from, to).equals(paramName);
+        }
+        return to - from == paramName.length() && query.regionMatches(from, paramName, 0, paramName.length());
+    }
+
+    /**
+     * Ubica los parámetros del query una sola vez, la primera vez que se
+     * consulta uno. Solo se guardan las posiciones: nombres y valores se
+     * decodifican cuando se necesitan.
+     */
+    private void parseQuery() {
+        if (paramCount >= 0) {
+            return;
+        }
+        paramCount = 0;
+        if (query == null || query.isEmpty()) {
+            return;
+        }
+
+        int capacity = 1;
+        for (int i = 0; i < query.length(); i++) {
+            if (query.charAt(i) == '&') {
+                capacity++;
+            }
+        }
+        paramBounds = new int[4 * capacity];
+        paramValues = new String[capacity];
+
+        int start = 0;
+        int equals = -1;
+        for (int i = 0; i <= query.length(); i++) {
+            char c = i < query.length() ? query.charAt(i) : '&';
+            if (c == '=' && equals < 0) {
+                equals = i;
+            } else if (c == '&') {
+                if (i > start) {
+                    int bounds = 4 * paramCount;
+                    paramBounds[bounds] = start;
+                    paramBounds[bounds + 1] = equals >= 0 ? equals : i;
+                    paramBounds[bounds + 2] = equals >= 0 ? equals + 1 : i;
+                    paramBounds[bounds + 3] = i;
+                    paramCount++;
+                }
+                start = i + 1;
+                equals = -1;
+            }
+        }
+    }
+
+    private static boolean isEscaped(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '+') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decodifica un segmento del query: %XX como bytes UTF-8 y '+' como
+     * espacio. Sin escapes retorna el substring directamente.
+     */
+    private static String decode(String value, int from, int to) {
+        if (!isEscaped(value, from, to)) {
+            return value.substring(from, to);
+        }
+
+        byte[] bytes = new byte[to - from];
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c == '+') {
+                bytes[length++] = ' ';
+            } else if (c == '%' && i + 2 < to
+                    && Character.digit(value.charAt(i + 1), 16) >= 0 && Character.digit(value.charAt(i + 2), 16) >= 0) {
+                bytes[length++] = (byte) (Character.digit(value.charAt(i + 1), 16) << 4 | Character.digit(value.charAt(i + 2), 16));
+                i += 2;
+            } else {
+                // El query llega como ISO-8859-1: cada char es un byte original
+                bytes[length++] = (byte) c;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
     }
 }
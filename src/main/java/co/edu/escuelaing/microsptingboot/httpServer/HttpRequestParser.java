@@ -0,0 +1,413 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parser incremental de solicitudes HTTP/1.x que trabaja directamente sobre
+ * bytes. Se le entregan los datos a medida que llegan del socket y conserva
+ * su estado entre llamadas, por lo que una solicitud puede llegar partida en
+ * varios segmentos TCP. Solo crea Strings para el path, el query y los
+ * valores de header; el método, la versión y los nombres de header comunes
+ * se resuelven a constantes.
+ *
+ * Una instancia se usa por conexión y se reutiliza para las solicitudes
+ * siguientes. El cuerpo no se consume: al retornar una solicitud el buffer
+ * queda posicionado al inicio del cuerpo.
+ *
+ * @author sebastian.cardona-p
+ */
+public class HttpRequestParser {
+
+    public static final int DEFAULT_MAX_REQUEST_LINE = 8 * 1024;
+    public static final int DEFAULT_MAX_HEADER_SIZE = 16 * 1024;
+
+    private static final String[] KNOWN_METHODS = {"GET", "POST", "PUT", "DELETE", "HEAD", "OPTIONS", "PATCH"};
+    private static final String[] KNOWN_VERSIONS = {"HTTP/1.1", "HTTP/1.0"};
+    private static final String[] KNOWN_HEADERS = {
+        "host", "connection", "content-length", "content-type", "transfer-encoding", "accept",
+        "accept-encoding", "accept-language", "user-agent", "if-none-match", "if-modified-since",
+        "range", "if-range", "cache-control", "referer", "cookie", "upgrade-insecure-requests", "expect"
+    };
+    private static final byte[][] KNOWN_METHOD_BYTES = toBytes(KNOWN_METHODS);
+    private static final byte[][] KNOWN_VERSION_BYTES = toBytes(KNOWN_VERSIONS);
+    private static final byte[][] KNOWN_HEADER_BYTES = toBytes(KNOWN_HEADERS);
+
+    private enum State {
+        METHOD, TARGET, VERSION, REQUEST_LINE_LF, HEADER_START, HEADER_NAME,
+        HEADER_VALUE_START, HEADER_VALUE, HEADER_LF, HEADERS_END_LF
+    }
+
+    private final int maxRequestLine;
+    private final int maxHeaderSize;
+
+    // Acumula el token actual; sobrevive entre llamadas a parse
+    private byte[] token = new byte[256];
+    private int tokenLength;
+
+    private State state = State.METHOD;
+    private int requestLineLength;
+    private int headerSize;
+    private int queryStart;
+    private String method;
+    private String path;
+    private String query;
+    private String version;
+    private String headerName;
+    private Map<String, String> headers;
+
+    public HttpRequestParser() {
+        this(DEFAULT_MAX_REQUEST_LINE, DEFAULT_MAX_HEADER_SIZE);
+    }
+
+    public HttpRequestParser(int maxRequestLine, int maxHeaderSize) {
+        this.maxRequestLine = maxRequestLine;
+        this.maxHeaderSize = maxHeaderSize;
+        reset();
+    }
+
+    /**
+     * Consume bytes del buffer hasta completar la línea inicial y los
+     * headers de una solicitud.
+     *
+     * @param buffer datos recibidos, en modo lectura
+     * @return la solicitud, o null si faltan bytes para completarla
+     * @throws HttpParseException si la solicitud es inválida o excede los límites
+     */
+    public HttpRequest parse(ByteBuffer buffer) throws HttpParseException {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            switch (state) {
+                case METHOD:
+                    countRequestLine();
+                    if (b == ' ') {
+                        if (tokenLength == 0) {
+                            throw badRequest("Empty method");
+                        }
+                        method = resolve(KNOWN_METHODS, KNOWN_METHOD_BYTES);
+                        tokenLength = 0;
+                        queryStart = -1;
+                        state = State.TARGET;
+                    } else if (b == '\r' || b == '\n') {
+                        // Se toleran líneas vacías antes de la línea inicial (RFC 7230 3.5)
+                        if (tokenLength > 0) {
+                            throw badRequest("Invalid request line");
+                        }
+                        requestLineLength = 0;
+                    } else if (isTokenChar(b)) {
+                        append(b);
+                    } else {
+                        throw badRequest("Invalid method");
+                    }
+                    break;
+                case TARGET:
+                    countRequestLine();
+                    if (b == ' ') {
+                        finishTarget();
+                        state = State.VERSION;
+                    } else if (b == '\r' || b == '\n' || b < 0x21 || b == 0x7f) {
+                        throw badRequest("Invalid request target");
+                    } else {
+                        if (b == '?' && queryStart < 0) {
+                            queryStart = tokenLength;
+                        }
+                        append(b);
+                    }
+                    break;
+                case VERSION:
+                    countRequestLine();
+                    if (b == '\r' || b == '\n') {
+                        version = resolve(KNOWN_VERSIONS, KNOWN_VERSION_BYTES);
+                        if (!version.startsWith("HTTP/")) {
+                            throw badRequest("Invalid HTTP version");
+                        }
+                        tokenLength = 0;
+                        state = b == '\r' ? State.REQUEST_LINE_LF : State.HEADER_START;
+                    } else {
+                        append(b);
+                    }
+                    break;
+                case REQUEST_LINE_LF:
+                case HEADER_LF:
+                    if (b != '\n') {
+                        throw badRequest("Expected LF");
+                    }
+                    state = State.HEADER_START;
+                    break;
+                case HEADER_START:
+                    countHeader();
+                    if (b == '\r') {
+                        state = State.HEADERS_END_LF;
+                    } else if (b == '\n') {
+                        return complete();
+                    } else if (isTokenChar(b)) {
+                        append(toLowerCase(b));
+                        state = State.HEADER_NAME;
+                    } else {
+                        throw badRequest("Invalid header name");
+                    }
+                    break;
+                case HEADER_NAME:
+                    countHeader();
+                    if (b == ':') {
+                        headerName = resolve(KNOWN_HEADERS, KNOWN_HEADER_BYTES);
+                        tokenLength = 0;
+                        state = State.HEADER_VALUE_START;
+                    } else if (isTokenChar(b)) {
+                        append(toLowerCase(b));
+                    } else {
+                        throw badRequest("Invalid header name");
+                    }
+                    break;
+                case HEADER_VALUE_START:
+                    countHeader();
+                    if (b == ' ' || b == '\t') {
+                        break;
+                    }
+                    state = State.HEADER_VALUE;
+                    // El primer byte del valor se procesa como HEADER_VALUE
+                    if (b == '\r' || b == '\n') {
+                        finishHeader();
+                        state = b == '\r' ? State.HEADER_LF : State.HEADER_START;
+                    } else {
+                        append(b);
+                    }
+                    break;
+                case HEADER_VALUE:
+                    countHeader();
+                    if (b == '\r' || b == '\n') {
+                        finishHeader();
+                        state = b == '\r' ? State.HEADER_LF : State.HEADER_START;
+                    } else {
+                        append(b);
+                    }
+                    break;
+                case HEADERS_END_LF:
+                    if (b != '\n') {
+                        throw badRequest("Expected LF");
+                    }
+                    return complete();
+                default:
+                    throw new IllegalStateException("Unknown state " + state);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Indica si el parser está entre solicitudes (no ha recibido bytes de la siguiente)
+     */
+    public boolean isIdle() {
+        return state == State.METHOD && tokenLength == 0;
+    }
+
+    private HttpRequest complete() throws HttpParseException {
+        String contentLength = headers.get("content-length");
+        if (contentLength != null && !isDigits(contentLength)) {
+            throw badRequest("Invalid Content-Length");
+        }
+        String transferEncoding = headers.get("transfer-encoding");
+        if (transferEncoding != null) {
+            // Con ambos headers el largo es ambiguo (request smuggling)
+            if (contentLength != null) {
+                throw badRequest("Both Transfer-Encoding and Content-Length");
+            }
+            if (!transferEncoding.trim().equalsIgnoreCase("chunked")) {
+                throw new HttpParseException("501 Not Implemented", "Unsupported Transfer-Encoding: " + transferEncoding);
+            }
+        }
+        HttpRequest request = new HttpRequest(method, path, query, version, headers);
+        reset();
+        return request;
+    }
+
+    private void reset() {
+        state = State.METHOD;
+        tokenLength = 0;
+        requestLineLength = 0;
+        headerSize = 0;
+        queryStart = -1;
+        method = null;
+        path = null;
+        query = null;
+        version = null;
+        headerName = null;
+        headers = new HashMap<>();
+    }
+
+    private void finishTarget() throws HttpParseException {
+        if (tokenLength == 0) {
+            throw badRequest("Empty request target");
+        }
+        int pathEnd = queryStart >= 0 ? queryStart : tokenLength;
+        int pathStart = 0;
+
+        // absolute-form: http://host:puerto/path
+        if (token[0] != '/') {
+            int scheme = indexOf("://", 0, pathEnd);
+            if (scheme < 0) {
+                throw badRequest("Invalid request target");
+            }
+            pathStart = pathEnd;
+            for (int i = scheme + 3; i < pathEnd; i++) {
+                if (token[i] == '/') {
+                    pathStart = i;
+                    break;
+                }
+            }
+        }
+
+        path = pathStart == pathEnd ? "/" : decodePath(pathStart, pathEnd);
+        // Se revisa después de decodificar: %2e%2e/ también sube de directorio
+        if (hasParentSegment(path)) {
+            throw badRequest("Path must not contain .. segments");
+        }
+        query = queryStart >= 0 ? new String(token, queryStart + 1, tokenLength - queryStart - 1, StandardCharsets.ISO_8859_1) : null;
+        tokenLength = 0;
+    }
+
+    private void finishHeader() throws HttpParseException {
+        // Quitar espacios finales
+        while (tokenLength > 0 && (token[tokenLength - 1] == ' ' || token[tokenLength - 1] == '\t')) {
+            tokenLength--;
+        }
+        String value = new String(token, 0, tokenLength, StandardCharsets.ISO_8859_1);
+        String previous = headers.get(headerName);
+        headers.put(headerName, previous == null ? value : previous + ", " + value);
+        tokenLength = 0;
+    }
+
+    /**
+     * Decodifica el path (%XX en UTF-8) solo si contiene escapes
+     */
+    private String decodePath(int start, int end) throws HttpParseException {
+        if (indexOf("%", start, end) < 0) {
+            return new String(token, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream(end - start);
+        for (int i = start; i < end; i++) {
+            if (token[i] == '%') {
+                if (i + 2 >= end) {
+                    throw badRequest("Invalid percent-encoding");
+                }
+                int high = Character.digit(token[i + 1], 16);
+                int low = Character.digit(token[i + 2], 16);
+                if (high < 0 || low < 0) {
+                    throw badRequest("Invalid percent-encoding");
+                }
+                decoded.write((high << 4) | low);
+                i += 2;
+            } else {
+                decoded.write(token[i]);
+            }
+        }
+        return decoded.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Indica si algún segmento del path es "..", separado por / o por \
+     */
+    private static boolean hasParentSegment(String path) {
+        int segmentStart = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/' || path.charAt(i) == '\\') {
+                if (i - segmentStart == 2 && path.charAt(segmentStart) == '.' && path.charAt(segmentStart + 1) == '.') {
+                    return true;
+                }
+                segmentStart = i + 1;
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(String needle, int from, int to) {
+        outer:
+        for (int i = from; i <= to - needle.length(); i++) {
+            for (int j = 0; j < needle.length(); j++) {
+                if (token[i + j] != needle.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Retorna la constante que coincide con el token actual o un String nuevo
+     */
+    private String resolve(String[] known, byte[][] knownBytes) {
+        for (int i = 0; i < knownBytes.length; i++) {
+            byte[] candidate = knownBytes[i];
+            if (candidate.length != tokenLength) {
+                continue;
+            }
+            boolean equal = true;
+            for (int j = 0; j < tokenLength && equal; j++) {
+                equal = candidate[j] == token[j];
+            }
+            if (equal) {
+                return known[i];
+            }
+        }
+        return new String(token, 0, tokenLength, StandardCharsets.ISO_8859_1);
+    }
+
+    private void append(byte b) {
+        if (tokenLength == token.length) {
+            byte[] bigger = new byte[token.length * 2];
+            System.arraycopy(token, 0, bigger, 0, tokenLength);
+            token = bigger;
+        }
+        token[tokenLength++] = b;
+    }
+
+    private void countRequestLine() throws HttpParseException {
+        if (++requestLineLength > maxRequestLine) {
+            throw new HttpParseException("414 URI Too Long", "Request line exceeds " + maxRequestLine + " bytes");
+        }
+    }
+
+    private void countHeader() throws HttpParseException {
+        if (++headerSize > maxHeaderSize) {
+            throw new HttpParseException("431 Request Header Fields Too Large", "Headers exceed " + maxHeaderSize + " bytes");
+        }
+    }
+
+    private static HttpParseException badRequest(String message) {
+        return new HttpParseException("400 Bad Request", message);
+    }
+
+    private static boolean isDigits(String value) {
+        if (value.isEmpty() || value.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTokenChar(byte b) {
+        return b > 0x20 && b < 0x7f && b != ':' && b != '"' && b != '(' && b != ')' && b != ','
+                && b != '/' && b != ';' && b != '<' && b != '=' && b != '>' && b != '?' && b != '@'
+                && b != '[' && b != '\\' && b != ']' && b != '{' && b != '}';
+    }
+
+    private static byte toLowerCase(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static byte[][] toBytes(String[] values) {
+        byte[][] bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = values[i].getBytes(StandardCharsets.ISO_8859_1);
+        }
+        return bytes;
+    }
+}
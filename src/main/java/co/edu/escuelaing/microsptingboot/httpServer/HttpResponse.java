@@ -4,10 +4,576 @@
  */
 package co.edu.escuelaing.microsptingboot.httpServer;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
 /**
+ * Respuesta HTTP con estado, headers y un buffer de bytes para el cuerpo.
+ * Se puede recibir como parámetro en un método de controlador para
+ * cambiar el estado, los headers o escribir el cuerpo directamente.
+ *
+ * El servidor reutiliza las instancias (y sus buffers) entre solicitudes,
+ * así que un controlador no debe guardar la respuesta después de retornar.
+ * Los headers se codifican directamente a bytes; las líneas de estado y
+ * los headers más comunes ya están precalculados.
+ *
+ * Para enviar un cuerpo grande sin armarlo en memoria, el controlador
+ * puede escribir en {@link #getOutputStream()}: los headers se envían en
+ * ese momento y el cuerpo sale con Transfer-Encoding: chunked.
  *
  * @author sebastian.cardona-p
  */
 public class HttpResponse {
-    
+
+    static final String DEFAULT_CONTENT_TYPE = "application/json";
+
+    private static final int POOL_SIZE = 256;
+    private static final int INITIAL_BODY_SIZE = 2048;
+    private static final int INITIAL_HEAD_SIZE = 256;
+    // Los buffers que crecieron más allá de esto no vuelven al pool
+    private static final int MAX_POOLED_BODY_SIZE = 64 * 1024;
+    private static final ArrayBlockingQueue<HttpResponse> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private static final int[] COMMON_STATUS = {200, 201, 204, 301, 302, 304, 400, 404, 405, 413, 500};
+    private static final byte[][] COMMON_STATUS_LINES = new byte[COMMON_STATUS.length][];
+    private static final byte[] CONTENT_TYPE_JSON = ascii("Content-Type: application/json\r\n");
+    private static final byte[] CONTENT_TYPE_TEXT = ascii("Content-Type: text/plain\r\n");
+    private static final byte[] CONTENT_LENGTH = ascii("Content-Length: ");
+    private static final byte[] TRANSFER_ENCODING_CHUNKED = ascii("Transfer-Encoding: chunked\r\n");
+    private static final byte[] CONNECTION_KEEP_ALIVE = ascii("Connection: keep-alive\r\n\r\n");
+    private static final byte[] CONNECTION_CLOSE = ascii("Connection: close\r\n\r\n");
+
+    static {
+        for (int i = 0; i < COMMON_STATUS.length; i++) {
+            COMMON_STATUS_LINES[i] = ascii("HTTP/1.1 " + COMMON_STATUS[i] + " " + reasonPhrase(COMMON_STATUS[i]) + "\r\n");
+        }
+    }
+
+    private int status = 200;
+    private String reason = "OK";
+    private String contentType = DEFAULT_CONTENT_TYPE;
+    // Headers en arreglos paralelos, en el orden en que se agregaron
+    private String[] headerNames = new String[4];
+    private String[] headerValues = new String[4];
+    private int headerCount = 0;
+    private byte[] body = new byte[INITIAL_BODY_SIZE];
+    private int bodyLength = 0;
+    private byte[] head = new byte[INITIAL_HEAD_SIZE];
+    private int headLength = 0;
+    // Conexión y solicitud a las que se envía el cuerpo por partes
+    private OutputStream connection;
+    private HttpRequest request;
+    private ChunkedOutputStream stream;
+    // Se crea con la primera respuesta JSON y se reutiliza con la respuesta
+    private JsonWriter json;
+
+    public HttpResponse() {
+    }
+
+    /**
+     * Toma una respuesta del pool, o crea una si está vacío
+     */
+    static HttpResponse acquire() {
+        HttpResponse response = POOL.poll();
+        return response != null ? response : new HttpResponse();
+    }
+
+    /**
+     * Limpia la respuesta y la devuelve al pool
+     */
+    void release() {
+        reset();
+        if (body.length <= MAX_POOLED_BODY_SIZE) {
+            POOL.offer(this);
+        }
+    }
+
+    /**
+     * Vuelve al estado inicial: 200 OK, application/json, sin headers ni cuerpo
+     */
+    public void reset() {
+        status = 200;
+        reason = "OK";
+        contentType = DEFAULT_CONTENT_TYPE;
+        Arrays.fill(headerNames, 0, headerCount, null);
+        Arrays.fill(headerValues, 0, headerCount, null);
+        headerCount = 0;
+        bodyLength = 0;
+        connection = null;
+        request = null;
+        stream = null;
+    }
+
+    /**
+     * Asocia la respuesta a la conexión para poder enviar el cuerpo por
+     * partes con {@link #getOutputStream()}
+     */
+    void bind(OutputStream out, HttpRequest request) {
+        this.connection = out;
+        this.request = request;
+    }
+
+    /**
+     * Stream para escribir el cuerpo a medida que se genera. La primera
+     * llamada envía el estado y los headers (con Transfer-Encoding:
+     * chunked) y lo que ya se haya escrito con {@code write}; después ya
+     * no se pueden cambiar. En el motor bloqueante cada escritura espera a
+     * que el socket acepte los datos.
+     *
+     * @throws IOException si no se pudieron enviar los headers
+     * @throws IllegalStateException si la respuesta no está asociada a una conexión
+     */
+    public OutputStream getOutputStream() throws IOException {
+        if (stream == null) {
+            if (connection == null) {
+                throw new IllegalStateException("Response is not bound to a connection");
+            }
+            stream = writeStreamHead(connection, request);
+        }
+        return stream;
+    }
+
+    /**
+     * Indica si ya se enviaron el estado y los headers
+     */
+    public boolean isCommitted() {
+        return stream != null;
+    }
+
+    /**
+     * Termina el cuerpo enviado con {@link #getOutputStream()}
+     */
+    void finishStream() throws IOException {
+        stream.finish();
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Cambia el código de estado, con la razón estándar del código
+     */
+    public void setStatus(int status) {
+        setStatus(status, reasonPhrase(status));
+    }
+
+    public void setStatus(int status, String reason) {
+        checkNotCommitted();
+        if (status < 100 || status > 999) {
+            throw new IllegalArgumentException("Invalid status code: " + status);
+        }
+        checkValue(reason);
+        this.status = status;
+        this.reason = reason;
+    }
+
+    /**
+     * Cambia el estado a partir de una línea como "404 Not Found"
+     */
+    void setStatus(String statusLine) {
+        int space = statusLine.indexOf(' ');
+        setStatus(Integer.parseInt(space < 0 ? statusLine : statusLine.substring(0, space)),
+                space < 0 ? "" : statusLine.substring(space + 1));
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        checkNotCommitted();
+        checkValue(contentType);
+        this.contentType = contentType;
+    }
+
+    /**
+     * Agrega un header o reemplaza su valor si ya existe. Content-Length y
+     * Connection los calcula el servidor.
+     *
+     * @throws IllegalArgumentException si el nombre o el valor no son
+     * válidos, o si el header lo maneja el servidor
+     */
+    public void setHeader(String name, String value) {
+        if (name.equalsIgnoreCase("Content-Type")) {
+            setContentType(value);
+            return;
+        }
+        checkNotCommitted();
+        checkName(name);
+        checkValue(value);
+        int index = indexOf(name);
+        if (index >= 0) {
+            headerValues[index] = value;
+        } else {
+            append(name, value);
+        }
+    }
+
+    /**
+     * Agrega un header numérico
+     */
+    public void setHeader(String name, long value) {
+        setHeader(name, Long.toString(value));
+    }
+
+    /**
+     * Agrega un header de fecha en formato HTTP (IMF-fixdate)
+     *
+     * @param millis milisegundos desde la época
+     */
+    public void setDateHeader(String name, long millis) {
+        setHeader(name, ConditionalRequest.formatDate(millis));
+    }
+
+    /**
+     * Agrega un header aunque ya exista uno con el mismo nombre
+     */
+    public void addHeader(String name, String value) {
+        checkNotCommitted();
+        checkName(name);
+        checkValue(value);
+        append(name, value);
+    }
+
+    /**
+     * Valor de un header sin distinguir mayúsculas, o cadena vacía si no existe
+     */
+    public String getHeader(String name) {
+        if (name.equalsIgnoreCase("Content-Type")) {
+            return contentType;
+        }
+        int index = indexOf(name);
+        return index >= 0 ? headerValues[index] : "";
+    }
+
+    /**
+     * Agrega bytes al cuerpo
+     */
+    public void write(byte[] bytes, int offset, int length) {
+        checkNotCommitted();
+        ensureBody(bodyLength + length);
+        System.arraycopy(bytes, offset, body, bodyLength, length);
+        bodyLength += length;
+    }
+
+    public void write(byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Agrega texto al cuerpo codificado en UTF-8. El texto ASCII se copia
+     * directamente al buffer.
+     */
+    public void write(String text) {
+        checkNotCommitted();
+        int length = text.length();
+        ensureBody(bodyLength + length);
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                write(text.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            body[bodyLength++] = (byte) c;
+        }
+    }
+
+    /**
+     * Agrega al cuerpo un valor serializado como JSON: records, POJOs
+     * (getters y campos públicos), colecciones, mapas, arreglos, números,
+     * textos, enums y Optional
+     *
+     * @throws IllegalStateException si el valor tiene referencias circulares
+     */
+    public void writeJson(Object value) {
+        checkNotCommitted();
+        JsonWriter out = jsonWriter();
+        JsonSerializer.write(value, out);
+        out.finish();
+    }
+
+    /**
+     * Escritor JSON sobre el cuerpo de esta respuesta, listo para escribir
+     * al final del cuerpo actual
+     */
+    JsonWriter jsonWriter() {
+        if (json == null) {
+            json = new JsonWriter(this);
+        }
+        return json.begin();
+    }
+
+    /**
+     * Asegura espacio para {@code length} bytes más al final del cuerpo
+     *
+     * @return el buffer del cuerpo, que puede ser uno nuevo
+     */
+    byte[] reserveBody(int length) {
+        checkNotCommitted();
+        ensureBody(bodyLength + length);
+        return body;
+    }
+
+    /**
+     * Confirma los bytes escritos directamente en {@link #reserveBody(int)}
+     */
+    void setBodyLength(int length) {
+        bodyLength = length;
+    }
+
+    /**
+     * Tamaño actual del cuerpo en bytes
+     */
+    public int getBodyLength() {
+        return bodyLength;
+    }
+
+    /**
+     * Copia del cuerpo escrito hasta ahora
+     */
+    public byte[] getBody() {
+        return Arrays.copyOf(body, bodyLength);
+    }
+
+    /**
+     * Reemplaza el cuerpo (por ejemplo con su versión comprimida)
+     */
+    void setBody(byte[] bytes) {
+        bodyLength = 0;
+        write(bytes);
+    }
+
+    /**
+     * Buffer interno del cuerpo; solo son válidos los primeros
+     * {@link #getBodyLength()} bytes
+     */
+    byte[] bodyBuffer() {
+        return body;
+    }
+
+    /**
+     * Escribe la respuesta completa: línea de estado, headers,
+     * Content-Length, Connection y el cuerpo
+     *
+     * @param out
+     * @param keepAlive valor del header Connection
+     */
+    void writeTo(OutputStream out, boolean keepAlive) throws IOException {
+        // 204 y 304 no llevan cuerpo ni Content-Length
+        boolean hasBody = status != 204 && status != 304;
+        startHead();
+        if (hasBody) {
+            appendHead(CONTENT_LENGTH);
+            appendAscii(Integer.toString(bodyLength));
+            appendCrlf();
+        }
+        endHead(keepAlive);
+
+        out.write(head, 0, headLength);
+        if (hasBody) {
+            out.write(body, 0, bodyLength);
+        }
+    }
+
+    /**
+     * Escribe el estado y los headers de un cuerpo por partes, y lo que ya
+     * se haya escrito en el buffer como primer chunk. HTTP/1.0 no tiene
+     * chunks: el cuerpo se envía sin formato y termina al cerrar la conexión.
+     *
+     * @return el stream para el resto del cuerpo
+     */
+    ChunkedOutputStream writeStreamHead(OutputStream out, HttpRequest request) throws IOException {
+        boolean framed = !"HTTP/1.0".equals(request.getVersion());
+        if (!framed) {
+            request.setKeepAlive(false);
+        }
+        startHead();
+        if (framed) {
+            appendHead(TRANSFER_ENCODING_CHUNKED);
+        }
+        endHead(request.isKeepAlive());
+        out.write(head, 0, headLength);
+
+        ChunkedOutputStream chunks = new ChunkedOutputStream(out, framed);
+        chunks.write(body, 0, bodyLength);
+        bodyLength = 0;
+        stream = chunks;
+        return chunks;
+    }
+
+    private void startHead() {
+        headLength = 0;
+        appendStatusLine();
+        if (contentType.equals(DEFAULT_CONTENT_TYPE)) {
+            appendHead(CONTENT_TYPE_JSON);
+        } else if (contentType.equals("text/plain")) {
+            appendHead(CONTENT_TYPE_TEXT);
+        } else {
+            appendHeaderLine("Content-Type", contentType);
+        }
+    }
+
+    private void endHead(boolean keepAlive) {
+        for (int i = 0; i < headerCount; i++) {
+            appendHeaderLine(headerNames[i], headerValues[i]);
+        }
+        appendHead(keepAlive ? CONNECTION_KEEP_ALIVE : CONNECTION_CLOSE);
+    }
+
+    private void appendStatusLine() {
+        int common = Arrays.binarySearch(COMMON_STATUS, status);
+        if (common >= 0 && reason.equals(reasonPhrase(status))) {
+            appendHead(COMMON_STATUS_LINES[common]);
+            return;
+        }
+        appendAscii("HTTP/1.1 ");
+        appendAscii(Integer.toString(status));
+        appendAscii(" ");
+        appendAscii(reason);
+        appendCrlf();
+    }
+
+    private void appendHeaderLine(String name, String value) {
+        appendAscii(name);
+        appendAscii(": ");
+        appendAscii(value);
+        appendCrlf();
+    }
+
+    private void appendHead(byte[] bytes) {
+        ensureHead(headLength + bytes.length);
+        System.arraycopy(bytes, 0, head, headLength, bytes.length);
+        headLength += bytes.length;
+    }
+
+    /**
+     * Copia el texto como ISO-8859-1, la codificación de los headers HTTP
+     */
+    private void appendAscii(String text) {
+        ensureHead(headLength + text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            head[headLength++] = c < 0x100 ? (byte) c : (byte) '?';
+        }
+    }
+
+    private void appendCrlf() {
+        ensureHead(headLength + 2);
+        head[headLength++] = '\r';
+        head[headLength++] = '\n';
+    }
+
+    private void ensureHead(int capacity) {
+        if (capacity > head.length) {
+            head = Arrays.copyOf(head, Math.max(capacity, head.length * 2));
+        }
+    }
+
+    private void ensureBody(int capacity) {
+        if (capacity > body.length) {
+            body = Arrays.copyOf(body, Math.max(capacity, body.length * 2));
+        }
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < headerCount; i++) {
+            if (headerNames[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void append(String name, String value) {
+        if (headerCount == headerNames.length) {
+            headerNames = Arrays.copyOf(headerNames, headerCount * 2);
+            headerValues = Arrays.copyOf(headerValues, headerCount * 2);
+        }
+        headerNames[headerCount] = name;
+        headerValues[headerCount] = value;
+        headerCount++;
+    }
+
+    private void checkNotCommitted() {
+        if (stream != null) {
+            throw new IllegalStateException("Response already committed");
+        }
+    }
+
+    private static void checkName(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Header name must not be empty");
+        }
+        if (name.equalsIgnoreCase("Content-Length") || name.equalsIgnoreCase("Connection")
+                || name.equalsIgnoreCase("Transfer-Encoding")) {
+            throw new IllegalArgumentException(name + " is set by the server");
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c <= ' ' || c >= 0x7F || c == ':') {
+                throw new IllegalArgumentException("Invalid header name: " + name);
+            }
+        }
+    }
+
+    /**
+     * Un CR o LF en un valor permitiría inyectar headers en la respuesta
+     */
+    private static void checkValue(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Header value must not be null");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\r' || c == '\n') {
+                throw new IllegalArgumentException("Header value must not contain CR or LF");
+            }
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Razón estándar de un código de estado
+     */
+    static String reasonPhrase(int status) {
+        return switch (status) {
+            case 200 -> "OK";
+            case 201 -> "Created";
+            case 202 -> "Accepted";
+            case 204 -> "No Content";
+            case 206 -> "Partial Content";
+            case 301 -> "Moved Permanently";
+            case 302 -> "Found";
+            case 303 -> "See Other";
+            case 304 -> "Not Modified";
+            case 307 -> "Temporary Redirect";
+            case 308 -> "Permanent Redirect";
+            case 400 -> "Bad Request";
+            case 401 -> "Unauthorized";
+            case 403 -> "Forbidden";
+            case 404 -> "Not Found";
+            case 405 -> "Method Not Allowed";
+            case 409 -> "Conflict";
+            case 413 -> "Content Too Large";
+            case 415 -> "Unsupported Media Type";
+            case 416 -> "Range Not Satisfiable";
+            case 422 -> "Unprocessable Content";
+            case 429 -> "Too Many Requests";
+            case 500 -> "Internal Server Error";
+            case 501 -> "Not Implemented";
+            case 503 -> "Service Unavailable";
+            default -> "";
+        };
+    }
 }
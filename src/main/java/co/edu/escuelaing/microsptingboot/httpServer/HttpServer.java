@@ -1,24 +1,125 @@
 package co.edu.escuelaing.microsptingboot.httpServer;
 
 
+import co.edu.escuelaing.microsptingboot.annotations.DeleteMapping;
 import co.edu.escuelaing.microsptingboot.annotations.GetMapping;
-import co.edu.escuelaing.microsptingboot.annotations.RequestParam;
+import co.edu.escuelaing.microsptingboot.annotations.PostMapping;
+import co.edu.escuelaing.microsptingboot.annotations.PutMapping;
 import co.edu.escuelaing.microsptingboot.annotations.RestController;
 import java.net.*;
 import java.io.*;
 import java.lang.reflect.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 public class HttpServer {
 
-    private static final int PORT = 35000;
+    static final int DEFAULT_PORT = 35000;
+    static final int DEFAULT_MAX_CONNECTIONS = 10_000;
+    static final int DEFAULT_BACKLOG = 128;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    static final int DEFAULT_IDLE_TIMEOUT_MILLIS = 15_000;
+    static final int DEFAULT_MAX_REQUESTS_PER_CONNECTION = 1000;
+    private static final byte[] NOT_FOUND_BODY = "404 Not Found".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SERVER_ERROR_BODY = "500 Internal Server Error".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] METHOD_NOT_ALLOWED_BODY = "405 Method Not Allowed".getBytes(StandardCharsets.US_ASCII);
+    static final long DEFAULT_MAX_BUFFERED_BODY_BYTES = 10L * 1024 * 1024;
+    // Métodos con rutas propias, en el orden del header Allow
+    private static final String[] ROUTED_METHODS = {"GET", "POST", "PUT", "DELETE"};
     private static String basePath = "src/main/java/resources/";
+    private static StaticFileCache staticCache = new StaticFileCache();
+    private static FileSender fileSender = new FileSender();
+    private static final ETagCache etagCache = new ETagCache();
+    // Valor de Cache-Control por extensión (sin punto, en minúscula)
+    private static final Map<String, String> cacheControl = new ConcurrentHashMap<>();
+    // Tamaño mínimo de una respuesta para comprimirla; -1 desactiva la compresión
+    private static int compressionMinSize = ContentEncoding.DEFAULT_MIN_SIZE;
+    // Respuestas de los endpoints @Cacheable
+    private static ResponseCache responseCache = new ResponseCache();
+    private static final Metrics metrics = new Metrics();
+    // Ruta de las métricas en formato Prometheus; null las desactiva
+    private static String metricsPath = "/metrics";
+    private static AccessLogLevel accessLogLevel = AccessLogLevel.ALL;
+    // Archivo del registro de acceso; null escribe en la salida estándar
+    private static Path accessLogFile;
+    private static long accessLogMaxFileBytes = AccessLog.DEFAULT_MAX_FILE_BYTES;
+    private static int accessLogMaxFiles = AccessLog.DEFAULT_MAX_FILES;
+    private static int accessLogCapacity = AccessLog.DEFAULT_CAPACITY;
+    private static boolean accessLogBlockWhenFull = false;
+    private static volatile AccessLog accessLog = new AccessLog();
+
+    // Patrón de ruta -> método; mantiene compilado el árbol de rutas
+    private static final RouteRegistry routes = new RouteRegistry();
+    public static final Map<String, Method> services = routes;
+    private static final RouteRegistry postRoutes = new RouteRegistry();
+    private static final RouteRegistry putRoutes = new RouteRegistry();
+    private static final RouteRegistry deleteRoutes = new RouteRegistry();
+    private static long maxBufferedBodyBytes = DEFAULT_MAX_BUFFERED_BODY_BYTES;
+    // Invocadores precompilados de los métodos registrados en services
+    private static final Map<Method, RouteInvoker> invokers = new ConcurrentHashMap<>();
+
+    private static int port = DEFAULT_PORT;
+    // Dirección de escucha; null escucha en todas las interfaces
+    private static InetAddress bindAddress;
+    private static int acceptors = 1;
+    private static boolean reusePort = false;
+    private static boolean tcpNoDelay = true;
+    // Tamaños de los buffers del socket; 0 usa los del sistema operativo
+    private static int receiveBufferSize = 0;
+    private static int sendBufferSize = 0;
+    private static int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private static int backlog = DEFAULT_BACKLOG;
+    private static volatile boolean running = false;
+    private static volatile ServerSocket serverSocket;
+    // Sockets de escucha: uno, o uno por acceptor con SO_REUSEPORT
+    private static volatile List<ServerSocketChannel> listeners = List.of();
+    private static ExecutorService executor;
+    private static Semaphore connectionPermits;
+    private static int idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+    private static int maxRequestsPerConnection = DEFAULT_MAX_REQUESTS_PER_CONNECTION;
+    // Conexiones esperando la siguiente solicitud; se cierran al detener el servidor
+    private static final Set<Socket> idleConnections = ConcurrentHashMap.newKeySet();
+    private static Engine engine = Engine.BLOCKING;
+    private static int eventLoops = Runtime.getRuntime().availableProcessors();
+    private static NioHttpServer nioServer;
 
-    public static Map<String, Method> services = new HashMap<>();
+    /**
+     * Motores disponibles para atender conexiones
+     */
+    public enum Engine {
+        /** ServerSocket bloqueante con un hilo virtual por conexión */
+        BLOCKING,
+        /** Selector no bloqueante con N event loops */
+        NIO
+    }
+
+    /**
+     * Solicitudes que se escriben en el registro de acceso
+     */
+    public enum AccessLogLevel {
+        /** Ninguna */
+        OFF,
+        /** Las respondidas con 4xx o 5xx, y las que terminaron sin respuesta */
+        ERRORS,
+        /** Todas */
+        ALL
+    }
 
     public static void loadServices(String[] args) {
         // Si se proporciona un parámetro específico, usar el método original
@@ -43,9 +144,13 @@ public class HttpServer {
     }
 
     /**
-     * Explorar automáticamente todas las clases con @RestController
+     * Registra los controladores desde el índice generado en compilación;
+     * si no hay índice, explora el classpath buscando @RestController
      */
     private static void loadAllRestControllers() {
+        if (loadFromRouteIndex()) {
+            return;
+        }
         Set<Class<?>> restControllers = findRestControllers();
         for (Class<?> controller : restControllers) {
             loadControllerMethods(controller);
@@ -53,6 +158,35 @@ public class HttpServer {
         System.out.println("Loaded " + restControllers.size() + " REST controllers automatically");
     }
 
+    /**
+     * Registra las rutas del índice generado por RouteIndexProcessor. Solo
+     * se cargan las clases de los controladores indexados.
+     *
+     * @return false si no hay índice o no se pudo leer
+     */
+    private static boolean loadFromRouteIndex() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<RouteIndex.Route> routes;
+        try {
+            routes = RouteIndex.read(classLoader);
+        } catch (IOException ex) {
+            System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.WARNING, "Cannot read route index, scanning classpath", ex);
+            return false;
+        }
+        if (routes == null) {
+            return false;
+        }
+        for (RouteIndex.Route route : routes) {
+            try {
+                registerEndpoint(route.httpMethod(), route.path(), route.resolve(classLoader));
+            } catch (ReflectiveOperationException | LinkageError ex) {
+                System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, "Stale route index entry " + route.path(), ex);
+            }
+        }
+        System.out.println("Loaded " + routes.size() + " REST endpoints from route index");
+        return true;
+    }
+
     /**
      * Cargar métodos de un controlador específico
      */
@@ -61,16 +195,56 @@ public class HttpServer {
             Method[] methods = c.getDeclaredMethods();
             for (Method m : methods) {
                 if (m.isAnnotationPresent(GetMapping.class)) {
-                    String mapping = m.getAnnotation(GetMapping.class).value();
-                    services.put(mapping, m);
-                    System.out.println("Registered endpoint: " + mapping + " -> " + c.getSimpleName() + "." + m.getName());
+                    registerEndpoint("GET", m.getAnnotation(GetMapping.class).value(), m);
+                }
+                if (m.isAnnotationPresent(PostMapping.class)) {
+                    registerEndpoint("POST", m.getAnnotation(PostMapping.class).value(), m);
+                }
+                if (m.isAnnotationPresent(PutMapping.class)) {
+                    registerEndpoint("PUT", m.getAnnotation(PutMapping.class).value(), m);
+                }
+                if (m.isAnnotationPresent(DeleteMapping.class)) {
+                    registerEndpoint("DELETE", m.getAnnotation(DeleteMapping.class).value(), m);
                 }
             }
         }
     }
 
+    private static void registerEndpoint(String httpMethod, String mapping, Method m) {
+        RouteRegistry registry = routes(httpMethod);
+        if (registry == null) {
+            System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, "Unsupported HTTP method " + httpMethod + " for " + mapping);
+            return;
+        }
+        registry.put(mapping, m);
+        try {
+            invokers.put(m, RouteInvoker.compile(m));
+        } catch (IllegalArgumentException ex) {
+            System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, "Cannot compile endpoint " + mapping, ex);
+        }
+        System.out.println("Registered endpoint: " + httpMethod + " " + mapping + " -> " + m.getDeclaringClass().getSimpleName() + "." + m.getName());
+    }
+
+    /**
+     * Rutas registradas para un método HTTP. HEAD usa las rutas de GET;
+     * {@link #handlerequestType} descarta el cuerpo de la respuesta.
+     *
+     * @return el registro, o null si el método no tiene rutas propias
+     */
+    static RouteRegistry routes(String httpMethod) {
+        return switch (httpMethod) {
+            case "GET", "HEAD" -> routes;
+            case "POST" -> postRoutes;
+            case "PUT" -> putRoutes;
+            case "DELETE" -> deleteRoutes;
+            default -> null;
+        };
+    }
+
     /**
-     * Encontrar todas las clases con la anotación @RestController
+     * Encontrar todas las clases con la anotación @RestController. La
+     * anotación se detecta en los bytes de cada .class en paralelo y solo
+     * se cargan las clases que la tienen.
      */
     private static Set<Class<?>> findRestControllers() {
         Set<Class<?>> controllers = new HashSet<>();
@@ -80,19 +254,11 @@ public class HttpServer {
             ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
             String packageName = "co.edu.escuelaing.microsptingboot";
 
-            // Convertir el nombre del paquete a un path
-            String path = packageName.replace('.', '/');
-            Enumeration<URL> resources = classLoader.getResources(path);
-
-            while (resources.hasMoreElements()) {
-                URL resource = resources.nextElement();
-                if (resource.getProtocol().equals("file")) {
-                    // Explorar directorio del sistema de archivos
-                    File directory = new File(resource.toURI());
-                    controllers.addAll(findClassesInDirectory(directory, packageName));
-                } else if (resource.getProtocol().equals("jar")) {
-                    // Explorar archivo JAR
-                    controllers.addAll(findClassesInJar(resource, packageName));
+            for (String className : new ClassScanner(RestController.class).scan(classLoader, packageName)) {
+                try {
+                    controllers.add(Class.forName(className, true, classLoader));
+                } catch (ClassNotFoundException | LinkageError e) {
+                    // Ignorar clases que no se pueden cargar
                 }
             }
         } catch (Exception e) {
@@ -104,168 +270,666 @@ public class HttpServer {
     }
 
     /**
-     * Encontrar clases en un directorio del sistema de archivos
+     * The main method to create the http server
+     *
+     * @param args
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    public static void startServer(String[] args) throws IOException, URISyntaxException {
+        startServer(args, port);
+    }
+
+    /**
+     * Inicia el servidor en el puerto indicado con el motor configurado.
+     * Con el motor {@link Engine#BLOCKING} cada conexión aceptada se atiende
+     * en su propio hilo virtual; con {@link Engine#NIO} las conexiones se
+     * reparten entre event loops no bloqueantes. En ambos casos el número de
+     * conexiones abiertas está limitado por {@code maxConnections} y, cuando
+     * se alcanza el límite, las conexiones nuevas esperan en el backlog.
+     * Con varios acceptors cada uno acepta en su propio hilo.
+     *
+     * @param args argumentos para la carga de controladores
+     * @param listenPort puerto de escucha (0 para uno libre)
+     * @throws IOException
      */
-    private static Set<Class<?>> findClassesInDirectory(File directory, String packageName) {
-        Set<Class<?>> controllers = new HashSet<>();
+    public static void startServer(String[] args, int listenPort) throws IOException {
 
-        if (!directory.exists()) {
-            return controllers;
-        }
-
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    // Recursivamente explorar subdirectorios
-                    controllers.addAll(findClassesInDirectory(file, packageName + "." + file.getName()));
-                } else if (file.getName().endsWith(".class")) {
-                    // Procesar archivo .class
-                    String className = packageName + '.' + file.getName().substring(0, file.getName().length() - 6);
-                    try {
-                        Class<?> clazz = Class.forName(className);
-                        if (clazz.isAnnotationPresent(RestController.class)) {
-                            controllers.add(clazz);
-                        }
-                    } catch (ClassNotFoundException e) {
-                        // Ignorar clases que no se pueden cargar
-                    }
+        loadServices(args);
+
+        try {
+            listeners = openListeners(listenPort);
+            serverSocket = listeners.get(0).socket();
+        } catch (IOException e) {
+            System.err.println("Could not listen on port: " + listenPort + ".");
+            System.exit(1);
+        }
+
+        connectionPermits = new Semaphore(maxConnections);
+        running = true;
+
+        if (engine == Engine.NIO) {
+            nioServer = new NioHttpServer(listeners, eventLoops, connectionPermits);
+            nioServer.serve();
+        } else {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            List<Thread> others = new ArrayList<>();
+            for (int i = 1; i < listeners.size(); i++) {
+                ServerSocket listener = listeners.get(i).socket();
+                others.add(Thread.ofPlatform().name("acceptor-" + i).start(() -> acceptConnections(listener)));
+            }
+            acceptConnections(serverSocket);
+            for (Thread other : others) {
+                try {
+                    other.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
                 }
             }
         }
-
-        return controllers;
+        stopServer();
     }
 
     /**
-     * Encontrar clases en un archivo JAR
+     * Abre los sockets de escucha. Con SO_REUSEPORT se abre uno por
+     * acceptor en el mismo puerto y el kernel reparte las conexiones
+     * entrantes entre ellos; si el sistema no lo soporta se usa uno solo.
+     * Ambos motores usan canales para poder enviar archivos con transferTo.
      */
-    private static Set<Class<?>> findClassesInJar(URL jarUrl, String packageName) {
-        Set<Class<?>> controllers = new HashSet<>();
-
+    private static List<ServerSocketChannel> openListeners(int listenPort) throws IOException {
+        List<ServerSocketChannel> channels = new ArrayList<>();
         try {
-            String jarPath = jarUrl.getPath().substring(5, jarUrl.getPath().indexOf("!"));
-            JarFile jarFile = new JarFile(jarPath);
-            Enumeration<JarEntry> entries = jarFile.entries();
-
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                String entryName = entry.getName();
-
-                if (entryName.endsWith(".class") && entryName.startsWith(packageName.replace('.', '/'))) {
-                    String className = entryName.replace('/', '.').substring(0, entryName.length() - 6);
-                    try {
-                        Class<?> clazz = Class.forName(className);
-                        if (clazz.isAnnotationPresent(RestController.class)) {
-                            controllers.add(clazz);
-                        }
-                    } catch (ClassNotFoundException e) {
-                        // Ignorar clases que no se pueden cargar
-                    }
-                }
+            ServerSocketChannel first = ServerSocketChannel.open();
+            channels.add(first);
+            boolean reuse = reusePort && first.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+            if (reusePort && !reuse) {
+                System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.WARNING, "SO_REUSEPORT is not supported, using a single acceptor");
             }
-
-            jarFile.close();
-        } catch (Exception e) {
-            System.err.println("Error procesando JAR: " + e.getMessage());
+            bindListener(first, listenPort, reuse);
+            // Con el puerto 0 los demás se unen al puerto que se asignó
+            int boundPort = first.socket().getLocalPort();
+            for (int i = 1; reuse && i < acceptors; i++) {
+                ServerSocketChannel channel = ServerSocketChannel.open();
+                channels.add(channel);
+                bindListener(channel, boundPort, true);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (ServerSocketChannel channel : channels) {
+                channel.close();
+            }
+            throw e;
         }
+        return List.copyOf(channels);
+    }
 
-        return controllers;
+    private static void bindListener(ServerSocketChannel channel, int listenPort, boolean reuse) throws IOException {
+        if (reuse) {
+            channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+        }
+        if (receiveBufferSize > 0) {
+            // Se hereda en las conexiones aceptadas; debe fijarse antes de bind para ventanas grandes
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+        }
+        channel.bind(new InetSocketAddress(bindAddress, listenPort), backlog);
     }
 
     /**
-     * The main method to create the http server
-     *
-     * @param args
-     * @throws IOException
-     * @throws URISyntaxException
+     * Aplica las opciones configuradas a una conexión aceptada
      */
-    public static void startServer(String[] args) throws IOException, URISyntaxException {
-
-        loadServices(args);
-
-        ServerSocket serverSocket = null;
-        try {
-            serverSocket = new ServerSocket(PORT);
-        } catch (IOException e) {
-            System.err.println("Could not listen on port: " + PORT + ".");
-            System.exit(1);
+    static void configureAccepted(SocketChannel channel) throws IOException {
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, tcpNoDelay);
+        if (sendBufferSize > 0) {
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, sendBufferSize);
         }
-        Socket clientSocket = null;
-
-        boolean running = true;
+    }
 
+    /**
+     * Ciclo de aceptación del motor bloqueante: despacha cada conexión a un
+     * hilo virtual
+     *
+     * @param listener socket de escucha de este acceptor
+     */
+    private static void acceptConnections(ServerSocket listener) {
         // Recibe más de una solicitud
         while (running) {
+            Socket clientSocket;
+            try {
+                // Espera un cupo libre antes de aceptar otra conexión
+                connectionPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
 
             try {
                 // Acepta la solicitd del cliente 
-                System.out.println("Listo para recibir ...");
-                clientSocket = serverSocket.accept();
+                clientSocket = listener.accept();
             } catch (IOException e) {
+                connectionPermits.release();
+                if (!running) {
+                    break;
+                }
                 System.err.println("Accept failed.");
-                System.exit(1);
+                continue;
             }
 
-            // create the IO streams
-            PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true);
-            BufferedReader in = new BufferedReader(
-                    new InputStreamReader(
-                            clientSocket.getInputStream()));
-            String inputLine;
+            try {
+                executor.execute(() -> handleClient(clientSocket));
+            } catch (RejectedExecutionException e) {
+                connectionPermits.release();
+                try {
+                    clientSocket.close();
+                } catch (IOException closeError) {
+                    // Ignorar: la conexión no se llegó a atender
+                }
+            }
+        }
+    }
 
-            boolean isFirstLine = true;
-            URI requestUri = null;
+    /**
+     * Detiene el servidor: deja de aceptar conexiones y espera a que las
+     * solicitudes en curso terminen antes de retornar.
+     */
+    public static synchronized void stopServer() {
+        running = false;
+        for (ServerSocketChannel listener : listeners) {
+            if (listener.isOpen()) {
+                try {
+                    listener.close();
+                } catch (IOException e) {
+                    System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, (String) null, e);
+                }
+            }
+        }
+        // Las conexiones inactivas no tienen trabajo pendiente
+        for (Socket idle : idleConnections) {
+            try {
+                idle.close();
+            } catch (IOException e) {
+                // Ignorar: la conexión ya estaba cerrada
+            }
+        }
+        if (nioServer != null) {
+            nioServer.stop(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Las solicitudes ya terminaron: se escriben sus líneas pendientes
+        accessLog.flush();
+    }
+
+    /**
+     * Configura la concurrencia del servidor. Debe llamarse antes de
+     * {@link #startServer(String[])}.
+     *
+     * @param maxInFlight máximo de conexiones atendidas al mismo tiempo
+     * @param acceptBacklog tamaño de la cola de conexiones pendientes del socket
+     */
+    public static void configureConcurrency(int maxInFlight, int acceptBacklog) {
+        if (maxInFlight <= 0 || acceptBacklog <= 0) {
+            throw new IllegalArgumentException("maxInFlight and acceptBacklog must be positive");
+        }
+        maxConnections = maxInFlight;
+        backlog = acceptBacklog;
+    }
+
+    /**
+     * Configura la dirección y el puerto de escucha que usa
+     * {@link #startServer(String[])}. Debe llamarse antes de iniciarlo.
+     *
+     * @param address dirección IP o nombre de la interfaz, o null para todas
+     * @param listenPort puerto de escucha (0 para uno libre)
+     * @throws IllegalArgumentException si el puerto no es válido o la
+     * dirección no se puede resolver
+     */
+    public static void configureListener(String address, int listenPort) {
+        if (listenPort < 0 || listenPort > 65_535) {
+            throw new IllegalArgumentException("port must be between 0 and 65535");
+        }
+        InetAddress resolved = null;
+        if (address != null && !address.isBlank()) {
+            try {
+                resolved = InetAddress.getByName(address.strip());
+            } catch (UnknownHostException e) {
+                throw new IllegalArgumentException("Unknown bind address " + address, e);
+            }
+        }
+        bindAddress = resolved;
+        port = listenPort;
+    }
+
+    /**
+     * Configura cuántos hilos aceptan conexiones. Con más de uno cada
+     * acceptor abre su propio socket en el mismo puerto con SO_REUSEPORT y
+     * el kernel reparte las conexiones entre ellos, así la aceptación no se
+     * serializa en un solo socket. SO_REUSEPORT también permite que varias
+     * instancias del servidor escuchen en el mismo puerto. Debe llamarse
+     * antes de {@link #startServer(String[])}.
+     *
+     * @param count número de acceptors
+     * @param reuse si los sockets de escucha usan SO_REUSEPORT; requerido
+     * con más de un acceptor
+     */
+    public static void configureAcceptors(int count, boolean reuse) {
+        if (count <= 0 || (count > 1 && !reuse)) {
+            throw new IllegalArgumentException("acceptors must be positive and more than one requires reusePort");
+        }
+        acceptors = count;
+        reusePort = reuse;
+    }
+
+    /**
+     * Configura las opciones de los sockets. Debe llamarse antes de
+     * {@link #startServer(String[])}.
+     *
+     * @param noDelay TCP_NODELAY: envía cada escritura sin esperar a
+     * juntarla con la siguiente (algoritmo de Nagle)
+     * @param receiveBuffer SO_RCVBUF en bytes, o 0 para el del sistema
+     * @param sendBuffer SO_SNDBUF en bytes, o 0 para el del sistema
+     */
+    public static void configureSocketOptions(boolean noDelay, int receiveBuffer, int sendBuffer) {
+        if (receiveBuffer < 0 || sendBuffer < 0) {
+            throw new IllegalArgumentException("buffer sizes must not be negative");
+        }
+        tcpNoDelay = noDelay;
+        receiveBufferSize = receiveBuffer;
+        sendBufferSize = sendBuffer;
+    }
+
+    /**
+     * Configura las conexiones persistentes (keep-alive). Debe llamarse antes
+     * de {@link #startServer(String[])}.
+     *
+     * @param idleTimeout milisegundos que una conexión puede estar inactiva
+     * @param maxRequests máximo de solicitudes atendidas por conexión
+     */
+    public static void configureKeepAlive(int idleTimeout, int maxRequests) {
+        if (idleTimeout <= 0 || maxRequests <= 0) {
+            throw new IllegalArgumentException("idleTimeout and maxRequests must be positive");
+        }
+        idleTimeoutMillis = idleTimeout;
+        maxRequestsPerConnection = maxRequests;
+    }
+
+    /**
+     * Selecciona el motor del servidor. Debe llamarse antes de
+     * {@link #startServer(String[])}.
+     *
+     * @param serverEngine motor a usar
+     * @param loops número de event loops del motor NIO (ignorado por el bloqueante)
+     */
+    public static void configureEngine(Engine serverEngine, int loops) {
+        if (serverEngine == null || loops <= 0) {
+            throw new IllegalArgumentException("engine must not be null and loops must be positive");
+        }
+        engine = serverEngine;
+        eventLoops = loops;
+    }
+
+    /**
+     * Configura el tamaño máximo de un cuerpo que se lee completo en
+     * memoria: los parámetros {@code @RequestBody} de tipo byte[], String
+     * o ByteBuffer, y los cuerpos que recibe el motor NIO. Con
+     * InputStream el cuerpo se lee a medida que llega y no tiene límite en
+     * el motor bloqueante. Si se supera se responde 413. También es lo
+     * máximo que se descarta de un cuerpo que el controlador no leyó; si
+     * falta más, la conexión se cierra en lugar de reutilizarse.
+     *
+     * @param maxBytes bytes máximos del cuerpo
+     */
+    public static void configureRequestBody(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        maxBufferedBodyBytes = maxBytes;
+    }
+
+    static long getMaxBufferedBodyBytes() {
+        return maxBufferedBodyBytes;
+    }
+
+    static int getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    static int getMaxRequestsPerConnection() {
+        return maxRequestsPerConnection;
+    }
+
+    /**
+     * Configura el presupuesto de la caché de archivos estáticos (HTML, CSS
+     * y JS). Reemplaza la caché actual.
+     *
+     * @param maxBytes bytes máximos en caché
+     * @param maxEntryBytes tamaño máximo de un archivo para guardarse en caché
+     */
+    public static void configureStaticCache(long maxBytes, long maxEntryBytes) {
+        if (maxBytes <= 0 || maxEntryBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes and maxEntryBytes must be positive");
+        }
+        StaticFileCache cache = new StaticFileCache(maxBytes, maxEntryBytes, StaticFileCache.DEFAULT_REVALIDATE_MILLIS);
+        cache.setCompressionMinSize(compressionMinSize);
+        staticCache = cache;
+    }
+
+    /**
+     * Configura la compresión gzip/deflate de las respuestas de texto y
+     * JSON. Solo se comprimen las respuestas de al menos {@code minSize}
+     * bytes cuando el cliente las acepta en Accept-Encoding.
+     *
+     * @param enabled si se comprimen las respuestas
+     * @param minSize tamaño mínimo en bytes para comprimir
+     */
+    public static void configureCompression(boolean enabled, int minSize) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("minSize must not be negative");
+        }
+        compressionMinSize = enabled ? minSize : -1;
+        staticCache.setCompressionMinSize(compressionMinSize);
+        responseCache.clear();
+    }
+
+    /**
+     * Configura la caché de respuestas de los endpoints {@code @Cacheable}.
+     * Reemplaza la caché actual.
+     *
+     * @param maxEntries número máximo de respuestas en caché
+     * @param maxBytes bytes máximos en caché
+     */
+    public static void configureResponseCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("maxEntries and maxBytes must be positive");
+        }
+        responseCache = new ResponseCache(maxEntries, maxBytes);
+    }
+
+    /**
+     * Configura la ruta donde se exponen las métricas en formato de texto
+     * de Prometheus. Las métricas se registran aunque la ruta esté
+     * desactivada.
+     *
+     * @param path ruta de las métricas (por ejemplo "/metrics"), o null para no exponerlas
+     */
+    public static void configureMetrics(String path) {
+        if (path != null && (!path.startsWith("/") || path.startsWith("/app"))) {
+            throw new IllegalArgumentException("path must start with / and must not be under /app");
+        }
+        metricsPath = path;
+    }
 
-            while ((inputLine = in.readLine()) != null) {
+    static Metrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Configura el registro de acceso. Las líneas se escriben desde un hilo
+     * de fondo, en lotes, sin bloquear las solicitudes.
+     *
+     * @param level solicitudes que se registran
+     * @param file archivo del registro, o null para la salida estándar
+     */
+    public static void configureAccessLog(AccessLogLevel level, String file) {
+        if (level == null || (file != null && file.isBlank())) {
+            throw new IllegalArgumentException("level must not be null and file must not be blank");
+        }
+        accessLogLevel = level;
+        accessLogFile = file == null ? null : Paths.get(file);
+        replaceAccessLog();
+    }
+
+    /**
+     * Configura la rotación del archivo del registro de acceso: al superar
+     * {@code maxFileBytes} el archivo pasa a file.1, el anterior a file.2,
+     * y así hasta {@code maxFiles}.
+     *
+     * @param maxFileBytes tamaño máximo de un archivo
+     * @param maxFiles archivos rotados que se conservan
+     */
+    public static void configureAccessLogRotation(long maxFileBytes, int maxFiles) {
+        if (maxFileBytes <= 0 || maxFiles <= 0) {
+            throw new IllegalArgumentException("maxFileBytes and maxFiles must be positive");
+        }
+        accessLogMaxFileBytes = maxFileBytes;
+        accessLogMaxFiles = maxFiles;
+        replaceAccessLog();
+    }
 
-                if (isFirstLine) {
-                    // get the URI
-                    requestUri = new URI(inputLine.split(" ")[1]);
-                    System.out.println("Path: " + requestUri.getPath());
-                    isFirstLine = false;
+    /**
+     * Configura el buffer entre las solicitudes y el hilo que escribe el
+     * registro de acceso
+     *
+     * @param capacity entradas pendientes de escribir; se redondea a potencia de dos
+     * @param blockWhenFull si una solicitud espera cuando el buffer está
+     * lleno; si no, su línea se descarta y se reporta cuántas se perdieron
+     */
+    public static void configureAccessLogBuffer(int capacity, boolean blockWhenFull) {
+        if (capacity <= 0 || capacity > 1 << 24) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^24");
+        }
+        accessLogCapacity = capacity;
+        accessLogBlockWhenFull = blockWhenFull;
+        replaceAccessLog();
+    }
+
+    private static synchronized void replaceAccessLog() {
+        AccessLog previous = accessLog;
+        accessLog = new AccessLog(accessLogLevel, accessLogFile, accessLogMaxFileBytes, accessLogMaxFiles,
+                accessLogCapacity, accessLogBlockWhenFull);
+        previous.close();
+    }
+
+    static AccessLog accessLog() {
+        return accessLog;
+    }
+
+    /**
+     * Configura el envío de imágenes: los archivos de hasta
+     * {@code mappedThreshold} bytes se mapean en memoria y se reutiliza el
+     * mapeo; los más grandes se envían con FileChannel.transferTo.
+     *
+     * @param mappedThreshold tamaño máximo de un archivo mapeado; un
+     * ByteBuffer no puede pasar de Integer.MAX_VALUE bytes
+     * @param maxMappedFiles número máximo de archivos mapeados a la vez
+     */
+    public static void configureFileTransfer(long mappedThreshold, int maxMappedFiles) {
+        if (mappedThreshold < 0 || mappedThreshold > Integer.MAX_VALUE || maxMappedFiles <= 0) {
+            throw new IllegalArgumentException("mappedThreshold must be between 0 and " + Integer.MAX_VALUE
+                    + " and maxMappedFiles must be positive");
+        }
+        fileSender = new FileSender(mappedThreshold, maxMappedFiles);
+    }
+
+    /**
+     * Configura el header Cache-Control de los archivos con la extensión
+     * dada. Con 0 se envía "no-cache" (el navegador revalida con ETag) y
+     * con un valor negativo no se envía el header.
+     *
+     * @param extension extensión del archivo, con o sin punto (por ejemplo "css")
+     * @param maxAgeSeconds segundos que el navegador puede usar su copia sin revalidar
+     */
+    public static void configureCacheControl(String extension, int maxAgeSeconds) {
+        if (extension == null || extension.isBlank()) {
+            throw new IllegalArgumentException("extension must not be empty");
+        }
+        String key = (extension.startsWith(".") ? extension.substring(1) : extension).toLowerCase();
+        if (maxAgeSeconds < 0) {
+            cacheControl.remove(key);
+        } else {
+            cacheControl.put(key, maxAgeSeconds == 0 ? "no-cache" : "max-age=" + maxAgeSeconds);
+        }
+        // Los headers de los archivos en caché ya están renderizados
+        staticCache.clear();
+    }
+
+    private static String cacheControlFor(String file) {
+        return cacheControl.get(file.substring(file.lastIndexOf('.') + 1).toLowerCase());
+    }
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Puerto en el que escucha el servidor, o -1 si no se ha iniciado
+     */
+    public static int getLocalPort() {
+        ServerSocket socket = serverSocket;
+        return socket == null ? -1 : socket.getLocalPort();
+    }
+
+    /**
+     * Atiende una conexión persistente: lee solicitudes en secuencia
+     * (incluidas las enviadas en pipeline) y las responde en orden hasta que
+     * el cliente pida cerrar, se alcance el máximo de solicitudes por
+     * conexión o la conexión quede inactiva más de {@code idleTimeoutMillis}.
+     *
+     * @param clientSocket
+     */
+    private static void handleClient(Socket clientSocket) {
+        // out se declara después de in para que se cierre (y vacíe) primero
+        try (Socket socket = clientSocket;
+             InputStream in = socket.getInputStream();
+             SocketResponseStream out = new SocketResponseStream(socket.getOutputStream(), socket.getChannel())) {
+
+            metrics.connectionOpened();
+            configureAccepted(socket.getChannel());
+            socket.setSoTimeout(idleTimeoutMillis);
+            HttpRequestParser parser = new HttpRequestParser();
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            buffer.flip();
+            int served = 0;
+
+            while (running) {
+                HttpRequest request;
+                idleConnections.add(socket);
+                try {
+                    request = readRequest(in, buffer, parser);
+                } catch (HttpParseException e) {
+                    errorResponse(out, e.getStatus());
+                    out.flush();
+                    break;
+                } finally {
+                    idleConnections.remove(socket);
                 }
-                System.out.println("Received: " + inputLine);
-                if (!in.ready()) {
+                if (request == null) {
                     break;
                 }
-            }
+                RequestBodyStream body = null;
+                BodyDecoder decoder = BodyDecoder.forRequest(request);
+                if (decoder != null) {
+                    body = new RequestBodyStream(decoder, in, buffer, expectsContinue(request) ? out : null);
+                    request.setBody(body);
+                }
 
-            handlerequestType(requestUri, out, clientSocket.getOutputStream());
+                served++;
+                if (served >= maxRequestsPerConnection || !running) {
+                    request.setKeepAlive(false);
+                }
 
-            out.close();
-            in.close();
-            clientSocket.close();
+                handlerequestType(request, out);
+                out.flush();
 
+                if (!request.isKeepAlive() || (body != null && !body.finish(maxBufferedBodyBytes))) {
+                    break;
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            // Conexión inactiva: se cierra sin responder
+        } catch (IOException | RuntimeException e) {
+            if (running) {
+                System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, (String) null, e);
+            }
+        } finally {
+            metrics.connectionClosed();
+            connectionPermits.release();
+        }
+    }
+
+    /**
+     * Lee del stream hasta que el parser complete una solicitud. Retorna
+     * null si el cliente cerró la conexión.
+     *
+     * @param in
+     * @param buffer bytes leídos y aún no consumidos, en modo lectura
+     * @param parser
+     * @return la solicitud leída o null al final del stream
+     * @throws IOException
+     * @throws HttpParseException si la solicitud no es válida
+     */
+    private static HttpRequest readRequest(InputStream in, ByteBuffer buffer, HttpRequestParser parser) throws IOException, HttpParseException {
+        while (true) {
+            HttpRequest request = parser.parse(buffer);
+            if (request != null) {
+                return request;
+            }
+            // El parser consumió todo el buffer
+            int read = in.read(buffer.array(), 0, buffer.capacity());
+            if (read < 0) {
+                if (!parser.isIdle()) {
+                    throw new HttpParseException("400 Bad Request", "Connection closed mid-request");
+                }
+                return null;
+            }
+            metrics.addBytesReceived(read);
+            buffer.position(0).limit(read);
         }
-        serverSocket.close();
+    }
+
+    /**
+     * Indica si el cliente espera "100 Continue" antes de enviar el cuerpo
+     */
+    static boolean expectsContinue(HttpRequest request) {
+        return "HTTP/1.1".equals(request.getVersion()) && request.getHeader("Expect").equalsIgnoreCase("100-continue");
     }
 
     /**
      * This method handle the request and its response by reading its file type
      *
-     * @param requestUri
+     * @param request
      * @param out
-     * @param outputStream
-     */
-    private static void handlerequestType(URI requestUri, PrintWriter out, OutputStream outputStream) {
-        if (requestUri.getPath().endsWith(".html") || requestUri.getPath().equalsIgnoreCase("/")) {
-            getHTML(requestUri, out);
-        } else if (requestUri.getPath().endsWith(".css")) {
-            getCSS(requestUri, out);
-        } else if (requestUri.getPath().endsWith(".js")) {
-            getJS(requestUri, out);
-        } else if (requestUri.getPath().startsWith("/app")) {
-            processRequest(requestUri, out);
-        } else if (requestUri.getPath().endsWith(".jpeg") || requestUri.getPath().endsWith(".jpg")
-                || requestUri.getPath().endsWith(".png") || requestUri.getPath().endsWith(".ico")) {
-            try {
-                getImage(requestUri, outputStream);
-            } catch (IOException ex) {
-                System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, (String) null, ex);
+     * @throws IOException
+     */
+    static void handlerequestType(HttpRequest request, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        String path = request.getPath();
+        ResponseSink sink = out instanceof ResponseSink responseSink ? responseSink : null;
+        long writtenBefore = sink != null ? sink.written() : 0;
+        if ("HEAD".equals(request.getMethod())) {
+            // Mismos headers que GET, sin cuerpo
+            out = new HeadResponseStream(out);
+        }
+        try {
+            if (path.endsWith(".html") || path.equalsIgnoreCase("/")) {
+                getHTML(request, out);
+            } else if (path.endsWith(".css")) {
+                getCSS(request, out);
+            } else if (path.endsWith(".js")) {
+                getJS(request, out);
+            } else if (path.startsWith("/app")) {
+                processRequest(request, out);
+            } else if (path.endsWith(".jpeg") || path.endsWith(".jpg")
+                    || path.endsWith(".png") || path.endsWith(".ico")) {
+                getImage(request, out);
+            } else if (path.equals(metricsPath)) {
+                getMetrics(request, out);
+            } else {
+                notFound(request, out);
             }
-        } else {
-            notFound(out);
+        } finally {
+            // Sin respuesta (status 0) si la solicitud terminó con una excepción
+            long nanos = System.nanoTime() - start;
+            metrics.record(request, nanos);
+            accessLog.log(request, sink != null ? sink.written() - writtenBefore : -1, nanos);
         }
     }
 
@@ -282,214 +946,528 @@ public class HttpServer {
     /**
      * handle html responses
      *
-     * @param requestUri
+     * @param request
      * @param out
      */
-    private static void getHTML(URI requestUri, PrintWriter out) {
-        String outputLine = "HTTP/1.1 200 OK\n\r"
-                + "contente-type: text/html\n\r"
-                + "\n\r";
-
+    private static void getHTML(HttpRequest request, OutputStream out) throws IOException {
         // create the file path
-        String file = requestUri.getPath().equalsIgnoreCase("/") ? basePath + "index.html" : basePath + requestUri.getPath();
-
-        if (!isFileExists(file)) {
-            notFound(out);
-            return;
-        }
-
-        // start reading the file
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String fileLine;
-            while ((fileLine = reader.readLine()) != null) {
-                outputLine += fileLine + "\n";
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        out.write(outputLine);
+        String file = request.getPath().equalsIgnoreCase("/") ? basePath + "index.html" : basePath + request.getPath();
+        getTextFile(request, out, file, "text/html");
     }
 
     /**
      * hanlde css responses
      *
-     * @param requestUri
+     * @param request
      * @param out
      */
-    private static void getCSS(URI requestUri, PrintWriter out) {
-        String outputLine = "HTTP/1.1 200 OK\n\r"
-                + "contente-type: text/css\n\r"
-                + "\n\r";
+    private static void getCSS(HttpRequest request, OutputStream out) throws IOException {
+        getTextFile(request, out, basePath + request.getPath(), "text/css");
+    }
 
-        String file = basePath + requestUri.getPath();
+    /**
+     * handle javascript responses
+     *
+     * @param request
+     * @param out
+     */
+    private static void getJS(HttpRequest request, OutputStream out) throws IOException {
+        getTextFile(request, out, basePath + request.getPath(), "text/javascript");
+    }
 
-        if (!isFileExists(file)) {
-            notFound(out);
+    /**
+     * Responde con el contenido de un archivo de texto desde la caché de
+     * archivos estáticos, o desde el disco si es demasiado grande para ella
+     *
+     * @param request
+     * @param out
+     * @param file ruta del archivo
+     * @param contentType
+     */
+    private static void getTextFile(HttpRequest request, OutputStream out, String file, String contentType) throws IOException {
+        Path path = Paths.get(file).normalize();
+        if (!insideBasePath(path)) {
+            notFound(request, out);
             return;
         }
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String fileLine;
-            while ((fileLine = reader.readLine()) != null) {
-                outputLine += fileLine + "\n";
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        String cacheControl = cacheControlFor(file);
+        StaticFileCache.Entry entry = staticCache.get(path, contentType, cacheControl);
+        if (entry == null) {
+            notFound(request, out);
+            return;
+        }
+        if (!entry.isInMemory()) {
+            sendLargeTextFile(request, out, path, contentType, cacheControl, entry.lastModified, entry.size);
+            return;
         }
 
-        out.write(outputLine);
+        String encoding = acceptedEncoding(request);
+        if (ConditionalRequest.isNotModified(request, entry.etag(encoding), entry.lastModified)) {
+            request.setResponseStatus(304);
+            entry.writeNotModified(out, request.isKeepAlive(), encoding);
+            return;
+        }
+        request.setResponseStatus(200);
+        entry.writeTo(out, request.isKeepAlive(), encoding);
     }
 
     /**
-     * handle javascript responses
-     *
-     * @param requestUri
-     * @param out
+     * Indica si el archivo queda dentro de basePath una vez resueltos los
+     * "..". El parser ya rechaza esos segmentos; esto cubre las solicitudes
+     * que llegan por otro camino antes de abrir el archivo o usarlo como
+     * clave de la caché.
      */
-    private static void getJS(URI requestUri, PrintWriter out) {
-        String outputLine = "HTTP/1.1 200 OK\n\r"
-                + "contente-type: text/javascript\n\r"
-                + "\n\r";
-
-        String file = basePath + requestUri.getPath();
+    private static boolean insideBasePath(Path file) {
+        return file.toAbsolutePath().normalize().startsWith(Paths.get(basePath).toAbsolutePath().normalize());
+    }
 
-        if (!isFileExists(file)) {
-            notFound(out);
+    /**
+     * Envía un archivo de texto que no cabe en la caché sin leerlo completo
+     * al heap. Sin codificar va con FileSender y Content-Length; si el
+     * cliente acepta gzip o deflate se comprime solo esa codificación, por
+     * partes y con Transfer-Encoding: chunked. En un event loop se envía
+     * siempre sin comprimir: comprimir ahí detendría sus demás conexiones y
+     * todo el resultado quedaría en memoria esperando al socket. El ETag se
+     * arma con la fecha de modificación y el tamaño en lugar de un hash del
+     * contenido.
+     */
+    private static void sendLargeTextFile(HttpRequest request, OutputStream out, Path file, String contentType,
+            String cacheControl, long lastModified, long length) throws IOException {
+        boolean compressible = compressionMinSize >= 0 && length >= compressionMinSize && ContentEncoding.isCompressible(contentType);
+        // HTTP/1.0 no tiene chunks: se envía sin comprimir con Content-Length
+        String encoding = compressible && !"HTTP/1.0".equals(request.getVersion()) && !NioHttpServer.onEventLoop()
+                ? acceptedEncoding(request) : null;
+        String etag = ETagCache.forEncoding(ETagCache.fromAttributes(lastModified, length), encoding);
+        String validators = "ETag: " + etag + "\r\n"
+                + "Last-Modified: " + ConditionalRequest.formatDate(lastModified) + "\r\n"
+                + (cacheControl != null ? "Cache-Control: " + cacheControl + "\r\n" : "")
+                + (compressible ? "Vary: Accept-Encoding\r\n" : "");
+        String connection = "Connection: " + (request.isKeepAlive() ? "keep-alive" : "close") + "\r\n\r\n";
+        if (ConditionalRequest.isNotModified(request, etag, lastModified)) {
+            request.setResponseStatus(304);
+            out.write(("HTTP/1.1 304 Not Modified\r\n" + validators + connection).getBytes(StandardCharsets.US_ASCII));
             return;
         }
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String fileLine;
-            while ((fileLine = reader.readLine()) != null) {
-                outputLine += fileLine + "\n";
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        if (encoding == null) {
+            writeHeaders(out, request, "200 OK", contentType, length, validators);
+            fileSender.send(out, file, lastModified, length, 0, length);
+            return;
         }
 
-        out.write(outputLine);
+        request.setResponseStatus(200);
+        out.write(("HTTP/1.1 200 OK\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + validators
+                + "Content-Encoding: " + encoding + "\r\n"
+                + "Transfer-Encoding: chunked\r\n"
+                + connection).getBytes(StandardCharsets.US_ASCII));
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        OutputStream compressed = ContentEncoding.encoder(new ChunkedOutputStream(out, true), encoding);
+        try (InputStream in = Files.newInputStream(file)) {
+            in.transferTo(compressed);
+        }
+        // close() escribe el final del formato y el chunk final; si la lectura falla no se
+        // llama, así el cliente no toma un cuerpo cortado por completo
+        compressed.close();
     }
 
     /**
      * handle the rest app
      *
-     * @param requestUri
+     * @param request
      * @param out
      */
-    private static void processRequest(URI requestUri, PrintWriter out) {
+    private static void processRequest(HttpRequest request, OutputStream out) throws IOException {
+
+        String serviceRoute = request.getPath().substring(4);
+        RouteRegistry registry = routes(request.getMethod());
+        Router.Match match = registry != null ? registry.router().match(serviceRoute) : null;
+
+        if (match == null) {
+            String allow = allowedMethods(serviceRoute);
+            if (allow.isEmpty()) {
+                notFound(request, out);
+            } else {
+                writeHeaders(out, request, "405 Method Not Allowed", "text/plain", METHOD_NOT_ALLOWED_BODY.length, "Allow: " + allow + "\r\n");
+                out.write(METHOD_NOT_ALLOWED_BODY);
+            }
+            return;
+        }
+        request.setPathVariables(match.names(), match.values());
+        Method m = match.method();
 
-        String serviceRoute = requestUri.getPath().substring(4);
-        Method m = services.get(serviceRoute);
+        RouteInvoker invoker = invokers.get(m);
+        if (invoker == null) {
+            // Servicio registrado directamente en services, sin pasar por loadControllerMethods
+            try {
+                invoker = RouteInvoker.compile(m);
+            } catch (IllegalArgumentException ex) {
+                System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, (String) null, ex);
+                internalServerError(request, out);
+                return;
+            }
+            invokers.put(m, invoker);
+        }
+        request.setRouteMetrics(invoker.metrics());
 
-        if (m == null) {
-            notFound(out);
-            return;
+        ResponseCache cache = responseCache;
+        ResponseCache.Key cacheKey = null;
+        CompletableFuture<ResponseCache.Entry> loading = null;
+        if (invoker.isCacheable() && ("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            try {
+                cacheKey = invoker.cacheKey(request);
+            } catch (HttpParseException ex) {
+                // Parámetro inválido: la invocación normal responde el error
+            }
+        }
+        if (cacheKey != null) {
+            ResponseCache.Entry cached = cache.get(cacheKey);
+            // En un event loop no se espera la carga de otra solicitud: bloquearía todas sus
+            // conexiones. El controlador se invoca y la respuesta se guarda con put.
+            boolean coalesce = !NioHttpServer.onEventLoop();
+            if (cached == null && coalesce) {
+                loading = new CompletableFuture<>();
+                CompletableFuture<ResponseCache.Entry> inFlight = cache.startLoading(cacheKey, loading);
+                if (inFlight != null) {
+                    // Otra solicitud ya está invocando el controlador con la misma clave
+                    loading = null;
+                    cached = inFlight.join();
+                }
+            }
+            if (cached != null) {
+                request.setResponseStatus(200);
+                cached.writeTo(out, request.isKeepAlive(), acceptedEncoding(request));
+                return;
+            }
+            if (loading == null && coalesce) {
+                // La otra respuesta no se pudo guardar: se invoca sin caché
+                cacheKey = null;
+            }
         }
 
-        HttpRequest req = new HttpRequest(requestUri);
-        HttpResponse res = new HttpResponse();
+        ResponseCache.Entry created = null;
+        HttpResponse res = HttpResponse.acquire();
+        res.bind(out, request);
+        try {
+            Object result;
+            try {
+                result = invoker.invoke(request, res);
+            } catch (VirtualMachineError ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                if (res.isCommitted()) {
+                    // Los headers ya se enviaron: solo queda cortar la conexión
+                    throw new IOException("Controller failed after committing the response", ex);
+                }
+                if (ex instanceof HttpParseException parseError) {
+                    // Parámetro inválido o cuerpo demasiado grande: lo que queda del cuerpo no se lee
+                    request.setKeepAlive(false);
+                    byte[] body = parseError.getStatus().getBytes(StandardCharsets.US_ASCII);
+                    writeResponse(out, request, parseError.getStatus(), "text/plain", body);
+                    return;
+                }
+                System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, (String) null, ex);
+                internalServerError(request, out);
+                return;
+            }
 
-        String header = "HTTP/1.1 200 OK\n\r"
-                + "contente-type: application/json\n\r"
-                + "\n\r";
+            if (res.isCommitted()) {
+                // El controlador escribió el cuerpo en getOutputStream()
+                request.setResponseStatus(res.getStatus());
+                res.finishStream();
+                return;
+            }
+            ChunkedBody chunks = ChunkedBody.of(result);
+            if (chunks != null) {
+                writeStream(out, request, res, chunks);
+                return;
+            }
+            // El valor retornado se agrega a lo que el controlador haya escrito en la respuesta
+            try {
+                invoker.writeResult(result, res);
+            } catch (RuntimeException ex) {
+                System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, (String) null, ex);
+                internalServerError(request, out);
+                return;
+            }
+            if (cacheKey != null && res.getStatus() == 200) {
+                created = ResponseCache.Entry.render(res, invoker.getCacheTtlNanos(), compressionMinSize);
+                request.setResponseStatus(200);
+                created.writeTo(out, request.isKeepAlive(), acceptedEncoding(request));
+                return;
+            }
+            writeResponse(out, request, res);
+        } finally {
+            res.release();
+            if (loading != null) {
+                cache.finishLoading(cacheKey, loading, created);
+            } else if (created != null) {
+                cache.put(cacheKey, created);
+            }
+        }
+    }
 
+    /**
+     * Envía con Transfer-Encoding: chunked el cuerpo que el controlador
+     * retornó como Stream, Iterator o Flow.Publisher. Cada elemento se pide
+     * cuando el socket aceptó el anterior.
+     */
+    private static void writeStream(OutputStream out, HttpRequest request, HttpResponse response, ChunkedBody body) throws IOException {
+        request.setResponseStatus(response.getStatus());
+        ChunkedOutputStream head;
         try {
-            // Obtener todos los parámetros del método
-            Parameter[] parameters = m.getParameters();
-            Object[] argsValues = new Object[parameters.length];
-
-            // Procesar cada parámetro
-            for (int i = 0; i < parameters.length; i++) {
-                Parameter param = parameters[i];
-
-                // Verificar si el parámetro tiene la anotación @RequestParam
-                if (param.isAnnotationPresent(RequestParam.class)) {
-                    RequestParam rp = param.getAnnotation(RequestParam.class);
-                    String queryParamName = rp.value();
-                    String paramValue = req.getValue(queryParamName);
-
-                    // Si el parámetro está vacío, usar el valor por defecto
-                    if (paramValue.equalsIgnoreCase("")) {
-                        paramValue = rp.defaultValue();
-                    }
+            head = response.writeStreamHead(out, request);
+        } catch (IOException | RuntimeException ex) {
+            body.close();
+            throw ex;
+        }
+        if (out instanceof ResponseSink sink) {
+            sink.sendStream(body, head.isFramed());
+        } else {
+            body.writeTo(out, head.isFramed());
+        }
+    }
 
-                    argsValues[i] = paramValue;
-                } else {
-                    // Si el parámetro no tiene @RequestParam, usar null o valor por defecto
-                    argsValues[i] = null;
+    /**
+     * Métodos con una ruta que coincide con el path, para el header Allow
+     *
+     * @return los métodos separados por coma, o cadena vacía si no hay
+     */
+    private static String allowedMethods(String serviceRoute) {
+        StringBuilder allow = new StringBuilder();
+        for (String method : ROUTED_METHODS) {
+            if (routes(method).router().match(serviceRoute) != null) {
+                if (allow.length() > 0) {
+                    allow.append(", ");
                 }
+                allow.append(method);
             }
-            
-            out.write(header + m.invoke(null, argsValues));
-        } catch (IllegalAccessException ex) {
-            System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, (String) null, ex);
-        } catch (InvocationTargetException ex) {
-            System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, (String) null, ex);
         }
-
+        return allow.toString();
     }
 
     /**
      * handle image response
      *
-     * @param requestUri
+     * @param request
      * @param out
      * @throws IOException
      */
-    private static void getImage(URI requestUri, OutputStream out) throws IOException {
-        String path = requestUri.getPath();
+    private static void getImage(HttpRequest request, OutputStream out) throws IOException {
+        String path = request.getPath();
         //File extension
         String fileExtension = path.substring(path.lastIndexOf(".") + 1).toLowerCase();
 
         String file = path.startsWith("/images/") ? basePath + path : basePath + "images/" + path;
 
-        File realFile = new File(file);
+        Path realFile = Paths.get(file);
+        if (!insideBasePath(realFile)) {
+            notFound(request, out);
+            return;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(realFile, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            notFound(request, out);
+            return;
+        }
+        if (!attributes.isRegularFile()) {
+            notFound(request, out);
+            return;
+        }
 
-        if (!realFile.exists()) {
-            PrintWriter outPrint = new PrintWriter(out, true);
-            notFound(outPrint);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // Las imágenes grandes no se leen completas en la primera solicitud solo para el hash
+        String etag = length > ETagCache.MAX_HASHED_SIZE
+                ? ETagCache.fromAttributes(lastModified, length)
+                : etagCache.get(realFile, lastModified, length);
+        String cache = cacheControlFor(path);
+        String validators = "ETag: " + etag + "\r\n"
+                + "Last-Modified: " + ConditionalRequest.formatDate(lastModified) + "\r\n"
+                + (cache != null ? "Cache-Control: " + cache + "\r\n" : "");
+        if (ConditionalRequest.isNotModified(request, etag, lastModified)) {
+            String header = "HTTP/1.1 304 Not Modified\r\n"
+                    + validators
+                    + "Connection: " + (request.isKeepAlive() ? "keep-alive" : "close") + "\r\n"
+                    + "\r\n";
+            request.setResponseStatus(304);
+            out.write(header.getBytes(StandardCharsets.US_ASCII));
             return;
         }
 
+        String contentType = "image/" + fileExtension;
+        String range = request.getHeader("Range");
+        if (!range.isEmpty() && ByteRanges.ifRangeMatches(request.getHeader("If-Range"), etag, lastModified)) {
+            List<ByteRanges.Range> ranges = ByteRanges.parse(range, length);
+            if (ranges != null) {
+                sendRanges(request, out, realFile, contentType, lastModified, length, validators, ranges);
+                return;
+            }
+        }
+
         //response header
-        String outputLine = "HTTP/1.1 200 OK\r\n"
-                + "Content-Type: image/" + fileExtension + "\r\n"
-                + "Content-Length: " + realFile.length() + "\r\n"
-                + "\r\n";
+        writeHeaders(out, request, "200 OK", contentType, length, validators + "Accept-Ranges: bytes\r\n");
 
-        try {
-            //Write headers as a text
-            out.write(outputLine.getBytes("UTF-8"));
-        } catch (UnsupportedEncodingException ex) {
-            System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, (String) null, ex);
+        //write content binary of image without copying it to the heap
+        fileSender.send(out, realFile, lastModified, length, 0, length);
+    }
+
+    /**
+     * Responde una solicitud con Range: 206 con un rango, 206
+     * multipart/byteranges con varios o 416 si ninguno es satisfacible.
+     * Solo se leen del archivo los bytes pedidos.
+     */
+    private static void sendRanges(HttpRequest request, OutputStream out, Path file, String contentType,
+            long lastModified, long length, String validators, List<ByteRanges.Range> ranges) throws IOException {
+        if (ranges.isEmpty()) {
+            writeHeaders(out, request, "416 Range Not Satisfiable", "text/plain", 0,
+                    "Content-Range: bytes */" + length + "\r\n");
+            return;
+        }
+        String headers = validators + "Accept-Ranges: bytes\r\n";
+        if (ranges.size() == 1) {
+            ByteRanges.Range r = ranges.get(0);
+            writeHeaders(out, request, "206 Partial Content", contentType, r.length(),
+                    headers + "Content-Range: " + r.contentRange(length) + "\r\n");
+            fileSender.send(out, file, lastModified, length, r.start(), r.length());
+            return;
         }
 
-        //write content binary of image
-        try (FileInputStream fileInputStream = new FileInputStream(realFile); BufferedInputStream bufferedInputStream = new BufferedInputStream(fileInputStream)) {
+        String boundary = Long.toHexString(System.nanoTime()) + Long.toHexString(lastModified);
+        byte[][] partHeads = new byte[ranges.size()][];
+        long contentLength = 0;
+        for (int i = 0; i < partHeads.length; i++) {
+            ByteRanges.Range r = ranges.get(i);
+            partHeads[i] = ((i == 0 ? "" : "\r\n") + "--" + boundary + "\r\n"
+                    + "Content-Type: " + contentType + "\r\n"
+                    + "Content-Range: " + r.contentRange(length) + "\r\n"
+                    + "\r\n").getBytes(StandardCharsets.US_ASCII);
+            contentLength += partHeads[i].length + r.length();
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        writeHeaders(out, request, "206 Partial Content", "multipart/byteranges; boundary=" + boundary, contentLength, headers);
+        for (int i = 0; i < partHeads.length; i++) {
+            ByteRanges.Range r = ranges.get(i);
+            out.write(partHeads[i]);
+            fileSender.send(out, file, lastModified, length, r.start(), r.length());
+        }
+        out.write(closing);
+    }
+
+    /**
+     * handle not found response
+     *
+     * @param request
+     * @param out
+     */
+    private static void notFound(HttpRequest request, OutputStream out) throws IOException {
+        writeResponse(out, request, "404 Not Found", "text/plain", NOT_FOUND_BODY);
+    }
+
+    private static void internalServerError(HttpRequest request, OutputStream out) throws IOException {
+        writeResponse(out, request, "500 Internal Server Error", "text/plain", SERVER_ERROR_BODY);
+    }
 
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = bufferedInputStream.read(buffer)) != -1) {
-                out.write(buffer, 0, bytesRead);
+    /**
+     * Responde las métricas en formato de texto de Prometheus, con una
+     * serie por cada endpoint registrado
+     */
+    private static void getMetrics(HttpRequest request, OutputStream out) throws IOException {
+        List<Metrics.LabeledRoute> labeled = new ArrayList<>();
+        for (String method : ROUTED_METHODS) {
+            for (Map.Entry<String, Method> route : new TreeMap<>(routes(method)).entrySet()) {
+                RouteInvoker invoker = invokers.get(route.getValue());
+                if (invoker != null) {
+                    labeled.add(new Metrics.LabeledRoute(method, "/app" + route.getKey(), invoker.metrics()));
+                }
             }
         }
-        out.flush();
+        byte[] body = metrics.render(labeled, staticCache, responseCache).getBytes(StandardCharsets.UTF_8);
+        writeResponse(out, request, "200 OK", Metrics.CONTENT_TYPE, body);
     }
 
     /**
-     * handle not found response
+     * Responde a una solicitud que no se pudo interpretar; la conexión se cierra después
      *
      * @param out
+     * @param status por ejemplo "400 Bad Request"
+     */
+    static void errorResponse(OutputStream out, String status) throws IOException {
+        HttpResponse response = HttpResponse.acquire();
+        try {
+            response.setStatus(status);
+            response.setContentType("text/plain");
+            response.write(status);
+            response.writeTo(out, false);
+        } finally {
+            response.release();
+        }
+    }
+
+    /**
+     * Codificación que acepta el cliente, o null si la compresión está
+     * desactivada o solo acepta identity
+     */
+    private static String acceptedEncoding(HttpRequest request) {
+        return compressionMinSize < 0 ? null : ContentEncoding.negotiate(request.getHeader("Accept-Encoding"));
+    }
+
+    /**
+     * Escribe una respuesta completa con Content-Length y el header
+     * Connection según la solicitud. Los tipos comprimibles que superan el
+     * umbral se comprimen si el cliente lo acepta.
      */
-    private static void notFound(PrintWriter out) {
-        String response = "HTTP/1.1 404 Not Found\r\n"
-                + "Content-Type: text/plain\r\n"
-                + "\r\n"
-                + "404 Not Found";
-        out.write(response);
+    private static void writeResponse(OutputStream out, HttpRequest request, String status, String contentType, byte[] body) throws IOException {
+        HttpResponse response = HttpResponse.acquire();
+        try {
+            response.setStatus(status);
+            response.setContentType(contentType);
+            response.write(body);
+            writeResponse(out, request, response);
+        } finally {
+            response.release();
+        }
     }
 
+    /**
+     * Escribe una respuesta armada por un controlador, comprimiendo el
+     * cuerpo igual que {@link #writeResponse(OutputStream, HttpRequest, String, String, byte[])}
+     */
+    private static void writeResponse(OutputStream out, HttpRequest request, HttpResponse response) throws IOException {
+        int length = response.getBodyLength();
+        if (compressionMinSize >= 0 && length >= compressionMinSize && ContentEncoding.isCompressible(response.getContentType())
+                && response.getHeader("Content-Encoding").isEmpty()) {
+            String encoding = acceptedEncoding(request);
+            if (encoding != null) {
+                response.setBody(ContentEncoding.encode(response.bodyBuffer(), 0, length, encoding));
+                response.setHeader("Content-Encoding", encoding);
+            }
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+        request.setResponseStatus(response.getStatus());
+        response.writeTo(out, request.isKeepAlive());
+    }
+
+    private static void writeHeaders(OutputStream out, HttpRequest request, String status, String contentType, long contentLength) throws IOException {
+        writeHeaders(out, request, status, contentType, contentLength, "");
+    }
+
+    private static void writeHeaders(OutputStream out, HttpRequest request, String status, String contentType, long contentLength, String extraHeaders) throws IOException {
+        request.setResponseStatus(Integer.parseInt(status, 0, 3, 10));
+        String header = "HTTP/1.1 " + status + "\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "Content-Length: " + contentLength + "\r\n"
+                + extraHeaders
+                + "Connection: " + (request.isKeepAlive() ? "keep-alive" : "close") + "\r\n"
+                + "\r\n";
+        out.write(header.getBytes(StandardCharsets.US_ASCII));
+    }
 
     public static void staticfiles(String staticFile) {
         if (staticFile.startsWith("/")) {
@@ -499,6 +1477,7 @@ public class HttpServer {
         }
 
         System.out.println("Static files path set to: " + basePath);
+        staticCache.clear();
 
         // create the directory if it does not exist
         Path path = Paths.get(basePath);
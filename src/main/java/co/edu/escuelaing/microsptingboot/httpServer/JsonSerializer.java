@@ -0,0 +1,488 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Serializador JSON sin dependencias externas. Para cada clase se genera
+ * una sola vez un {@link ValueWriter} (cacheado en un ClassValue): los
+ * records y POJOs tienen la lista de propiedades con su nombre ya
+ * codificado y un MethodHandle por accessor, y los accessors de tipo
+ * primitivo se leen sin boxing.
+ *
+ * Records: sus componentes en orden. POJOs: getters públicos (getX, isX
+ * para boolean) y campos públicos, ordenados por nombre. Tipos de
+ * java.* que no son números, textos ni colecciones (fechas, UUID, URI...)
+ * se escriben con toString.
+ *
+ * @author sebastian.cardona-p
+ */
+final class JsonSerializer {
+
+    /**
+     * Escribe un valor no nulo de un tipo
+     */
+    @FunctionalInterface
+    interface ValueWriter {
+
+        void write(Object value, JsonWriter out);
+    }
+
+    private static final ClassValue<ValueWriter> WRITERS = new ClassValue<>() {
+        @Override
+        protected ValueWriter computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    // Elige el escritor según la clase del valor en tiempo de ejecución
+    private static final ValueWriter DYNAMIC = (value, out) -> WRITERS.get(value.getClass()).write(value, out);
+
+    private JsonSerializer() {
+    }
+
+    /**
+     * Escribe un valor cualquiera (null incluido)
+     */
+    static void write(Object value, JsonWriter out) {
+        if (value == null) {
+            out.writeNull();
+        } else {
+            WRITERS.get(value.getClass()).write(value, out);
+        }
+    }
+
+    /**
+     * Escritor para los valores de un tipo declarado, por ejemplo el tipo
+     * de retorno de un controlador. Genera de una vez los escritores del
+     * tipo y de los tipos de sus propiedades; si el tipo no es final, el
+     * escritor revisa la clase real de cada valor.
+     *
+     * @param type tipo declarado
+     * @return escritor para valores no nulos
+     */
+    static ValueWriter writerFor(Class<?> type) {
+        if (type.isPrimitive()) {
+            type = MethodType.methodType(type).wrap().returnType();
+        }
+        prepare(type, new HashSet<>());
+        return Modifier.isFinal(type.getModifiers()) ? WRITERS.get(type) : DYNAMIC;
+    }
+
+    /**
+     * Genera los escritores de un tipo y, recorriendo sus propiedades, los
+     * de los tipos que contiene
+     */
+    private static void prepare(Class<?> type, Set<Class<?>> visited) {
+        if (type == Object.class || type.isInterface() || type.isPrimitive() || !visited.add(type)) {
+            return;
+        }
+        ValueWriter writer = WRITERS.get(type);
+        if (writer instanceof ObjectWriter object) {
+            for (Property property : object.properties) {
+                prepare(property.type, visited);
+            }
+        } else if (type.isArray()) {
+            prepare(type.getComponentType(), visited);
+        }
+    }
+
+    private static ValueWriter create(Class<?> type) {
+        if (CharSequence.class.isAssignableFrom(type)) {
+            return (value, out) -> out.writeString((CharSequence) value);
+        }
+        if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+            return (value, out) -> out.writeLong(((Number) value).longValue());
+        }
+        if (type == BigDecimal.class || type == BigInteger.class) {
+            return (value, out) -> out.writeAscii(value.toString());
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return (value, out) -> out.writeDouble(((Number) value).doubleValue());
+        }
+        if (type == Boolean.class) {
+            return (value, out) -> out.writeBoolean((Boolean) value);
+        }
+        if (type == Character.class) {
+            return (value, out) -> out.writeString(value.toString());
+        }
+        if (Enum.class.isAssignableFrom(type)) {
+            return enumWriter(type);
+        }
+        if (type == Optional.class) {
+            return (value, out) -> write(((Optional<?>) value).orElse(null), out);
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return JsonSerializer::writeMap;
+        }
+        if (Iterable.class.isAssignableFrom(type)) {
+            return JsonSerializer::writeIterable;
+        }
+        if (type.isArray()) {
+            return arrayWriter(type.getComponentType());
+        }
+        if (type.getName().startsWith("java.") || type.getName().startsWith("javax.")) {
+            return (value, out) -> out.writeString(value.toString());
+        }
+        return new ObjectWriter(type, type.isRecord() ? recordProperties(type) : beanProperties(type));
+    }
+
+    /**
+     * Los nombres de las constantes se codifican una sola vez
+     */
+    private static ValueWriter enumWriter(Class<?> type) {
+        Class<?> enumType = type.isEnum() ? type : type.getSuperclass();
+        Object[] constants = enumType.getEnumConstants();
+        byte[][] names = new byte[constants.length][];
+        for (int i = 0; i < constants.length; i++) {
+            byte[] quoted = JsonWriter.encodeName(((Enum<?>) constants[i]).name());
+            // encodeName agrega ':' al final
+            names[i] = Arrays.copyOf(quoted, quoted.length - 1);
+        }
+        return (value, out) -> out.writeRaw(names[((Enum<?>) value).ordinal()]);
+    }
+
+    private static void writeMap(Object value, JsonWriter out) {
+        out.begin('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (!first) {
+                out.writeByte(',');
+            }
+            first = false;
+            Object key = entry.getKey();
+            out.writeString(key instanceof CharSequence text ? text : String.valueOf(key));
+            out.writeByte(':');
+            write(entry.getValue(), out);
+        }
+        out.end('}');
+    }
+
+    private static void writeIterable(Object value, JsonWriter out) {
+        out.begin('[');
+        boolean first = true;
+        for (Object element : (Iterable<?>) value) {
+            if (!first) {
+                out.writeByte(',');
+            }
+            first = false;
+            write(element, out);
+        }
+        out.end(']');
+    }
+
+    private static ValueWriter arrayWriter(Class<?> component) {
+        if (component == int.class) {
+            return (value, out) -> {
+                int[] array = (int[]) value;
+                out.begin('[');
+                for (int i = 0; i < array.length; i++) {
+                    if (i > 0) {
+                        out.writeByte(',');
+                    }
+                    out.writeLong(array[i]);
+                }
+                out.end(']');
+            };
+        }
+        if (component == long.class) {
+            return (value, out) -> {
+                long[] array = (long[]) value;
+                out.begin('[');
+                for (int i = 0; i < array.length; i++) {
+                    if (i > 0) {
+                        out.writeByte(',');
+                    }
+                    out.writeLong(array[i]);
+                }
+                out.end(']');
+            };
+        }
+        if (component == double.class) {
+            return (value, out) -> {
+                double[] array = (double[]) value;
+                out.begin('[');
+                for (int i = 0; i < array.length; i++) {
+                    if (i > 0) {
+                        out.writeByte(',');
+                    }
+                    out.writeDouble(array[i]);
+                }
+                out.end(']');
+            };
+        }
+        if (component == boolean.class) {
+            return (value, out) -> {
+                boolean[] array = (boolean[]) value;
+                out.begin('[');
+                for (int i = 0; i < array.length; i++) {
+                    if (i > 0) {
+                        out.writeByte(',');
+                    }
+                    out.writeBoolean(array[i]);
+                }
+                out.end(']');
+            };
+        }
+        if (component.isPrimitive()) {
+            // byte, short, char y float: poco comunes, se pasan por su wrapper
+            return (value, out) -> {
+                int length = Array.getLength(value);
+                out.begin('[');
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        out.writeByte(',');
+                    }
+                    write(Array.get(value, i), out);
+                }
+                out.end(']');
+            };
+        }
+        return (value, out) -> {
+            Object[] array = (Object[]) value;
+            out.begin('[');
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    out.writeByte(',');
+                }
+                write(array[i], out);
+            }
+            out.end(']');
+        };
+    }
+
+    private static List<Property> recordProperties(Class<?> type) {
+        List<Property> properties = new ArrayList<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            MethodHandle accessor = unreflect(component.getAccessor());
+            if (accessor != null) {
+                properties.add(Property.of(component.getName(), component.getType(), accessor));
+            }
+        }
+        return properties;
+    }
+
+    private static List<Property> beanProperties(Class<?> type) {
+        Map<String, Property> properties = new TreeMap<>();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() > 0
+                    || method.getReturnType() == void.class || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            String name = propertyName(method);
+            if (name == null || properties.containsKey(name)) {
+                continue;
+            }
+            MethodHandle getter = unreflect(method);
+            if (getter != null) {
+                properties.put(name, Property.of(name, method.getReturnType(), getter));
+            }
+        }
+        for (Field field : type.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || properties.containsKey(field.getName())) {
+                continue;
+            }
+            try {
+                properties.put(field.getName(), Property.of(field.getName(), field.getType(), MethodHandles.publicLookup().unreflectGetter(field)));
+            } catch (IllegalAccessException e) {
+                // Campo de una clase no pública: se omite
+            }
+        }
+        return new ArrayList<>(properties.values());
+    }
+
+    /**
+     * Nombre de la propiedad de un getter (getNombre o isActivo), o null
+     */
+    private static String propertyName(Method method) {
+        String name = method.getName();
+        int prefix;
+        if (name.startsWith("get") && name.length() > 3) {
+            prefix = 3;
+        } else if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class) {
+            prefix = 2;
+        } else {
+            return null;
+        }
+        if (!Character.isUpperCase(name.charAt(prefix))) {
+            return null;
+        }
+        // Como java.beans: "URL" se queda igual, "Name" pasa a "name"
+        if (name.length() > prefix + 1 && Character.isUpperCase(name.charAt(prefix + 1))) {
+            return name.substring(prefix);
+        }
+        return Character.toLowerCase(name.charAt(prefix)) + name.substring(prefix + 1);
+    }
+
+    /**
+     * Handle de un accessor, o null si no es accesible (por ejemplo el
+     * accessor de un record privado en un módulo cerrado)
+     */
+    private static MethodHandle unreflect(Method method) {
+        try {
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers()) && !method.trySetAccessible()) {
+                return null;
+            }
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Una propiedad con su nombre ya codificado. Las subclases leen los
+     * tipos primitivos sin boxing.
+     */
+    private abstract static class Property {
+
+        final byte[] name;
+        final Class<?> type;
+
+        Property(String name, Class<?> type) {
+            this.name = JsonWriter.encodeName(name);
+            this.type = type;
+        }
+
+        static Property of(String name, Class<?> type, MethodHandle accessor) {
+            if (type == int.class || type == short.class || type == byte.class) {
+                return new IntProperty(name, type, accessor.asType(MethodType.methodType(int.class, Object.class)));
+            }
+            if (type == long.class) {
+                return new LongProperty(name, type, accessor.asType(MethodType.methodType(long.class, Object.class)));
+            }
+            if (type == double.class || type == float.class) {
+                return new DoubleProperty(name, type, accessor.asType(MethodType.methodType(double.class, Object.class)));
+            }
+            if (type == boolean.class) {
+                return new BooleanProperty(name, type, accessor.asType(MethodType.methodType(boolean.class, Object.class)));
+            }
+            return new ObjectProperty(name, type, accessor.asType(MethodType.methodType(Object.class, Object.class)));
+        }
+
+        abstract void write(Object owner, JsonWriter out) throws Throwable;
+    }
+
+    private static final class IntProperty extends Property {
+
+        private final MethodHandle accessor;
+
+        IntProperty(String name, Class<?> type, MethodHandle accessor) {
+            super(name, type);
+            this.accessor = accessor;
+        }
+
+        @Override
+        void write(Object owner, JsonWriter out) throws Throwable {
+            out.writeLong((int) accessor.invokeExact(owner));
+        }
+    }
+
+    private static final class LongProperty extends Property {
+
+        private final MethodHandle accessor;
+
+        LongProperty(String name, Class<?> type, MethodHandle accessor) {
+            super(name, type);
+            this.accessor = accessor;
+        }
+
+        @Override
+        void write(Object owner, JsonWriter out) throws Throwable {
+            out.writeLong((long) accessor.invokeExact(owner));
+        }
+    }
+
+    private static final class DoubleProperty extends Property {
+
+        private final MethodHandle accessor;
+
+        DoubleProperty(String name, Class<?> type, MethodHandle accessor) {
+            super(name, type);
+            this.accessor = accessor;
+        }
+
+        @Override
+        void write(Object owner, JsonWriter out) throws Throwable {
+            out.writeDouble((double) accessor.invokeExact(owner));
+        }
+    }
+
+    private static final class BooleanProperty extends Property {
+
+        private final MethodHandle accessor;
+
+        BooleanProperty(String name, Class<?> type, MethodHandle accessor) {
+            super(name, type);
+            this.accessor = accessor;
+        }
+
+        @Override
+        void write(Object owner, JsonWriter out) throws Throwable {
+            out.writeBoolean((boolean) accessor.invokeExact(owner));
+        }
+    }
+
+    private static final class ObjectProperty extends Property {
+
+        private final MethodHandle accessor;
+
+        ObjectProperty(String name, Class<?> type, MethodHandle accessor) {
+            super(name, type);
+            this.accessor = accessor;
+        }
+
+        @Override
+        void write(Object owner, JsonWriter out) throws Throwable {
+            JsonSerializer.write((Object) accessor.invokeExact(owner), out);
+        }
+    }
+
+    /**
+     * Escritor de un record o POJO
+     */
+    private static final class ObjectWriter implements ValueWriter {
+
+        private final Class<?> type;
+        private final Property[] properties;
+
+        ObjectWriter(Class<?> type, List<Property> properties) {
+            this.type = type;
+            this.properties = properties.toArray(new Property[0]);
+        }
+
+        @Override
+        public void write(Object value, JsonWriter out) {
+            out.begin('{');
+            for (int i = 0; i < properties.length; i++) {
+                if (i > 0) {
+                    out.writeByte(',');
+                }
+                out.writeRaw(properties[i].name);
+                try {
+                    properties[i].write(value, out);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Could not read " + type.getName() + " for JSON", e);
+                }
+            }
+            out.end('}');
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escritor de JSON que trabaja directamente sobre el buffer del cuerpo de
+ * un {@link HttpResponse}: los números enteros y el texto se codifican byte
+ * a byte, sin Strings intermedios. Cada respuesta tiene el suyo y se
+ * reutiliza con la respuesta.
+ *
+ * @author sebastian.cardona-p
+ */
+final class JsonWriter {
+
+    // Anidamiento máximo; más que esto casi siempre es una referencia circular
+    static final int MAX_DEPTH = 256;
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    // Para cada carácter ASCII: 0 si se copia tal cual, la letra del escape corto, o 'u' para el escape hexadecimal
+    private static final byte[] ESCAPES = new byte[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = 'u';
+        }
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+    }
+
+    private final HttpResponse response;
+    private byte[] buffer;
+    private int position;
+    private int depth;
+
+    JsonWriter(HttpResponse response) {
+        this.response = response;
+    }
+
+    /**
+     * Empieza a escribir al final del cuerpo actual de la respuesta
+     */
+    JsonWriter begin() {
+        buffer = response.reserveBody(0);
+        position = response.getBodyLength();
+        depth = 0;
+        return this;
+    }
+
+    /**
+     * Confirma en la respuesta los bytes escritos
+     */
+    void finish() {
+        response.setBodyLength(position);
+    }
+
+    private void ensure(int length) {
+        if (position + length > buffer.length) {
+            response.setBodyLength(position);
+            buffer = response.reserveBody(length);
+        }
+    }
+
+    void writeByte(char c) {
+        ensure(1);
+        buffer[position++] = (byte) c;
+    }
+
+    /**
+     * Copia bytes ya codificados, por ejemplo un nombre de propiedad
+     */
+    void writeRaw(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    void writeNull() {
+        writeRaw(NULL);
+    }
+
+    void writeBoolean(boolean value) {
+        writeRaw(value ? TRUE : FALSE);
+    }
+
+    void writeLong(long value) {
+        ensure(20);
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    /**
+     * Los valores enteros se escriben sin decimales, como en JavaScript.
+     * NaN e infinito no existen en JSON y se escriben como null.
+     */
+    void writeDouble(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeNull();
+        } else if (value == (long) value && Math.abs(value) < 1e15) {
+            writeLong((long) value);
+        } else {
+            writeAscii(Double.toString(value));
+        }
+    }
+
+    /**
+     * Texto que ya se sabe que es ASCII y no necesita escapes, como un número
+     */
+    void writeAscii(String text) {
+        int length = text.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buffer[position++] = (byte) text.charAt(i);
+        }
+    }
+
+    /**
+     * Escribe un string JSON en UTF-8. El ASCII sin escapes se copia en un
+     * solo recorrido; antes de cada carácter hay espacio para el resto del
+     * texto a un byte por carácter, y solo los escapes y los caracteres no
+     * ASCII piden más.
+     */
+    void writeString(CharSequence text) {
+        int length = text.length();
+        ensure(length + 2);
+        buffer[position++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80 && ESCAPES[c] == 0) {
+                buffer[position++] = (byte) c;
+                continue;
+            }
+            ensure(length - i + 6);
+            if (c < 0x80) {
+                buffer[position++] = '\\';
+                byte escape = ESCAPES[c];
+                if (escape == 'u') {
+                    writeUnicodeEscape(c);
+                } else {
+                    buffer[position++] = escape;
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // Surrogate sin pareja: no se puede codificar en UTF-8
+                buffer[position++] = '\\';
+                writeUnicodeEscape(c);
+            } else {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        buffer[position++] = '"';
+    }
+
+    private void writeUnicodeEscape(char c) {
+        buffer[position++] = 'u';
+        buffer[position++] = HEX[c >> 12];
+        buffer[position++] = HEX[c >> 8 & 0xF];
+        buffer[position++] = HEX[c >> 4 & 0xF];
+        buffer[position++] = HEX[c & 0xF];
+    }
+
+    /**
+     * Abre un objeto o arreglo
+     *
+     * @throws IllegalStateException si se pasa del anidamiento máximo
+     */
+    void begin(char bracket) {
+        if (++depth > MAX_DEPTH) {
+            throw new IllegalStateException("JSON nesting deeper than " + MAX_DEPTH + " (circular reference?)");
+        }
+        writeByte(bracket);
+    }
+
+    void end(char bracket) {
+        depth--;
+        writeByte(bracket);
+    }
+
+    /**
+     * Codifica {@code "nombre":} una sola vez, para las propiedades de un tipo
+     */
+    static byte[] encodeName(String name) {
+        StringBuilder escaped = new StringBuilder(name.length() + 3);
+        escaped.append('"');
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < 0x80 && ESCAPES[c] != 0) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.append("\":").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,241 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas del servidor en contadores {@link LongAdder}: cada hilo suma en
+ * su propia celda cuando hay contención, así que registrar una solicitud no
+ * toma locks ni comparte una línea de caché entre núcleos. Los totales se
+ * calculan solo al exponerlas en formato de texto de Prometheus.
+ *
+ * @author sebastian.cardona-p
+ */
+final class Metrics {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // Límites superiores de las cubetas de latencia, en nanosegundos (50 µs a 10 s)
+    static final long[] BUCKET_BOUNDS_NANOS = {
+        50_000L, 100_000L, 250_000L, 500_000L,
+        1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+        100_000_000L, 250_000_000L, 500_000_000L,
+        1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L};
+    private static final String[] STATUS_CLASSES = {"other", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder activeConnections = new LongAdder();
+    // Solicitudes que no llegan a un endpoint: archivos, /metrics y rutas inexistentes
+    private final Route staticFiles = new Route();
+    private final Route unmatched = new Route();
+
+    /**
+     * Contadores de una ruta: respuestas por clase de estado y un
+     * histograma de latencias con cubetas fijas
+     */
+    static final class Route {
+
+        private final LongAdder[] statuses = newAdders(STATUS_CLASSES.length);
+        // Una cubeta por límite más la de +Inf; no son acumuladas
+        private final LongAdder[] buckets = newAdders(BUCKET_BOUNDS_NANOS.length + 1);
+        private final LongAdder sumNanos = new LongAdder();
+
+        /**
+         * Registra una solicitud atendida
+         *
+         * @param status código de estado enviado, o 0 si no se envió respuesta
+         * @param nanos duración de la solicitud
+         */
+        void record(int status, long nanos) {
+            int statusClass = status / 100;
+            statuses[statusClass >= 1 && statusClass <= 5 ? statusClass : 0].increment();
+            // La mayoría de las solicitudes caen en las primeras cubetas
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_NANOS.length && nanos > BUCKET_BOUNDS_NANOS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            sumNanos.add(nanos);
+        }
+
+        long count() {
+            long count = 0;
+            for (LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        long count(String statusClass) {
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                if (STATUS_CLASSES[i].equals(statusClass)) {
+                    return statuses[i].sum();
+                }
+            }
+            throw new IllegalArgumentException("Unknown status class " + statusClass);
+        }
+
+        private static LongAdder[] newAdders(int length) {
+            LongAdder[] adders = new LongAdder[length];
+            for (int i = 0; i < length; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+
+    /**
+     * Ruta registrada con las etiquetas con las que se expone
+     *
+     * @param method método HTTP
+     * @param path patrón de la ruta, con el prefijo /app
+     * @param metrics contadores de la ruta
+     */
+    record LabeledRoute(String method, String path, Route metrics) {
+    }
+
+    /**
+     * Registra una solicitud en la ruta que la atendió, o en la de archivos
+     * estáticos o rutas inexistentes si no llegó a un endpoint
+     */
+    void record(HttpRequest request, long nanos) {
+        Route route = request.getRouteMetrics();
+        if (route == null) {
+            route = request.getPath().startsWith("/app") ? unmatched : staticFiles;
+        }
+        route.record(request.getResponseStatus(), nanos);
+    }
+
+    void addBytesReceived(long bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    void addBytesSent(long bytes) {
+        bytesSent.add(bytes);
+    }
+
+    void connectionOpened() {
+        connectionsOpened.increment();
+        activeConnections.increment();
+    }
+
+    void connectionClosed() {
+        activeConnections.decrement();
+    }
+
+    long bytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    long bytesSent() {
+        return bytesSent.sum();
+    }
+
+    long activeConnections() {
+        return activeConnections.sum();
+    }
+
+    Route staticFiles() {
+        return staticFiles;
+    }
+
+    Route unmatched() {
+        return unmatched;
+    }
+
+    /**
+     * Expone las métricas en el formato de texto de Prometheus
+     *
+     * @param routes endpoints registrados
+     * @param staticCache caché de archivos estáticos actual
+     * @param responseCache caché de respuestas actual
+     */
+    String render(List<LabeledRoute> routes, StaticFileCache staticCache, ResponseCache responseCache) {
+        StringBuilder text = new StringBuilder(4096);
+
+        header(text, "http_requests_total", "counter", "Solicitudes atendidas por ruta y clase de estado");
+        for (LabeledRoute route : routes) {
+            requests(text, route.method(), route.path(), route.metrics());
+        }
+        requests(text, "", "static", staticFiles);
+        requests(text, "", "unmatched", unmatched);
+
+        header(text, "http_request_duration_seconds", "histogram", "Duración de las solicitudes desde que se leyeron hasta que se escribió la respuesta");
+        for (LabeledRoute route : routes) {
+            histogram(text, route.method(), route.path(), route.metrics());
+        }
+        histogram(text, "", "static", staticFiles);
+        histogram(text, "", "unmatched", unmatched);
+
+        header(text, "http_connections_active", "gauge", "Conexiones abiertas");
+        text.append("http_connections_active ").append(activeConnections.sum()).append('\n');
+        header(text, "http_connections_total", "counter", "Conexiones aceptadas");
+        text.append("http_connections_total ").append(connectionsOpened.sum()).append('\n');
+        header(text, "http_received_bytes_total", "counter", "Bytes leídos de los sockets");
+        text.append("http_received_bytes_total ").append(bytesReceived.sum()).append('\n');
+        header(text, "http_sent_bytes_total", "counter", "Bytes escritos en los sockets, incluidos los archivos enviados con transferTo");
+        text.append("http_sent_bytes_total ").append(bytesSent.sum()).append('\n');
+
+        header(text, "static_cache_requests_total", "counter", "Consultas a la caché de archivos estáticos");
+        text.append("static_cache_requests_total{result=\"hit\"} ").append(staticCache.hits()).append('\n');
+        text.append("static_cache_requests_total{result=\"miss\"} ").append(staticCache.misses()).append('\n');
+        header(text, "response_cache_requests_total", "counter", "Consultas a la caché de respuestas @Cacheable");
+        text.append("response_cache_requests_total{result=\"hit\"} ").append(responseCache.hits()).append('\n');
+        text.append("response_cache_requests_total{result=\"miss\"} ").append(responseCache.misses()).append('\n');
+        return text.toString();
+    }
+
+    private static void header(StringBuilder text, String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void requests(StringBuilder text, String method, String path, Route route) {
+        for (int i = 0; i < STATUS_CLASSES.length; i++) {
+            long count = route.statuses[i].sum();
+            if (count > 0) {
+                text.append("http_requests_total{");
+                labels(text, method, path);
+                text.append(",status=\"").append(STATUS_CLASSES[i]).append("\"} ").append(count).append('\n');
+            }
+        }
+    }
+
+    private static void histogram(StringBuilder text, String method, String path, Route route) {
+        long cumulative = 0;
+        for (int i = 0; i < route.buckets.length; i++) {
+            cumulative += route.buckets[i].sum();
+            text.append("http_request_duration_seconds_bucket{");
+            labels(text, method, path);
+            text.append(",le=\"").append(i < BUCKET_BOUNDS_NANOS.length ? seconds(BUCKET_BOUNDS_NANOS[i]) : "+Inf")
+                    .append("\"} ").append(cumulative).append('\n');
+        }
+        text.append("http_request_duration_seconds_sum{");
+        labels(text, method, path);
+        text.append("} ").append(route.sumNanos.sum() / 1e9).append('\n');
+        text.append("http_request_duration_seconds_count{");
+        labels(text, method, path);
+        text.append("} ").append(cumulative).append('\n');
+    }
+
+    private static void labels(StringBuilder text, String method, String path) {
+        text.append("method=\"").append(method).append("\",route=\"");
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            switch (c) {
+                case '\\' -> text.append("\\\\");
+                case '"' -> text.append("\\\"");
+                case '\n' -> text.append("\\n");
+                default -> text.append(c);
+            }
+        }
+        text.append('"');
+    }
+
+    private static String seconds(long nanos) {
+        return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+    }
+}
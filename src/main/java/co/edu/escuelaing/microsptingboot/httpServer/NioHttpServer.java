@@ -0,0 +1,736 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Motor no bloqueante basado en {@link Selector}. Un hilo acepta conexiones
+ * y las reparte en round-robin entre N event loops; cada event loop lee con
+ * un ByteBuffer directo reutilizable y despacha las solicitudes con el mismo
+ * enrutamiento de {@link HttpServer}, por lo que los controladores no
+ * cambian. Los handlers se ejecutan en el event loop, así que deben ser
+ * rápidos. Como el handler no puede bloquearse esperando el cuerpo, este
+ * se recibe completo antes de despacharlo, en un ByteBuffer directo (fuera
+ * del heap) limitado por el tamaño máximo configurado en HttpServer. Las
+ * respuestas por partes (Stream, Iterator, Flow.Publisher) piden cada
+ * elemento solo cuando el socket puede escribir.
+ *
+ * @author sebastian.cardona-p
+ */
+class NioHttpServer {
+
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final long SELECT_TIMEOUT_MILLIS = 1000;
+    // Capacidad inicial del cuerpo; crece al doble a medida que llegan bytes,
+    // así un Content-Length grande no reserva memoria antes de tiempo
+    static final int INITIAL_BODY_SIZE = 16 * 1024;
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final List<ServerSocketChannel> serverChannels;
+    private final EventLoop[] loops;
+    private final Semaphore connectionPermits;
+
+    NioHttpServer(List<ServerSocketChannel> serverChannels, int eventLoops, Semaphore connectionPermits) throws IOException {
+        this.serverChannels = serverChannels;
+        this.connectionPermits = connectionPermits;
+        this.loops = new EventLoop[eventLoops];
+        for (int i = 0; i < eventLoops; i++) {
+            loops[i] = new EventLoop();
+        }
+    }
+
+    /**
+     * Hilo de un event loop; permite saber si el código que se ejecuta no
+     * debe bloquearse
+     */
+    private static final class EventLoopThread extends Thread {
+
+        EventLoopThread(Runnable loop, String name) {
+            super(loop, name);
+        }
+    }
+
+    /**
+     * Indica si el hilo actual es un event loop: esperar en él detiene
+     * todas las conexiones que atiende
+     */
+    static boolean onEventLoop() {
+        return Thread.currentThread() instanceof EventLoopThread;
+    }
+
+    /**
+     * Inicia los event loops y acepta conexiones en el hilo actual hasta que
+     * el servidor se detenga. Cada socket de escucha adicional (SO_REUSEPORT)
+     * tiene su propio hilo acceptor.
+     */
+    void serve() {
+        for (int i = 0; i < loops.length; i++) {
+            Thread thread = new EventLoopThread(loops[i], "nio-event-loop-" + i);
+            loops[i].thread = thread;
+            thread.start();
+        }
+
+        List<Thread> acceptors = new ArrayList<>();
+        for (int i = 1; i < serverChannels.size(); i++) {
+            ServerSocketChannel serverChannel = serverChannels.get(i);
+            int first = i % loops.length;
+            acceptors.add(Thread.ofPlatform().name("nio-acceptor-" + i).start(() -> accept(serverChannel, first)));
+        }
+        accept(serverChannels.get(0), 0);
+        for (Thread acceptor : acceptors) {
+            try {
+                acceptor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Acepta conexiones de un socket de escucha y las reparte entre los
+     * event loops, empezando por {@code next}
+     */
+    private void accept(ServerSocketChannel serverChannel, int next) {
+        while (HttpServer.isRunning()) {
+            try {
+                // Espera un cupo libre antes de aceptar otra conexión
+                connectionPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            SocketChannel client = null;
+            try {
+                client = serverChannel.accept();
+                client.configureBlocking(false);
+                HttpServer.configureAccepted(client);
+            } catch (IOException e) {
+                connectionPermits.release();
+                if (client != null) {
+                    try {
+                        client.close();
+                    } catch (IOException closeError) {
+                        // Ignorar: la conexión no se llegó a registrar
+                    }
+                }
+                if (!HttpServer.isRunning()) {
+                    break;
+                }
+                System.err.println("Accept failed.");
+                continue;
+            }
+
+            loops[next].register(client);
+            next = (next + 1) % loops.length;
+        }
+    }
+
+    /**
+     * Detiene los event loops: las conexiones inactivas se cierran y las que
+     * tienen respuestas pendientes terminan de escribirlas antes del plazo.
+     *
+     * @param timeoutMillis tiempo máximo de espera
+     */
+    void stop(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (EventLoop loop : loops) {
+            loop.stop(deadline);
+        }
+        for (EventLoop loop : loops) {
+            if (loop.thread == null) {
+                continue;
+            }
+            try {
+                loop.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Estado de una conexión: el parser con la solicitud parcial, la
+     * solicitud que espera su cuerpo y las respuestas pendientes de
+     * escribir, en orden
+     */
+    private static final class Connection {
+
+        final SocketChannel channel;
+        final HttpRequestParser parser = new HttpRequestParser();
+        // Solicitud cuyo cuerpo aún se está recibiendo, o null
+        HttpRequest request;
+        BodyDecoder bodyDecoder;
+        ByteBuffer body;
+        int served = 0;
+        boolean closeAfterWrite = false;
+        boolean closed = false;
+        long lastActivity = System.currentTimeMillis();
+        final Queue<OutputPart> output = new ArrayDeque<>();
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Parte de una respuesta pendiente de escribir
+     */
+    private interface OutputPart {
+
+        /**
+         * Escribe lo que el canal acepte sin bloquear
+         *
+         * @return true si la parte se escribió completa
+         */
+        boolean writeTo(SocketChannel channel) throws IOException;
+
+        /**
+         * Libera los recursos de la parte (escrita o descartada)
+         */
+        void release();
+
+        /**
+         * Indica si la última escritura se detuvo porque el productor aún
+         * no tiene datos (y no porque el socket esté lleno)
+         */
+        default boolean isStalled() {
+            return false;
+        }
+    }
+
+    private record BufferPart(ByteBuffer buffer) implements OutputPart {
+
+        @Override
+        public boolean writeTo(SocketChannel channel) throws IOException {
+            HttpServer.metrics().addBytesSent(channel.write(buffer));
+            return !buffer.hasRemaining();
+        }
+
+        @Override
+        public void release() {
+        }
+    }
+
+    /**
+     * Región de archivo que se envía con transferTo a medida que el socket
+     * tiene espacio; el archivo se abre al empezar a enviarla
+     */
+    private static final class FilePart implements OutputPart {
+
+        private final Path file;
+        private long position;
+        private long remaining;
+        private FileChannel fileChannel;
+
+        FilePart(Path file, long position, long count) {
+            this.file = file;
+            this.position = position;
+            this.remaining = count;
+        }
+
+        @Override
+        public boolean writeTo(SocketChannel channel) throws IOException {
+            if (fileChannel == null) {
+                fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+            }
+            while (remaining > 0) {
+                long transferred = fileChannel.transferTo(position, remaining, channel);
+                if (transferred == 0) {
+                    if (position >= fileChannel.size()) {
+                        throw new EOFException("File shorter than announced: " + file);
+                    }
+                    return false;
+                }
+                HttpServer.metrics().addBytesSent(transferred);
+                position += transferred;
+                remaining -= transferred;
+            }
+            return true;
+        }
+
+        @Override
+        public void release() {
+            if (fileChannel != null) {
+                try {
+                    fileChannel.close();
+                } catch (IOException e) {
+                    // Ignorar: solo se leía del archivo
+                }
+            }
+        }
+    }
+
+    /**
+     * Cuerpo por partes: cada elemento se pide al productor cuando el
+     * anterior ya se escribió completo, y se envía con una escritura
+     * gather (tamaño, datos y CRLF) sin copiarlo
+     */
+    private static final class StreamPart implements OutputPart {
+
+        private final ChunkedBody body;
+        private final boolean framed;
+        private ByteBuffer[] frame = new ByteBuffer[0];
+        private boolean finished = false;
+        private boolean stalled = false;
+
+        StreamPart(ChunkedBody body, boolean framed) {
+            this.body = body;
+            this.framed = framed;
+        }
+
+        @Override
+        public boolean writeTo(SocketChannel channel) throws IOException {
+            while (true) {
+                if (pending()) {
+                    HttpServer.metrics().addBytesSent(channel.write(frame));
+                    if (pending()) {
+                        return false;
+                    }
+                }
+                if (finished) {
+                    return true;
+                }
+                ByteBuffer data = body.poll();
+                if (data == null) {
+                    if (!body.isDone()) {
+                        stalled = true;
+                        return false;
+                    }
+                    finished = true;
+                    frame = framed ? new ByteBuffer[]{ByteBuffer.wrap(ChunkedOutputStream.LAST_CHUNK)} : new ByteBuffer[0];
+                    continue;
+                }
+                stalled = false;
+                frame = framed
+                        ? new ByteBuffer[]{ByteBuffer.wrap(ChunkedOutputStream.sizeLine(data.remaining())), data, ByteBuffer.wrap(ChunkedOutputStream.CRLF)}
+                        : new ByteBuffer[]{data};
+            }
+        }
+
+        private boolean pending() {
+            for (ByteBuffer buffer : frame) {
+                if (buffer.hasRemaining()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isStalled() {
+            return stalled;
+        }
+
+        @Override
+        public void release() {
+            body.close();
+        }
+    }
+
+    /**
+     * Stream de respuesta del motor NIO: acumula los bytes escritos y los
+     * agrega a la cola de la conexión junto con los buffers y regiones de
+     * archivo, en orden
+     */
+    private static final class QueuedResponseStream extends OutputStream implements ResponseSink {
+
+        private final Queue<OutputPart> output;
+        // Reanuda la escritura cuando un productor tiene datos nuevos
+        private final Runnable resume;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private long written;
+
+        QueuedResponseStream(Queue<OutputPart> output, Runnable resume) {
+            this.output = output;
+            this.resume = resume;
+        }
+
+        @Override
+        public void write(int b) {
+            pending.write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            pending.write(b, off, len);
+            written += len;
+        }
+
+        @Override
+        public void flush() {
+            if (pending.size() > 0) {
+                output.add(new BufferPart(ByteBuffer.wrap(pending.toByteArray())));
+                pending.reset();
+            }
+        }
+
+        @Override
+        public void sendBuffer(ByteBuffer data) {
+            flush();
+            written += data.remaining();
+            output.add(new BufferPart(data));
+        }
+
+        @Override
+        public void sendFile(Path file, long position, long count) {
+            flush();
+            written += count;
+            output.add(new FilePart(file, position, count));
+        }
+
+        @Override
+        public long written() {
+            return written;
+        }
+
+        @Override
+        public void sendStream(ChunkedBody body, boolean framed) {
+            flush();
+            body.onReady(resume);
+            output.add(new StreamPart(body, framed));
+        }
+    }
+
+    private final class EventLoop implements Runnable {
+
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        // Conexiones cuyo productor tiene datos nuevos
+        private final Queue<Connection> resumed = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        private volatile long stopDeadline = -1;
+        private long lastIdleCheck = System.currentTimeMillis();
+        Thread thread;
+
+        EventLoop() throws IOException {
+            selector = Selector.open();
+        }
+
+        void register(SocketChannel channel) {
+            pending.add(channel);
+            selector.wakeup();
+        }
+
+        /**
+         * Pide al event loop que siga escribiendo la respuesta de la
+         * conexión; se puede llamar desde cualquier hilo
+         */
+        void resume(Connection connection) {
+            resumed.add(connection);
+            selector.wakeup();
+        }
+
+        void stop(long deadline) {
+            stopDeadline = deadline;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    selector.select(SELECT_TIMEOUT_MILLIS);
+                    registerPending();
+                    writeResumed();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) {
+                                read(key, connection);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(key, connection);
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            close(key, connection);
+                        }
+                    }
+
+                    closeIdle();
+                    if (stopDeadline >= 0 && drained()) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                System.getLogger(HttpServer.class.getName()).log(System.Logger.Level.ERROR, (String) null, e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    close(key, (Connection) key.attachment());
+                }
+                SocketChannel channel;
+                while ((channel = pending.poll()) != null) {
+                    closeQuietly(channel);
+                    connectionPermits.release();
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    // Ignorar: el selector ya no se usa
+                }
+            }
+        }
+
+        private void registerPending() {
+            SocketChannel channel;
+            while ((channel = pending.poll()) != null) {
+                try {
+                    channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                    HttpServer.metrics().connectionOpened();
+                } catch (IOException e) {
+                    closeQuietly(channel);
+                    connectionPermits.release();
+                }
+            }
+        }
+
+        private void writeResumed() {
+            Connection connection;
+            while ((connection = resumed.poll()) != null) {
+                SelectionKey key = connection.channel.keyFor(selector);
+                if (key == null || !key.isValid() || connection.closed) {
+                    continue;
+                }
+                try {
+                    write(key, connection);
+                } catch (IOException | RuntimeException e) {
+                    close(key, connection);
+                }
+            }
+        }
+
+        private void read(SelectionKey key, Connection connection) throws IOException {
+            readBuffer.clear();
+            int read = connection.channel.read(readBuffer);
+            if (read < 0) {
+                close(key, connection);
+                return;
+            }
+            HttpServer.metrics().addBytesReceived(read);
+            connection.lastActivity = System.currentTimeMillis();
+            readBuffer.flip();
+
+            processInput(connection);
+            write(key, connection);
+        }
+
+        /**
+         * Procesa todas las solicitudes completas del buffer de lectura. Los
+         * bytes de una solicitud incompleta quedan en el parser de la
+         * conexión, y los de un cuerpo incompleto en su buffer.
+         */
+        private void processInput(Connection connection) throws IOException {
+            while (!connection.closeAfterWrite && (readBuffer.hasRemaining() || connection.request != null)) {
+                if (connection.request == null) {
+                    HttpRequest request;
+                    try {
+                        request = connection.parser.parse(readBuffer);
+                    } catch (HttpParseException e) {
+                        reject(connection, e.getStatus());
+                        return;
+                    }
+                    if (request == null) {
+                        return;
+                    }
+                    if (!startBody(connection, request)) {
+                        return;
+                    }
+                }
+                if (connection.bodyDecoder != null && !readBody(connection)) {
+                    return;
+                }
+                dispatch(connection);
+            }
+        }
+
+        /**
+         * Prepara el buffer del cuerpo de la solicitud, si tiene
+         *
+         * @return false si el cuerpo declarado supera el límite
+         */
+        private boolean startBody(Connection connection, HttpRequest request) {
+            connection.request = request;
+            BodyDecoder decoder = BodyDecoder.forRequest(request);
+            if (decoder == null) {
+                return true;
+            }
+            long limit = HttpServer.getMaxBufferedBodyBytes();
+            long declared = decoder.contentLength();
+            if (declared > limit) {
+                reject(connection, "413 Content Too Large");
+                return false;
+            }
+            connection.bodyDecoder = decoder;
+            connection.body = ByteBuffer.allocateDirect((int) Math.min(INITIAL_BODY_SIZE, declared >= 0 ? declared : limit));
+            // Si el cuerpo ya empezó a llegar no hace falta pedirlo
+            if (HttpServer.expectsContinue(request) && !readBuffer.hasRemaining()) {
+                connection.output.add(new BufferPart(ByteBuffer.wrap(CONTINUE)));
+            }
+            return true;
+        }
+
+        /**
+         * Decodifica en el buffer del cuerpo lo que haya en el buffer de
+         * lectura, ampliándolo al doble cuando se llena, sin pasar del
+         * Content-Length declarado ni del límite
+         *
+         * @return true si el cuerpo está completo
+         */
+        private boolean readBody(Connection connection) {
+            BodyDecoder decoder = connection.bodyDecoder;
+            while (!decoder.isFinished() && readBuffer.hasRemaining()) {
+                if (!connection.body.hasRemaining()) {
+                    long limit = HttpServer.getMaxBufferedBodyBytes();
+                    int capacity = connection.body.capacity();
+                    if (capacity >= limit) {
+                        reject(connection, "413 Content Too Large");
+                        return false;
+                    }
+                    long needed = decoder.contentLength() >= 0 ? capacity + decoder.contentLength() : limit;
+                    ByteBuffer larger = ByteBuffer.allocateDirect((int) Math.min(Math.min((long) capacity * 2, Math.min(needed, limit)), Integer.MAX_VALUE - 8));
+                    connection.body = larger.put(connection.body.flip());
+                }
+                try {
+                    decoder.decode(readBuffer, connection.body);
+                } catch (IOException e) {
+                    reject(connection, "400 Bad Request");
+                    return false;
+                }
+            }
+            return decoder.isFinished();
+        }
+
+        private void dispatch(Connection connection) throws IOException {
+            HttpRequest request = connection.request;
+            if (connection.body != null) {
+                request.setBody(new ByteBufferInputStream(connection.body.flip()));
+            }
+            connection.request = null;
+            connection.bodyDecoder = null;
+            connection.body = null;
+
+            connection.served++;
+            if (connection.served >= HttpServer.getMaxRequestsPerConnection() || stopDeadline >= 0) {
+                request.setKeepAlive(false);
+            }
+
+            QueuedResponseStream response = new QueuedResponseStream(connection.output, () -> resume(connection));
+            HttpServer.handlerequestType(request, response);
+            response.flush();
+
+            if (!request.isKeepAlive()) {
+                connection.closeAfterWrite = true;
+            }
+        }
+
+        /**
+         * Responde con un error y cierra la conexión después de enviarlo
+         */
+        private void reject(Connection connection, String status) {
+            connection.request = null;
+            connection.bodyDecoder = null;
+            connection.body = null;
+            QueuedResponseStream response = new QueuedResponseStream(connection.output, null);
+            try {
+                HttpServer.errorResponse(response, status);
+            } catch (IOException e) {
+                // No ocurre: la respuesta se acumula en memoria
+            }
+            response.flush();
+            connection.closeAfterWrite = true;
+        }
+
+        /**
+         * Escribe las respuestas pendientes. Mientras queden bytes por enviar
+         * se deja de leer de la conexión para no acumular solicitudes.
+         */
+        private void write(SelectionKey key, Connection connection) throws IOException {
+            while (!connection.output.isEmpty()) {
+                OutputPart head = connection.output.peek();
+                if (!head.writeTo(connection.channel)) {
+                    // Si el productor no tiene datos se espera a resume() en lugar de OP_WRITE
+                    key.interestOps(head.isStalled() ? 0 : SelectionKey.OP_WRITE);
+                    return;
+                }
+                connection.output.poll().release();
+                connection.lastActivity = System.currentTimeMillis();
+            }
+
+            if (connection.closeAfterWrite) {
+                close(key, connection);
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        private void closeIdle() {
+            long now = System.currentTimeMillis();
+            if (stopDeadline < 0 && now - lastIdleCheck < SELECT_TIMEOUT_MILLIS) {
+                return;
+            }
+            lastIdleCheck = now;
+            int idleTimeout = HttpServer.getIdleTimeoutMillis();
+            for (SelectionKey key : selector.keys()) {
+                Connection connection = (Connection) key.attachment();
+                boolean idle = connection.output.isEmpty();
+                if (idle && (stopDeadline >= 0 || now - connection.lastActivity > idleTimeout)) {
+                    close(key, connection);
+                }
+            }
+        }
+
+        private boolean drained() throws IOException {
+            // selectNow descarta las llaves canceladas del conjunto keys()
+            selector.selectNow();
+            return selector.keys().isEmpty() || System.currentTimeMillis() >= stopDeadline;
+        }
+
+        private void close(SelectionKey key, Connection connection) {
+            key.cancel();
+            if (connection.closed) {
+                return;
+            }
+            connection.closed = true;
+            OutputPart part;
+            while ((part = connection.output.poll()) != null) {
+                part.release();
+            }
+            closeQuietly(connection.channel);
+            HttpServer.metrics().connectionClosed();
+            connectionPermits.release();
+        }
+
+        private void closeQuietly(SocketChannel channel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Ignorar: la conexión ya estaba cerrada
+            }
+        }
+    }
+}
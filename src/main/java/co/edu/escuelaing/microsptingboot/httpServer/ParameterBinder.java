@@ -0,0 +1,253 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Optional;
+
+/**
+ * Enlace de un parámetro {@code @RequestParam} o {@code @PathVariable} con
+ * su tipo. El convertidor y el valor por defecto ya convertido se resuelven
+ * al registrar la ruta; int y long se leen directamente del query sin
+ * crear Strings ni objetos. Un valor que no se puede convertir se responde
+ * con 400.
+ *
+ * Tipos soportados: String, int, long, double, boolean (y sus wrappers),
+ * enums y Optional de cualquiera de ellos.
+ *
+ * @author sebastian.cardona-p
+ */
+final class ParameterBinder {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Convierte el valor decodificado de un parámetro
+     */
+    @FunctionalInterface
+    private interface Converter {
+
+        /**
+         * @throws IllegalArgumentException si el valor no es válido
+         */
+        Object convert(String value);
+    }
+
+    private final String name;
+    private final boolean pathVariable;
+    private final Converter converter;
+    // Valor cuando el parámetro falta o está vacío; los primitivos lo tienen en su wrapper
+    private final Object missingValue;
+    // Un primitivo sin valor por defecto no puede faltar
+    private final boolean required;
+    // (HttpRequest) -> tipo del parámetro
+    private MethodHandle handle;
+
+    private ParameterBinder(String name, boolean pathVariable, Converter converter, Object missingValue, boolean required) {
+        this.name = name;
+        this.pathVariable = pathVariable;
+        this.converter = converter;
+        this.missingValue = missingValue;
+        this.required = required;
+    }
+
+    /**
+     * Compila el enlace de un parámetro
+     *
+     * @param parameter parámetro del método del controlador
+     * @param name nombre del parámetro en el query o en la ruta
+     * @param defaultValue valor por defecto, o "" si no tiene
+     * @param pathVariable true si el valor viene de la ruta
+     * @return el enlace; {@link #handle()} extrae el argumento
+     * @throws IllegalArgumentException si el tipo no está soportado o el
+     * valor por defecto no se puede convertir
+     */
+    static ParameterBinder compile(Parameter parameter, String name, String defaultValue, boolean pathVariable) {
+        Class<?> type = parameter.getType();
+        boolean optional = type == Optional.class;
+        Class<?> valueType = optional ? optionalType(parameter) : type;
+        Converter converter = converter(valueType);
+        if (converter == null) {
+            throw new IllegalArgumentException("Unsupported parameter type " + parameter.getParameterizedType().getTypeName()
+                    + " for " + name + ": " + parameter.getDeclaringExecutable());
+        }
+
+        Object missingValue;
+        boolean hasDefault = !defaultValue.isEmpty();
+        if (hasDefault) {
+            try {
+                missingValue = converter.convert(defaultValue);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid default value \"" + defaultValue + "\" for " + name
+                        + ": " + parameter.getDeclaringExecutable(), e);
+            }
+        } else {
+            // Un String sin valor por defecto recibe "", como antes de tener tipos
+            missingValue = type == String.class ? "" : null;
+        }
+        if (optional) {
+            Converter element = converter;
+            converter = value -> Optional.of(element.convert(value));
+            missingValue = Optional.ofNullable(missingValue);
+        }
+        ParameterBinder binder = new ParameterBinder(name, pathVariable, converter, missingValue, type.isPrimitive() && !hasDefault);
+
+        try {
+            if (type == int.class || type == long.class || type == double.class || type == boolean.class) {
+                String accessor = type.getName() + "Value";
+                binder.handle = LOOKUP.findVirtual(ParameterBinder.class, accessor, MethodType.methodType(type, HttpRequest.class)).bindTo(binder);
+            } else {
+                binder.handle = LOOKUP.findVirtual(ParameterBinder.class, "objectValue", MethodType.methodType(Object.class, HttpRequest.class))
+                        .bindTo(binder)
+                        .asType(MethodType.methodType(type, HttpRequest.class));
+            }
+            return binder;
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Handle {@code (HttpRequest) -> tipo del parámetro}
+     */
+    MethodHandle handle() {
+        return handle;
+    }
+
+    private static Class<?> optionalType(Parameter parameter) {
+        Type type = parameter.getParameterizedType();
+        if (type instanceof ParameterizedType generic && generic.getActualTypeArguments()[0] instanceof Class<?> element) {
+            return element;
+        }
+        // Optional sin tipo: se trata como Optional<String>
+        return String.class;
+    }
+
+    private static Converter converter(Class<?> type) {
+        if (type == String.class) {
+            return value -> value;
+        }
+        if (type == int.class || type == Integer.class) {
+            return Integer::valueOf;
+        }
+        if (type == long.class || type == Long.class) {
+            return Long::valueOf;
+        }
+        if (type == double.class || type == Double.class) {
+            return Double::valueOf;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return ParameterBinder::parseBoolean;
+        }
+        if (type.isEnum()) {
+            Object[] constants = type.getEnumConstants();
+            return value -> {
+                for (Object constant : constants) {
+                    if (((Enum<?>) constant).name().equalsIgnoreCase(value)) {
+                        return constant;
+                    }
+                }
+                throw new IllegalArgumentException("No constant " + value + " in " + type.getName());
+            };
+        }
+        return null;
+    }
+
+    /**
+     * A diferencia de Boolean.parseBoolean, un valor distinto de true o
+     * false es un error
+     */
+    private static boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + value);
+    }
+
+    int intValue(HttpRequest request) throws HttpParseException {
+        try {
+            if (pathVariable) {
+                String value = request.getPathVariable(name);
+                return value.isEmpty() ? ((Number) missing()).intValue() : Integer.parseInt(value);
+            }
+            int index = request.indexOf(name);
+            return index < 0 || request.isEmptyValue(index) ? ((Number) missing()).intValue() : request.intValueAt(index);
+        } catch (NumberFormatException e) {
+            throw invalid(request);
+        }
+    }
+
+    long longValue(HttpRequest request) throws HttpParseException {
+        try {
+            if (pathVariable) {
+                String value = request.getPathVariable(name);
+                return value.isEmpty() ? ((Number) missing()).longValue() : Long.parseLong(value);
+            }
+            int index = request.indexOf(name);
+            return index < 0 || request.isEmptyValue(index) ? ((Number) missing()).longValue() : request.longValueAt(index);
+        } catch (NumberFormatException e) {
+            throw invalid(request);
+        }
+    }
+
+    double doubleValue(HttpRequest request) throws HttpParseException {
+        String value = rawValue(request);
+        try {
+            return value == null ? ((Number) missing()).doubleValue() : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw invalid(request);
+        }
+    }
+
+    boolean booleanValue(HttpRequest request) throws HttpParseException {
+        String value = rawValue(request);
+        try {
+            return value == null ? (Boolean) missing() : parseBoolean(value);
+        } catch (IllegalArgumentException e) {
+            throw invalid(request);
+        }
+    }
+
+    /**
+     * Valor ya convertido (los primitivos en su wrapper). Dos solicitudes
+     * con el mismo valor escrito distinto, como "5" y "05", dan valores
+     * iguales; por eso también sirve como clave de la caché de respuestas.
+     */
+    Object objectValue(HttpRequest request) throws HttpParseException {
+        String value = rawValue(request);
+        if (value == null) {
+            return missing();
+        }
+        try {
+            return converter.convert(value);
+        } catch (IllegalArgumentException e) {
+            throw invalid(request);
+        }
+    }
+
+    /**
+     * Valor decodificado, o null si el parámetro falta o está vacío
+     */
+    private String rawValue(HttpRequest request) {
+        String value = pathVariable ? request.getPathVariable(name) : request.getValue(name);
+        return value.isEmpty() ? null : value;
+    }
+
+    private Object missing() throws HttpParseException {
+        if (required) {
+            throw new HttpParseException("400 Bad Request", "Missing parameter " + name);
+        }
+        return missingValue;
+    }
+
+    private HttpParseException invalid(HttpRequest request) {
+        String value = pathVariable ? request.getPathVariable(name) : request.getValue(name);
+        return new HttpParseException("400 Bad Request", "Invalid value for parameter " + name + ": " + value);
+    }
+}
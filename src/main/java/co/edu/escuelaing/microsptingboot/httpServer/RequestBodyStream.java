@@ -0,0 +1,111 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cuerpo de una solicitud en el motor bloqueante. Se lee primero lo que
+ * quedó en el buffer de la conexión y después del socket, siempre a
+ * través del {@link BodyDecoder}, así que el cuerpo nunca se acumula en
+ * memoria. Si el cliente envió "Expect: 100-continue", la respuesta
+ * provisional se envía la primera vez que hace falta leer del socket.
+ *
+ * @author sebastian.cardona-p
+ */
+final class RequestBodyStream extends InputStream {
+
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final BodyDecoder decoder;
+    private final InputStream in;
+    // Buffer de lectura de la conexión, en modo lectura; se comparte con el parser
+    private final ByteBuffer buffer;
+    // Stream de respuesta si falta enviar 100 Continue, o null
+    private OutputStream continueOut;
+
+    RequestBodyStream(BodyDecoder decoder, InputStream in, ByteBuffer buffer, OutputStream continueOut) {
+        this.decoder = decoder;
+        this.in = in;
+        this.buffer = buffer;
+        this.continueOut = continueOut;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        ByteBuffer target = ByteBuffer.wrap(b, off, len);
+        while (!decoder.isFinished()) {
+            int copied = decoder.decode(buffer, target);
+            if (copied > 0) {
+                return copied;
+            }
+            if (!decoder.isFinished()) {
+                fill();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Lee más bytes del socket; el decodificador ya consumió el buffer
+     */
+    private void fill() throws IOException {
+        if (continueOut != null) {
+            continueOut.write(CONTINUE);
+            continueOut.flush();
+            continueOut = null;
+        }
+        int read = in.read(buffer.array(), 0, buffer.capacity());
+        if (read < 0) {
+            throw new EOFException("Connection closed mid-body");
+        }
+        HttpServer.metrics().addBytesReceived(read);
+        buffer.position(0).limit(read);
+    }
+
+    /**
+     * Descarta lo que el controlador no leyó del cuerpo para que la
+     * siguiente solicitud de la conexión empiece en el lugar correcto. Se
+     * descartan como máximo {@code maxDiscard} bytes: un cuerpo más grande,
+     * o uno chunked que no termina, ocuparía el hilo indefinidamente.
+     *
+     * @param maxDiscard bytes máximos que se leen y descartan
+     * @return false si el cliente espera 100 Continue y aún no envió el
+     * cuerpo, o si lo que falta supera {@code maxDiscard}; la conexión se
+     * debe cerrar en lugar de seguir leyendo
+     */
+    boolean finish(long maxDiscard) throws IOException {
+        if (decoder.isFinished()) {
+            return true;
+        }
+        if (continueOut != null) {
+            return false;
+        }
+        long contentLength = decoder.contentLength();
+        if (contentLength > maxDiscard) {
+            return false;
+        }
+        byte[] discard = new byte[buffer.capacity()];
+        long discarded = 0;
+        int read;
+        while ((read = read(discard, 0, (int) Math.min(discard.length, maxDiscard - discarded + 1))) >= 0) {
+            discarded += read;
+            if (discarded > maxDiscard) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
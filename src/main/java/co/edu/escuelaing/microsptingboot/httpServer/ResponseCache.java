@@ -0,0 +1,471 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caché de respuestas de los endpoints {@code @Cacheable}, con la respuesta
+ * ya renderizada (headers y cuerpo en bytes) por ruta y valor de los
+ * parámetros. Los aciertos solo leen un ConcurrentHashMap; el orden de uso
+ * se registra en un buffer que se descarta si está lleno y se aplica con
+ * el lock la próxima vez que alguien lo tenga.
+ *
+ * La expulsión sigue la idea de W-TinyLFU: las entradas nuevas pasan por
+ * una ventana LRU pequeña y, al salir de ella, solo desplazan a la menos
+ * usada del resto si se han pedido más veces según un sketch de
+ * frecuencias. Así una ráfaga de claves que se piden una sola vez no saca
+ * de la caché a las claves populares.
+ *
+ * Los fallos concurrentes de una misma clave se agrupan: el primero invoca
+ * el controlador y los demás esperan su resultado.
+ *
+ * @author sebastian.cardona-p
+ */
+final class ResponseCache {
+
+    static final int DEFAULT_MAX_ENTRIES = 10_000;
+    static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 128;
+
+    /**
+     * Clave de una respuesta: el método del controlador y los valores ya
+     * convertidos de sus parámetros, en orden
+     */
+    record Key(Method method, List<Object> values) {
+
+        static Key of(Method method, Object... values) {
+            return new Key(method, Arrays.asList(values));
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final int windowEntries;
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    // Claves leídas que aún no se han movido al final de su LRU
+    private final ArrayBlockingQueue<Key> reads = new ArrayBlockingQueue<>(READ_BUFFER_SIZE);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Con el lock: ventana de admisión y zona principal, las dos en orden de acceso
+    private final LinkedHashMap<Key, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Key, Entry> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long currentBytes = 0;
+
+    ResponseCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    ResponseCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.windowEntries = Math.max(1, maxEntries / 100);
+        this.sketch = new FrequencySketch(maxEntries);
+    }
+
+    /**
+     * Respuesta renderizada: la versión sin codificar y, si el tipo es
+     * comprimible y supera el umbral, las versiones gzip y deflate
+     */
+    static final class Entry {
+
+        final long expiresAt;
+        private final Variant identity;
+        private final Variant gzip;
+        private final Variant deflate;
+
+        private Entry(long expiresAt, Variant identity, Variant gzip, Variant deflate) {
+            this.expiresAt = expiresAt;
+            this.identity = identity;
+            this.gzip = gzip;
+            this.deflate = deflate;
+        }
+
+        /**
+         * Renderiza la respuesta que armó el controlador. Deja la respuesta
+         * con la última versión renderizada.
+         *
+         * @param response respuesta 200 completa, sin enviar
+         * @param ttlNanos tiempo de vida de la entrada
+         * @param compressionMinSize tamaño mínimo para comprimir, o -1
+         */
+        static Entry render(HttpResponse response, long ttlNanos, int compressionMinSize) {
+            byte[] body = response.getBody();
+            boolean compress = compressionMinSize >= 0 && body.length >= compressionMinSize
+                    && ContentEncoding.isCompressible(response.getContentType())
+                    && response.getHeader("Content-Encoding").isEmpty();
+            if (compress) {
+                response.setHeader("Vary", "Accept-Encoding");
+            }
+            Variant identity = Variant.of(response);
+            Variant gzip = null;
+            Variant deflate = null;
+            if (compress) {
+                response.setHeader("Content-Encoding", ContentEncoding.GZIP);
+                response.setBody(ContentEncoding.encode(body, ContentEncoding.GZIP));
+                gzip = Variant.of(response);
+                response.setHeader("Content-Encoding", ContentEncoding.DEFLATE);
+                response.setBody(ContentEncoding.encode(body, ContentEncoding.DEFLATE));
+                deflate = Variant.of(response);
+            }
+            return new Entry(System.nanoTime() + ttlNanos, identity, gzip, deflate);
+        }
+
+        /**
+         * Escribe la respuesta completa
+         *
+         * @param out
+         * @param keepAlive valor del header Connection
+         * @param encoding codificación negociada (GZIP, DEFLATE o null)
+         */
+        void writeTo(OutputStream out, boolean keepAlive, String encoding) throws IOException {
+            if (ContentEncoding.GZIP.equals(encoding) && gzip != null) {
+                gzip.writeTo(out, keepAlive);
+            } else if (ContentEncoding.DEFLATE.equals(encoding) && deflate != null) {
+                deflate.writeTo(out, keepAlive);
+            } else {
+                identity.writeTo(out, keepAlive);
+            }
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        private long weight() {
+            return identity.weight() + (gzip != null ? gzip.weight() : 0) + (deflate != null ? deflate.weight() : 0);
+        }
+    }
+
+    /**
+     * Una codificación de la respuesta con sus headers ya renderizados
+     */
+    private static final class Variant {
+
+        private final byte[] headKeepAlive;
+        private final byte[] headClose;
+        private final byte[] body;
+
+        private Variant(byte[] headKeepAlive, byte[] headClose, byte[] body) {
+            this.headKeepAlive = headKeepAlive;
+            this.headClose = headClose;
+            this.body = body;
+        }
+
+        static Variant of(HttpResponse response) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try {
+                response.writeTo(buffer, true);
+                byte[] keepAlive = buffer.toByteArray();
+                buffer.reset();
+                response.writeTo(buffer, false);
+                int bodyLength = response.getBodyLength();
+                byte[] close = buffer.toByteArray();
+                return new Variant(Arrays.copyOf(keepAlive, keepAlive.length - bodyLength),
+                        Arrays.copyOf(close, close.length - bodyLength),
+                        Arrays.copyOfRange(close, close.length - bodyLength, close.length));
+            } catch (IOException e) {
+                // ByteArrayOutputStream no lanza IOException
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void writeTo(OutputStream out, boolean keepAlive) throws IOException {
+            out.write(keepAlive ? headKeepAlive : headClose);
+            out.write(body);
+        }
+
+        long weight() {
+            return headKeepAlive.length + headClose.length + body.length;
+        }
+    }
+
+    /**
+     * Entrada vigente para la clave, o null
+     */
+    Entry get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            misses.increment();
+            lock.lock();
+            try {
+                if (entries.remove(key, entry)) {
+                    unlink(key);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+        if (!reads.offer(key) && lock.tryLock()) {
+            // Si otro hilo tiene el lock, la lectura simplemente no se registra
+            try {
+                drainReads();
+            } finally {
+                lock.unlock();
+            }
+        }
+        hits.increment();
+        return entry;
+    }
+
+    /**
+     * Registra una carga de la clave, o se une a la que ya está en curso
+     *
+     * @param pending futuro que completará quien llama si es el primero
+     * @return la carga en curso de otro hilo, o null si quien llama debe
+     * invocar el controlador y luego llamar a {@link #finishLoading}
+     */
+    CompletableFuture<Entry> startLoading(Key key, CompletableFuture<Entry> pending) {
+        return loading.putIfAbsent(key, pending);
+    }
+
+    /**
+     * Termina una carga: guarda la entrada y despierta a los que esperan
+     *
+     * @param entry la respuesta renderizada, o null si no se pudo guardar;
+     * en ese caso cada uno de los que esperan invoca el controlador
+     */
+    void finishLoading(Key key, CompletableFuture<Entry> pending, Entry entry) {
+        if (entry != null) {
+            put(key, entry);
+        }
+        loading.remove(key, pending);
+        pending.complete(entry);
+    }
+
+    /**
+     * Guarda una entrada. Una entrada más grande que todo el presupuesto
+     * no se guarda.
+     */
+    void put(Key key, Entry entry) {
+        long weight = entry.weight();
+        if (weight > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            drainReads();
+            sketch.increment(key);
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                unlink(key);
+            }
+            window.put(key, entry);
+            currentBytes += weight;
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Saca de la ventana lo que sobra y, mientras se pase del presupuesto,
+     * enfrenta al candidato que sale de la ventana con la víctima de la
+     * zona principal
+     */
+    private void evict() {
+        while (window.size() > windowEntries) {
+            Iterator<Map.Entry<Key, Entry>> eldest = window.entrySet().iterator();
+            Map.Entry<Key, Entry> candidate = eldest.next();
+            eldest.remove();
+            main.put(candidate.getKey(), candidate.getValue());
+            if (!overBudget()) {
+                continue;
+            }
+            Iterator<Map.Entry<Key, Entry>> victims = main.entrySet().iterator();
+            Map.Entry<Key, Entry> victim = victims.next();
+            if (victim.getKey().equals(candidate.getKey())) {
+                // La zona principal solo tenía al candidato
+                continue;
+            }
+            if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+                victims.remove();
+                discard(victim.getKey(), victim.getValue());
+            } else {
+                main.remove(candidate.getKey());
+                discard(candidate.getKey(), candidate.getValue());
+            }
+        }
+        // Por bytes todavía puede sobrar: primero sale lo menos usado de la zona principal
+        evictWhileOverBudget(main);
+        evictWhileOverBudget(window);
+    }
+
+    private void evictWhileOverBudget(LinkedHashMap<Key, Entry> region) {
+        Iterator<Map.Entry<Key, Entry>> eldest = region.entrySet().iterator();
+        while (overBudget() && eldest.hasNext()) {
+            Map.Entry<Key, Entry> victim = eldest.next();
+            eldest.remove();
+            discard(victim.getKey(), victim.getValue());
+        }
+    }
+
+    private boolean overBudget() {
+        return entries.size() > maxEntries || currentBytes > maxBytes;
+    }
+
+    private void discard(Key key, Entry entry) {
+        entries.remove(key, entry);
+        currentBytes -= entry.weight();
+    }
+
+    /**
+     * Quita la clave de la ventana o de la zona principal, con el lock
+     */
+    private void unlink(Key key) {
+        Entry previous = window.remove(key);
+        if (previous == null) {
+            previous = main.remove(key);
+        }
+        if (previous != null) {
+            currentBytes -= previous.weight();
+        }
+    }
+
+    /**
+     * Aplica las lecturas pendientes al sketch y al orden de las LRU, con el lock
+     */
+    private void drainReads() {
+        for (Key key; (key = reads.poll()) != null;) {
+            sketch.increment(key);
+            // get en un LinkedHashMap con accessOrder mueve la clave al final
+            if (window.get(key) == null) {
+                main.get(key);
+            }
+        }
+    }
+
+    /**
+     * Descarta todas las entradas
+     */
+    void clear() {
+        lock.lock();
+        try {
+            reads.clear();
+            entries.clear();
+            window.clear();
+            main.clear();
+            currentBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    int entryCount() {
+        return entries.size();
+    }
+
+    long size() {
+        lock.lock();
+        try {
+            return currentBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean contains(Key key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Frecuencia aproximada de cada clave: count-min sketch con contadores
+     * de 4 bits. Cuando el total de incrementos llega a diez veces la
+     * capacidad todos los contadores se dividen a la mitad, para que las
+     * claves que fueron populares hace tiempo dejen de pesar.
+     */
+    static final class FrequencySketch {
+
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final long[] SEEDS = {0x97cb3127L, 0xab0cd8f3L, 0x5e2f4d81L, 0xc2b2ae35L};
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maxEntries) {
+            // Un long (16 contadores) por entrada, en potencia de dos
+            int size = Integer.highestOneBit(Math.max(8, maxEntries));
+            this.table = new long[size < maxEntries ? size << 1 : size];
+            this.sampleSize = Math.max(10, 10 * maxEntries);
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                added |= incrementAt(indexOf(hash, i), counterOf(hash, i));
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, (int) (table[indexOf(hash, i)] >>> (counterOf(hash, i) << 2) & 0xF));
+            }
+            return frequency;
+        }
+
+        private boolean incrementAt(int index, int counter) {
+            int shift = counter << 2;
+            if ((table[index] >>> shift & 0xF) == 0xF) {
+                return false;
+            }
+            table[index] += 1L << shift;
+            return true;
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = table[i] >>> 1 & RESET_MASK;
+            }
+            additions /= 2;
+        }
+
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h & (table.length - 1);
+        }
+
+        private static int counterOf(int hash, int i) {
+            return hash >>> (i << 3) & 0xF;
+        }
+
+        private static int spread(int hash) {
+            hash = (hash >>> 16 ^ hash) * 0x45d9f3b;
+            return hash >>> 16 ^ hash;
+        }
+    }
+}
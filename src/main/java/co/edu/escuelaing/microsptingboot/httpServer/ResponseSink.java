@@ -0,0 +1,49 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Destino de respuesta capaz de enviar datos sin copiarlos al heap. Lo
+ * implementan los streams de salida de ambos motores; el contenido se
+ * escribe en orden con lo que ya se haya escrito en el stream.
+ *
+ * @author sebastian.cardona-p
+ */
+interface ResponseSink {
+
+    /**
+     * Envía el contenido de un buffer (por ejemplo un MappedByteBuffer)
+     *
+     * @param data buffer a enviar desde su posición hasta su límite
+     * @throws IOException
+     */
+    void sendBuffer(ByteBuffer data) throws IOException;
+
+    /**
+     * Envía una región de un archivo con FileChannel.transferTo
+     *
+     * @param file archivo a enviar
+     * @param position byte inicial
+     * @param count número de bytes
+     * @throws IOException si no se pudieron enviar todos los bytes
+     */
+    void sendFile(Path file, long position, long count) throws IOException;
+
+    /**
+     * Envía un cuerpo por partes a medida que el socket acepta más datos
+     *
+     * @param body elementos del cuerpo; se cierra al terminar
+     * @param framed si se usa el formato de Transfer-Encoding: chunked
+     * @throws IOException si el productor falla o la conexión se cierra
+     */
+    void sendStream(ChunkedBody body, boolean framed) throws IOException;
+
+    /**
+     * Bytes escritos en el stream, incluidos los buffers y archivos
+     * enviados. En el motor NIO no incluye los cuerpos por partes, que se
+     * envían después de que el controlador retorna.
+     */
+    long written();
+}
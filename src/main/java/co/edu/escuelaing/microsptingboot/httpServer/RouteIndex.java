@@ -0,0 +1,98 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import co.edu.escuelaing.microsptingboot.processor.RouteIndexProcessor;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Lector del índice de rutas generado en compilación por
+ * {@link RouteIndexProcessor}. Solo se cargan las clases de los
+ * controladores que aparecen en el índice.
+ *
+ * @author sebastian.cardona-p
+ */
+final class RouteIndex {
+
+    /**
+     * Ruta registrada en el índice
+     */
+    record Route(String httpMethod, String path, String className, String methodName, String[] parameterTypes) {
+
+        /**
+         * Carga la clase del controlador y busca el método de la ruta
+         *
+         * @throws ReflectiveOperationException si la clase o el método ya no existen
+         */
+        Method resolve(ClassLoader loader) throws ReflectiveOperationException {
+            Class<?> controller = Class.forName(className, false, loader);
+            Class<?>[] types = new Class<?>[parameterTypes.length];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = typeFor(parameterTypes[i], loader);
+            }
+            return controller.getDeclaredMethod(methodName, types);
+        }
+    }
+
+    private RouteIndex() {
+    }
+
+    /**
+     * Lee todos los índices visibles desde el class loader (uno por
+     * directorio de clases o JAR)
+     *
+     * @return las rutas, o null si no hay ningún índice
+     * @throws IOException si un índice no se puede leer o está mal formado
+     */
+    static List<Route> read(ClassLoader loader) throws IOException {
+        Enumeration<URL> indexes = loader.getResources(RouteIndexProcessor.INDEX_LOCATION);
+        if (!indexes.hasMoreElements()) {
+            return null;
+        }
+        List<Route> routes = new ArrayList<>();
+        while (indexes.hasMoreElements()) {
+            URL index = indexes.nextElement();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank() && !line.startsWith("#")) {
+                        routes.add(parse(line, index));
+                    }
+                }
+            }
+        }
+        return routes;
+    }
+
+    private static Route parse(String line, URL index) throws IOException {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 5) {
+            throw new IOException("Malformed route index entry in " + index + ": " + line);
+        }
+        String[] parameterTypes = fields[4].isEmpty() ? new String[0] : fields[4].split(",");
+        return new Route(fields[0], fields[1], fields[2], fields[3], parameterTypes);
+    }
+
+    private static Class<?> typeFor(String name, ClassLoader loader) throws ClassNotFoundException {
+        if (name.endsWith("[]")) {
+            return typeFor(name.substring(0, name.length() - 2), loader).arrayType();
+        }
+        return switch (name) {
+            case "boolean" -> boolean.class;
+            case "byte" -> byte.class;
+            case "char" -> char.class;
+            case "short" -> short.class;
+            case "int" -> int.class;
+            case "long" -> long.class;
+            case "float" -> float.class;
+            case "double" -> double.class;
+            default -> Class.forName(name, false, loader);
+        };
+    }
+}
@@ -0,0 +1,289 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import co.edu.escuelaing.microsptingboot.annotations.Cacheable;
+import co.edu.escuelaing.microsptingboot.annotations.PathVariable;
+import co.edu.escuelaing.microsptingboot.annotations.RequestBody;
+import co.edu.escuelaing.microsptingboot.annotations.RequestParam;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Flow;
+import java.util.stream.BaseStream;
+
+/**
+ * Endpoint precompilado: el plan de enlace de parámetros (convertidor y
+ * valor por defecto de cada {@link RequestParam} y {@link PathVariable},
+ * tipo del {@link RequestBody}, posición del {@link HttpResponse}) se
+ * resuelve una sola vez al registrar la ruta. Cada parámetro tiene un
+ * {@link MethodHandle} que lo extrae de la solicitud, y todos se combinan
+ * con el método en un solo handle {@code (HttpRequest, HttpResponse) -> Object}.
+ * En cada solicitud no hay reflexión, ni arreglo de argumentos, ni boxing
+ * de los parámetros primitivos.
+ *
+ * Si el método es {@link Cacheable}, los mismos enlaces arman la clave de
+ * su respuesta en la {@link ResponseCache}.
+ *
+ * @author sebastian.cardona-p
+ */
+final class RouteInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, HttpRequest.class, HttpResponse.class);
+    private static final MethodHandle BODY;
+
+    static {
+        try {
+            BODY = MethodHandles.lookup().findStatic(RouteInvoker.class, "body",
+                    MethodType.methodType(Object.class, HttpRequest.class, Class.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Method method;
+    private final MethodHandle handle;
+    // Escritor JSON del tipo de retorno; null si el método retorna void, texto o un cuerpo por partes
+    private final JsonSerializer.ValueWriter resultWriter;
+    // Parámetros que forman la clave de caché, en orden
+    private final ParameterBinder[] binders;
+    // Vida de la respuesta en caché; 0 si el método no es @Cacheable
+    private final long cacheTtlNanos;
+    // Solicitudes y latencias del endpoint
+    private final Metrics.Route metrics = new Metrics.Route();
+
+    private RouteInvoker(Method method, MethodHandle handle, JsonSerializer.ValueWriter resultWriter,
+            ParameterBinder[] binders, long cacheTtlNanos) {
+        this.method = method;
+        this.handle = handle;
+        this.resultWriter = resultWriter;
+        this.binders = binders;
+        this.cacheTtlNanos = cacheTtlNanos;
+    }
+
+    /**
+     * Compila el invocador de un método de controlador
+     *
+     * @param m método estático anotado con GetMapping, PostMapping,
+     * PutMapping o DeleteMapping
+     * @return el invocador listo para usar
+     * @throws IllegalArgumentException si el método no es estático, no es
+     * accesible, su {@code @RequestBody} no es válido, un parámetro tiene
+     * un tipo o valor por defecto no soportado, o es {@code @Cacheable} con
+     * un {@code @RequestBody} o un ttl que no es positivo
+     */
+    static RouteInvoker compile(Method m) {
+        if (!Modifier.isStatic(m.getModifiers())) {
+            throw new IllegalArgumentException("Controller method must be static: " + m);
+        }
+
+        Parameter[] parameters = m.getParameters();
+        // Handle que obtiene cada argumento a partir de la solicitud o de la respuesta
+        MethodHandle[] arguments = new MethodHandle[parameters.length];
+        // 0 si el argumento sale de la solicitud, 1 si es la respuesta
+        int[] sources = new int[parameters.length];
+        List<ParameterBinder> binders = new ArrayList<>();
+        boolean hasBody = false;
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> type = parameters[i].getType();
+            if (type == HttpResponse.class) {
+                arguments[i] = MethodHandles.identity(HttpResponse.class);
+                sources[i] = 1;
+                continue;
+            }
+            if (parameters[i].isAnnotationPresent(RequestBody.class)) {
+                if (hasBody) {
+                    throw new IllegalArgumentException("Only one @RequestBody parameter is allowed: " + m);
+                }
+                if (type != InputStream.class && type != byte[].class && type != String.class && type != ByteBuffer.class) {
+                    throw new IllegalArgumentException("Unsupported @RequestBody type " + type.getName() + ": " + m);
+                }
+                hasBody = true;
+                arguments[i] = MethodHandles.insertArguments(BODY, 1, type).asType(MethodType.methodType(type, HttpRequest.class));
+                continue;
+            }
+            RequestParam rp = parameters[i].getAnnotation(RequestParam.class);
+            PathVariable pv = parameters[i].getAnnotation(PathVariable.class);
+            if (rp != null) {
+                binders.add(ParameterBinder.compile(parameters[i], rp.value(), rp.defaultValue(), false));
+                arguments[i] = binders.getLast().handle();
+            } else if (pv != null) {
+                binders.add(ParameterBinder.compile(parameters[i], pv.value(), "", true));
+                arguments[i] = binders.getLast().handle();
+            } else {
+                // Parámetro sin anotación: null, o cero si es primitivo
+                arguments[i] = MethodHandles.dropArguments(MethodHandles.zero(type), 0, HttpRequest.class);
+            }
+        }
+
+        long cacheTtlNanos = 0;
+        Cacheable cacheable = m.getAnnotation(Cacheable.class);
+        if (cacheable != null) {
+            if (hasBody) {
+                throw new IllegalArgumentException("@Cacheable method cannot have a @RequestBody: " + m);
+            }
+            if (cacheable.ttlMillis() <= 0) {
+                throw new IllegalArgumentException("@Cacheable ttlMillis must be positive: " + m);
+            }
+            cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(cacheable.ttlMillis());
+        }
+
+        try {
+            MethodHandle target = MethodHandles.lookup().unreflect(m);
+            MethodHandle handle = MethodHandles.permuteArguments(
+                    MethodHandles.filterArguments(target, 0, arguments),
+                    MethodType.methodType(target.type().returnType(), HttpRequest.class, HttpResponse.class),
+                    sources);
+            return new RouteInvoker(m, handle.asType(INVOKER_TYPE), resultWriter(m.getReturnType()),
+                    binders.toArray(ParameterBinder[]::new), cacheTtlNanos);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Controller method is not accessible: " + m, e);
+        }
+    }
+
+    /**
+     * Los textos se envían tal cual y los Stream, Iterator y Publisher por
+     * partes; el resto se serializa como JSON
+     */
+    private static JsonSerializer.ValueWriter resultWriter(Class<?> returnType) {
+        if (returnType == void.class || CharSequence.class.isAssignableFrom(returnType)
+                || BaseStream.class.isAssignableFrom(returnType) || Iterator.class.isAssignableFrom(returnType)
+                || Flow.Publisher.class.isAssignableFrom(returnType)) {
+            return null;
+        }
+        return JsonSerializer.writerFor(returnType);
+    }
+
+    /**
+     * Invoca el endpoint con una respuesta nueva
+     */
+    Object invoke(HttpRequest request) throws Throwable {
+        return invoke(request, new HttpResponse());
+    }
+
+    /**
+     * Invoca el endpoint con los parámetros de la solicitud
+     *
+     * @param request
+     * @param response respuesta que recibe el parámetro HttpResponse, si existe
+     * @return el valor retornado por el método del controlador (null si es void)
+     * @throws HttpParseException si un parámetro no se puede convertir (400)
+     * o el cuerpo supera el límite configurado (413)
+     * @throws Throwable la excepción lanzada por el controlador
+     */
+    Object invoke(HttpRequest request, HttpResponse response) throws Throwable {
+        return (Object) handle.invokeExact(request, response);
+    }
+
+    /**
+     * Agrega al cuerpo de la respuesta el valor que retornó el controlador:
+     * un texto tal cual y cualquier otro valor como JSON, escrito
+     * directamente en el buffer de la respuesta
+     */
+    void writeResult(Object result, HttpResponse response) {
+        if (method.getReturnType() == void.class) {
+            return;
+        }
+        if (resultWriter == null || result == null || result instanceof CharSequence) {
+            response.write(String.valueOf(result));
+            return;
+        }
+        JsonWriter out = response.jsonWriter();
+        resultWriter.write(result, out);
+        out.finish();
+    }
+
+    /**
+     * Si la respuesta del método se guarda en la caché de respuestas
+     */
+    boolean isCacheable() {
+        return cacheTtlNanos > 0;
+    }
+
+    long getCacheTtlNanos() {
+        return cacheTtlNanos;
+    }
+
+    Metrics.Route metrics() {
+        return metrics;
+    }
+
+    /**
+     * Clave de caché de la solicitud: los valores ya convertidos, así
+     * "a=5" y "a=05" comparten la respuesta y el orden del query no importa
+     *
+     * @throws HttpParseException si un parámetro no se puede convertir
+     */
+    ResponseCache.Key cacheKey(HttpRequest request) throws HttpParseException {
+        Object[] values = new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            values[i] = binders[i].objectValue(request);
+        }
+        return ResponseCache.Key.of(method, values);
+    }
+
+    /**
+     * Cuerpo de la solicitud en el tipo del parámetro {@code @RequestBody}
+     */
+    private static Object body(HttpRequest request, Class<?> bodyType) throws IOException, HttpParseException {
+        InputStream in = request.getBody();
+        if (bodyType == InputStream.class) {
+            return in;
+        }
+        if (bodyType == ByteBuffer.class) {
+            if (in instanceof ByteBufferInputStream buffered) {
+                // El motor NIO ya tiene el cuerpo fuera del heap: sin copia
+                return buffered.remaining();
+            }
+            byte[] bytes = readBody(in);
+            return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        }
+        byte[] bytes = readBody(in);
+        return bodyType == String.class ? new String(bytes, charset(request)) : bytes;
+    }
+
+    /**
+     * Lee el cuerpo completo sin pasar del límite del servidor
+     */
+    private static byte[] readBody(InputStream in) throws IOException, HttpParseException {
+        long limit = HttpServer.getMaxBufferedBodyBytes();
+        byte[] bytes = in.readNBytes((int) Math.min(limit, Integer.MAX_VALUE - 8));
+        if (in.read() >= 0) {
+            throw new HttpParseException("413 Content Too Large", "Request body exceeds " + limit + " bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Charset del parámetro charset de Content-Type, o UTF-8
+     */
+    private static Charset charset(HttpRequest request) {
+        String contentType = request.getHeader("Content-Type");
+        int index = contentType.toLowerCase().indexOf("charset=");
+        if (index < 0) {
+            return StandardCharsets.UTF_8;
+        }
+        String name = contentType.substring(index + 8).split(";")[0].trim().replace("\"", "");
+        try {
+            return Charset.forName(name);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    Method getMethod() {
+        return method;
+    }
+}
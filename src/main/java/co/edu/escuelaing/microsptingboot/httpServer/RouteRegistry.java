@@ -0,0 +1,88 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.lang.reflect.Method;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registro de rutas (patrón -> método) que mantiene compilado su
+ * {@link Router}. Cualquier cambio descarta el enrutador y el siguiente
+ * {@link #router()} lo vuelve a compilar, así que las búsquedas nunca ven
+ * un árbol a medio construir.
+ *
+ * @author sebastian.cardona-p
+ */
+final class RouteRegistry extends AbstractMap<String, Method> {
+
+    private final Map<String, Method> routes = new LinkedHashMap<>();
+    private volatile Router router;
+
+    /**
+     * Registra una ruta
+     *
+     * @throws IllegalArgumentException si el patrón no es válido
+     */
+    @Override
+    public synchronized Method put(String pattern, Method method) {
+        Router.validate(pattern);
+        Method previous = routes.put(pattern, method);
+        router = null;
+        return previous;
+    }
+
+    @Override
+    public synchronized Method remove(Object pattern) {
+        Method previous = routes.remove(pattern);
+        router = null;
+        return previous;
+    }
+
+    @Override
+    public synchronized void clear() {
+        routes.clear();
+        router = null;
+    }
+
+    @Override
+    public synchronized Method get(Object pattern) {
+        return routes.get(pattern);
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object pattern) {
+        return routes.containsKey(pattern);
+    }
+
+    @Override
+    public synchronized int size() {
+        return routes.size();
+    }
+
+    /**
+     * Copia de solo lectura de las rutas registradas
+     */
+    @Override
+    public synchronized Set<Map.Entry<String, Method>> entrySet() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(routes)).entrySet();
+    }
+
+    /**
+     * Enrutador de las rutas actuales, compilado solo si hubo cambios
+     */
+    Router router() {
+        Router current = router;
+        if (current == null) {
+            synchronized (this) {
+                current = router;
+                if (current == null) {
+                    current = Router.compile(routes);
+                    router = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,261 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enrutador de árbol radix. Los segmentos literales comparten prefijos en
+ * nodos comprimidos y los segmentos dinámicos son hijos especiales:
+ * <ul>
+ * <li>{@code {nombre}}: un segmento, capturado como variable</li>
+ * <li>{@code *}: un segmento, sin capturar</li>
+ * <li>{@code **}: el resto de la ruta (solo al final), disponible como
+ * variable "**"</li>
+ * </ul>
+ * La búsqueda recorre la ruta una vez, prefiriendo literal sobre variable
+ * y variable sobre comodín, así que su costo depende del largo de la ruta y
+ * no del número de rutas registradas. El árbol es inmutable después de
+ * compilarse.
+ *
+ * @author sebastian.cardona-p
+ */
+final class Router {
+
+    static final String CATCH_ALL = "**";
+
+    private final Node root = new Node("");
+    // Máximo de segmentos dinámicos de una ruta; tamaño de las capturas
+    private int maxCaptures;
+
+    /**
+     * Ruta que coincidió con sus variables
+     */
+    record Match(String pattern, Method method, String[] names, String[] values) {
+    }
+
+    private record Route(String pattern, Method method, String[] names) {
+    }
+
+    private static final class Node {
+
+        String label;
+        char[] indices = new char[0];
+        Node[] children = new Node[0];
+        Node variable;
+        Node catchAll;
+        Route route;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] == first) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(Node child) {
+            indices = Arrays.copyOf(indices, indices.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            indices[indices.length - 1] = child.label.charAt(0);
+            children[children.length - 1] = child;
+        }
+    }
+
+    /**
+     * Compila un enrutador con las rutas dadas
+     *
+     * @param routes patrón de ruta -> método del controlador
+     * @throws IllegalArgumentException si un patrón no es válido
+     */
+    static Router compile(Map<String, Method> routes) {
+        Router router = new Router();
+        for (Map.Entry<String, Method> route : routes.entrySet()) {
+            router.add(route.getKey(), route.getValue());
+        }
+        return router;
+    }
+
+    /**
+     * Valida un patrón de ruta
+     *
+     * @throws IllegalArgumentException si una variable o comodín no ocupa un
+     *         segmento completo o si "**" no está al final
+     */
+    static void validate(String pattern) {
+        parse(pattern);
+    }
+
+    private void add(String pattern, Method method) {
+        List<String> parts = parse(pattern);
+        List<String> names = new ArrayList<>();
+        Node node = root;
+        for (String part : parts) {
+            if (part.equals(CATCH_ALL)) {
+                if (node.catchAll == null) {
+                    node.catchAll = new Node("");
+                }
+                node = node.catchAll;
+                names.add(CATCH_ALL);
+            } else if (part.equals("*") || isVariable(part)) {
+                if (node.variable == null) {
+                    node.variable = new Node("");
+                }
+                node = node.variable;
+                names.add(part.equals("*") ? null : part.substring(1, part.length() - 1));
+            } else {
+                node = insertLiteral(node, part);
+            }
+        }
+        node.route = new Route(pattern, method, names.toArray(new String[0]));
+        maxCaptures = Math.max(maxCaptures, names.size());
+    }
+
+    /**
+     * Inserta un literal debajo del nodo, dividiendo las etiquetas que
+     * comparten solo una parte del prefijo
+     */
+    private static Node insertLiteral(Node node, String text) {
+        String rest = text;
+        while (!rest.isEmpty()) {
+            Node child = node.child(rest.charAt(0));
+            if (child == null) {
+                child = new Node(rest);
+                node.addChild(child);
+                return child;
+            }
+            int common = 0;
+            int max = Math.min(child.label.length(), rest.length());
+            while (common < max && child.label.charAt(common) == rest.charAt(common)) {
+                common++;
+            }
+            if (common < child.label.length()) {
+                Node suffix = new Node(child.label.substring(common));
+                suffix.indices = child.indices;
+                suffix.children = child.children;
+                suffix.variable = child.variable;
+                suffix.catchAll = child.catchAll;
+                suffix.route = child.route;
+                child.label = child.label.substring(0, common);
+                child.indices = new char[]{suffix.label.charAt(0)};
+                child.children = new Node[]{suffix};
+                child.variable = null;
+                child.catchAll = null;
+                child.route = null;
+            }
+            node = child;
+            rest = rest.substring(common);
+        }
+        return node;
+    }
+
+    /**
+     * Divide el patrón en literales (que incluyen las '/') y segmentos
+     * dinámicos
+     */
+    private static List<String> parse(String pattern) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int start = 0;
+        while (start <= pattern.length()) {
+            int end = pattern.indexOf('/', start);
+            if (end < 0) {
+                end = pattern.length();
+            }
+            String segment = pattern.substring(start, end);
+            if (segment.equals(CATCH_ALL)) {
+                if (end != pattern.length()) {
+                    throw new IllegalArgumentException("'**' must be the last segment: " + pattern);
+                }
+                flush(literal, parts);
+                parts.add(CATCH_ALL);
+            } else if (segment.equals("*") || isVariable(segment)) {
+                flush(literal, parts);
+                parts.add(segment);
+            } else if (segment.indexOf('{') >= 0 || segment.indexOf('}') >= 0 || segment.indexOf('*') >= 0) {
+                throw new IllegalArgumentException("Path variables and wildcards must be whole segments: " + pattern);
+            } else {
+                literal.append(segment);
+            }
+            if (end < pattern.length()) {
+                literal.append('/');
+            }
+            start = end + 1;
+        }
+        flush(literal, parts);
+        return parts;
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}'
+                && segment.indexOf('{', 1) < 0 && segment.indexOf('}') == segment.length() - 1;
+    }
+
+    private static void flush(StringBuilder literal, List<String> parts) {
+        if (literal.length() > 0) {
+            parts.add(literal.toString());
+            literal.setLength(0);
+        }
+    }
+
+    /**
+     * Busca la ruta que corresponde al path
+     *
+     * @param path ruta de la solicitud, sin el prefijo /app
+     * @return la coincidencia, o null si ninguna ruta corresponde
+     */
+    Match match(String path) {
+        int[] captures = new int[maxCaptures * 2];
+        Route route = match(root, path, 0, captures, 0);
+        if (route == null) {
+            return null;
+        }
+        String[] values = new String[route.names().length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = path.substring(captures[2 * i], captures[2 * i + 1]);
+        }
+        return new Match(route.pattern(), route.method(), route.names(), values);
+    }
+
+    private static Route match(Node node, String path, int position, int[] captures, int captured) {
+        if (position == path.length() && node.route != null) {
+            return node.route;
+        }
+        if (position < path.length()) {
+            Node child = node.child(path.charAt(position));
+            if (child != null && path.startsWith(child.label, position)) {
+                Route route = match(child, path, position + child.label.length(), captures, captured);
+                if (route != null) {
+                    return route;
+                }
+            }
+            if (node.variable != null) {
+                int end = path.indexOf('/', position);
+                if (end < 0) {
+                    end = path.length();
+                }
+                if (end > position) {
+                    captures[2 * captured] = position;
+                    captures[2 * captured + 1] = end;
+                    Route route = match(node.variable, path, end, captures, captured + 1);
+                    if (route != null) {
+                        return route;
+                    }
+                }
+            }
+        }
+        if (node.catchAll != null && node.catchAll.route != null) {
+            captures[2 * captured] = position;
+            captures[2 * captured + 1] = path.length();
+            return node.catchAll.route;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,261 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Configuración del servidor al iniciar. Cada opción se busca, en orden de
+ * prioridad, en la línea de comandos ({@code --server.port=8080}), en las
+ * propiedades del sistema ({@code -Dserver.port=8080}), en las variables de
+ * entorno ({@code SERVER_PORT=8080}) y en el archivo de propiedades
+ * ({@code config.file}, o {@code application.properties} del classpath);
+ * si no aparece se usa el valor por defecto del servidor.
+ * <pre>
+ * ServerConfig config = ServerConfig.load(args);
+ * config.apply();
+ * HttpServer.startServer(config.arguments());
+ * </pre>
+ *
+ * @author sebastian.cardona-p
+ */
+public final class ServerConfig {
+
+    static final String FILE_KEY = "config.file";
+    static final String DEFAULT_FILE = "application.properties";
+
+    // Opciones conocidas y su valor por defecto; "" deja el valor vacío
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("server.port", String.valueOf(HttpServer.DEFAULT_PORT));
+        DEFAULTS.put("server.address", "");
+        DEFAULTS.put("server.backlog", String.valueOf(HttpServer.DEFAULT_BACKLOG));
+        DEFAULTS.put("server.max-connections", String.valueOf(HttpServer.DEFAULT_MAX_CONNECTIONS));
+        DEFAULTS.put("server.acceptors", "1");
+        // Por defecto se activa si hay más de un acceptor
+        DEFAULTS.put("server.reuse-port", "");
+        DEFAULTS.put("server.tcp-no-delay", "true");
+        DEFAULTS.put("server.receive-buffer", "0");
+        DEFAULTS.put("server.send-buffer", "0");
+        DEFAULTS.put("server.engine", HttpServer.Engine.BLOCKING.name());
+        DEFAULTS.put("server.event-loops", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        DEFAULTS.put("server.idle-timeout-ms", String.valueOf(HttpServer.DEFAULT_IDLE_TIMEOUT_MILLIS));
+        DEFAULTS.put("server.max-requests-per-connection", String.valueOf(HttpServer.DEFAULT_MAX_REQUESTS_PER_CONNECTION));
+        DEFAULTS.put("server.max-body-bytes", String.valueOf(HttpServer.DEFAULT_MAX_BUFFERED_BODY_BYTES));
+        DEFAULTS.put("compression.enabled", "true");
+        DEFAULTS.put("compression.min-size", String.valueOf(ContentEncoding.DEFAULT_MIN_SIZE));
+        DEFAULTS.put("metrics.path", "/metrics");
+        DEFAULTS.put("access-log.level", HttpServer.AccessLogLevel.ALL.name());
+        DEFAULTS.put("access-log.file", "");
+        DEFAULTS.put("access-log.max-file-bytes", String.valueOf(AccessLog.DEFAULT_MAX_FILE_BYTES));
+        DEFAULTS.put("access-log.max-files", String.valueOf(AccessLog.DEFAULT_MAX_FILES));
+        DEFAULTS.put("access-log.buffer", String.valueOf(AccessLog.DEFAULT_CAPACITY));
+        DEFAULTS.put("access-log.block-when-full", "false");
+    }
+
+    // Valor de cada opción y de dónde salió, para los mensajes de error
+    private final Map<String, String> values;
+    private final Map<String, String> origins;
+    private final String[] arguments;
+
+    private ServerConfig(Map<String, String> values, Map<String, String> origins, String[] arguments) {
+        this.values = values;
+        this.origins = origins;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Lee la configuración de los argumentos, las propiedades del sistema,
+     * el entorno y el archivo de propiedades
+     *
+     * @param args argumentos del programa; los que empiezan con "--" son opciones
+     * @throws IllegalArgumentException si hay una opción desconocida o el
+     * archivo de propiedades no se puede leer
+     */
+    public static ServerConfig load(String[] args) {
+        return load(args, System.getProperties(), System.getenv());
+    }
+
+    static ServerConfig load(String[] args, Properties system, Map<String, String> environment) {
+        Map<String, String> commandLine = new LinkedHashMap<>();
+        List<String> rest = new ArrayList<>();
+        for (String arg : args == null ? new String[0] : args) {
+            if (!arg.startsWith("--")) {
+                rest.add(arg);
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            String key = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+            if (equals < 0 || (!DEFAULTS.containsKey(key) && !FILE_KEY.equals(key))) {
+                throw new IllegalArgumentException("Unknown option, expected --name=value: " + arg);
+            }
+            commandLine.put(key, arg.substring(equals + 1));
+        }
+
+        Map<String, String> origins = new LinkedHashMap<>();
+        Properties file = readFile(lookup(FILE_KEY, commandLine, system, environment, origins));
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String key : DEFAULTS.keySet()) {
+            String value = lookup(key, commandLine, system, environment, origins);
+            if (value == null && file.getProperty(key) != null) {
+                value = file.getProperty(key);
+                origins.put(key, "config file");
+            }
+            if (value != null) {
+                values.put(key, value.strip());
+            }
+        }
+        return new ServerConfig(values, origins, rest.toArray(new String[0]));
+    }
+
+    private static String lookup(String key, Map<String, String> commandLine, Properties system,
+            Map<String, String> environment, Map<String, String> origins) {
+        if (commandLine.containsKey(key)) {
+            origins.put(key, "--" + key);
+            return commandLine.get(key);
+        }
+        if (system.getProperty(key) != null) {
+            origins.put(key, "-D" + key);
+            return system.getProperty(key);
+        }
+        String variable = environmentName(key);
+        if (environment.get(variable) != null) {
+            origins.put(key, "environment " + variable);
+            return environment.get(variable);
+        }
+        return null;
+    }
+
+    /**
+     * Nombre de la variable de entorno de una opción: en mayúsculas y con
+     * "_" en lugar de "." y "-", por ejemplo SERVER_PORT o ACCESS_LOG_FILE
+     */
+    static String environmentName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+
+    private static Properties readFile(String file) {
+        Properties properties = new Properties();
+        try {
+            if (file != null) {
+                try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+            } else {
+                try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(DEFAULT_FILE)) {
+                    if (in != null) {
+                        properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read config file " + (file != null ? file : DEFAULT_FILE), e);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (!DEFAULTS.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown option in config file: " + key);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Valor de una opción, o su valor por defecto si no se configuró
+     *
+     * @throws IllegalArgumentException si la opción no existe
+     */
+    public String get(String key) {
+        String defaultValue = DEFAULTS.get(key);
+        if (defaultValue == null) {
+            throw new IllegalArgumentException("Unknown option " + key);
+        }
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Argumentos que no son opciones, por ejemplo el controlador a cargar
+     */
+    public String[] arguments() {
+        return arguments.clone();
+    }
+
+    /**
+     * Configura el servidor con todas las opciones, incluidas las que
+     * toman su valor por defecto. Debe llamarse antes de
+     * {@link HttpServer#startServer(String[])}.
+     *
+     * @throws IllegalArgumentException si un valor no es válido; el
+     * mensaje indica de dónde salió
+     */
+    public void apply() {
+        int acceptors = intValue("server.acceptors");
+        String reusePort = get("server.reuse-port");
+        HttpServer.configureListener(get("server.address"), intValue("server.port"));
+        HttpServer.configureAcceptors(acceptors, reusePort.isEmpty() ? acceptors > 1 : booleanValue("server.reuse-port"));
+        HttpServer.configureSocketOptions(booleanValue("server.tcp-no-delay"),
+                intValue("server.receive-buffer"), intValue("server.send-buffer"));
+        HttpServer.configureConcurrency(intValue("server.max-connections"), intValue("server.backlog"));
+        HttpServer.configureEngine(enumValue("server.engine", HttpServer.Engine.class), intValue("server.event-loops"));
+        HttpServer.configureKeepAlive(intValue("server.idle-timeout-ms"), intValue("server.max-requests-per-connection"));
+        HttpServer.configureRequestBody(longValue("server.max-body-bytes"));
+        HttpServer.configureCompression(booleanValue("compression.enabled"), intValue("compression.min-size"));
+        String metricsPath = get("metrics.path");
+        HttpServer.configureMetrics(metricsPath.isEmpty() || metricsPath.equalsIgnoreCase("off") ? null : metricsPath);
+        HttpServer.configureAccessLogRotation(longValue("access-log.max-file-bytes"), intValue("access-log.max-files"));
+        HttpServer.configureAccessLogBuffer(intValue("access-log.buffer"), booleanValue("access-log.block-when-full"));
+        String accessLogFile = get("access-log.file");
+        HttpServer.configureAccessLog(enumValue("access-log.level", HttpServer.AccessLogLevel.class),
+                accessLogFile.isEmpty() ? null : accessLogFile);
+    }
+
+    private int intValue(String key) {
+        try {
+            return Integer.parseInt(get(key));
+        } catch (NumberFormatException e) {
+            throw invalid(key, "an integer", e);
+        }
+    }
+
+    private long longValue(String key) {
+        try {
+            return Long.parseLong(get(key));
+        } catch (NumberFormatException e) {
+            throw invalid(key, "an integer", e);
+        }
+    }
+
+    private boolean booleanValue(String key) {
+        String value = get(key);
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw invalid(key, "true or false", null);
+    }
+
+    private <E extends Enum<E>> E enumValue(String key, Class<E> type) {
+        try {
+            return Enum.valueOf(type, get(key).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw invalid(key, "one of " + List.of(type.getEnumConstants()), e);
+        }
+    }
+
+    private IllegalArgumentException invalid(String key, String expected, Exception cause) {
+        String origin = origins.getOrDefault(key, "default");
+        return new IllegalArgumentException(key + " must be " + expected + " (" + origin + "): " + get(key), cause);
+    }
+}
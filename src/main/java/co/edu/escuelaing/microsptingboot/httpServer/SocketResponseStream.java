@@ -0,0 +1,91 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stream de salida del motor bloqueante. Los headers y cuerpos pequeños se
+ * acumulan en el buffer; los archivos se envían directamente al canal del
+ * socket (sendfile) después de vaciarlo. Los cuerpos por partes se
+ * escriben con escrituras bloqueantes, que frenan al productor cuando el
+ * socket está lleno. Los bytes escritos se suman en un campo y pasan a las
+ * métricas en cada flush.
+ *
+ * @author sebastian.cardona-p
+ */
+class SocketResponseStream extends BufferedOutputStream implements ResponseSink {
+
+    private final SocketChannel channel;
+    // Bytes escritos y los ya sumados a las métricas; la conexión la atiende un solo hilo
+    private long written;
+    private long published;
+
+    SocketResponseStream(OutputStream out, SocketChannel channel) {
+        super(out);
+        this.channel = channel;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        super.write(b);
+        written++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        super.write(b, off, len);
+        written += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        super.flush();
+        if (written > published) {
+            HttpServer.metrics().addBytesSent(written - published);
+            published = written;
+        }
+    }
+
+    @Override
+    public void sendBuffer(ByteBuffer data) throws IOException {
+        flush();
+        while (data.hasRemaining()) {
+            written += channel.write(data);
+        }
+    }
+
+    @Override
+    public void sendFile(Path file, long position, long count) throws IOException {
+        flush();
+        long sent = 0;
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (sent < count) {
+                long transferred = fileChannel.transferTo(position + sent, count - sent, channel);
+                if (transferred <= 0) {
+                    // El archivo se truncó después de enviar los headers
+                    throw new EOFException("File shorter than announced: " + file);
+                }
+                sent += transferred;
+            }
+        } finally {
+            written += sent;
+        }
+    }
+
+    @Override
+    public long written() {
+        return written;
+    }
+
+    @Override
+    public void sendStream(ChunkedBody body, boolean framed) throws IOException {
+        body.writeTo(this, framed);
+    }
+}
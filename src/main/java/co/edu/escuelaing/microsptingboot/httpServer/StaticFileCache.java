@@ -0,0 +1,372 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché en memoria de archivos estáticos con la respuesta ya renderizada
+ * (headers y cuerpo en bytes). Tiene un presupuesto de bytes con expulsión
+ * LRU y se invalida cuando cambia la fecha de modificación o el tamaño del
+ * archivo. La fecha se revisa como máximo una vez cada
+ * {@code revalidateMillis}, así que en estado estable un acierto no toca el
+ * disco.
+ *
+ * Los tipos de texto que superan el umbral de compresión guardan también
+ * sus versiones gzip y deflate; si existe "archivo.gz" junto al original se
+ * usa como versión gzip en lugar de comprimir. Cada versión tiene su ETag
+ * (hash del contenido) y su respuesta 304 ya renderizada.
+ *
+ * Los archivos de más de {@code maxEntryBytes} no se leen: la decisión se
+ * toma con el tamaño del archivo y la entrada que se retorna solo tiene su
+ * fecha y su tamaño, para enviarlo desde el disco.
+ *
+ * @author sebastian.cardona-p
+ */
+final class StaticFileCache {
+
+    static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+    static final long DEFAULT_MAX_ENTRY_BYTES = 1024 * 1024;
+    static final long DEFAULT_REVALIDATE_MILLIS = 1000;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final long revalidateMillis;
+    // accessOrder = true: el primer elemento es el menos usado recientemente
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes = 0;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile int compressionMinSize = ContentEncoding.DEFAULT_MIN_SIZE;
+
+    StaticFileCache() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_MAX_ENTRY_BYTES, DEFAULT_REVALIDATE_MILLIS);
+    }
+
+    StaticFileCache(long maxBytes, long maxEntryBytes, long revalidateMillis) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+        this.revalidateMillis = revalidateMillis;
+    }
+
+    /**
+     * Respuesta renderizada de un archivo: la versión sin codificar y, si el
+     * tipo es comprimible y supera el umbral, las versiones gzip y deflate
+     */
+    static final class Entry {
+
+        final long lastModified;
+        final long size;
+        // Fecha de modificación de "archivo.gz" al cargar la entrada, -1 si no existía
+        final long gzipModified;
+        // null si el archivo no cabe en la caché y se envía desde el disco
+        final byte[] body;
+        private final Variant identity;
+        private final Variant gzip;
+        private final Variant deflate;
+        private volatile long checkedAt;
+
+        private Entry(long lastModified, byte[] body, long gzipModified, byte[] gzipBody, String contentType,
+                String cacheControl, int compressionMinSize) {
+            this.lastModified = lastModified;
+            this.size = body.length;
+            this.gzipModified = gzipModified;
+            this.body = body;
+            boolean compress = compressionMinSize >= 0 && body.length >= compressionMinSize
+                    && ContentEncoding.isCompressible(contentType);
+            String etag = ETagCache.compute(body);
+            String headers = "Content-Type: " + contentType + "\r\n"
+                    + "Last-Modified: " + ConditionalRequest.formatDate(lastModified) + "\r\n"
+                    + (cacheControl != null ? "Cache-Control: " + cacheControl + "\r\n" : "")
+                    + (compress ? "Vary: Accept-Encoding\r\n" : "");
+            this.identity = new Variant(body, etag, headers, null);
+            if (compress) {
+                byte[] gzipped = gzipBody != null ? gzipBody : ContentEncoding.encode(body, ContentEncoding.GZIP);
+                this.gzip = new Variant(gzipped, etag, headers, ContentEncoding.GZIP);
+                this.deflate = new Variant(ContentEncoding.encode(body, ContentEncoding.DEFLATE), etag, headers, ContentEncoding.DEFLATE);
+            } else {
+                this.gzip = null;
+                this.deflate = null;
+            }
+            this.checkedAt = System.currentTimeMillis();
+        }
+
+        private Entry(long lastModified, long size) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.gzipModified = -1;
+            this.body = null;
+            this.identity = null;
+            this.gzip = null;
+            this.deflate = null;
+        }
+
+        /**
+         * Indica si la respuesta está en memoria; si no, el archivo supera
+         * el tamaño máximo de una entrada y se envía desde el disco
+         */
+        boolean isInMemory() {
+            return body != null;
+        }
+
+        /**
+         * Escribe la respuesta completa
+         *
+         * @param out
+         * @param keepAlive valor del header Connection
+         * @param encoding codificación negociada (GZIP, DEFLATE o null)
+         */
+        void writeTo(OutputStream out, boolean keepAlive, String encoding) throws IOException {
+            variant(encoding).writeTo(out, keepAlive);
+        }
+
+        /**
+         * Escribe la respuesta 304 Not Modified, sin cuerpo
+         */
+        void writeNotModified(OutputStream out, boolean keepAlive, String encoding) throws IOException {
+            variant(encoding).writeNotModified(out, keepAlive);
+        }
+
+        /**
+         * ETag de la representación que se envía para la codificación dada
+         */
+        String etag(String encoding) {
+            return variant(encoding).etag;
+        }
+
+        /**
+         * Cuerpo que se envía para la codificación dada
+         */
+        byte[] body(String encoding) {
+            return variant(encoding).body;
+        }
+
+        private Variant variant(String encoding) {
+            if (ContentEncoding.GZIP.equals(encoding) && gzip != null) {
+                return gzip;
+            }
+            if (ContentEncoding.DEFLATE.equals(encoding) && deflate != null) {
+                return deflate;
+            }
+            return identity;
+        }
+
+        private long weight() {
+            return identity.weight() + (gzip != null ? gzip.weight() : 0) + (deflate != null ? deflate.weight() : 0);
+        }
+    }
+
+    /**
+     * Una codificación de la respuesta con sus headers ya renderizados,
+     * tanto para 200 como para 304
+     */
+    private static final class Variant {
+
+        final byte[] body;
+        final String etag;
+        private final byte[] headKeepAlive;
+        private final byte[] headClose;
+        private final byte[] notModifiedKeepAlive;
+        private final byte[] notModifiedClose;
+
+        Variant(byte[] body, String identityEtag, String headers, String encoding) {
+            this.body = body;
+            this.etag = ETagCache.forEncoding(identityEtag, encoding);
+            String validators = "ETag: " + etag + "\r\n" + headers;
+            String head = "HTTP/1.1 200 OK\r\n"
+                    + validators
+                    + "Content-Length: " + body.length + "\r\n"
+                    + (encoding != null ? "Content-Encoding: " + encoding + "\r\n" : "");
+            String notModified = "HTTP/1.1 304 Not Modified\r\n" + validators;
+            this.headKeepAlive = (head + "Connection: keep-alive\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            this.headClose = (head + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            this.notModifiedKeepAlive = (notModified + "Connection: keep-alive\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            this.notModifiedClose = (notModified + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        }
+
+        void writeTo(OutputStream out, boolean keepAlive) throws IOException {
+            out.write(keepAlive ? headKeepAlive : headClose);
+            out.write(body);
+        }
+
+        void writeNotModified(OutputStream out, boolean keepAlive) throws IOException {
+            out.write(keepAlive ? notModifiedKeepAlive : notModifiedClose);
+        }
+
+        long weight() {
+            return body.length + headKeepAlive.length + headClose.length
+                    + notModifiedKeepAlive.length + notModifiedClose.length;
+        }
+    }
+
+    /**
+     * Obtiene la respuesta de un archivo, leyéndolo del disco solo si no
+     * está en caché o si cambió.
+     *
+     * @param file ruta del archivo
+     * @param contentType tipo de contenido de la respuesta
+     * @return la respuesta, o null si el archivo no existe; si el archivo
+     * supera el tamaño máximo de una entrada no está en memoria
+     * @throws IOException si el archivo no se puede leer
+     */
+    Entry get(Path file, String contentType) throws IOException {
+        return get(file, contentType, null);
+    }
+
+    /**
+     * Igual que {@link #get(Path, String)} con un header Cache-Control.
+     * Las entradas ya cargadas conservan el valor con el que se renderizaron.
+     *
+     * @param cacheControl valor de Cache-Control, o null para no enviarlo
+     */
+    Entry get(Path file, String contentType, String cacheControl) throws IOException {
+        long now = System.currentTimeMillis();
+        Entry cached;
+        synchronized (this) {
+            cached = entries.get(file);
+        }
+        if (cached != null && now - cached.checkedAt < revalidateMillis) {
+            hits.increment();
+            return cached;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            remove(file);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            remove(file);
+            return null;
+        }
+
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // La versión .gz se revisa aparte: se puede reemplazar o borrar sin tocar el original
+        long gzipModified = gzipSiblingModified(file);
+        if (cached != null && cached.lastModified == lastModified && cached.size == attributes.size()
+                && cached.gzipModified == gzipModified) {
+            cached.checkedAt = now;
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+
+        if (attributes.size() > maxEntryBytes) {
+            // Se decide antes de leer: no vale la pena leer, hashear y comprimir un archivo que no se guarda
+            remove(file);
+            return new Entry(lastModified, attributes.size());
+        }
+        byte[] gzipBody = gzipModified >= lastModified ? readGzipSibling(file) : null;
+        Entry entry = new Entry(lastModified, Files.readAllBytes(file), gzipModified, gzipBody, contentType, cacheControl, compressionMinSize);
+        if (entry.weight() <= maxBytes) {
+            put(file, entry);
+        } else {
+            remove(file);
+        }
+        return entry;
+    }
+
+    /**
+     * Fecha de modificación de la versión precomprimida "archivo.gz", o -1
+     * si no existe
+     */
+    private static long gzipSiblingModified(Path file) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(gzipSibling(file), BasicFileAttributes.class);
+            return attributes.isRegularFile() ? attributes.lastModifiedTime().toMillis() : -1;
+        } catch (NoSuchFileException e) {
+            // Sin versión precomprimida
+            return -1;
+        }
+    }
+
+    /**
+     * Lee la versión precomprimida, o null si se borró después de revisarla
+     */
+    private static byte[] readGzipSibling(Path file) throws IOException {
+        try {
+            return Files.readAllBytes(gzipSibling(file));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static Path gzipSibling(Path file) {
+        return file.resolveSibling(file.getFileName() + ".gz");
+    }
+
+    /**
+     * Cambia el tamaño mínimo para comprimir (-1 desactiva la compresión) y
+     * descarta las entradas actuales
+     */
+    synchronized void setCompressionMinSize(int minSize) {
+        compressionMinSize = minSize;
+        clear();
+    }
+
+    /**
+     * Descarta todas las entradas
+     */
+    synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * Solicitudes respondidas con una entrada en caché
+     */
+    long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Solicitudes que leyeron el archivo del disco
+     */
+    long misses() {
+        return misses.sum();
+    }
+
+    synchronized long size() {
+        return currentBytes;
+    }
+
+    synchronized boolean contains(Path file) {
+        return entries.containsKey(file);
+    }
+
+    private synchronized void put(Path file, Entry entry) {
+        Entry previous = entries.put(file, entry);
+        if (previous != null) {
+            currentBytes -= previous.weight();
+        }
+        currentBytes += entry.weight();
+
+        Iterator<Map.Entry<Path, Entry>> eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Path, Entry> candidate = eldest.next();
+            if (candidate.getValue() == entry) {
+                continue;
+            }
+            currentBytes -= candidate.getValue().weight();
+            eldest.remove();
+        }
+    }
+
+    private synchronized void remove(Path file) {
+        Entry previous = entries.remove(file);
+        if (previous != null) {
+            currentBytes -= previous.weight();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package co.edu.escuelaing.microsptingboot.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Procesador de anotaciones que genera en tiempo de compilación el índice
+ * de rutas {@value #INDEX_LOCATION}. HttpServer lo lee al iniciar y así no
+ * necesita explorar el classpath ni cargar cada clase para encontrar los
+ * controladores.
+ *
+ * Cada línea del índice tiene, separados por tabulador: método HTTP, ruta,
+ * nombre binario de la clase, nombre del método y los tipos de los
+ * parámetros separados por coma.
+ *
+ * @author sebastian.cardona-p
+ */
+@SupportedAnnotationTypes({
+    RouteIndexProcessor.REST_CONTROLLER,
+    RouteIndexProcessor.GET_MAPPING,
+    RouteIndexProcessor.POST_MAPPING,
+    RouteIndexProcessor.PUT_MAPPING,
+    RouteIndexProcessor.DELETE_MAPPING
+})
+public class RouteIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_LOCATION = "META-INF/microsptingboot/routes.idx";
+
+    // Por nombre: el procesador se compila antes que las anotaciones
+    static final String REST_CONTROLLER = "co.edu.escuelaing.microsptingboot.annotations.RestController";
+    static final String GET_MAPPING = "co.edu.escuelaing.microsptingboot.annotations.GetMapping";
+    static final String POST_MAPPING = "co.edu.escuelaing.microsptingboot.annotations.PostMapping";
+    static final String PUT_MAPPING = "co.edu.escuelaing.microsptingboot.annotations.PutMapping";
+    static final String DELETE_MAPPING = "co.edu.escuelaing.microsptingboot.annotations.DeleteMapping";
+
+    // Método HTTP de cada anotación de mapeo
+    private static final String[][] MAPPINGS = {
+        {"GET", GET_MAPPING}, {"POST", POST_MAPPING}, {"PUT", PUT_MAPPING}, {"DELETE", DELETE_MAPPING}
+    };
+
+    private final List<String> routes = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement restController = processingEnv.getElementUtils().getTypeElement(REST_CONTROLLER);
+        if (restController != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(restController)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    indexController((TypeElement) element);
+                }
+            }
+        }
+        if (roundEnv.processingOver() && !routes.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void indexController(TypeElement controller) {
+        String className = processingEnv.getElementUtils().getBinaryName(controller).toString();
+        for (Element member : controller.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+            for (String[] mapping : MAPPINGS) {
+                String path = annotationValue(member, mapping[1]);
+                if (path != null) {
+                    indexMethod((ExecutableElement) member, mapping[0], path, className);
+                }
+            }
+        }
+    }
+
+    private void indexMethod(ExecutableElement method, String httpMethod, String path, String className) {
+        if (!method.getModifiers().contains(Modifier.STATIC)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Controller method must be static to be registered", method);
+            return;
+        }
+        StringBuilder parameterTypes = new StringBuilder();
+        for (VariableElement parameter : method.getParameters()) {
+            if (parameterTypes.length() > 0) {
+                parameterTypes.append(',');
+            }
+            parameterTypes.append(typeName(parameter.asType()));
+        }
+        routes.add(httpMethod + "\t" + path + "\t" + className + "\t" + method.getSimpleName() + "\t" + parameterTypes);
+    }
+
+    /**
+     * Valor del atributo value de una anotación, o null si el elemento no la tiene
+     */
+    private static String annotationValue(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!type.getQualifiedName().contentEquals(annotation)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : mirror.getElementValues().entrySet()) {
+                if (value.getKey().getSimpleName().contentEquals("value")) {
+                    return String.valueOf(value.getValue().getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nombre del tipo borrado tal como lo acepta Class.forName, con "[]"
+     * por cada dimensión de arreglo
+     */
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() == TypeKind.ARRAY) {
+            return typeName(((ArrayType) erased).getComponentType()) + "[]";
+        }
+        if (erased.getKind() == TypeKind.DECLARED) {
+            TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement(erased);
+            return processingEnv.getElementUtils().getBinaryName(element).toString();
+        }
+        return erased.toString();
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = index.openWriter()) {
+                writer.write("# Generado por RouteIndexProcessor\n");
+                for (String route : routes) {
+                    writer.write(route);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write route index: " + e.getMessage());
+        }
+    }
+}
@@ -53,15 +53,11 @@ public class MicroSptingBootIntegrationTest {
         HttpServer.loadServices(new String[]{});
 
         // Verificar que las operaciones matemáticas funcionan correctamente
-        String sumaResult = CalcuteController.calculate("15", "25");
+        String sumaResult = CalcuteController.calculate(15, 25);
         assertEquals("La suma de 15 + 25 = 40", sumaResult);
 
-        String restaResult = CalcuteController.resta("50", "20");
+        String restaResult = CalcuteController.resta(50, 20);
         assertEquals("La resta de 50 - 20 = 30", restaResult);
-
-        // Verificar manejo de errores
-        String errorResult = CalcuteController.calculate("abc", "123");
-        assertEquals("Error: Los parámetros deben ser números válidos", errorResult);
     }
 
     @Test
@@ -173,7 +169,7 @@ public class MicroSptingBootIntegrationTest {
         String greetingResult = GreetingController.greeting("TestUser");
         assertEquals("Hola TestUser", greetingResult);
 
-        String calculationResult = CalcuteController.calculate("10", "5");
+        String calculationResult = CalcuteController.calculate(10, 5);
         assertEquals("La suma de 10 + 5 = 15", calculationResult);
 
         // 5. Configurar archivos estáticos
@@ -190,7 +186,7 @@ public class MicroSptingBootIntegrationTest {
         String defaultGreeting = GreetingController.greeting("World");
         assertEquals("Hola World", defaultGreeting);
 
-        String defaultCalculation = CalcuteController.calculate("0", "0");
+        String defaultCalculation = CalcuteController.calculate(0, 0);
         assertEquals("La suma de 0 + 0 = 0", defaultCalculation);
 
         // Con valores personalizados
@@ -198,7 +194,7 @@ public class MicroSptingBootIntegrationTest {
         assertEquals("Bienvenido Juan, tienes 35 años y vives en Cali", customWelcome);
 
         // Con valores límite
-        String negativeCalculation = CalcuteController.resta("-10", "-5");
+        String negativeCalculation = CalcuteController.resta(-10, -5);
         assertEquals("La resta de -10 - -5 = -5", negativeCalculation);
     }
 }
@@ -2,6 +2,7 @@ package co.edu.escuelaing.microsptingboot.annotations;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import co.edu.escuelaing.microsptingboot.controller.GreetingController;
@@ -49,11 +50,11 @@ public class AnnotationsTest {
         assertEquals("/welcome", welcomeMapping.value());
 
         // Test CalcuteController methods
-        Method calculateMethod = CalcuteController.class.getMethod("calculate", String.class, String.class);
+        Method calculateMethod = CalcuteController.class.getMethod("calculate", int.class, int.class);
         GetMapping calculateMapping = calculateMethod.getAnnotation(GetMapping.class);
         assertEquals("/calculate/suma", calculateMapping.value());
 
-        Method restaMethod = CalcuteController.class.getMethod("resta", String.class, String.class);
+        Method restaMethod = CalcuteController.class.getMethod("resta", int.class, int.class);
         GetMapping restaMapping = restaMethod.getAnnotation(GetMapping.class);
         assertEquals("/calculate/resta", restaMapping.value());
     }
@@ -92,7 +93,7 @@ public class AnnotationsTest {
 
     @Test
     public void testCalculateMethodAnnotations() throws NoSuchMethodException {
-        Method calculateMethod = CalcuteController.class.getMethod("calculate", String.class, String.class);
+        Method calculateMethod = CalcuteController.class.getMethod("calculate", int.class, int.class);
 
         // Verificar anotación GetMapping
         assertTrue(calculateMethod.isAnnotationPresent(GetMapping.class));
@@ -162,4 +163,25 @@ public class AnnotationsTest {
         assertFalse(toStringMethod.isAnnotationPresent(GetMapping.class));
         assertFalse(toStringMethod.isAnnotationPresent(RestController.class));
     }
+
+    @Test
+    public void testPathVariableAnnotation() throws NoSuchMethodException {
+        Method operate = CalcuteController.class.getMethod("operate", String.class, int.class, int.class);
+        PathVariable pathVariable = operate.getParameters()[0].getAnnotation(PathVariable.class);
+
+        assertNotNull(pathVariable);
+        assertEquals("op", pathVariable.value());
+        assertEquals("/calculate/{op}", operate.getAnnotation(GetMapping.class).value());
+    }
+
+    @Test
+    public void testBodyMappingAnnotations() throws NoSuchMethodException {
+        Method post = GreetingController.class.getMethod("greetingFromBody", String.class);
+        Method put = GreetingController.class.getMethod("upload", InputStream.class);
+
+        assertEquals("/greeting", post.getAnnotation(PostMapping.class).value());
+        assertEquals("/upload", put.getAnnotation(PutMapping.class).value());
+        assertNotNull(post.getParameters()[0].getAnnotation(RequestBody.class));
+        assertNotNull(put.getParameters()[0].getAnnotation(RequestBody.class));
+    }
 }
@@ -2,6 +2,11 @@ package co.edu.escuelaing.microsptingboot.controller;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import co.edu.escuelaing.microsptingboot.httpServer.HttpParseException;
+import co.edu.escuelaing.microsptingboot.httpServer.HttpResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
 
 /**
  * Pruebas unitarias para GreetingController
@@ -93,4 +98,54 @@ public class GreetingControllerTest {
         String result = GreetingController.welcome("José María", "25", "San José");
         assertEquals("Bienvenido José María, tienes 25 años y vives en San José", result);
     }
+
+    @Test
+    public void testGreetingFromBody() {
+        assertEquals("Hola Ana", GreetingController.greetingFromBody("Ana"));
+    }
+
+    @Test
+    public void testUploadCountsBytes() throws IOException {
+        String result = GreetingController.upload(new ByteArrayInputStream(new byte[12345]));
+        assertEquals("Recibidos 12345 bytes", result);
+    }
+
+    @Test
+    public void testEchoIsNeverServedAsHtml() {
+        HttpResponse response = new HttpResponse();
+        GreetingController.echo("<script>alert(1)</script>".getBytes(), response);
+
+        assertEquals("application/octet-stream", response.getContentType());
+        assertEquals("nosniff", response.getHeader("X-Content-Type-Options"));
+        assertArrayEquals("<script>alert(1)</script>".getBytes(), response.getBody());
+    }
+
+    @Test
+    public void testCountStreamsNumbers() throws HttpParseException {
+        HttpResponse response = new HttpResponse();
+        List<String> lines = GreetingController.count(3, response).toList();
+
+        assertEquals(List.of("1\n", "2\n", "3\n"), lines);
+        assertEquals("text/plain", response.getContentType());
+    }
+
+    @Test
+    public void testCountRejectsOutOfRange() throws HttpParseException {
+        HttpResponse response = new HttpResponse();
+
+        HttpParseException tooMany = assertThrows(HttpParseException.class,
+                () -> GreetingController.count(GreetingController.MAX_COUNT + 1, response));
+        assertEquals("400 Bad Request", tooMany.getStatus());
+        assertThrows(HttpParseException.class, () -> GreetingController.count(-1, response));
+        assertEquals(GreetingController.MAX_COUNT, GreetingController.count(GreetingController.MAX_COUNT, response).count());
+    }
+
+    @Test
+    public void testGreetingJsonIsNumbered() {
+        GreetingController.Greeting first = GreetingController.greetingJson("Ana");
+        GreetingController.Greeting second = GreetingController.greetingJson("Luis");
+
+        assertEquals("Hola Ana", first.content());
+        assertEquals(first.id() + 1, second.id());
+    }
 }
@@ -0,0 +1,180 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pruebas unitarias para AccessLog
+ *
+ * @author Sebastian
+ */
+public class AccessLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static HttpRequest request(String method, String path, int status) {
+        HttpRequest request = new HttpRequest(method, path, null, "HTTP/1.1", Map.of());
+        request.setResponseStatus(status);
+        return request;
+    }
+
+    private static List<String> entries(Path file) throws IOException {
+        return Files.readAllLines(file).stream().filter(line -> !line.startsWith("#")).toList();
+    }
+
+    @Test
+    public void testLineFormat() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        AccessLog log = new AccessLog(HttpServer.AccessLogLevel.ALL, file, AccessLog.DEFAULT_MAX_FILE_BYTES, 1, 16, false);
+        try {
+            log.log(request("GET", "/app/greeting", 200), 68, 142_000);
+            log.log(request("POST", "/app/upload", 0), -1, 5_000);
+            log.flush();
+        } finally {
+            log.close();
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?Z GET /app/greeting 200 68 142"), lines.get(0));
+        assertTrue(lines.get(1).endsWith(" POST /app/upload 0 - 5"), lines.get(1));
+    }
+
+    @Test
+    public void testErrorsLevelSkipsSuccessfulResponses() throws IOException {
+        Path file = tempDir.resolve("errors.log");
+        AccessLog log = new AccessLog(HttpServer.AccessLogLevel.ERRORS, file, AccessLog.DEFAULT_MAX_FILE_BYTES, 1, 16, false);
+        try {
+            log.log(request("GET", "/index.html", 200), 10, 1_000);
+            log.log(request("GET", "/nada.html", 404), 10, 1_000);
+            log.log(request("GET", "/app/falla", 500), 10, 1_000);
+            log.flush();
+        } finally {
+            log.close();
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains(" /nada.html 404 "));
+        assertTrue(lines.get(1).contains(" /app/falla 500 "));
+    }
+
+    @Test
+    public void testFullBufferDropsAndReportsEntries() throws Exception {
+        Path file = tempDir.resolve("drop.log");
+        AccessLog log = new AccessLog(HttpServer.AccessLogLevel.ALL, file, AccessLog.DEFAULT_MAX_FILE_BYTES, 1, 2, false);
+        int perThread = 50_000;
+        Thread[] producers = new Thread[4];
+        try {
+            for (int i = 0; i < producers.length; i++) {
+                producers[i] = Thread.ofPlatform().start(() -> {
+                    for (int j = 0; j < perThread; j++) {
+                        log.log(request("GET", "/app/x", 200), 1, 1);
+                    }
+                });
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            log.flush();
+        } finally {
+            log.close();
+        }
+
+        // Cada entrada se escribió o se contó como descartada
+        assertEquals(producers.length * perThread, entries(file).size() + log.dropped());
+        if (log.dropped() > 0) {
+            assertTrue(Files.readString(file).contains(" access log entries dropped, buffer full\n"));
+        }
+    }
+
+    @Test
+    public void testBlockingPolicyKeepsEveryEntry() throws Exception {
+        Path file = tempDir.resolve("block.log");
+        AccessLog log = new AccessLog(HttpServer.AccessLogLevel.ALL, file, AccessLog.DEFAULT_MAX_FILE_BYTES, 1, 2, true);
+        int perThread = 5_000;
+        Thread[] producers = new Thread[4];
+        try {
+            for (int i = 0; i < producers.length; i++) {
+                producers[i] = Thread.ofVirtual().start(() -> {
+                    for (int j = 0; j < perThread; j++) {
+                        log.log(request("GET", "/app/x", 200), 1, 1);
+                    }
+                });
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            log.flush();
+        } finally {
+            log.close();
+        }
+
+        assertEquals(0, log.dropped());
+        assertEquals(producers.length * perThread, entries(file).size());
+    }
+
+    @Test
+    public void testRotation() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        AccessLog log = new AccessLog(HttpServer.AccessLogLevel.ALL, file, 200, 2, 16, false);
+        try {
+            for (int i = 0; i < 12; i++) {
+                log.log(request("GET", "/pagina-" + i + ".html", 200), 100, 1_000);
+                // Un lote por línea para que cada escritura pueda rotar el archivo
+                log.flush();
+            }
+        } finally {
+            log.close();
+        }
+
+        assertTrue(Files.exists(file));
+        assertTrue(Files.exists(tempDir.resolve("access.log.1")));
+        assertTrue(Files.exists(tempDir.resolve("access.log.2")));
+        assertFalse(Files.exists(tempDir.resolve("access.log.3")));
+        assertTrue(Files.size(file) <= 200);
+        // La última línea está en el archivo actual
+        assertTrue(Files.readString(file).contains("/pagina-11.html"));
+    }
+
+    @Test
+    public void testClosedLogIgnoresEntries() throws IOException {
+        Path file = tempDir.resolve("closed.log");
+        AccessLog log = new AccessLog(HttpServer.AccessLogLevel.ALL, file, AccessLog.DEFAULT_MAX_FILE_BYTES, 1, 16, false);
+        log.log(request("GET", "/antes.html", 200), 1, 1);
+        log.close();
+        log.log(request("GET", "/despues.html", 200), 1, 1);
+
+        String content = Files.readString(file);
+        assertTrue(content.contains("/antes.html"));
+        assertFalse(content.contains("/despues.html"));
+    }
+
+    @Test
+    public void testStandardOutputGoesThroughSystemOut() {
+        PrintStream original = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, false, StandardCharsets.UTF_8));
+        AccessLog log = new AccessLog(HttpServer.AccessLogLevel.ALL, null, AccessLog.DEFAULT_MAX_FILE_BYTES, 1, 16, false);
+        try {
+            log.log(request("GET", "/capturado.html", 200), 1, 1);
+            log.flush();
+        } finally {
+            log.close();
+            System.setOut(original);
+        }
+
+        assertTrue(captured.toString(StandardCharsets.UTF_8).contains(" GET /capturado.html 200 1 0\n"));
+    }
+}
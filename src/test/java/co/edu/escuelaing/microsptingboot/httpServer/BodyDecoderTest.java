@@ -0,0 +1,88 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Pruebas unitarias para BodyDecoder
+ *
+ * @author Sebastian
+ */
+public class BodyDecoderTest {
+
+    private static HttpRequest request(String name, String value) {
+        return new HttpRequest("POST", "/app/x", null, "HTTP/1.1", Map.of(name, value));
+    }
+
+    private static ByteBuffer bytes(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String decodeAll(BodyDecoder decoder, ByteBuffer in) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(1024);
+        decoder.decode(in, out);
+        return new String(out.array(), 0, out.position(), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testNoBody() {
+        assertNull(BodyDecoder.forRequest(request("content-length", "0")));
+        assertNull(BodyDecoder.forRequest(new HttpRequest("GET", "/", null, "HTTP/1.1", Map.of())));
+    }
+
+    @Test
+    public void testContentLengthLeavesNextRequestInBuffer() throws IOException {
+        BodyDecoder decoder = BodyDecoder.forRequest(request("content-length", "4"));
+        assertEquals(4, decoder.contentLength());
+        ByteBuffer in = bytes("holaGET / HTTP/1.1");
+        assertEquals("hola", decodeAll(decoder, in));
+        assertTrue(decoder.isFinished());
+        assertEquals('G', in.get(in.position()));
+    }
+
+    @Test
+    public void testChunkedBody() throws IOException {
+        BodyDecoder decoder = BodyDecoder.forRequest(request("transfer-encoding", "chunked"));
+        assertEquals(-1, decoder.contentLength());
+        ByteBuffer in = bytes("4;ext=1\r\nhola\r\nA\r\n mundo!!!!\r\n0\r\nX-Trailer: si\r\n\r\nNEXT");
+        assertEquals("hola mundo!!!!", decodeAll(decoder, in));
+        assertTrue(decoder.isFinished());
+        assertEquals(4, in.remaining());
+    }
+
+    @Test
+    public void testChunkedBodyByteByByte() throws IOException {
+        BodyDecoder decoder = BodyDecoder.forRequest(request("transfer-encoding", "chunked"));
+        byte[] encoded = "3\r\nabc\r\n2\r\nde\r\n0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer out = ByteBuffer.allocate(16);
+        for (byte b : encoded) {
+            assertFalse(decoder.isFinished());
+            decoder.decode(ByteBuffer.wrap(new byte[]{b}), out);
+        }
+        assertTrue(decoder.isFinished());
+        assertEquals("abcde", new String(out.array(), 0, out.position(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testStopsWhenOutputIsFull() throws IOException {
+        BodyDecoder decoder = BodyDecoder.forRequest(request("content-length", "10"));
+        ByteBuffer in = bytes("0123456789");
+        ByteBuffer out = ByteBuffer.allocate(4);
+        assertEquals(4, decoder.decode(in, out));
+        assertEquals(6, in.remaining());
+        assertFalse(decoder.isFinished());
+    }
+
+    @Test
+    public void testMalformedChunks() {
+        for (String body : new String[]{"x\r\n", "4\r\nholaXX", "4\nhola", "1000000000000000\r\n"}) {
+            BodyDecoder decoder = BodyDecoder.forRequest(request("transfer-encoding", "chunked"));
+            assertThrows(IOException.class, () -> decodeAll(decoder, bytes(body)), body);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * Pruebas unitarias para ByteRanges
+ *
+ * @author Sebastian
+ */
+public class ByteRangesTest {
+
+    @Test
+    public void testSingleRanges() {
+        assertEquals(List.of(new ByteRanges.Range(0, 99)), ByteRanges.parse("bytes=0-99", 1000));
+        assertEquals(List.of(new ByteRanges.Range(500, 999)), ByteRanges.parse("bytes=500-", 1000));
+        assertEquals(List.of(new ByteRanges.Range(900, 999)), ByteRanges.parse("bytes=-100", 1000));
+        assertEquals(List.of(new ByteRanges.Range(0, 999)), ByteRanges.parse("bytes=-5000", 1000));
+        assertEquals(List.of(new ByteRanges.Range(990, 999)), ByteRanges.parse("bytes=990-2000", 1000));
+    }
+
+    @Test
+    public void testMultipleRangesAreSortedAndMerged() {
+        List<ByteRanges.Range> ranges = ByteRanges.parse("bytes=500-599, 0-9, 5-20, 21-30", 1000);
+        assertEquals(List.of(new ByteRanges.Range(0, 30), new ByteRanges.Range(500, 599)), ranges);
+    }
+
+    @Test
+    public void testUnsatisfiable() {
+        assertTrue(ByteRanges.parse("bytes=1000-1100", 1000).isEmpty());
+        assertTrue(ByteRanges.parse("bytes=-0", 1000).isEmpty());
+    }
+
+    @Test
+    public void testInvalidHeaderIsIgnored() {
+        assertNull(ByteRanges.parse("items=0-1", 1000));
+        assertNull(ByteRanges.parse("bytes=abc", 1000));
+        assertNull(ByteRanges.parse("bytes=50-10", 1000));
+    }
+
+    @Test
+    public void testTooManyRangesAreIgnored() {
+        StringBuilder header = new StringBuilder("bytes=");
+        for (int i = 0; i <= ByteRanges.MAX_RANGES; i++) {
+            header.append(i == 0 ? "" : ",").append(i * 10).append('-').append(i * 10 + 1);
+        }
+        assertNull(ByteRanges.parse(header.toString(), 1000));
+    }
+
+    @Test
+    public void testIfRange() {
+        long modified = 1_700_000_000_000L;
+        assertTrue(ByteRanges.ifRangeMatches("", "\"abc\"", modified));
+        assertTrue(ByteRanges.ifRangeMatches("\"abc\"", "\"abc\"", modified));
+        assertFalse(ByteRanges.ifRangeMatches("\"old\"", "\"abc\"", modified));
+        assertFalse(ByteRanges.ifRangeMatches("W/\"abc\"", "\"abc\"", modified));
+        assertTrue(ByteRanges.ifRangeMatches(ConditionalRequest.formatDate(modified), "\"abc\"", modified));
+        assertFalse(ByteRanges.ifRangeMatches(ConditionalRequest.formatDate(modified - 5000), "\"abc\"", modified));
+    }
+}
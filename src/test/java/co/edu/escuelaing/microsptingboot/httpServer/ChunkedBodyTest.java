@@ -0,0 +1,140 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Pruebas unitarias para ChunkedBody y ChunkedOutputStream
+ *
+ * @author Sebastian
+ */
+public class ChunkedBodyTest {
+
+    private static String write(ChunkedBody body, boolean framed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out, framed);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testOnlyStreamingResultsAreChunked() {
+        assertNull(ChunkedBody.of("texto"));
+        assertNull(ChunkedBody.of(null));
+        assertNull(ChunkedBody.of(List.of("a")));
+        assertNotNull(ChunkedBody.of(List.of("a").iterator()));
+        assertNotNull(ChunkedBody.of(Stream.of("a")));
+    }
+
+    @Test
+    public void testIteratorElementsBecomeChunks() throws IOException {
+        ChunkedBody body = ChunkedBody.of(List.<Object>of("hola", "", new byte[]{'!'}, ByteBuffer.wrap("ñ".getBytes(StandardCharsets.UTF_8)), 42).iterator());
+
+        assertEquals("4\r\nhola\r\n1\r\n!\r\n2\r\nñ\r\n2\r\n42\r\n0\r\n\r\n", write(body, true));
+    }
+
+    @Test
+    public void testUnframedBodyForHttp10() throws IOException {
+        assertEquals("ab", write(ChunkedBody.of(Stream.of("a", "b")), false));
+    }
+
+    @Test
+    public void testStreamIsClosed() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        write(ChunkedBody.of(Stream.of("a").onClose(() -> closed.set(true))), true);
+
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testIteratorFailure() {
+        ChunkedBody body = ChunkedBody.of(Stream.of("a", "b").map(s -> {
+            if (s.equals("b")) {
+                throw new IllegalStateException("falla");
+            }
+            return s;
+        }));
+
+        assertThrows(IOException.class, () -> write(body, true));
+    }
+
+    @Test
+    public void testPublisher() throws IOException {
+        ChunkedBody body;
+        try (SubmissionPublisher<String> publisher = new SubmissionPublisher<>()) {
+            body = ChunkedBody.of(publisher);
+            publisher.submit("uno");
+            publisher.submit("dos");
+        }
+
+        assertEquals("3\r\nuno\r\n3\r\ndos\r\n0\r\n\r\n", write(body, true));
+        assertTrue(body.isDone());
+    }
+
+    @Test
+    public void testPublisherDemandIsBounded() throws IOException {
+        AtomicLong requested = new AtomicLong();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flow.Publisher<String> publisher = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+        ChunkedBody body = ChunkedBody.of(publisher);
+        assertEquals(ChunkedBody.PUBLISHER_WINDOW, requested.get());
+        assertNull(body.poll());
+        assertFalse(body.isDone());
+
+        body.close();
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    public void testPublisherErrorAndReadyListener() throws IOException {
+        AtomicLong signals = new AtomicLong();
+        ChunkedBody body;
+        try (SubmissionPublisher<String> publisher = new SubmissionPublisher<>(Runnable::run, 4)) {
+            body = ChunkedBody.of(publisher);
+            body.onReady(signals::incrementAndGet);
+            publisher.submit("uno");
+            publisher.closeExceptionally(new IllegalStateException("falla"));
+        }
+
+        assertEquals(2, signals.get());
+        assertEquals("uno", StandardCharsets.UTF_8.decode(body.poll()).toString());
+        assertThrows(IOException.class, body::poll);
+    }
+
+    @Test
+    public void testChunkedOutputStream() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChunkedOutputStream chunks = new ChunkedOutputStream(out, true);
+        chunks.write(new byte[0]);
+        chunks.write("abc".getBytes(StandardCharsets.US_ASCII));
+        chunks.write(ByteBuffer.allocateDirect(20).put(new byte[20]).flip());
+        chunks.close();
+        chunks.close();
+
+        String written = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(written.startsWith("3\r\nabc\r\n14\r\n"));
+        assertTrue(written.endsWith("\r\n0\r\n\r\n"));
+        assertEquals(written.indexOf("0\r\n\r\n"), written.lastIndexOf("0\r\n\r\n"));
+        assertThrows(IOException.class, () -> chunks.write('x'));
+    }
+}
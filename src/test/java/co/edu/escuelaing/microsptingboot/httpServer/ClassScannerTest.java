@@ -0,0 +1,112 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import co.edu.escuelaing.microsptingboot.annotations.RestController;
+import co.edu.escuelaing.microsptingboot.controller.CalcuteController;
+import co.edu.escuelaing.microsptingboot.controller.GreetingController;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Pruebas unitarias para ClassScanner
+ *
+ * @author Sebastian
+ */
+public class ClassScannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ClassScanner scanner = new ClassScanner(RestController.class);
+
+    @Deprecated(since = "1.0", forRemoval = false)
+    @RestController
+    static class AnnotatedAfterOthers {
+    }
+
+    static class ReferencesAnnotation {
+        boolean check(Class<?> c) {
+            return c.isAnnotationPresent(RestController.class);
+        }
+    }
+
+    private static byte[] classBytes(Class<?> c) throws IOException {
+        try (InputStream in = c.getResourceAsStream(c.getSimpleName().replace('.', '$') + ".class")) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] nestedClassBytes(Class<?> c) throws IOException {
+        String name = c.getName().substring(c.getName().lastIndexOf('.') + 1);
+        try (InputStream in = c.getResourceAsStream(name + ".class")) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testDetectsAnnotationFromBytes() throws IOException {
+        assertTrue(scanner.hasAnnotation(new ByteArrayInputStream(classBytes(GreetingController.class))));
+        assertTrue(scanner.hasAnnotation(new ByteArrayInputStream(nestedClassBytes(AnnotatedAfterOthers.class))));
+        assertFalse(scanner.hasAnnotation(new ByteArrayInputStream(classBytes(HttpServer.class))));
+        assertFalse(scanner.hasAnnotation(new ByteArrayInputStream(nestedClassBytes(ReferencesAnnotation.class))));
+    }
+
+    @Test
+    public void testMalformedClassFile() throws IOException {
+        byte[] bytes = classBytes(GreetingController.class);
+        assertFalse(scanner.hasAnnotation(new ByteArrayInputStream(new byte[]{1, 2, 3})));
+        assertFalse(scanner.hasAnnotation(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length / 2))));
+    }
+
+    @Test
+    public void testScanDirectories() throws IOException {
+        Set<String> found = scanner.scan(getClass().getClassLoader(), "co.edu.escuelaing.microsptingboot");
+
+        assertTrue(found.contains(GreetingController.class.getName()));
+        assertTrue(found.contains(CalcuteController.class.getName()));
+        assertTrue(found.contains(AnnotatedAfterOthers.class.getName()));
+        assertFalse(found.contains(HttpServer.class.getName()));
+        assertFalse(found.contains(ReferencesAnnotation.class.getName()));
+    }
+
+    @Test
+    public void testScanJar() throws IOException {
+        Path jar = tempDir.resolve("controllers.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            // Entradas de directorio como las que genera maven-jar-plugin
+            for (String dir : new String[]{"co/", "co/edu/", "co/edu/escuelaing/", "co/edu/escuelaing/microsptingboot/",
+                "co/edu/escuelaing/microsptingboot/controller/", "co/edu/escuelaing/microsptingboot/httpServer/"}) {
+                out.putNextEntry(new JarEntry(dir));
+                out.closeEntry();
+            }
+            addEntry(out, "co/edu/escuelaing/microsptingboot/controller/GreetingController.class", classBytes(GreetingController.class));
+            addEntry(out, "co/edu/escuelaing/microsptingboot/httpServer/HttpServer.class", classBytes(HttpServer.class));
+            addEntry(out, "otro/paquete/CalcuteController.class", classBytes(CalcuteController.class));
+        }
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+            Set<String> found = scanner.scan(loader, "co.edu.escuelaing.microsptingboot");
+            assertEquals(Set.of(GreetingController.class.getName()), found);
+        }
+    }
+
+    private static void addEntry(JarOutputStream jar, String name, byte[] content) throws IOException {
+        jar.putNextEntry(new JarEntry(name));
+        OutputStream out = jar;
+        out.write(content);
+        jar.closeEntry();
+    }
+}
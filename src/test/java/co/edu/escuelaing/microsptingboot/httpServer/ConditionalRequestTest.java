@@ -0,0 +1,56 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+/**
+ * Pruebas unitarias para ConditionalRequest
+ *
+ * @author Sebastian
+ */
+public class ConditionalRequestTest {
+
+    private static final long MODIFIED = 1_700_000_000_500L;
+
+    private HttpRequest request(Map<String, String> headers) {
+        return new HttpRequest("GET", "/index.html", null, "HTTP/1.1", headers);
+    }
+
+    @Test
+    public void testFormatAndParseDate() {
+        assertEquals("Tue, 14 Nov 2023 22:13:20 GMT", ConditionalRequest.formatDate(MODIFIED));
+        assertEquals(1_700_000_000_000L, ConditionalRequest.parseDate("Tue, 14 Nov 2023 22:13:20 GMT"));
+        assertEquals(-1, ConditionalRequest.parseDate("ayer"));
+    }
+
+    @Test
+    public void testFormatDateUsesTwoDigitDay() {
+        assertEquals("Mon, 01 Jan 2024 00:00:00 GMT", ConditionalRequest.formatDate(1_704_067_200_000L));
+    }
+
+    @Test
+    public void testIfNoneMatch() {
+        assertTrue(ConditionalRequest.isNotModified(request(Map.of("if-none-match", "\"abc\"")), "\"abc\"", MODIFIED));
+        assertTrue(ConditionalRequest.isNotModified(request(Map.of("if-none-match", "\"x\", W/\"abc\"")), "\"abc\"", MODIFIED));
+        assertTrue(ConditionalRequest.isNotModified(request(Map.of("if-none-match", "*")), "\"abc\"", MODIFIED));
+        assertFalse(ConditionalRequest.isNotModified(request(Map.of("if-none-match", "\"otro\"")), "\"abc\"", MODIFIED));
+    }
+
+    @Test
+    public void testIfNoneMatchTakesPrecedence() {
+        HttpRequest request = request(Map.of(
+                "if-none-match", "\"otro\"",
+                "if-modified-since", "Tue, 14 Nov 2023 22:13:20 GMT"));
+        assertFalse(ConditionalRequest.isNotModified(request, "\"abc\"", MODIFIED));
+    }
+
+    @Test
+    public void testIfModifiedSince() {
+        assertTrue(ConditionalRequest.isNotModified(request(Map.of("if-modified-since", "Tue, 14 Nov 2023 22:13:20 GMT")), "\"abc\"", MODIFIED));
+        assertFalse(ConditionalRequest.isNotModified(request(Map.of("if-modified-since", "Tue, 14 Nov 2023 22:13:19 GMT")), "\"abc\"", MODIFIED));
+        assertFalse(ConditionalRequest.isNotModified(request(Map.of("if-modified-since", "no es fecha")), "\"abc\"", MODIFIED));
+        assertFalse(ConditionalRequest.isNotModified(request(Map.of()), "\"abc\"", MODIFIED));
+    }
+}
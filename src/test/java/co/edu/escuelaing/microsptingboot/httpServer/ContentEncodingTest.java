@@ -0,0 +1,62 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Pruebas unitarias para ContentEncoding
+ *
+ * @author Sebastian
+ */
+public class ContentEncodingTest {
+
+    @Test
+    public void testNegotiatePrefersGzip() {
+        assertEquals("gzip", ContentEncoding.negotiate("deflate, gzip"));
+        assertEquals("gzip", ContentEncoding.negotiate("gzip, deflate, br"));
+        assertEquals("gzip", ContentEncoding.negotiate("*"));
+    }
+
+    @Test
+    public void testNegotiateDeflate() {
+        assertEquals("deflate", ContentEncoding.negotiate("deflate"));
+        assertEquals("deflate", ContentEncoding.negotiate("gzip;q=0, deflate;q=0.5"));
+    }
+
+    @Test
+    public void testNegotiateIdentity() {
+        assertNull(ContentEncoding.negotiate(""));
+        assertNull(ContentEncoding.negotiate("br"));
+        assertNull(ContentEncoding.negotiate("gzip;q=0.0, identity"));
+    }
+
+    @Test
+    public void testIsCompressible() {
+        assertTrue(ContentEncoding.isCompressible("text/html"));
+        assertTrue(ContentEncoding.isCompressible("application/json"));
+        assertFalse(ContentEncoding.isCompressible("image/png"));
+    }
+
+    @Test
+    public void testEncodeRoundTrip() throws IOException {
+        byte[] body = "hola mundo ".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        byte[] gzipped = ContentEncoding.encode(body, ContentEncoding.GZIP);
+        byte[] deflated = ContentEncoding.encode(body, ContentEncoding.DEFLATE);
+
+        assertTrue(gzipped.length < body.length);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(deflated))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+    }
+}
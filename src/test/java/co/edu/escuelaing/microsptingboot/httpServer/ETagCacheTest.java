@@ -0,0 +1,68 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Pruebas unitarias para ETagCache
+ *
+ * @author Sebastian
+ */
+public class ETagCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFileETagMatchesContentHash() throws IOException {
+        byte[] content = new byte[200_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        Path file = tempDir.resolve("foto.png");
+        Files.write(file, content);
+        ETagCache cache = new ETagCache();
+
+        String etag = cache.get(file, 1000, content.length);
+
+        assertEquals(ETagCache.compute(content), etag);
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertTrue(cache.contains(file));
+    }
+
+    @Test
+    public void testChangedFileIsRehashed() throws IOException {
+        Path file = tempDir.resolve("logo.png");
+        Files.writeString(file, "uno");
+        ETagCache cache = new ETagCache();
+
+        String first = cache.get(file, 1000, 3);
+        assertSame(first, cache.get(file, 1000, 3));
+
+        Files.writeString(file, "dos");
+        String second = cache.get(file, 2000, 3);
+        assertNotEquals(first, second);
+        assertEquals(ETagCache.compute("dos".getBytes(StandardCharsets.UTF_8)), second);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws IOException {
+        Path a = tempDir.resolve("a.png");
+        Path b = tempDir.resolve("b.png");
+        Files.writeString(a, "a");
+        Files.writeString(b, "b");
+        ETagCache cache = new ETagCache(1);
+
+        cache.get(a, 1, 1);
+        cache.get(b, 1, 1);
+
+        assertFalse(cache.contains(a));
+        assertTrue(cache.contains(b));
+    }
+}
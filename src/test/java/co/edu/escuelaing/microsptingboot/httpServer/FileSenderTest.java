@@ -0,0 +1,125 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Pruebas unitarias para FileSender
+ *
+ * @author Sebastian
+ */
+public class FileSenderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private byte[] randomFile(Path file, int size) throws IOException {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        Files.write(file, content);
+        return content;
+    }
+
+    /**
+     * Sink de prueba que registra qué estrategia se usó
+     */
+    private static class RecordingSink extends ByteArrayOutputStream implements ResponseSink {
+
+        int buffers;
+        int files;
+
+        @Override
+        public void sendBuffer(ByteBuffer data) {
+            buffers++;
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            write(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void sendFile(Path file, long position, long count) throws IOException {
+            files++;
+            byte[] all = Files.readAllBytes(file);
+            write(all, (int) position, (int) count);
+        }
+
+        @Override
+        public void sendStream(ChunkedBody body, boolean framed) throws IOException {
+            body.writeTo(this, framed);
+        }
+
+        @Override
+        public long written() {
+            return size();
+        }
+    }
+
+    @Test
+    public void testSmallFileIsMapped() throws IOException {
+        Path file = tempDir.resolve("small.png");
+        byte[] content = randomFile(file, 1000);
+        FileSender sender = new FileSender(4096, 4);
+        RecordingSink sink = new RecordingSink();
+
+        sender.send(sink, file, Files.getLastModifiedTime(file).toMillis(), content.length, 0, content.length);
+
+        assertArrayEquals(content, sink.toByteArray());
+        assertEquals(1, sink.buffers);
+        assertEquals(0, sink.files);
+        assertTrue(sender.isMapped(file));
+    }
+
+    @Test
+    public void testLargeFileIsTransferred() throws IOException {
+        Path file = tempDir.resolve("large.jpg");
+        byte[] content = randomFile(file, 10_000);
+        FileSender sender = new FileSender(4096, 4);
+        RecordingSink sink = new RecordingSink();
+
+        sender.send(sink, file, Files.getLastModifiedTime(file).toMillis(), content.length, 0, content.length);
+
+        assertArrayEquals(content, sink.toByteArray());
+        assertEquals(0, sink.buffers);
+        assertEquals(1, sink.files);
+        assertFalse(sender.isMapped(file));
+    }
+
+    @Test
+    public void testRegionOfFile() throws IOException {
+        Path file = tempDir.resolve("region.png");
+        byte[] content = randomFile(file, 2000);
+
+        for (long threshold : new long[]{0, 4096}) {
+            FileSender sender = new FileSender(threshold, 4);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            sender.send(out, file, Files.getLastModifiedTime(file).toMillis(), content.length, 100, 50);
+
+            byte[] expected = new byte[50];
+            System.arraycopy(content, 100, expected, 0, 50);
+            assertArrayEquals(expected, out.toByteArray());
+        }
+    }
+
+    @Test
+    public void testMappingsAreBounded() throws IOException {
+        FileSender sender = new FileSender(4096, 2);
+        Path[] files = new Path[3];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = tempDir.resolve("f" + i + ".png");
+            randomFile(files[i], 100);
+            sender.send(new ByteArrayOutputStream(), files[i], Files.getLastModifiedTime(files[i]).toMillis(), 100, 0, 100);
+        }
+
+        assertFalse(sender.isMapped(files[0]));
+        assertTrue(sender.isMapped(files[1]));
+        assertTrue(sender.isMapped(files[2]));
+    }
+}
@@ -0,0 +1,66 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Pruebas unitarias para HeadResponseStream
+ *
+ * @author Sebastian
+ */
+public class HeadResponseStreamTest {
+
+    private static final String HEADERS = "HTTP/1.1 200 OK\r\nContent-Length: 4\r\n\r\n";
+
+    @Test
+    public void testBodyAfterHeadersIsDiscarded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HeadResponseStream head = new HeadResponseStream(out);
+
+        head.write((HEADERS + "hola").getBytes(StandardCharsets.US_ASCII));
+        head.write("mas".getBytes(StandardCharsets.US_ASCII));
+        head.write('!');
+
+        assertEquals(HEADERS, out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testHeadersSplitAcrossWrites() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HeadResponseStream head = new HeadResponseStream(out);
+
+        // El final de los headers llega partido, con un \r de más antes
+        head.write("HTTP/1.1 200 OK\r\nContent-Length: 4\r\r".getBytes(StandardCharsets.US_ASCII));
+        head.write('\n');
+        head.write("\r".getBytes(StandardCharsets.US_ASCII));
+        head.write("\nhola".getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals("HTTP/1.1 200 OK\r\nContent-Length: 4\r\r\n\r\n", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testBuffersFilesAndStreamsAreNotSent() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HeadResponseStream head = new HeadResponseStream(out);
+        head.write(HEADERS.getBytes(StandardCharsets.US_ASCII));
+
+        ByteBuffer data = ByteBuffer.wrap("hola".getBytes(StandardCharsets.US_ASCII));
+        head.sendBuffer(data);
+        head.sendFile(Path.of("no-existe.png"), 0, 10);
+        AtomicBoolean closed = new AtomicBoolean();
+        ChunkedBody body = ChunkedBody.of(Stream.of("a", "b").onClose(() -> closed.set(true)));
+        head.sendStream(body, true);
+
+        assertFalse(data.hasRemaining());
+        assertTrue(closed.get());
+        assertEquals(HEADERS, out.toString(StandardCharsets.US_ASCII));
+    }
+}
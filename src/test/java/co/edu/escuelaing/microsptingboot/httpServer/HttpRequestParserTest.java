@@ -0,0 +1,170 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pruebas unitarias para HttpRequestParser
+ *
+ * @author Sebastian
+ */
+public class HttpRequestParserTest {
+
+    private static ByteBuffer bytes(String data) {
+        return ByteBuffer.wrap(data.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void testParseCompleteRequest() throws HttpParseException {
+        HttpRequestParser parser = new HttpRequestParser();
+        HttpRequest request = parser.parse(bytes("GET /app/greeting?name=Ana HTTP/1.1\r\nHost: localhost\r\nAccept: */*\r\n\r\n"));
+
+        assertNotNull(request);
+        assertEquals("GET", request.getMethod());
+        assertEquals("/app/greeting", request.getPath());
+        assertEquals("name=Ana", request.getQuery());
+        assertEquals("HTTP/1.1", request.getVersion());
+        assertEquals("localhost", request.getHeader("Host"));
+        assertEquals("*/*", request.getHeader("accept"));
+        assertEquals("Ana", request.getValue("name"));
+    }
+
+    @Test
+    public void testParseRequestSplitInSingleBytes() throws HttpParseException {
+        HttpRequestParser parser = new HttpRequestParser();
+        String raw = "GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+        HttpRequest request = null;
+        for (int i = 0; i < raw.length(); i++) {
+            request = parser.parse(bytes(raw.substring(i, i + 1)));
+            if (i < raw.length() - 1) {
+                assertNull(request);
+            }
+        }
+        assertNotNull(request);
+        assertEquals("/index.html", request.getPath());
+        assertEquals("localhost", request.getHeader("host"));
+    }
+
+    @Test
+    public void testParsePipelinedRequestsLeavesRemainingBytes() throws HttpParseException {
+        HttpRequestParser parser = new HttpRequestParser();
+        ByteBuffer buffer = bytes("GET /uno HTTP/1.1\r\n\r\nGET /dos HTTP/1.1\r\n\r\n");
+
+        assertEquals("/uno", parser.parse(buffer).getPath());
+        assertTrue(buffer.hasRemaining());
+        assertEquals("/dos", parser.parse(buffer).getPath());
+        assertFalse(buffer.hasRemaining());
+        assertTrue(parser.isIdle());
+    }
+
+    @Test
+    public void testBodyIsNotConsumed() throws HttpParseException {
+        HttpRequestParser parser = new HttpRequestParser();
+        ByteBuffer buffer = bytes("POST /app/x HTTP/1.1\r\nContent-Length: 4\r\n\r\nhola");
+
+        HttpRequest request = parser.parse(buffer);
+        assertEquals(4, request.getContentLength());
+        assertEquals(4, buffer.remaining());
+    }
+
+    @Test
+    public void testChunkedTransferEncoding() throws HttpParseException {
+        HttpRequest request = new HttpRequestParser().parse(bytes("POST /app/x HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"));
+
+        assertTrue(request.isChunked());
+        assertEquals(0, request.getContentLength());
+    }
+
+    @Test
+    public void testAmbiguousOrUnsupportedBodyLengthIsRejected() {
+        HttpParseException both = assertThrows(HttpParseException.class, () -> new HttpRequestParser().parse(
+                bytes("POST /app/x HTTP/1.1\r\nTransfer-Encoding: chunked\r\nContent-Length: 4\r\n\r\n")));
+        assertEquals("400 Bad Request", both.getStatus());
+
+        HttpParseException gzip = assertThrows(HttpParseException.class, () -> new HttpRequestParser().parse(
+                bytes("POST /app/x HTTP/1.1\r\nTransfer-Encoding: gzip, chunked\r\n\r\n")));
+        assertEquals("501 Not Implemented", gzip.getStatus());
+    }
+
+    @Test
+    public void testPercentEncodedPathIsDecoded() throws HttpParseException {
+        HttpRequest request = new HttpRequestParser().parse(bytes("GET /images/mi%20foto.png HTTP/1.1\r\n\r\n"));
+
+        assertEquals("/images/mi foto.png", request.getPath());
+    }
+
+    @Test
+    public void testParentSegmentsAreRejected() {
+        for (String target : new String[]{"/../secreto.txt", "/%2e%2e/secreto.txt", "/css/%2E%2E%2f%2e%2e/secreto.txt", "/images/..%5c..%5csecreto.png", "/a/.."}) {
+            HttpParseException e = assertThrows(HttpParseException.class,
+                    () -> new HttpRequestParser().parse(bytes("GET " + target + " HTTP/1.1\r\n\r\n")), target);
+            assertEquals("400 Bad Request", e.getStatus());
+        }
+    }
+
+    @Test
+    public void testDotsInsideNamesAreAllowed() throws HttpParseException {
+        HttpRequest request = new HttpRequestParser().parse(bytes("GET /js/app..min.js HTTP/1.1\r\n\r\n"));
+
+        assertEquals("/js/app..min.js", request.getPath());
+    }
+
+    @Test
+    public void testAbsoluteFormTarget() throws HttpParseException {
+        HttpRequest request = new HttpRequestParser().parse(bytes("GET http://localhost:35000/app/status?x=1 HTTP/1.1\r\n\r\n"));
+
+        assertEquals("/app/status", request.getPath());
+        assertEquals("x=1", request.getQuery());
+    }
+
+    @Test
+    public void testBareLineFeedsAndLeadingEmptyLines() throws HttpParseException {
+        HttpRequest request = new HttpRequestParser().parse(bytes("\r\nGET / HTTP/1.0\nHost: a\n\n"));
+
+        assertEquals("/", request.getPath());
+        assertEquals("HTTP/1.0", request.getVersion());
+        assertEquals("a", request.getHeader("Host"));
+    }
+
+    @Test
+    public void testRepeatedHeadersAreJoined() throws HttpParseException {
+        HttpRequest request = new HttpRequestParser().parse(bytes("GET / HTTP/1.1\r\nAccept: a\r\nAccept: b\r\n\r\n"));
+
+        assertEquals("a, b", request.getHeader("Accept"));
+    }
+
+    @Test
+    public void testMalformedRequestLine() {
+        HttpParseException e = assertThrows(HttpParseException.class,
+                () -> new HttpRequestParser().parse(bytes("BASURA\r\n\r\n")));
+        assertEquals("400 Bad Request", e.getStatus());
+    }
+
+    @Test
+    public void testInvalidContentLength() {
+        assertThrows(HttpParseException.class,
+                () -> new HttpRequestParser().parse(bytes("GET / HTTP/1.1\r\nContent-Length: -1\r\n\r\n")));
+    }
+
+    @Test
+    public void testRequestLineLimit() {
+        HttpRequestParser parser = new HttpRequestParser(32, 1024);
+
+        HttpParseException e = assertThrows(HttpParseException.class,
+                () -> parser.parse(bytes("GET /" + "a".repeat(64) + " HTTP/1.1\r\n\r\n")));
+        assertEquals("414 URI Too Long", e.getStatus());
+    }
+
+    @Test
+    public void testHeaderSizeLimit() {
+        HttpRequestParser parser = new HttpRequestParser(1024, 32);
+
+        HttpParseException e = assertThrows(HttpParseException.class,
+                () -> parser.parse(bytes("GET / HTTP/1.1\r\nX-Largo: " + "a".repeat(64) + "\r\n\r\n")));
+        assertEquals("431 Request Header Fields Too Large", e.getStatus());
+    }
+}
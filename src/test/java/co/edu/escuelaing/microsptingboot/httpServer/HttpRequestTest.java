@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Pruebas unitarias para HttpRequest
@@ -82,4 +84,80 @@ public class HttpRequestTest {
 
         assertEquals("", request.getValue(null));
     }
+
+    @Test
+    public void testKeepAliveDefaultsByVersion() {
+        assertTrue(new HttpRequest("GET", "/index.html", null, "HTTP/1.1", Map.of()).isKeepAlive());
+        assertFalse(new HttpRequest("GET", "/index.html", null, "HTTP/1.1", Map.of("connection", "close")).isKeepAlive());
+        assertFalse(new HttpRequest("GET", "/index.html", null, "HTTP/1.0", Map.of()).isKeepAlive());
+        assertTrue(new HttpRequest("GET", "/index.html", null, "HTTP/1.0", Map.of("connection", "Keep-Alive")).isKeepAlive());
+    }
+
+    @Test
+    public void testGetHeaderIsCaseInsensitive() {
+        HttpRequest request = new HttpRequest("GET", "/", null, "HTTP/1.1", Map.of("host", "localhost"));
+
+        assertEquals("localhost", request.getHeader("Host"));
+        assertEquals("", request.getHeader("Accept"));
+    }
+
+    @Test
+    public void testGetValueDecodesPercentAndPlus() throws URISyntaxException {
+        URI uri = new URI("http://localhost:35000/app/hello?name=Mar%C3%ADa+Jos%C3%A9&city=Bogot%C3%A1");
+        HttpRequest request = new HttpRequest(uri);
+
+        assertEquals("María José", request.getValue("name"));
+        assertEquals("Bogotá", request.getValue("city"));
+    }
+
+    @Test
+    public void testEncodedSeparatorsDoNotSplitValues() throws URISyntaxException {
+        URI uri = new URI("http://localhost:35000/test?q=a%26b%3Dc&eq=x=y");
+        HttpRequest request = new HttpRequest(uri);
+
+        assertEquals("a&b=c", request.getValue("q"));
+        assertEquals("x=y", request.getValue("eq"));
+    }
+
+    @Test
+    public void testRepeatedParameters() throws URISyntaxException {
+        URI uri = new URI("http://localhost:35000/test?tag=uno&other=x&tag=dos&tag=");
+        HttpRequest request = new HttpRequest(uri);
+
+        assertEquals("uno", request.getValue("tag"));
+        assertEquals(List.of("uno", "dos", ""), request.getValues("tag"));
+        assertEquals(List.of("x"), request.getValues("other"));
+        assertTrue(request.getValues("missing").isEmpty());
+    }
+
+    @Test
+    public void testEmptySegmentsAreIgnored() throws URISyntaxException {
+        URI uri = new URI("http://localhost:35000/test?&&a=1&&b=2&");
+        HttpRequest request = new HttpRequest(uri);
+
+        assertEquals("1", request.getValue("a"));
+        assertEquals("2", request.getValue("b"));
+    }
+
+    @Test
+    public void testPathVariables() throws URISyntaxException {
+        HttpRequest request = new HttpRequest(new URI("http://localhost:35000/app/calculate/suma"));
+        assertEquals("", request.getPathVariable("op"));
+
+        request.setPathVariables(new String[]{"op", null}, new String[]{"suma", "x"});
+        assertEquals("suma", request.getPathVariable("op"));
+        assertEquals("", request.getPathVariable("other"));
+    }
+
+    @Test
+    public void testNumericValuesAreReadFromTheQuery() throws URISyntaxException {
+        HttpRequest request = new HttpRequest(new URI("http://localhost:35000/test?a=42&b=-9000000000&c=%31%32&n%61me=x"));
+
+        assertEquals(42, request.intValueAt(request.indexOf("a")));
+        assertEquals(-9_000_000_000L, request.longValueAt(request.indexOf("b")));
+        assertEquals(12, request.intValueAt(request.indexOf("c")));
+        assertEquals(3, request.indexOf("name"));
+        assertEquals(-1, request.indexOf("d"));
+        assertThrows(NumberFormatException.class, () -> request.intValueAt(request.indexOf("b")));
+    }
 }
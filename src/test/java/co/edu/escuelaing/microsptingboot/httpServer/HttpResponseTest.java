@@ -3,6 +3,10 @@ package co.edu.escuelaing.microsptingboot.httpServer;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Pruebas unitarias para HttpResponse
  *
@@ -33,4 +37,96 @@ public class HttpResponseTest {
         assertNotNull(response2);
         assertNotSame(response1, response2);
     }
+
+    private static String render(HttpResponse response, boolean keepAlive) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.writeTo(out, keepAlive);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testDefaultResponseFraming() throws IOException {
+        HttpResponse response = new HttpResponse();
+        response.write("Hola ñandú");
+
+        assertEquals("HTTP/1.1 200 OK\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: 12\r\n"
+                + "Connection: keep-alive\r\n"
+                + "\r\n"
+                + "Hola ñandú", render(response, true));
+    }
+
+    @Test
+    public void testStatusAndHeaders() throws IOException {
+        HttpResponse response = new HttpResponse();
+        response.setStatus(201);
+        response.setContentType("text/html");
+        response.setHeader("Location", "/app/items/1");
+        response.setHeader("X-Count", 3);
+        response.setHeader("x-count", 4);
+        response.addHeader("Set-Cookie", "a=1");
+        response.addHeader("Set-Cookie", "b=2");
+        response.setDateHeader("Expires", 0);
+
+        String rendered = render(response, false);
+        assertTrue(rendered.startsWith("HTTP/1.1 201 Created\r\nContent-Type: text/html\r\nContent-Length: 0\r\n"));
+        assertTrue(rendered.contains("Location: /app/items/1\r\nX-Count: 4\r\nSet-Cookie: a=1\r\nSet-Cookie: b=2\r\n"));
+        assertTrue(rendered.contains("Expires: Thu, 01 Jan 1970 00:00:00 GMT\r\n"));
+        assertTrue(rendered.endsWith("Connection: close\r\n\r\n"));
+        assertEquals("4", response.getHeader("X-COUNT"));
+        assertEquals("text/html", response.getHeader("Content-Type"));
+    }
+
+    @Test
+    public void testCustomStatusAndNoContent() throws IOException {
+        HttpResponse response = new HttpResponse();
+        response.setStatus(299, "Personalizado");
+        assertTrue(render(response, true).startsWith("HTTP/1.1 299 Personalizado\r\n"));
+
+        response.setStatus(204);
+        response.write("ignorado");
+        String rendered = render(response, true);
+        assertFalse(rendered.contains("Content-Length"));
+        assertTrue(rendered.endsWith("\r\n\r\n"));
+    }
+
+    @Test
+    public void testInvalidHeadersAreRejected() {
+        HttpResponse response = new HttpResponse();
+        assertThrows(IllegalArgumentException.class, () -> response.setHeader("X-Bad", "a\r\nSet-Cookie: x"));
+        assertThrows(IllegalArgumentException.class, () -> response.setHeader("Bad Name", "a"));
+        assertThrows(IllegalArgumentException.class, () -> response.setHeader("Content-Length", "5"));
+        assertThrows(IllegalArgumentException.class, () -> response.setStatus(42));
+    }
+
+    @Test
+    public void testBodyGrowsAndResets() {
+        HttpResponse response = new HttpResponse();
+        byte[] large = new byte[10_000];
+        response.write(large);
+        response.write(large, 0, 5);
+        assertEquals(10_005, response.getBodyLength());
+
+        response.setStatus(404);
+        response.setHeader("X-Test", "1");
+        response.reset();
+        assertEquals(200, response.getStatus());
+        assertEquals(0, response.getBodyLength());
+        assertEquals("", response.getHeader("X-Test"));
+        assertEquals("application/json", response.getContentType());
+    }
+
+    @Test
+    public void testReleasedResponsesAreReused() {
+        HttpResponse response = HttpResponse.acquire();
+        response.setStatus(500);
+        response.write("x");
+        response.release();
+
+        HttpResponse reused = HttpResponse.acquire();
+        assertEquals(200, reused.getStatus());
+        assertEquals(0, reused.getBodyLength());
+        reused.release();
+    }
 }
@@ -9,12 +9,23 @@ import static org.mockito.Mockito.*;
 
 import java.io.*;
 import java.lang.reflect.Method;
+import java.net.Socket;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import co.edu.escuelaing.microsptingboot.annotations.Cacheable;
+import co.edu.escuelaing.microsptingboot.annotations.RequestParam;
 
 import co.edu.escuelaing.microsptingboot.controller.GreetingController;
 import co.edu.escuelaing.microsptingboot.controller.CalcuteController;
@@ -172,6 +183,34 @@ public class HttpServerTest {
         assertTrue(services.containsKey("/calculate/resta"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testClasspathScanFallback() throws Exception {
+        // Exploración usada cuando no hay índice de rutas
+        Method findRestControllers = HttpServer.class.getDeclaredMethod("findRestControllers");
+        findRestControllers.setAccessible(true);
+        Set<Class<?>> controllers = (Set<Class<?>>) findRestControllers.invoke(null);
+
+        assertTrue(controllers.contains(GreetingController.class));
+        assertTrue(controllers.contains(CalcuteController.class));
+        assertFalse(controllers.contains(HttpServer.class));
+    }
+
+    @Test
+    public void testProcessRequestWithPathVariable() throws Exception {
+        HttpServer.loadServices(new String[]{"co.edu.escuelaing.microsptingboot.controller.CalcuteController"});
+        Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
+        processRequestMethod.setAccessible(true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        processRequestMethod.invoke(null, new HttpRequest(new URI("/app/calculate/multiplicacion?a=3&b=4")), out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("La multiplicación de 3 * 4 = 12"));
+
+        out.reset();
+        processRequestMethod.invoke(null, new HttpRequest(new URI("/app/calculate/suma?a=3&b=4")), out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("La suma de 3 + 4 = 7"));
+    }
+
     @Test
     public void testServiceRegistration() throws NoSuchMethodException {
         // Limpiar servicios
@@ -193,17 +232,16 @@ public class HttpServerTest {
         // Crear una URI de prueba
         URI requestUri = new URI("http://localhost:35000/app/greeting?name=TestUser");
 
-        // Crear un StringWriter para capturar la salida
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter out = new PrintWriter(stringWriter);
+        // Crear un stream para capturar la salida
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         // Usar reflection para llamar al método privado processRequest
         try {
-            Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", URI.class, PrintWriter.class);
+            Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
             processRequestMethod.setAccessible(true);
-            processRequestMethod.invoke(null, requestUri, out);
+            processRequestMethod.invoke(null, new HttpRequest(requestUri), out);
 
-            String output = stringWriter.toString();
+            String output = out.toString(StandardCharsets.UTF_8);
             assertTrue(output.contains("HTTP/1.1 200 OK"));
             assertTrue(output.contains("Hola TestUser"));
         } catch (Exception e) {
@@ -218,15 +256,14 @@ public class HttpServerTest {
 
         URI requestUri = new URI("http://localhost:35000/app/nonexistent");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter out = new PrintWriter(stringWriter);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         try {
-            Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", URI.class, PrintWriter.class);
+            Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
             processRequestMethod.setAccessible(true);
-            processRequestMethod.invoke(null, requestUri, out);
+            processRequestMethod.invoke(null, new HttpRequest(requestUri), out);
 
-            String output = stringWriter.toString();
+            String output = out.toString(StandardCharsets.UTF_8);
             assertTrue(output.contains("404 Not Found"));
         } catch (Exception e) {
             fail("Error al ejecutar processRequest: " + e.getMessage());
@@ -243,15 +280,14 @@ public class HttpServerTest {
 
         URI requestUri = new URI("http://localhost:35000/test.html");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter out = new PrintWriter(stringWriter);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         try {
-            Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", URI.class, PrintWriter.class, OutputStream.class);
+            Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", HttpRequest.class, OutputStream.class);
             handlerequestTypeMethod.setAccessible(true);
-            handlerequestTypeMethod.invoke(null, requestUri, out, new ByteArrayOutputStream());
+            handlerequestTypeMethod.invoke(null, new HttpRequest(requestUri), out);
 
-            String output = stringWriter.toString();
+            String output = out.toString(StandardCharsets.UTF_8);
             assertTrue(output.contains("HTTP/1.1 200 OK"));
             assertTrue(output.contains("text/html"));
             assertTrue(output.contains("Test HTML"));
@@ -260,6 +296,201 @@ public class HttpServerTest {
         }
     }
 
+    @Test
+    public void testFilesOutsideBasePathAreNotServed() throws Exception {
+        Path publicDir = Files.createDirectories(tempDir.resolve("public/images"));
+        setBasePath(publicDir.getParent().toString() + "/");
+        Files.writeString(tempDir.resolve("secreto.html"), "secreto");
+        Files.writeString(tempDir.resolve("secreto.png"), "secreto");
+
+        Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", HttpRequest.class, OutputStream.class);
+        handlerequestTypeMethod.setAccessible(true);
+        for (String path : new String[]{"/../secreto.html", "/images/../../secreto.png"}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            handlerequestTypeMethod.invoke(null, new HttpRequest("GET", path, null, "HTTP/1.1", Map.of()), out);
+
+            String output = out.toString(StandardCharsets.UTF_8);
+            assertTrue(output.startsWith("HTTP/1.1 404 Not Found"), path);
+            assertFalse(output.contains("secreto"), path);
+        }
+    }
+
+    @Test
+    public void testHandleRequestTypeHTMLWithGzip() throws Exception {
+        setBasePath(tempDir.toString() + "/");
+        String html = "<html><body>" + "<p>Contenido</p>".repeat(200) + "</body></html>";
+        Files.writeString(tempDir.resolve("gzip.html"), html);
+        HttpRequest request = new HttpRequest("GET", "/gzip.html", null, "HTTP/1.1", Map.of("accept-encoding", "gzip, deflate"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", HttpRequest.class, OutputStream.class);
+        handlerequestTypeMethod.setAccessible(true);
+        handlerequestTypeMethod.invoke(null, request, out);
+
+        byte[] response = out.toByteArray();
+        String output = new String(response, StandardCharsets.ISO_8859_1);
+        assertTrue(output.contains("Content-Encoding: gzip\r\n"));
+        int bodyStart = output.indexOf("\r\n\r\n") + 4;
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response, bodyStart, response.length - bodyStart))) {
+            assertEquals(html, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testLargeTextFileIsServedFromDisk() throws Exception {
+        setBasePath(tempDir.toString() + "/");
+        String html = "<html><body>" + "<p>Archivo grande</p>".repeat(200) + "</body></html>";
+        Path file = tempDir.resolve("grande.html");
+        Files.writeString(file, html);
+        String etag = ETagCache.fromAttributes(Files.getLastModifiedTime(file).toMillis(), html.length());
+        HttpServer.configureStaticCache(8192, 1024);
+        try {
+            Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", HttpRequest.class, OutputStream.class);
+            handlerequestTypeMethod.setAccessible(true);
+
+            // Sin codificar: Content-Length y ETag armado con la fecha y el tamaño
+            ByteArrayOutputStream plain = new ByteArrayOutputStream();
+            handlerequestTypeMethod.invoke(null, new HttpRequest("GET", "/grande.html", null, "HTTP/1.1", Map.of()), plain);
+            String output = plain.toString(StandardCharsets.UTF_8);
+            assertTrue(output.startsWith("HTTP/1.1 200 OK"));
+            assertTrue(output.contains("Content-Length: " + html.length() + "\r\n"));
+            assertTrue(output.contains("ETag: " + etag + "\r\n"));
+            assertTrue(output.endsWith("\r\n\r\n" + html));
+
+            // gzip: solo esa codificación, comprimida por partes
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+            handlerequestTypeMethod.invoke(null, new HttpRequest("GET", "/grande.html", null, "HTTP/1.1",
+                    Map.of("accept-encoding", "gzip")), gzip);
+            byte[] response = gzip.toByteArray();
+            String head = new String(response, StandardCharsets.ISO_8859_1);
+            int bodyStart = head.indexOf("\r\n\r\n") + 4;
+            head = head.substring(0, bodyStart);
+            assertTrue(head.contains("Content-Encoding: gzip\r\n"));
+            assertTrue(head.contains("Transfer-Encoding: chunked\r\n"));
+            assertTrue(head.contains("ETag: " + ETagCache.forEncoding(etag, ContentEncoding.GZIP) + "\r\n"));
+            assertFalse(head.contains("Content-Length"));
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(dechunk(response, bodyStart)))) {
+                assertEquals(html, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            ByteArrayOutputStream notModified = new ByteArrayOutputStream();
+            handlerequestTypeMethod.invoke(null, new HttpRequest("GET", "/grande.html", null, "HTTP/1.1",
+                    Map.of("if-none-match", etag)), notModified);
+            assertTrue(notModified.toString(StandardCharsets.UTF_8).startsWith("HTTP/1.1 304 Not Modified"));
+        } finally {
+            HttpServer.configureStaticCache(StaticFileCache.DEFAULT_MAX_BYTES, StaticFileCache.DEFAULT_MAX_ENTRY_BYTES);
+        }
+    }
+
+    /**
+     * Une los chunks de un cuerpo con Transfer-Encoding: chunked
+     */
+    private static byte[] dechunk(byte[] response, int start) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int position = start;
+        while (true) {
+            int lineEnd = position;
+            while (response[lineEnd] != '\r') {
+                lineEnd++;
+            }
+            int size = Integer.parseInt(new String(response, position, lineEnd - position, StandardCharsets.US_ASCII), 16);
+            if (size == 0) {
+                return body.toByteArray();
+            }
+            body.write(response, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+    }
+
+    @Test
+    public void testHandleRequestTypeNotModified() throws Exception {
+        setBasePath(tempDir.toString() + "/");
+        Files.writeString(tempDir.resolve("cached.html"), "<p>Sin cambios</p>");
+        HttpServer.configureCacheControl("html", 0);
+        try {
+            Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", HttpRequest.class, OutputStream.class);
+            handlerequestTypeMethod.setAccessible(true);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            handlerequestTypeMethod.invoke(null, new HttpRequest("GET", "/cached.html", null, "HTTP/1.1", Map.of()), out);
+            String first = out.toString(StandardCharsets.UTF_8);
+            assertTrue(first.startsWith("HTTP/1.1 200 OK"));
+            assertTrue(first.contains("Cache-Control: no-cache\r\n"));
+            int start = first.indexOf("ETag: ") + 6;
+            String etag = first.substring(start, first.indexOf("\r\n", start));
+
+            out.reset();
+            handlerequestTypeMethod.invoke(null, new HttpRequest("GET", "/cached.html", null, "HTTP/1.1", Map.of("if-none-match", etag)), out);
+            String second = out.toString(StandardCharsets.UTF_8);
+            assertTrue(second.startsWith("HTTP/1.1 304 Not Modified"));
+            assertFalse(second.contains("Sin cambios"));
+        } finally {
+            HttpServer.configureCacheControl("html", -1);
+        }
+    }
+
+    @Test
+    public void testImageNotModifiedSince() throws Exception {
+        setBasePath(tempDir.toString() + "/");
+        Files.createDirectories(tempDir.resolve("images"));
+        Path image = tempDir.resolve("images/icon.png");
+        Files.write(image, new byte[]{1, 2, 3, 4});
+        String lastModified = ConditionalRequest.formatDate(Files.getLastModifiedTime(image).toMillis());
+
+        Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", HttpRequest.class, OutputStream.class);
+        handlerequestTypeMethod.setAccessible(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        handlerequestTypeMethod.invoke(null, new HttpRequest("GET", "/images/icon.png", null, "HTTP/1.1", Map.of("if-modified-since", lastModified)), out);
+
+        String output = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(output.startsWith("HTTP/1.1 304 Not Modified"));
+        assertTrue(output.contains("Last-Modified: " + lastModified + "\r\n"));
+        assertTrue(output.endsWith("\r\n\r\n"));
+    }
+
+    @Test
+    public void testImageRangeRequests() throws Exception {
+        setBasePath(tempDir.toString() + "/");
+        Files.createDirectories(tempDir.resolve("images"));
+        byte[] content = new byte[5000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(tempDir.resolve("images/photo.jpg"), content);
+
+        String single = new String(requestImage(Map.of("range", "bytes=100-199")), StandardCharsets.ISO_8859_1);
+        assertTrue(single.startsWith("HTTP/1.1 206 Partial Content\r\n"));
+        assertTrue(single.contains("Content-Range: bytes 100-199/5000\r\n"));
+        assertTrue(single.contains("Content-Length: 100\r\n"));
+        assertEquals(new String(content, 100, 100, StandardCharsets.ISO_8859_1), single.substring(single.indexOf("\r\n\r\n") + 4));
+
+        String multi = new String(requestImage(Map.of("range", "bytes=0-9,-10")), StandardCharsets.ISO_8859_1);
+        assertTrue(multi.startsWith("HTTP/1.1 206 Partial Content\r\n"));
+        assertTrue(multi.contains("Content-Type: multipart/byteranges; boundary="));
+        assertTrue(multi.contains("Content-Range: bytes 0-9/5000\r\n\r\n" + new String(content, 0, 10, StandardCharsets.ISO_8859_1)));
+        assertTrue(multi.contains("Content-Range: bytes 4990-4999/5000\r\n\r\n" + new String(content, 4990, 10, StandardCharsets.ISO_8859_1)));
+        int bodyStart = multi.indexOf("\r\n\r\n") + 4;
+        int start = multi.indexOf("Content-Length: ") + 16;
+        assertEquals(Integer.parseInt(multi.substring(start, multi.indexOf("\r\n", start))), multi.length() - bodyStart);
+
+        String unsatisfiable = new String(requestImage(Map.of("range", "bytes=6000-")), StandardCharsets.ISO_8859_1);
+        assertTrue(unsatisfiable.startsWith("HTTP/1.1 416 Range Not Satisfiable\r\n"));
+        assertTrue(unsatisfiable.contains("Content-Range: bytes */5000\r\n"));
+
+        String changed = new String(requestImage(Map.of("range", "bytes=0-9", "if-range", "\"old\"")), StandardCharsets.ISO_8859_1);
+        assertTrue(changed.startsWith("HTTP/1.1 200 OK\r\n"));
+        assertTrue(changed.contains("Accept-Ranges: bytes\r\n"));
+        assertTrue(changed.contains("Content-Length: 5000\r\n"));
+    }
+
+    private byte[] requestImage(Map<String, String> headers) throws Exception {
+        Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", HttpRequest.class, OutputStream.class);
+        handlerequestTypeMethod.setAccessible(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        handlerequestTypeMethod.invoke(null, new HttpRequest("GET", "/images/photo.jpg", null, "HTTP/1.1", headers), out);
+        return out.toByteArray();
+    }
+
     @Test
     public void testHandleRequestTypeCSS() throws URISyntaxException, IOException {
         setBasePath(tempDir.toString() + "/");
@@ -269,15 +500,14 @@ public class HttpServerTest {
 
         URI requestUri = new URI("http://localhost:35000/style.css");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter out = new PrintWriter(stringWriter);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         try {
-            Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", URI.class, PrintWriter.class, OutputStream.class);
+            Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", HttpRequest.class, OutputStream.class);
             handlerequestTypeMethod.setAccessible(true);
-            handlerequestTypeMethod.invoke(null, requestUri, out, new ByteArrayOutputStream());
+            handlerequestTypeMethod.invoke(null, new HttpRequest(requestUri), out);
 
-            String output = stringWriter.toString();
+            String output = out.toString(StandardCharsets.UTF_8);
             assertTrue(output.contains("HTTP/1.1 200 OK"));
             assertTrue(output.contains("text/css"));
             assertTrue(output.contains("body { color: blue; }"));
@@ -295,15 +525,14 @@ public class HttpServerTest {
 
         URI requestUri = new URI("http://localhost:35000/script.js");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter out = new PrintWriter(stringWriter);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         try {
-            Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", URI.class, PrintWriter.class, OutputStream.class);
+            Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", HttpRequest.class, OutputStream.class);
             handlerequestTypeMethod.setAccessible(true);
-            handlerequestTypeMethod.invoke(null, requestUri, out, new ByteArrayOutputStream());
+            handlerequestTypeMethod.invoke(null, new HttpRequest(requestUri), out);
 
-            String output = stringWriter.toString();
+            String output = out.toString(StandardCharsets.UTF_8);
             assertTrue(output.contains("HTTP/1.1 200 OK"));
             assertTrue(output.contains("text/javascript"));
             assertTrue(output.contains("console.log('Hello World');"));
@@ -316,15 +545,14 @@ public class HttpServerTest {
     public void testHandleRequestTypeNotFound() throws URISyntaxException {
         URI requestUri = new URI("http://localhost:35000/nonexistent.html");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter out = new PrintWriter(stringWriter);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         try {
-            Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", URI.class, PrintWriter.class, OutputStream.class);
+            Method handlerequestTypeMethod = HttpServer.class.getDeclaredMethod("handlerequestType", HttpRequest.class, OutputStream.class);
             handlerequestTypeMethod.setAccessible(true);
-            handlerequestTypeMethod.invoke(null, requestUri, out, new ByteArrayOutputStream());
+            handlerequestTypeMethod.invoke(null, new HttpRequest(requestUri), out);
 
-            String output = stringWriter.toString();
+            String output = out.toString(StandardCharsets.UTF_8);
             assertTrue(output.contains("404 Not Found"));
         } catch (Exception e) {
             fail("Error al manejar archivo no encontrado: " + e.getMessage());
@@ -350,4 +578,644 @@ public class HttpServerTest {
             fail("Error al verificar existencia de archivo: " + e.getMessage());
         }
     }
+
+    @Test
+    public void testSlowClientDoesNotBlockOtherConnections() throws Exception {
+        Thread serverThread = startTestServer();
+
+        try {
+            int port = waitForServerPort();
+
+            // Un cliente que se conecta y no envía nada no debe bloquear a los demás
+            try (Socket slowClient = new Socket("localhost", port);
+                 Socket client = new Socket("localhost", port)) {
+                client.setSoTimeout(5000);
+                client.getOutputStream().write("GET /app/status HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes());
+                client.getOutputStream().flush();
+
+                String response = new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(response.contains("HTTP/1.1 200 OK"));
+                assertTrue(response.contains("El servidor está funcionando correctamente"));
+            }
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+        assertFalse(HttpServer.isRunning());
+    }
+
+    @Test
+    public void testPipelinedRequestsOnKeepAliveConnection() throws Exception {
+        Thread serverThread = startTestServer();
+
+        try {
+            int port = waitForServerPort();
+
+            try (Socket client = new Socket("localhost", port)) {
+                client.setSoTimeout(5000);
+                // Dos solicitudes en la misma escritura: deben responderse en orden
+                String requests = "GET /app/greeting?name=Uno HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                        + "GET /app/greeting?name=Dos HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n";
+                client.getOutputStream().write(requests.getBytes());
+                client.getOutputStream().flush();
+
+                String response = new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                int first = response.indexOf("Hola Uno");
+                int second = response.indexOf("Hola Dos");
+                assertTrue(first > 0);
+                assertTrue(second > first);
+                assertTrue(response.contains("Connection: keep-alive"));
+                assertTrue(response.contains("Connection: close"));
+                assertTrue(response.contains("Content-Length: " + "Hola Uno".length()));
+            }
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+    }
+
+    @Test
+    public void testHttp10ClosesConnectionByDefault() throws Exception {
+        Thread serverThread = startTestServer();
+
+        try {
+            int port = waitForServerPort();
+
+            try (Socket client = new Socket("localhost", port)) {
+                client.setSoTimeout(5000);
+                client.getOutputStream().write("GET /app/status HTTP/1.0\r\n\r\n".getBytes());
+                client.getOutputStream().flush();
+
+                // readAllBytes solo retorna si el servidor cierra la conexión
+                String response = new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(response.contains("Connection: close"));
+            }
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+    }
+
+    @Test
+    public void testImagesAreServedOverTheSocket() throws Exception {
+        setBasePath(tempDir.toString() + "/");
+        Files.createDirectories(tempDir.resolve("images"));
+        byte[] small = new byte[10_000];
+        byte[] large = new byte[3 * 1024 * 1024];
+        new Random(1).nextBytes(small);
+        new Random(2).nextBytes(large);
+        Files.write(tempDir.resolve("images/small.png"), small);
+        Files.write(tempDir.resolve("images/large.jpg"), large);
+
+        Thread serverThread = startTestServer();
+        try {
+            int port = waitForServerPort();
+            // La imagen pequeña se mapea en memoria y la grande se envía con transferTo
+            assertArrayEquals(small, fetchBody(port, "/images/small.png"));
+            assertArrayEquals(large, fetchBody(port, "/images/large.jpg"));
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+    }
+
+    private byte[] fetchBody(int port, String path) throws IOException {
+        try (Socket client = new Socket("localhost", port)) {
+            client.setSoTimeout(5000);
+            client.getOutputStream().write(("GET " + path + " HTTP/1.1\r\nConnection: close\r\n\r\n").getBytes());
+            byte[] response = client.getInputStream().readAllBytes();
+            for (int i = 3; i < response.length; i++) {
+                if (response[i - 3] == '\r' && response[i - 2] == '\n' && response[i - 1] == '\r' && response[i] == '\n') {
+                    return Arrays.copyOfRange(response, i + 1, response.length);
+                }
+            }
+            fail("Respuesta sin fin de headers");
+            return null;
+        }
+    }
+
+    @Test
+    public void testPostWithContentLengthKeepsPipeline() throws Exception {
+        Thread serverThread = startTestServer();
+        try {
+            int port = waitForServerPort();
+            String response = exchange(port, "POST /app/greeting HTTP/1.1\r\nContent-Length: 3\r\n\r\nAna"
+                    + "GET /app/greeting?name=Luis HTTP/1.1\r\nConnection: close\r\n\r\n");
+            int first = response.indexOf("Hola Ana");
+            assertTrue(first > 0);
+            assertTrue(response.indexOf("Hola Luis") > first);
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+    }
+
+    @Test
+    public void testHeadSendsHeadersWithoutBody() throws Exception {
+        Files.writeString(tempDir.resolve("index.html"), "<html>" + "contenido ".repeat(200) + "</html>");
+        Files.createDirectories(tempDir.resolve("images"));
+        Files.writeString(tempDir.resolve("images/logo.png"), "PNGDATA".repeat(1000));
+        setBasePath(tempDir.toString() + "/");
+        Thread serverThread = startTestServer();
+        try {
+            int port = waitForServerPort();
+            // Cada HEAD va seguido de otra solicitud en la misma conexión: un cuerpo de más se leería como su respuesta
+            String response = exchange(port, "HEAD /app/greeting?name=x HTTP/1.1\r\n\r\n"
+                    + "HEAD /index.html HTTP/1.1\r\n\r\n"
+                    + "HEAD /index.html HTTP/1.1\r\n\r\n"
+                    + "HEAD /images/logo.png HTTP/1.1\r\n\r\n"
+                    + "HEAD /images/logo.png HTTP/1.1\r\nRange: bytes=0-9\r\n\r\n"
+                    + "HEAD /app/count?n=3 HTTP/1.1\r\n\r\n"
+                    + "GET /app/status HTTP/1.1\r\nConnection: close\r\n\r\n");
+
+            String[] responses = response.split("(?=HTTP/1\\.1 )");
+            assertEquals(7, responses.length, response);
+            assertTrue(responses[0].contains("Content-Length: 6\r\n"));
+            assertTrue(responses[0].endsWith("\r\n\r\n"), responses[0]);
+            assertTrue(responses[1].contains("Content-Length: "));
+            assertTrue(responses[1].endsWith("\r\n\r\n"));
+            assertTrue(responses[2].endsWith("\r\n\r\n"));
+            assertTrue(responses[3].contains("Content-Length: 7000\r\n"));
+            assertTrue(responses[3].endsWith("\r\n\r\n"));
+            assertTrue(responses[4].startsWith("HTTP/1.1 206 Partial Content"));
+            assertTrue(responses[4].endsWith("\r\n\r\n"));
+            assertTrue(responses[5].contains("Transfer-Encoding: chunked\r\n"));
+            assertTrue(responses[5].endsWith("\r\n\r\n"));
+            assertTrue(responses[6].startsWith("HTTP/1.1 200 OK"));
+            assertTrue(responses[6].endsWith("El servidor está funcionando correctamente"));
+            assertFalse(response.contains("Hola x"));
+            assertFalse(response.contains("contenido"));
+            assertFalse(response.contains("PNGDATA"));
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+    }
+
+    @Test
+    public void testUnreadLargeBodyClosesConnection() throws Exception {
+        Thread serverThread = startTestServer();
+        try {
+            int port = waitForServerPort();
+            HttpServer.configureRequestBody(1024);
+            try (Socket client = new Socket("localhost", port)) {
+                client.setSoTimeout(5000);
+                // /app/status no lee el cuerpo; descartar 10 MB que no llegan dejaría el hilo esperando
+                client.getOutputStream().write("GET /app/status HTTP/1.1\r\nContent-Length: 10000000\r\n\r\n".getBytes());
+                client.getOutputStream().flush();
+
+                String response = new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+                assertTrue(response.endsWith("El servidor está funcionando correctamente"));
+            }
+        } finally {
+            HttpServer.configureRequestBody(10L * 1024 * 1024);
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+    }
+
+    @Test
+    public void testChunkedUploadIsStreamed() throws Exception {
+        Thread serverThread = startTestServer();
+        try {
+            int port = waitForServerPort();
+            try (Socket client = new Socket("localhost", port)) {
+                client.setSoTimeout(5000);
+                OutputStream out = client.getOutputStream();
+                out.write("PUT /app/upload HTTP/1.1\r\nTransfer-Encoding: chunked\r\nConnection: close\r\n\r\n".getBytes());
+                // 4 MB en chunks de 64 KB: más que el límite de cuerpos en memoria
+                byte[] chunk = new byte[64 * 1024];
+                for (int i = 0; i < 64; i++) {
+                    out.write((Integer.toHexString(chunk.length) + "\r\n").getBytes());
+                    out.write(chunk);
+                    out.write("\r\n".getBytes());
+                }
+                out.write("0\r\n\r\n".getBytes());
+                out.flush();
+
+                HttpServer.configureRequestBody(1024);
+                String response = new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+                assertTrue(response.endsWith("Recibidos " + (64 * 64 * 1024) + " bytes"));
+            }
+        } finally {
+            HttpServer.configureRequestBody(10L * 1024 * 1024);
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+    }
+
+    @Test
+    public void testExpectContinue() throws Exception {
+        Thread serverThread = startTestServer();
+        try {
+            int port = waitForServerPort();
+            try (Socket client = new Socket("localhost", port)) {
+                client.setSoTimeout(5000);
+                client.getOutputStream().write(("POST /app/greeting HTTP/1.1\r\nContent-Length: 4\r\n"
+                        + "Expect: 100-continue\r\nConnection: close\r\n\r\n").getBytes());
+                client.getOutputStream().flush();
+
+                // El cuerpo se envía solo después de recibir 100 Continue
+                byte[] interim = client.getInputStream().readNBytes("HTTP/1.1 100 Continue\r\n\r\n".length());
+                assertEquals("HTTP/1.1 100 Continue\r\n\r\n", new String(interim, StandardCharsets.US_ASCII));
+                client.getOutputStream().write("Rosa".getBytes());
+                client.getOutputStream().flush();
+
+                String response = new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+                assertTrue(response.endsWith("Hola Rosa"));
+            }
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+    }
+
+    @Test
+    public void testControllerWritesResponse() throws Exception {
+        HttpServer.loadServices(new String[]{"co.edu.escuelaing.microsptingboot.controller.GreetingController"});
+        Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
+        processRequestMethod.setAccessible(true);
+
+        // type ya no se acepta: el cliente no elige el Content-Type del eco
+        HttpRequest request = new HttpRequest("POST", "/app/echo", "type=text/html", "HTTP/1.1", Map.of("content-length", "3"));
+        request.setBody(new ByteArrayInputStream("a,b".getBytes(StandardCharsets.US_ASCII)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        processRequestMethod.invoke(null, request, out);
+
+        assertEquals("HTTP/1.1 200 OK\r\nContent-Type: application/octet-stream\r\nContent-Length: 3\r\n"
+                + "X-Content-Type-Options: nosniff\r\nConnection: keep-alive\r\n\r\na,b", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Controlador de prueba que escribe el cuerpo directamente en la conexión
+     */
+    public static void writeChunks(HttpResponse response) throws IOException {
+        response.setContentType("text/plain");
+        response.write("uno,");
+        OutputStream body = response.getOutputStream();
+        body.write("dos,".getBytes(StandardCharsets.US_ASCII));
+        body.write("tres".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testControllerReturnsStream() throws Exception {
+        HttpServer.loadServices(new String[]{"co.edu.escuelaing.microsptingboot.controller.GreetingController"});
+        Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
+        processRequestMethod.setAccessible(true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        processRequestMethod.invoke(null, new HttpRequest(new URI("/app/count?n=3")), out);
+
+        assertEquals("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nTransfer-Encoding: chunked\r\n"
+                + "Connection: keep-alive\r\n\r\n2\r\n1\n\r\n2\r\n2\n\r\n2\r\n3\n\r\n0\r\n\r\n", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testCountRejectsInvalidN() throws Exception {
+        HttpServer.loadServices(new String[]{"co.edu.escuelaing.microsptingboot.controller.GreetingController"});
+        Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
+        processRequestMethod.setAccessible(true);
+
+        for (String n : new String[]{"abc", "-1", "100001", "99999999999"}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            processRequestMethod.invoke(null, new HttpRequest(new URI("/app/count?n=" + n)), out);
+
+            assertTrue(out.toString(StandardCharsets.US_ASCII).startsWith("HTTP/1.1 400 Bad Request\r\n"), n);
+        }
+    }
+
+    @Test
+    public void testControllerWritesToOutputStream() throws Exception {
+        HttpServer.services.put("/write", HttpServerTest.class.getMethod("writeChunks", HttpResponse.class));
+        Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
+        processRequestMethod.setAccessible(true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        processRequestMethod.invoke(null, new HttpRequest(new URI("/app/write")), out);
+
+        // Lo que ya estaba en el buffer sale como primer chunk
+        assertEquals("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nTransfer-Encoding: chunked\r\n"
+                + "Connection: keep-alive\r\n\r\n4\r\nuno,\r\n4\r\ndos,\r\n4\r\ntres\r\n0\r\n\r\n", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testStreamedResponseOverTheSocket() throws Exception {
+        Thread serverThread = startTestServer();
+        try {
+            int port = waitForServerPort();
+            String response = exchange(port, "GET /app/count?n=5000 HTTP/1.1\r\n\r\n"
+                    + "GET /app/status HTTP/1.1\r\nConnection: close\r\n\r\n");
+            assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+            assertTrue(response.contains("Transfer-Encoding: chunked\r\n"));
+            assertFalse(response.substring(0, response.indexOf("\r\n\r\n")).contains("Content-Length"));
+            int last = response.indexOf("\r\n5000\n\r\n0\r\n\r\nHTTP/1.1 200 OK");
+            assertTrue(last > 0, "El cuerpo chunked termina antes de la siguiente respuesta");
+            assertTrue(response.endsWith("El servidor está funcionando correctamente"));
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+    }
+
+    @Test
+    public void testStreamedResponseForHttp10() throws Exception {
+        Thread serverThread = startTestServer();
+        try {
+            int port = waitForServerPort();
+            // HTTP/1.0 no tiene chunks: el cuerpo termina al cerrar la conexión
+            String response = exchange(port, "GET /app/count?n=3 HTTP/1.0\r\n\r\n");
+            assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+            assertFalse(response.contains("Transfer-Encoding"));
+            assertTrue(response.contains("Connection: close\r\n"));
+            assertTrue(response.endsWith("\r\n\r\n1\n2\n3\n"));
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+    }
+
+    @Test
+    public void testInvalidParameterIsBadRequest() throws Exception {
+        HttpServer.loadServices(new String[]{"co.edu.escuelaing.microsptingboot.controller.CalcuteController"});
+        Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
+        processRequestMethod.setAccessible(true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        processRequestMethod.invoke(null, new HttpRequest(new URI("/app/calculate/suma?a=abc&b=5")), out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("HTTP/1.1 400 Bad Request"));
+
+        out.reset();
+        processRequestMethod.invoke(null, new HttpRequest(new URI("/app/calculate/division?a=9&b=3")), out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("La división de 9 / 3 = 3"));
+    }
+
+    @Test
+    public void testControllerReturnsJson() throws Exception {
+        HttpServer.loadServices(new String[]{"co.edu.escuelaing.microsptingboot.controller.GreetingController"});
+        Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
+        processRequestMethod.setAccessible(true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        processRequestMethod.invoke(null, new HttpRequest(new URI("/app/greeting/json?name=Ana")), out);
+
+        String response = out.toString(StandardCharsets.UTF_8);
+        assertTrue(response.startsWith("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\n"));
+        assertTrue(response.matches("(?s).*\r\n\r\n\\{\"id\":\\d+,\"content\":\"Hola Ana\"\\}"), response);
+    }
+
+    private static final AtomicInteger squareCalls = new AtomicInteger();
+    private static volatile CountDownLatch squareGate = new CountDownLatch(0);
+
+    /**
+     * Controlador de prueba con caché que cuenta sus invocaciones
+     */
+    @Cacheable
+    public static String square(@RequestParam(value = "n", defaultValue = "0") int n) throws InterruptedException {
+        squareCalls.incrementAndGet();
+        squareGate.await();
+        return n + "^2 = " + n * n;
+    }
+
+    @Test
+    public void testCacheableResponseIsReused() throws Exception {
+        HttpServer.configureResponseCache(100, 1024 * 1024);
+        HttpServer.services.put("/square", HttpServerTest.class.getMethod("square", int.class));
+        Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
+        processRequestMethod.setAccessible(true);
+        squareCalls.set(0);
+        try {
+            ByteArrayOutputStream first = new ByteArrayOutputStream();
+            processRequestMethod.invoke(null, new HttpRequest(new URI("/app/square?n=5")), first);
+            ByteArrayOutputStream second = new ByteArrayOutputStream();
+            // El mismo valor escrito de otra forma usa la misma entrada
+            processRequestMethod.invoke(null, new HttpRequest(new URI("/app/square?n=05")), second);
+
+            assertEquals(1, squareCalls.get());
+            assertTrue(first.toString(StandardCharsets.UTF_8).endsWith("\r\n\r\n5^2 = 25"));
+            assertArrayEquals(first.toByteArray(), second.toByteArray());
+
+            ByteArrayOutputStream other = new ByteArrayOutputStream();
+            processRequestMethod.invoke(null, new HttpRequest(new URI("/app/square?n=6")), other);
+            assertEquals(2, squareCalls.get());
+            assertTrue(other.toString(StandardCharsets.UTF_8).endsWith("6^2 = 36"));
+
+            // Un parámetro inválido no pasa por la caché
+            other.reset();
+            processRequestMethod.invoke(null, new HttpRequest(new URI("/app/square?n=x")), other);
+            assertTrue(other.toString(StandardCharsets.UTF_8).startsWith("HTTP/1.1 400 Bad Request"));
+        } finally {
+            HttpServer.configureResponseCache(ResponseCache.DEFAULT_MAX_ENTRIES, ResponseCache.DEFAULT_MAX_BYTES);
+        }
+    }
+
+    @Test
+    public void testConcurrentMissesInvokeTheControllerOnce() throws Exception {
+        HttpServer.configureResponseCache(100, 1024 * 1024);
+        HttpServer.services.put("/square", HttpServerTest.class.getMethod("square", int.class));
+        Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
+        processRequestMethod.setAccessible(true);
+        squareCalls.set(0);
+        squareGate = new CountDownLatch(1);
+        try {
+            ByteArrayOutputStream[] outputs = new ByteArrayOutputStream[8];
+            Thread[] clients = new Thread[outputs.length];
+            for (int i = 0; i < clients.length; i++) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                outputs[i] = out;
+                clients[i] = Thread.ofVirtual().start(() -> {
+                    try {
+                        processRequestMethod.invoke(null, new HttpRequest(new URI("/app/square?n=7")), out);
+                    } catch (ReflectiveOperationException | URISyntaxException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }
+            for (int i = 0; i < 100 && squareCalls.get() == 0; i++) {
+                Thread.sleep(10);
+            }
+            // Los demás esperan la respuesta de la primera invocación
+            Thread.sleep(100);
+            squareGate.countDown();
+            for (Thread client : clients) {
+                client.join(5000);
+            }
+
+            assertEquals(1, squareCalls.get());
+            for (ByteArrayOutputStream out : outputs) {
+                assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("7^2 = 49"));
+            }
+        } finally {
+            squareGate.countDown();
+            squareGate = new CountDownLatch(0);
+            HttpServer.configureResponseCache(ResponseCache.DEFAULT_MAX_ENTRIES, ResponseCache.DEFAULT_MAX_BYTES);
+        }
+    }
+
+    @Test
+    public void testConfigureResponseCacheRejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureResponseCache(0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureResponseCache(10, 0));
+    }
+
+    @Test
+    public void testConfigureFileTransferRejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureFileTransfer(-1, 8));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureFileTransfer(Integer.MAX_VALUE + 1L, 8));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureFileTransfer(1024, 0));
+    }
+
+    @Test
+    public void testMethodNotAllowed() throws Exception {
+        HttpServer.loadServices(new String[]{"co.edu.escuelaing.microsptingboot.controller.GreetingController"});
+        Method processRequestMethod = HttpServer.class.getDeclaredMethod("processRequest", HttpRequest.class, OutputStream.class);
+        processRequestMethod.setAccessible(true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HttpRequest delete = new HttpRequest("DELETE", "/app/greeting", null, "HTTP/1.1", Map.of());
+        processRequestMethod.invoke(null, delete, out);
+        String response = out.toString(StandardCharsets.UTF_8);
+        assertTrue(response.startsWith("HTTP/1.1 405 Method Not Allowed"));
+        assertTrue(response.contains("Allow: GET, POST\r\n"));
+
+        out.reset();
+        processRequestMethod.invoke(null, new HttpRequest("DELETE", "/app/nada", null, "HTTP/1.1", Map.of()), out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("HTTP/1.1 404 Not Found"));
+    }
+
+    @Test
+    public void testConfigureRequestBodyRejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureRequestBody(0));
+    }
+
+    @Test
+    public void testMetricsEndpoint() throws Exception {
+        Thread serverThread = startTestServer();
+
+        try {
+            int port = waitForServerPort();
+            long sentBefore = HttpServer.metrics().bytesSent();
+
+            String greeting = exchange(port, "GET /app/greeting?name=Ana HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+            assertTrue(greeting.startsWith("HTTP/1.1 200 OK"));
+            exchange(port, "GET /app/nada HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+
+            String response = exchange(port, "GET /metrics HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+            assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+            assertTrue(response.contains("Content-Type: " + Metrics.CONTENT_TYPE + "\r\n"));
+            assertTrue(response.contains("http_requests_total{method=\"GET\",route=\"/app/greeting\",status=\"2xx\"} 1\n"));
+            assertTrue(response.contains("http_request_duration_seconds_count{method=\"GET\",route=\"/app/greeting\"} 1\n"));
+            assertTrue(response.contains("http_requests_total{method=\"\",route=\"unmatched\",status=\"4xx\"}"));
+            // La conexión del scrape está abierta mientras se responde
+            assertFalse(response.contains("http_connections_active 0\n"));
+            assertTrue(HttpServer.metrics().bytesSent() - sentBefore >= greeting.length());
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+        }
+    }
+
+    @Test
+    public void testConfigureMetricsRejectsInvalidPath() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureMetrics("metrics"));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureMetrics("/app/metrics"));
+    }
+
+    @Test
+    public void testAccessLogFile() throws Exception {
+        Path file = tempDir.resolve("logs/access.log");
+        HttpServer.configureAccessLog(HttpServer.AccessLogLevel.ALL, file.toString());
+        Thread serverThread = startTestServer();
+
+        try {
+            int port = waitForServerPort();
+            String response = exchange(port, "GET /app/greeting?name=Ana HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+            assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+            HttpServer.configureAccessLog(HttpServer.AccessLogLevel.ALL, null);
+        }
+
+        // El query no se registra
+        String log = Files.readString(file);
+        assertTrue(log.matches("(?s).*Z GET /app/greeting 200 \\d+ \\d+\n.*"), log);
+        assertFalse(log.contains("name=Ana"));
+    }
+
+    @Test
+    public void testConfigureAccessLogRejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureAccessLog(null, null));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureAccessLog(HttpServer.AccessLogLevel.ALL, " "));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureAccessLogRotation(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureAccessLogRotation(1024, 0));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureAccessLogBuffer(0, false));
+    }
+
+    private String exchange(int port, String requests) throws IOException {
+        try (Socket client = new Socket("localhost", port)) {
+            client.setSoTimeout(5000);
+            client.getOutputStream().write(requests.getBytes(StandardCharsets.UTF_8));
+            client.getOutputStream().flush();
+            return new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testConfigureKeepAliveRejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureKeepAlive(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureKeepAlive(1000, 0));
+    }
+
+    @Test
+    public void testConfigureCompressionRejectsNegativeSize() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureCompression(true, -1));
+    }
+
+    @Test
+    public void testConfigureCacheControlRejectsEmptyExtension() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureCacheControl("", 60));
+    }
+
+    @Test
+    public void testConfigureListenerAndSocketOptionsRejectInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureListener(null, -1));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureListener(null, 70_000));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureListener("no-existe.invalid", 8080));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureAcceptors(0, true));
+        // Varios acceptors solo tienen sentido con SO_REUSEPORT
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureAcceptors(2, false));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureSocketOptions(true, -1, 0));
+    }
+
+    @Test
+    public void testConfigureConcurrencyRejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureConcurrency(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> HttpServer.configureConcurrency(10, 0));
+    }
+
+    private Thread startTestServer() {
+        Thread serverThread = new Thread(() -> {
+            try {
+                HttpServer.startServer(new String[]{"co.edu.escuelaing.microsptingboot.controller.GreetingController"}, 0);
+            } catch (IOException e) {
+                fail("No se pudo iniciar el servidor: " + e.getMessage());
+            }
+        });
+        serverThread.start();
+        return serverThread;
+    }
+
+    private int waitForServerPort() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (HttpServer.isRunning() && HttpServer.getLocalPort() > 0) {
+                return HttpServer.getLocalPort();
+            }
+            Thread.sleep(50);
+        }
+        fail("El servidor no inició a tiempo");
+        return -1;
+    }
 }
@@ -0,0 +1,140 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Pruebas unitarias para JsonSerializer y JsonWriter
+ *
+ * @author Sebastian
+ */
+public class JsonSerializerTest {
+
+    public enum Estado {
+        ACTIVO, INACTIVO
+    }
+
+    public record Punto(int x, long y, double z, boolean visible, String nombre) {
+    }
+
+    public record Pedido(String id, List<Punto> puntos, Estado estado, Optional<String> nota, Map<String, Integer> cantidades) {
+    }
+
+    public static class Persona {
+
+        public int edad = 30;
+
+        public String getNombre() {
+            return "Ana";
+        }
+
+        public boolean isActiva() {
+            return true;
+        }
+
+        public String getURL() {
+            return "http://x";
+        }
+
+        public static String getIgnorado() {
+            return "no";
+        }
+    }
+
+    public static class Empleado extends Persona {
+
+        public String getCargo() {
+            return "dev";
+        }
+    }
+
+    public static class Nodo {
+
+        public Nodo siguiente;
+    }
+
+    private static String json(Object value) {
+        HttpResponse response = new HttpResponse();
+        response.writeJson(value);
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testRecord() {
+        assertEquals("{\"x\":1,\"y\":-9000000000,\"z\":2.5,\"visible\":true,\"nombre\":\"a\"}",
+                json(new Punto(1, -9_000_000_000L, 2.5, true, "a")));
+    }
+
+    @Test
+    public void testNestedValues() {
+        Map<String, Integer> cantidades = new LinkedHashMap<>();
+        cantidades.put("a", 1);
+        cantidades.put("b", null);
+        Pedido pedido = new Pedido("p1", List.of(new Punto(0, 0, 0.1, false, null)), Estado.ACTIVO, Optional.empty(), cantidades);
+
+        assertEquals("{\"id\":\"p1\",\"puntos\":[{\"x\":0,\"y\":0,\"z\":0.1,\"visible\":false,\"nombre\":null}],"
+                + "\"estado\":\"ACTIVO\",\"nota\":null,\"cantidades\":{\"a\":1,\"b\":null}}", json(pedido));
+    }
+
+    @Test
+    public void testBeanProperties() {
+        // Getters y campos públicos, ordenados por nombre
+        assertEquals("{\"URL\":\"http://x\",\"activa\":true,\"edad\":30,\"nombre\":\"Ana\"}", json(new Persona()));
+        assertEquals("{\"URL\":\"http://x\",\"activa\":true,\"cargo\":\"dev\",\"edad\":30,\"nombre\":\"Ana\"}", json(new Empleado()));
+    }
+
+    @Test
+    public void testScalarsAndArrays() {
+        assertEquals("null", json(null));
+        assertEquals("[1,2,3]", json(new int[]{1, 2, 3}));
+        assertEquals("[-9223372036854775808,9223372036854775807]", json(new long[]{Long.MIN_VALUE, Long.MAX_VALUE}));
+        assertEquals("[1,0.5,null,null,1.0E20]", json(new double[]{1.0, 0.5, Double.NaN, Double.POSITIVE_INFINITY, 1e20}));
+        assertEquals("[true,\"x\",7,\"2024-01-31\",3.14]", json(new Object[]{true, 'x', (short) 7, LocalDate.of(2024, 1, 31), new BigDecimal("3.14")}));
+        assertEquals("[\"INACTIVO\"]", json(List.of(Estado.INACTIVO)));
+    }
+
+    @Test
+    public void testStringEscapes() {
+        assertEquals("\"a\\\"b\\\\c\\n\\t\\u0001\"", json("a\"b\\c\n\t\u0001"));
+        assertEquals("\"ñandú 😀\"", json("ñandú 😀"));
+        // Un surrogate sin pareja se escribe como escape
+        assertEquals("\"\\ud800x\"", json("\ud800x"));
+    }
+
+    @Test
+    public void testLargeValuesGrowTheBuffer() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            values.add("valor-" + i + "-ñ");
+        }
+        String expected = "[\"" + String.join("\",\"", values) + "\"]";
+
+        assertEquals(expected, json(values));
+    }
+
+    @Test
+    public void testJsonIsAppendedToTheBody() {
+        HttpResponse response = new HttpResponse();
+        response.write("datos=");
+        response.writeJson(new int[]{1});
+
+        assertEquals("datos=[1]", new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCircularReferenceFails() {
+        Nodo nodo = new Nodo();
+        nodo.siguiente = nodo;
+
+        assertThrows(IllegalStateException.class, () -> json(nodo));
+    }
+}
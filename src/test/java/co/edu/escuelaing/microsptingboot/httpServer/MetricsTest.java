@@ -0,0 +1,131 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pruebas unitarias para Metrics
+ *
+ * @author Sebastian
+ */
+public class MetricsTest {
+
+    private static final String GREETING = "method=\"GET\",route=\"/app/greeting\"";
+
+    @Test
+    public void testRecordCountsStatusClasses() {
+        Metrics.Route route = new Metrics.Route();
+        route.record(200, 1_000);
+        route.record(204, 1_000);
+        route.record(404, 1_000);
+        route.record(503, 1_000);
+        route.record(0, 1_000);
+
+        assertEquals(2, route.count("2xx"));
+        assertEquals(1, route.count("4xx"));
+        assertEquals(1, route.count("5xx"));
+        assertEquals(1, route.count("other"));
+        assertEquals(5, route.count());
+    }
+
+    @Test
+    public void testHistogramBucketsAreCumulative() {
+        Metrics metrics = new Metrics();
+        Metrics.Route route = new Metrics.Route();
+        route.record(200, TimeUnit.MICROSECONDS.toNanos(30));
+        // El límite es inclusivo: 1 ms cae en la cubeta le="0.001"
+        route.record(200, TimeUnit.MILLISECONDS.toNanos(1));
+        route.record(200, TimeUnit.MILLISECONDS.toNanos(3));
+        route.record(200, TimeUnit.SECONDS.toNanos(30));
+
+        String text = metrics.render(List.of(new Metrics.LabeledRoute("GET", "/app/greeting", route)),
+                new StaticFileCache(), new ResponseCache());
+
+        assertTrue(text.contains("# TYPE http_request_duration_seconds histogram\n"));
+        assertTrue(text.contains("http_request_duration_seconds_bucket{" + GREETING + ",le=\"0.00005\"} 1\n"));
+        assertTrue(text.contains("http_request_duration_seconds_bucket{" + GREETING + ",le=\"0.001\"} 2\n"));
+        assertTrue(text.contains("http_request_duration_seconds_bucket{" + GREETING + ",le=\"0.005\"} 3\n"));
+        assertTrue(text.contains("http_request_duration_seconds_bucket{" + GREETING + ",le=\"10\"} 3\n"));
+        assertTrue(text.contains("http_request_duration_seconds_bucket{" + GREETING + ",le=\"+Inf\"} 4\n"));
+        assertTrue(text.contains("http_request_duration_seconds_count{" + GREETING + "} 4\n"));
+        assertTrue(text.contains("http_request_duration_seconds_sum{" + GREETING + "} 30.00403\n"));
+        assertTrue(text.contains("http_requests_total{" + GREETING + ",status=\"2xx\"} 4\n"));
+        // Las clases de estado sin solicitudes no se exponen
+        assertFalse(text.contains("http_requests_total{" + GREETING + ",status=\"5xx\"}"));
+    }
+
+    @Test
+    public void testRequestsWithoutEndpointUsePseudoRoutes() {
+        Metrics metrics = new Metrics();
+        HttpRequest file = new HttpRequest("GET", "/index.html", null, "HTTP/1.1", Map.of());
+        file.setResponseStatus(200);
+        HttpRequest missing = new HttpRequest("GET", "/app/nada", null, "HTTP/1.1", Map.of());
+        missing.setResponseStatus(404);
+        HttpRequest routed = new HttpRequest("GET", "/app/greeting", null, "HTTP/1.1", Map.of());
+        Metrics.Route greeting = new Metrics.Route();
+        routed.setRouteMetrics(greeting);
+        routed.setResponseStatus(200);
+
+        metrics.record(file, 1_000);
+        metrics.record(missing, 1_000);
+        metrics.record(routed, 1_000);
+
+        assertEquals(1, metrics.staticFiles().count("2xx"));
+        assertEquals(1, metrics.unmatched().count("4xx"));
+        assertEquals(1, greeting.count("2xx"));
+        String text = metrics.render(List.of(), new StaticFileCache(), new ResponseCache());
+        assertTrue(text.contains("http_requests_total{method=\"\",route=\"static\",status=\"2xx\"} 1\n"));
+        assertTrue(text.contains("http_requests_total{method=\"\",route=\"unmatched\",status=\"4xx\"} 1\n"));
+    }
+
+    @Test
+    public void testConnectionsAndBytes() {
+        Metrics metrics = new Metrics();
+        metrics.connectionOpened();
+        metrics.connectionOpened();
+        metrics.connectionClosed();
+        metrics.addBytesReceived(120);
+        metrics.addBytesSent(4096);
+
+        String text = metrics.render(List.of(), new StaticFileCache(), new ResponseCache());
+        assertTrue(text.contains("# TYPE http_connections_active gauge\nhttp_connections_active 1\n"));
+        assertTrue(text.contains("http_connections_total 2\n"));
+        assertTrue(text.contains("http_received_bytes_total 120\n"));
+        assertTrue(text.contains("http_sent_bytes_total 4096\n"));
+        assertTrue(text.contains("static_cache_requests_total{result=\"hit\"} 0\n"));
+        assertTrue(text.contains("response_cache_requests_total{result=\"miss\"} 0\n"));
+    }
+
+    @Test
+    public void testRouteLabelsAreEscaped() {
+        Metrics metrics = new Metrics();
+        Metrics.Route route = new Metrics.Route();
+        route.record(200, 1_000);
+
+        String text = metrics.render(List.of(new Metrics.LabeledRoute("GET", "/app/a\"b\\c", route)),
+                new StaticFileCache(), new ResponseCache());
+        assertTrue(text.contains("route=\"/app/a\\\"b\\\\c\""));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        Metrics.Route route = new Metrics.Route();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = Thread.ofPlatform().start(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    route.record(200, j);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80_000, route.count("2xx"));
+        assertEquals(80_000, route.count());
+    }
+}
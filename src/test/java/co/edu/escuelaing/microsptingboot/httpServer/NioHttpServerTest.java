@@ -0,0 +1,353 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import co.edu.escuelaing.microsptingboot.annotations.Cacheable;
+import co.edu.escuelaing.microsptingboot.annotations.RequestParam;
+
+/**
+ * Pruebas del motor NIO de HttpServer
+ *
+ * @author Sebastian
+ */
+public class NioHttpServerTest {
+
+    private Thread serverThread;
+
+    @BeforeEach
+    public void setUp() throws InterruptedException {
+        HttpServer.services.clear();
+        HttpServer.configureEngine(HttpServer.Engine.NIO, 2);
+
+        serverThread = new Thread(() -> {
+            try {
+                HttpServer.startServer(new String[]{"co.edu.escuelaing.microsptingboot.controller.GreetingController"}, 0);
+            } catch (IOException e) {
+                fail("No se pudo iniciar el servidor: " + e.getMessage());
+            }
+        });
+        serverThread.start();
+
+        for (int i = 0; i < 100 && !(HttpServer.isRunning() && HttpServer.getLocalPort() > 0); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(HttpServer.isRunning(), "El servidor no inició a tiempo");
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        HttpServer.stopServer();
+        serverThread.join(5000);
+        HttpServer.configureEngine(HttpServer.Engine.BLOCKING, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    public void testSimpleRequest() throws IOException {
+        String response = send("GET /app/status HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+        assertTrue(response.contains("El servidor está funcionando correctamente"));
+    }
+
+    @Test
+    public void testPipelinedRequestsAreAnsweredInOrder() throws IOException {
+        String response = send("GET /app/greeting?name=Uno HTTP/1.1\r\n\r\n"
+                + "GET /app/greeting?name=Dos HTTP/1.1\r\n\r\n"
+                + "GET /app/greeting?name=Tres HTTP/1.1\r\nConnection: close\r\n\r\n");
+
+        int first = response.indexOf("Hola Uno");
+        int second = response.indexOf("Hola Dos");
+        int third = response.indexOf("Hola Tres");
+        assertTrue(first > 0);
+        assertTrue(second > first);
+        assertTrue(third > second);
+    }
+
+    @Test
+    public void testRequestSplitAcrossSegments() throws IOException, InterruptedException {
+        try (Socket client = new Socket("localhost", HttpServer.getLocalPort())) {
+            client.setSoTimeout(5000);
+            OutputStream out = client.getOutputStream();
+            out.write("GET /app/greeting?na".getBytes());
+            out.flush();
+            Thread.sleep(100);
+            out.write("me=Partido HTTP/1.1\r\nConnection: cl".getBytes());
+            out.flush();
+            Thread.sleep(100);
+            out.write("ose\r\n\r\n".getBytes());
+            out.flush();
+
+            String response = new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(response.contains("Hola Partido"));
+        }
+    }
+
+    @Test
+    public void testManyIdleConnections() throws IOException {
+        List<Socket> idle = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                idle.add(new Socket("localhost", HttpServer.getLocalPort()));
+            }
+            String response = send("GET /app/status HTTP/1.1\r\nConnection: close\r\n\r\n");
+            assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+        } finally {
+            for (Socket socket : idle) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    public void testLargeImageIsTransferred(@TempDir Path tempDir) throws Exception {
+        var basePath = HttpServer.class.getDeclaredField("basePath");
+        basePath.setAccessible(true);
+        Object original = basePath.get(null);
+        basePath.set(null, tempDir.toString() + "/");
+        try {
+            Files.createDirectories(tempDir.resolve("images"));
+            byte[] large = new byte[4 * 1024 * 1024];
+            new Random(3).nextBytes(large);
+            Files.write(tempDir.resolve("images/large.png"), large);
+
+            try (Socket client = new Socket("localhost", HttpServer.getLocalPort())) {
+                client.setSoTimeout(5000);
+                client.getOutputStream().write("GET /images/large.png HTTP/1.1\r\nConnection: close\r\n\r\n".getBytes());
+                byte[] response = client.getInputStream().readAllBytes();
+                byte[] body = Arrays.copyOfRange(response, response.length - large.length, response.length);
+                assertArrayEquals(large, body);
+                String head = new String(response, 0, 200, StandardCharsets.ISO_8859_1);
+                assertTrue(head.contains("Content-Length: " + large.length));
+                // El ETag sale de la fecha y el tamaño: el archivo no se hashea en el event loop
+                long lastModified = Files.getLastModifiedTime(tempDir.resolve("images/large.png")).toMillis();
+                assertTrue(head.contains("ETag: " + ETagCache.fromAttributes(lastModified, large.length) + "\r\n"), head);
+            }
+        } finally {
+            basePath.set(null, original);
+        }
+    }
+
+    @Test
+    public void testLargeTextFileIsNotCompressedOnEventLoop(@TempDir Path tempDir) throws Exception {
+        var basePath = HttpServer.class.getDeclaredField("basePath");
+        basePath.setAccessible(true);
+        Object original = basePath.get(null);
+        basePath.set(null, tempDir.toString() + "/");
+        HttpServer.configureStaticCache(8192, 1024);
+        try {
+            String html = "<html><body>" + "<p>Archivo grande</p>".repeat(200) + "</body></html>";
+            Files.writeString(tempDir.resolve("grande.html"), html);
+
+            String response = send("GET /grande.html HTTP/1.1\r\nAccept-Encoding: gzip\r\nConnection: close\r\n\r\n");
+
+            String head = response.substring(0, response.indexOf("\r\n\r\n") + 4);
+            assertTrue(head.contains("Content-Length: " + html.length() + "\r\n"), head);
+            assertTrue(head.contains("Vary: Accept-Encoding\r\n"));
+            assertFalse(head.contains("Content-Encoding"));
+            assertTrue(response.endsWith(html));
+        } finally {
+            HttpServer.configureStaticCache(StaticFileCache.DEFAULT_MAX_BYTES, StaticFileCache.DEFAULT_MAX_ENTRY_BYTES);
+            basePath.set(null, original);
+        }
+    }
+
+    @Test
+    public void testHeadSendsHeadersWithoutBody() throws IOException {
+        String response = send("HEAD /app/greeting?name=x HTTP/1.1\r\n\r\n"
+                + "HEAD /app/count?n=3 HTTP/1.1\r\n\r\n"
+                + "GET /app/greeting?name=y HTTP/1.1\r\nConnection: close\r\n\r\n");
+
+        String[] responses = response.split("(?=HTTP/1\\.1 )");
+        assertEquals(3, responses.length, response);
+        assertTrue(responses[0].contains("Content-Length: 6\r\n"));
+        assertTrue(responses[0].endsWith("\r\n\r\n"));
+        assertTrue(responses[1].contains("Transfer-Encoding: chunked\r\n"));
+        assertTrue(responses[1].endsWith("\r\n\r\n"));
+        assertFalse(response.contains("Hola x"));
+        assertTrue(responses[2].endsWith("Hola y"));
+    }
+
+    @Test
+    public void testPostBodies() throws IOException {
+        String response = send("POST /app/greeting HTTP/1.1\r\nContent-Length: 3\r\n\r\nAna"
+                + "POST /app/greeting HTTP/1.1\r\nTransfer-Encoding: chunked\r\nConnection: close\r\n\r\n"
+                + "2\r\nLu\r\n2\r\nis\r\n0\r\n\r\n");
+
+        int first = response.indexOf("Hola Ana");
+        assertTrue(first > 0);
+        assertTrue(response.indexOf("Hola Luis") > first);
+    }
+
+    @Test
+    public void testChunkedBodySplitAcrossSegments() throws IOException, InterruptedException {
+        try (Socket client = new Socket("localhost", HttpServer.getLocalPort())) {
+            client.setSoTimeout(5000);
+            OutputStream out = client.getOutputStream();
+            out.write("PUT /app/upload HTTP/1.1\r\nTransfer-Encoding: chunked\r\nConnection: close\r\n\r\n".getBytes());
+            byte[] chunk = new byte[40_000];
+            for (int i = 0; i < 3; i++) {
+                out.write((Integer.toHexString(chunk.length) + "\r\n").getBytes());
+                out.flush();
+                Thread.sleep(20);
+                out.write(chunk);
+                out.write("\r\n".getBytes());
+            }
+            out.write("0\r\n\r\n".getBytes());
+            out.flush();
+
+            String response = new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(response.endsWith("Recibidos 120000 bytes"));
+        }
+    }
+
+    @Test
+    public void testLargeContentLengthBodyGrowsAsItArrives() throws IOException, InterruptedException {
+        // El buffer empieza en INITIAL_BODY_SIZE y crece hasta el Content-Length
+        int length = NioHttpServer.INITIAL_BODY_SIZE * 6 + 123;
+        try (Socket client = new Socket("localhost", HttpServer.getLocalPort())) {
+            client.setSoTimeout(5000);
+            OutputStream out = client.getOutputStream();
+            out.write(("PUT /app/upload HTTP/1.1\r\nContent-Length: " + length + "\r\nConnection: close\r\n\r\n").getBytes());
+            out.flush();
+            byte[] part = new byte[length / 3];
+            for (int i = 0; i < 3; i++) {
+                Thread.sleep(20);
+                out.write(part);
+                out.flush();
+            }
+            out.write(new byte[length - 3 * part.length]);
+            out.flush();
+
+            String response = new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(response.endsWith("Recibidos " + length + " bytes"), response);
+        }
+    }
+
+    @Test
+    public void testBodyOverLimit() throws IOException {
+        HttpServer.configureRequestBody(16);
+        try {
+            assertTrue(send("POST /app/greeting HTTP/1.1\r\nContent-Length: 17\r\n\r\n")
+                    .startsWith("HTTP/1.1 413 Content Too Large"));
+            assertTrue(send("POST /app/greeting HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n11\r\n" + "x".repeat(17) + "\r\n0\r\n\r\n")
+                    .startsWith("HTTP/1.1 413 Content Too Large"));
+        } finally {
+            HttpServer.configureRequestBody(10L * 1024 * 1024);
+        }
+    }
+
+    /**
+     * Controlador de prueba que publica elementos desde otro hilo, con pausas
+     */
+    public static Flow.Publisher<String> ticks() {
+        SubmissionPublisher<String> publisher = new SubmissionPublisher<>();
+        Thread.ofVirtual().start(() -> {
+            try (publisher) {
+                for (int i = 0; i < 5; i++) {
+                    Thread.sleep(20);
+                    publisher.submit("tick" + i + ";");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return publisher;
+    }
+
+    @Test
+    public void testStreamedResponse() throws IOException {
+        String response = send("GET /app/count?n=20000 HTTP/1.1\r\n\r\n"
+                + "GET /app/status HTTP/1.1\r\nConnection: close\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+        assertTrue(response.contains("Transfer-Encoding: chunked\r\n"));
+        assertTrue(response.indexOf("\r\n20000\n\r\n0\r\n\r\nHTTP/1.1 200 OK") > 0);
+        assertTrue(response.endsWith("El servidor está funcionando correctamente"));
+    }
+
+    @Test
+    public void testPublisherResumesTheConnection() throws Exception {
+        HttpServer.services.put("/ticks", NioHttpServerTest.class.getMethod("ticks"));
+
+        String response = send("GET /app/ticks HTTP/1.1\r\nConnection: close\r\n\r\n");
+
+        assertTrue(response.contains("Transfer-Encoding: chunked\r\n"));
+        assertTrue(response.endsWith("6\r\ntick0;\r\n6\r\ntick1;\r\n6\r\ntick2;\r\n"
+                + "6\r\ntick3;\r\n6\r\ntick4;\r\n0\r\n\r\n"));
+    }
+
+    private static final AtomicInteger slowCalls = new AtomicInteger();
+    private static volatile CountDownLatch slowGate = new CountDownLatch(0);
+
+    /**
+     * Controlador de prueba con caché cuya primera invocación espera la compuerta
+     */
+    @Cacheable
+    public static String slow(@RequestParam(value = "n", defaultValue = "0") int n) throws InterruptedException {
+        if (slowCalls.incrementAndGet() == 1) {
+            slowGate.await();
+        }
+        return "lento " + n;
+    }
+
+    @Test
+    public void testCacheMissDoesNotWaitForAnotherEventLoop() throws Exception {
+        HttpServer.services.put("/slow", NioHttpServerTest.class.getMethod("slow", int.class));
+        slowCalls.set(0);
+        slowGate = new CountDownLatch(1);
+        try (Socket first = new Socket("localhost", HttpServer.getLocalPort())) {
+            first.setSoTimeout(5000);
+            first.getOutputStream().write("GET /app/slow?n=1 HTTP/1.1\r\nConnection: close\r\n\r\n".getBytes());
+            first.getOutputStream().flush();
+            for (int i = 0; i < 100 && slowCalls.get() == 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, slowCalls.get());
+
+            // La conexión va al otro event loop: con la clave cargándose no se queda esperando
+            String response = send("GET /app/slow?n=1 HTTP/1.1\r\nConnection: close\r\n\r\n");
+            assertTrue(response.endsWith("lento 1"));
+            assertEquals(2, slowCalls.get());
+
+            slowGate.countDown();
+            assertTrue(new String(first.getInputStream().readAllBytes(), StandardCharsets.UTF_8).endsWith("lento 1"));
+        } finally {
+            slowGate.countDown();
+        }
+    }
+
+    @Test
+    public void testMalformedRequestLine() throws IOException {
+        String response = send("BASURA\r\n\r\n");
+
+        assertTrue(response.startsWith("HTTP/1.1 400 Bad Request"));
+    }
+
+    private String send(String request) throws IOException {
+        try (Socket client = new Socket("localhost", HttpServer.getLocalPort())) {
+            client.setSoTimeout(5000);
+            client.getOutputStream().write(request.getBytes(StandardCharsets.UTF_8));
+            client.getOutputStream().flush();
+            return new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
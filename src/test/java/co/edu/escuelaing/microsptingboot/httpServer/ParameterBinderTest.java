@@ -0,0 +1,118 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import co.edu.escuelaing.microsptingboot.annotations.PathVariable;
+import co.edu.escuelaing.microsptingboot.annotations.RequestParam;
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * Pruebas unitarias para ParameterBinder
+ *
+ * @author Sebastian
+ */
+public class ParameterBinderTest {
+
+    public enum Color {
+        ROJO, VERDE
+    }
+
+    public static String primitives(
+            @RequestParam(value = "i", defaultValue = "1") int i,
+            @RequestParam(value = "l", defaultValue = "2") long l,
+            @RequestParam(value = "d", defaultValue = "0.5") double d,
+            @RequestParam(value = "b", defaultValue = "false") boolean b) {
+        return i + "," + l + "," + d + "," + b;
+    }
+
+    public static String wrappers(
+            @RequestParam(value = "i", defaultValue = "") Integer i,
+            @RequestParam(value = "c", defaultValue = "VERDE") Color c,
+            @RequestParam(value = "o", defaultValue = "") Optional<Long> o,
+            @RequestParam(value = "s", defaultValue = "") Optional<String> s) {
+        return i + "," + c + "," + o + "," + s;
+    }
+
+    public static int required(@RequestParam(value = "n", defaultValue = "") int n) {
+        return n;
+    }
+
+    public static long path(@PathVariable("id") long id) {
+        return id;
+    }
+
+    public static int badDefault(@RequestParam(value = "n", defaultValue = "x") int n) {
+        return n;
+    }
+
+    public static Object unsupported(@RequestParam(value = "n", defaultValue = "") Object n) {
+        return n;
+    }
+
+    private static Object invoke(RouteInvoker invoker, String uri) throws Throwable {
+        return invoker.invoke(new HttpRequest(new URI(uri)));
+    }
+
+    @Test
+    public void testPrimitives() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(ParameterBinderTest.class.getMethod("primitives", int.class, long.class, double.class, boolean.class));
+
+        assertEquals("1,2,0.5,false", invoke(invoker, "/app/x"));
+        assertEquals("-7,9000000000,2.25,true", invoke(invoker, "/app/x?i=-7&l=9000000000&d=2.25&b=TRUE"));
+        // Valores vacíos usan el valor por defecto; los escapes se decodifican antes de convertir
+        assertEquals("1,2,0.5,false", invoke(invoker, "/app/x?i=&l="));
+        assertEquals("-3,2,0.5,false", invoke(invoker, "/app/x?i=%2D3"));
+    }
+
+    @Test
+    public void testWrappersEnumsAndOptional() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(ParameterBinderTest.class.getMethod("wrappers", Integer.class, Color.class, Optional.class, Optional.class));
+
+        assertEquals("null,VERDE,Optional.empty,Optional.empty", invoke(invoker, "/app/x"));
+        assertEquals("4,ROJO,Optional[5],Optional[a b]", invoke(invoker, "/app/x?i=4&c=rojo&o=5&s=a+b"));
+    }
+
+    @Test
+    public void testInvalidValuesAreBadRequests() throws Throwable {
+        RouteInvoker primitives = RouteInvoker.compile(ParameterBinderTest.class.getMethod("primitives", int.class, long.class, double.class, boolean.class));
+        RouteInvoker wrappers = RouteInvoker.compile(ParameterBinderTest.class.getMethod("wrappers", Integer.class, Color.class, Optional.class, Optional.class));
+
+        for (String query : new String[]{"i=abc", "i=5.5", "i=99999999999", "l=1e3", "d=x", "b=si"}) {
+            HttpParseException e = assertThrows(HttpParseException.class, () -> invoke(primitives, "/app/x?" + query));
+            assertEquals("400 Bad Request", e.getStatus());
+        }
+        HttpParseException e = assertThrows(HttpParseException.class, () -> invoke(wrappers, "/app/x?c=azul"));
+        assertEquals("Invalid value for parameter c: azul", e.getMessage());
+        assertThrows(HttpParseException.class, () -> invoke(wrappers, "/app/x?o=x"));
+    }
+
+    @Test
+    public void testMissingPrimitiveWithoutDefault() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(ParameterBinderTest.class.getMethod("required", int.class));
+
+        assertEquals(8, invoke(invoker, "/app/x?n=8"));
+        HttpParseException e = assertThrows(HttpParseException.class, () -> invoke(invoker, "/app/x"));
+        assertEquals("Missing parameter n", e.getMessage());
+    }
+
+    @Test
+    public void testTypedPathVariable() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(ParameterBinderTest.class.getMethod("path", long.class));
+        HttpRequest request = new HttpRequest(new URI("/app/items/42"));
+        request.setPathVariables(new String[]{"id"}, new String[]{"42"});
+        assertEquals(42L, invoker.invoke(request));
+
+        request.setPathVariables(new String[]{"id"}, new String[]{"cuarenta"});
+        assertThrows(HttpParseException.class, () -> invoker.invoke(request));
+    }
+
+    @Test
+    public void testInvalidDeclarationsFailAtRegistration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RouteInvoker.compile(ParameterBinderTest.class.getMethod("badDefault", int.class)));
+        assertThrows(IllegalArgumentException.class,
+                () -> RouteInvoker.compile(ParameterBinderTest.class.getMethod("unsupported", Object.class)));
+    }
+}
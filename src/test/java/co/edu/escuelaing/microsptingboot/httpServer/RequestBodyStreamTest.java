@@ -0,0 +1,69 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Pruebas unitarias para RequestBodyStream
+ *
+ * @author Sebastian
+ */
+public class RequestBodyStreamTest {
+
+    private static RequestBodyStream body(Map<String, String> headers, InputStream in) {
+        HttpRequest request = new HttpRequest("POST", "/app/upload", null, "HTTP/1.1", headers);
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        buffer.flip();
+        return new RequestBodyStream(BodyDecoder.forRequest(request), in, buffer, null);
+    }
+
+    /**
+     * Cuerpo chunked que nunca termina: un chunk de 1 KB tras otro
+     */
+    private static InputStream endlessChunks() {
+        byte[] chunk = ("400\r\n" + "x".repeat(1024) + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() {
+                return chunk[position++ % chunk.length];
+            }
+        };
+    }
+
+    @Test
+    public void testFinishDiscardsSmallBody() throws IOException {
+        RequestBodyStream body = body(Map.of("content-length", "5"),
+                new ByteArrayInputStream("hola!".getBytes(StandardCharsets.US_ASCII)));
+
+        assertTrue(body.finish(1024));
+        assertEquals(-1, body.read());
+    }
+
+    @Test
+    public void testFinishRefusesLargeContentLengthWithoutReading() throws IOException {
+        RequestBodyStream body = body(Map.of("content-length", "10000000"), new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("No se debe leer el cuerpo");
+            }
+        });
+
+        assertFalse(body.finish(1024));
+    }
+
+    @Test
+    public void testFinishStopsEndlessChunkedBody() throws IOException {
+        RequestBodyStream body = body(Map.of("transfer-encoding", "chunked"), endlessChunks());
+
+        assertFalse(body.finish(64 * 1024));
+    }
+}
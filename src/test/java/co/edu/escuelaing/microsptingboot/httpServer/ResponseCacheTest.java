@@ -0,0 +1,199 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Pruebas unitarias para ResponseCache
+ *
+ * @author Sebastian
+ */
+public class ResponseCacheTest {
+
+    private static final long TTL = TimeUnit.MINUTES.toNanos(1);
+
+    private static ResponseCache.Entry entry(String text, long ttlNanos) {
+        HttpResponse response = new HttpResponse();
+        response.setContentType("text/plain");
+        response.write(text);
+        return ResponseCache.Entry.render(response, ttlNanos, ContentEncoding.DEFAULT_MIN_SIZE);
+    }
+
+    private static ResponseCache.Key key(Object value) throws NoSuchMethodException {
+        Method method = ResponseCacheTest.class.getDeclaredMethod("entry", String.class, long.class);
+        return ResponseCache.Key.of(method, value);
+    }
+
+    private static String render(ResponseCache.Entry entry, boolean keepAlive, String encoding) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entry.writeTo(out, keepAlive, encoding);
+        return out.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void testRenderedResponse() throws IOException {
+        ResponseCache.Entry entry = entry("Hola", TTL);
+
+        assertEquals("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: 4\r\nConnection: keep-alive\r\n\r\nHola",
+                render(entry, true, null));
+        assertTrue(render(entry, false, ContentEncoding.GZIP).endsWith("Connection: close\r\n\r\nHola"));
+    }
+
+    @Test
+    public void testCompressedVariants() throws IOException {
+        String text = "hola mundo ".repeat(200);
+        ResponseCache.Entry entry = entry(text, TTL);
+
+        String gzip = render(entry, true, ContentEncoding.GZIP);
+        assertTrue(gzip.contains("Content-Encoding: gzip\r\n"));
+        assertTrue(gzip.contains("Vary: Accept-Encoding\r\n"));
+        byte[] body = gzip.substring(gzip.indexOf("\r\n\r\n") + 4).getBytes(StandardCharsets.ISO_8859_1);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(text, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertTrue(render(entry, true, ContentEncoding.DEFLATE).contains("Content-Encoding: deflate\r\n"));
+        String identity = render(entry, true, null);
+        assertFalse(identity.contains("Content-Encoding"));
+        assertTrue(identity.endsWith(text));
+    }
+
+    @Test
+    public void testGetAndExpiry() throws Exception {
+        ResponseCache cache = new ResponseCache();
+        ResponseCache.Entry entry = entry("Hola", TTL);
+        cache.put(key(1), entry);
+
+        assertSame(entry, cache.get(key(1)));
+        assertNull(cache.get(key(2)));
+
+        cache.put(key(2), entry("Expirada", 0));
+        assertNull(cache.get(key(2)));
+        assertFalse(cache.contains(key(2)));
+        assertEquals(1, cache.entryCount());
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void testReplacingAnEntryKeepsTheSize() throws Exception {
+        ResponseCache cache = new ResponseCache();
+        cache.put(key(1), entry("Hola", TTL));
+        long size = cache.size();
+        cache.put(key(1), entry("Chao", TTL));
+
+        assertEquals(size, cache.size());
+        assertEquals(1, cache.entryCount());
+    }
+
+    @Test
+    public void testEntryBudget() throws Exception {
+        ResponseCache cache = new ResponseCache(10, Long.MAX_VALUE);
+        for (int i = 0; i < 100; i++) {
+            cache.put(key(i), entry("valor " + i, TTL));
+        }
+
+        assertEquals(10, cache.entryCount());
+        assertTrue(cache.contains(key(99)));
+    }
+
+    @Test
+    public void testByteBudget() throws Exception {
+        ResponseCache.Entry sample = entry("x".repeat(100), TTL);
+        ResponseCache probe = new ResponseCache();
+        probe.put(key(0), sample);
+        long weight = probe.size();
+
+        ResponseCache cache = new ResponseCache(100, weight * 3);
+        for (int i = 0; i < 10; i++) {
+            cache.put(key(i), entry("x".repeat(100), TTL));
+        }
+        assertEquals(3, cache.entryCount());
+        assertTrue(cache.size() <= weight * 3);
+
+        // Más grande que todo el presupuesto: no se guarda
+        cache.put(key("grande"), entry("x".repeat(100_000), TTL));
+        assertFalse(cache.contains(key("grande")));
+    }
+
+    @Test
+    public void testPopularKeysSurviveAScan() throws Exception {
+        ResponseCache cache = new ResponseCache(100, Long.MAX_VALUE);
+        for (int i = 0; i < 50; i++) {
+            cache.put(key(i), entry("popular " + i, TTL));
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                assertNotNull(cache.get(key(i)));
+            }
+        }
+
+        // Claves que se piden una sola vez; con LRU sacarían a todas las populares
+        for (int i = 1000; i < 1500; i++) {
+            cache.put(key(i), entry("una vez " + i, TTL));
+        }
+
+        int survivors = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.contains(key(i))) {
+                survivors++;
+            }
+        }
+        assertTrue(survivors >= 45, "solo quedaron " + survivors);
+        assertEquals(100, cache.entryCount());
+    }
+
+    @Test
+    public void testConcurrentLoadsAreCoalesced() throws Exception {
+        ResponseCache cache = new ResponseCache();
+        CompletableFuture<ResponseCache.Entry> first = new CompletableFuture<>();
+        assertNull(cache.startLoading(key(1), first));
+
+        CompletableFuture<ResponseCache.Entry> second = new CompletableFuture<>();
+        assertSame(first, cache.startLoading(key(1), second));
+
+        ResponseCache.Entry entry = entry("Hola", TTL);
+        cache.finishLoading(key(1), first, entry);
+        assertSame(entry, first.join());
+        assertSame(entry, cache.get(key(1)));
+
+        // Una carga sin respuesta para guardar también despierta a los que esperan
+        CompletableFuture<ResponseCache.Entry> failed = new CompletableFuture<>();
+        assertNull(cache.startLoading(key(2), failed));
+        cache.finishLoading(key(2), failed, null);
+        assertNull(failed.join());
+        assertNull(cache.startLoading(key(2), new CompletableFuture<>()));
+    }
+
+    @Test
+    public void testFrequencySketch() {
+        ResponseCache.FrequencySketch sketch = new ResponseCache.FrequencySketch(100);
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("popular");
+        }
+        sketch.increment("raro");
+
+        assertEquals(5, sketch.frequency("popular"));
+        assertTrue(sketch.frequency("raro") >= 1);
+        assertTrue(sketch.frequency("raro") < sketch.frequency("popular"));
+
+        // Los contadores se saturan en 15 y se dividen a la mitad con el tiempo
+        for (int i = 0; i < 2000; i++) {
+            sketch.increment("popular");
+        }
+        assertTrue(sketch.frequency("popular") <= 15);
+        for (int i = 0; i < 1000; i++) {
+            sketch.increment(i);
+        }
+        assertTrue(sketch.frequency("popular") < 15);
+    }
+}
@@ -0,0 +1,81 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import co.edu.escuelaing.microsptingboot.controller.GreetingController;
+import co.edu.escuelaing.microsptingboot.processor.RouteIndexProcessor;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pruebas unitarias para RouteIndex
+ *
+ * @author Sebastian
+ */
+public class RouteIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private URLClassLoader loaderWithIndex(String content) throws IOException {
+        Path index = tempDir.resolve(RouteIndexProcessor.INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.writeString(index, content);
+        return new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, null);
+    }
+
+    @Test
+    public void testBuildIndexIsOnClasspath() throws Exception {
+        List<RouteIndex.Route> routes = RouteIndex.read(getClass().getClassLoader());
+
+        assertNotNull(routes);
+        RouteIndex.Route greeting = routes.stream().filter(r -> r.path().equals("/greeting")).findFirst().orElseThrow();
+        assertEquals("GET", greeting.httpMethod());
+        assertEquals(GreetingController.class.getMethod("greeting", String.class), greeting.resolve(getClass().getClassLoader()));
+    }
+
+    @Test
+    public void testReadAndResolve() throws Exception {
+        try (URLClassLoader loader = loaderWithIndex("# comentario\n"
+                + "GET\t/max\tjava.lang.Math\tmax\tint,int\n"
+                + "GET\t/fill\tjava.util.Arrays\tfill\tlong[],long\n")) {
+            List<RouteIndex.Route> routes = RouteIndex.read(loader);
+
+            assertEquals(2, routes.size());
+            Method max = routes.get(0).resolve(loader);
+            assertEquals(Math.class.getMethod("max", int.class, int.class), max);
+            Method fill = routes.get(1).resolve(loader);
+            assertEquals(Arrays.class.getMethod("fill", long[].class, long.class), fill);
+        }
+    }
+
+    @Test
+    public void testMissingIndex() throws IOException {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, null)) {
+            assertNull(RouteIndex.read(loader));
+        }
+    }
+
+    @Test
+    public void testMalformedIndex() throws IOException {
+        try (URLClassLoader loader = loaderWithIndex("GET\t/roto\n")) {
+            assertThrows(IOException.class, () -> RouteIndex.read(loader));
+        }
+    }
+
+    @Test
+    public void testStaleEntryFailsToResolve() throws IOException {
+        try (URLClassLoader loader = loaderWithIndex("GET\t/x\tdemo.NoExiste\tx\t\n")) {
+            RouteIndex.Route route = RouteIndex.read(loader).get(0);
+            assertThrows(ClassNotFoundException.class, () -> route.resolve(loader));
+        }
+    }
+}
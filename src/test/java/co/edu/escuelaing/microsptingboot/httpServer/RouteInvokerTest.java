@@ -0,0 +1,207 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import co.edu.escuelaing.microsptingboot.controller.CalcuteController;
+import co.edu.escuelaing.microsptingboot.controller.GreetingController;
+import co.edu.escuelaing.microsptingboot.annotations.Cacheable;
+import co.edu.escuelaing.microsptingboot.annotations.RequestBody;
+import co.edu.escuelaing.microsptingboot.annotations.RequestParam;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Pruebas unitarias para RouteInvoker
+ *
+ * @author Sebastian
+ */
+public class RouteInvokerTest {
+
+    @Test
+    public void testInvokeWithParameters() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(CalcuteController.class.getMethod("calculate", int.class, int.class));
+
+        Object result = invoker.invoke(new HttpRequest(new URI("/app/calculate/suma?a=2&b=3")));
+        assertEquals("La suma de 2 + 3 = 5", result);
+    }
+
+    @Test
+    public void testInvokeUsesDefaultValues() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(GreetingController.class.getMethod("welcome", String.class, String.class, String.class));
+
+        Object result = invoker.invoke(new HttpRequest(new URI("/app/welcome?name=Ana")));
+        assertEquals("Bienvenido Ana, tienes 0 años y vives en Ciudad Desconocida", result);
+    }
+
+    @Test
+    public void testInvokeWithoutParameters() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(GreetingController.class.getMethod("status"));
+
+        assertEquals("El servidor está funcionando correctamente", invoker.invoke(new HttpRequest(new URI("/app/status"))));
+    }
+
+    @Test
+    public void testControllerExceptionIsPropagated() throws NoSuchMethodException {
+        RouteInvoker invoker = RouteInvoker.compile(RouteInvokerTest.class.getDeclaredMethod("failing"));
+
+        assertThrows(IllegalStateException.class, () -> invoker.invoke(new HttpRequest(new URI("/app/failing"))));
+    }
+
+    @Test
+    public void testInstanceMethodIsRejected() throws NoSuchMethodException {
+        assertThrows(IllegalArgumentException.class,
+                () -> RouteInvoker.compile(RouteInvokerTest.class.getMethod("testInvokeWithoutParameters")));
+    }
+
+    public static String failing() {
+        throw new IllegalStateException("falla");
+    }
+
+    @Test
+    public void testInvokeWithPathVariable() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(CalcuteController.class.getMethod("operate", String.class, int.class, int.class));
+        HttpRequest request = new HttpRequest(new URI("/app/calculate/multiplicacion?a=6&b=7"));
+        request.setPathVariables(new String[]{"op"}, new String[]{"multiplicacion"});
+
+        assertEquals("La multiplicación de 6 * 7 = 42", invoker.invoke(request));
+    }
+
+    public static String text(@RequestBody String body) {
+        return body;
+    }
+
+    public static int length(@RequestBody byte[] body) {
+        return body.length;
+    }
+
+    public static ByteBuffer buffer(@RequestBody ByteBuffer body) {
+        return body;
+    }
+
+    public static InputStream stream(@RequestBody InputStream body) {
+        return body;
+    }
+
+    public static String twoBodies(@RequestBody String a, @RequestBody String b) {
+        return a + b;
+    }
+
+    public static String unsupportedBody(@RequestBody Integer body) {
+        return String.valueOf(body);
+    }
+
+    private static HttpRequest post(String contentType, byte[] body) {
+        HttpRequest request = new HttpRequest("POST", "/app/x", null, "HTTP/1.1",
+                Map.of("content-type", contentType, "content-length", String.valueOf(body.length)));
+        request.setBody(new ByteArrayInputStream(body));
+        return request;
+    }
+
+    @Test
+    public void testStringBodyUsesContentTypeCharset() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(RouteInvokerTest.class.getMethod("text", String.class));
+        byte[] latin1 = "canción".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertEquals("canción", invoker.invoke(post("text/plain; charset=ISO-8859-1", latin1)));
+        assertEquals("canción", invoker.invoke(post("text/plain", "canción".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void testByteArrayAndStreamBodies() throws Throwable {
+        RouteInvoker bytes = RouteInvoker.compile(RouteInvokerTest.class.getMethod("length", byte[].class));
+        RouteInvoker stream = RouteInvoker.compile(RouteInvokerTest.class.getMethod("stream", InputStream.class));
+        HttpRequest request = post("application/octet-stream", new byte[300]);
+
+        assertEquals(300, bytes.invoke(post("application/octet-stream", new byte[300])));
+        assertSame(request.getBody(), stream.invoke(request));
+    }
+
+    @Test
+    public void testByteBufferBodyIsDirect() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(RouteInvokerTest.class.getMethod("buffer", ByteBuffer.class));
+
+        ByteBuffer copied = (ByteBuffer) invoker.invoke(post("text/plain", "hola".getBytes(StandardCharsets.US_ASCII)));
+        assertTrue(copied.isDirect());
+        assertEquals(4, copied.remaining());
+
+        // El cuerpo que ya está en un buffer (motor NIO) se entrega sin copiarlo
+        ByteBuffer received = ByteBuffer.allocateDirect(4).put("hola".getBytes(StandardCharsets.US_ASCII)).flip();
+        HttpRequest request = new HttpRequest("POST", "/app/x", null, "HTTP/1.1", Map.of());
+        request.setBody(new ByteBufferInputStream(received));
+        ByteBuffer shared = (ByteBuffer) invoker.invoke(request);
+        assertEquals(4, shared.remaining());
+        shared.put(0, (byte) 'H');
+        assertEquals('H', received.get(0));
+    }
+
+    @Test
+    public void testBodyOverLimitIsRejected() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(RouteInvokerTest.class.getMethod("length", byte[].class));
+        HttpServer.configureRequestBody(100);
+        try {
+            assertEquals(100, invoker.invoke(post("text/plain", new byte[100])));
+            HttpParseException e = assertThrows(HttpParseException.class, () -> invoker.invoke(post("text/plain", new byte[101])));
+            assertEquals("413 Content Too Large", e.getStatus());
+        } finally {
+            HttpServer.configureRequestBody(10L * 1024 * 1024);
+        }
+    }
+
+    @Test
+    public void testInvalidRequestBodyIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RouteInvoker.compile(RouteInvokerTest.class.getMethod("twoBodies", String.class, String.class)));
+        assertThrows(IllegalArgumentException.class,
+                () -> RouteInvoker.compile(RouteInvokerTest.class.getMethod("unsupportedBody", Integer.class)));
+    }
+
+    public static void created(@RequestParam(value = "id", defaultValue = "0") String id, HttpResponse response) {
+        response.setStatus(201);
+        response.setHeader("Location", "/app/items/" + id);
+    }
+
+    @Test
+    public void testResponseIsInjected() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(RouteInvokerTest.class.getMethod("created", String.class, HttpResponse.class));
+        HttpResponse response = new HttpResponse();
+
+        assertNull(invoker.invoke(new HttpRequest(new URI("/app/items?id=7")), response));
+        assertEquals(201, response.getStatus());
+        assertEquals("/app/items/7", response.getHeader("Location"));
+    }
+
+    @Cacheable
+    public static String cachedBody(@RequestBody String body) {
+        return body;
+    }
+
+    @Cacheable(ttlMillis = 0)
+    public static String noTtl() {
+        return "";
+    }
+
+    @Test
+    public void testCacheKeyUsesConvertedValues() throws Throwable {
+        RouteInvoker invoker = RouteInvoker.compile(CalcuteController.class.getMethod("calculate", int.class, int.class));
+        assertTrue(invoker.isCacheable());
+
+        ResponseCache.Key key = invoker.cacheKey(new HttpRequest(new URI("/app/calculate/suma?a=5&b=2")));
+        assertEquals(key, invoker.cacheKey(new HttpRequest(new URI("/app/calculate/suma?b=02&a=5&extra=1"))));
+        assertNotEquals(key, invoker.cacheKey(new HttpRequest(new URI("/app/calculate/suma?a=5&b=3"))));
+        assertThrows(HttpParseException.class, () -> invoker.cacheKey(new HttpRequest(new URI("/app/calculate/suma?a=x"))));
+        assertFalse(RouteInvoker.compile(CalcuteController.class.getMethod("resta", int.class, int.class)).isCacheable());
+    }
+
+    @Test
+    public void testInvalidCacheableIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RouteInvoker.compile(RouteInvokerTest.class.getMethod("cachedBody", String.class)));
+        assertThrows(IllegalArgumentException.class,
+                () -> RouteInvoker.compile(RouteInvokerTest.class.getMethod("noTtl")));
+    }
+}
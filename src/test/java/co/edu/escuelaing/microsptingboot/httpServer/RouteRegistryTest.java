@@ -0,0 +1,46 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import co.edu.escuelaing.microsptingboot.controller.GreetingController;
+import java.lang.reflect.Method;
+
+/**
+ * Pruebas unitarias para RouteRegistry
+ *
+ * @author Sebastian
+ */
+public class RouteRegistryTest {
+
+    @Test
+    public void testRouterIsRecompiledAfterChanges() throws NoSuchMethodException {
+        Method status = GreetingController.class.getMethod("status");
+        RouteRegistry registry = new RouteRegistry();
+
+        registry.put("/status", status);
+        Router first = registry.router();
+        assertSame(first, registry.router());
+        assertEquals(status, first.match("/status").method());
+
+        registry.put("/items/{id}", status);
+        Router second = registry.router();
+        assertNotSame(first, second);
+        assertNotNull(second.match("/items/3"));
+
+        registry.remove("/status");
+        assertNull(registry.router().match("/status"));
+        registry.clear();
+        assertTrue(registry.isEmpty());
+        assertNull(registry.router().match("/items/3"));
+    }
+
+    @Test
+    public void testInvalidPatternIsRejected() throws NoSuchMethodException {
+        RouteRegistry registry = new RouteRegistry();
+        Method status = GreetingController.class.getMethod("status");
+
+        assertThrows(IllegalArgumentException.class, () -> registry.put("/a/**/b", status));
+        assertFalse(registry.containsKey("/a/**/b"));
+    }
+}
@@ -0,0 +1,122 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pruebas unitarias para Router
+ *
+ * @author Sebastian
+ */
+public class RouterTest {
+
+    private static Method handler(String name) throws NoSuchMethodException {
+        return RouterTest.class.getDeclaredMethod(name);
+    }
+
+    static void a() {
+    }
+
+    static void b() {
+    }
+
+    static void c() {
+    }
+
+    static void d() {
+    }
+
+    private Router router(Object... patternsAndHandlers) {
+        Map<String, Method> routes = new LinkedHashMap<>();
+        for (int i = 0; i < patternsAndHandlers.length; i += 2) {
+            routes.put((String) patternsAndHandlers[i], (Method) patternsAndHandlers[i + 1]);
+        }
+        return Router.compile(routes);
+    }
+
+    @Test
+    public void testLiteralRoutesSharingPrefixes() throws Exception {
+        Router router = router("/greeting", handler("a"), "/greet", handler("b"), "/green/tea", handler("c"), "/", handler("d"));
+
+        assertEquals(handler("a"), router.match("/greeting").method());
+        assertEquals(handler("b"), router.match("/greet").method());
+        assertEquals(handler("c"), router.match("/green/tea").method());
+        assertEquals(handler("d"), router.match("/").method());
+        assertNull(router.match("/gree"));
+        assertNull(router.match("/greeting/"));
+        assertNull(router.match("/green"));
+    }
+
+    @Test
+    public void testPathVariables() throws Exception {
+        Router router = router("/users/{id}/orders/{order}", handler("a"));
+
+        Router.Match match = router.match("/users/42/orders/7");
+        assertEquals("/users/{id}/orders/{order}", match.pattern());
+        assertArrayEquals(new String[]{"id", "order"}, match.names());
+        assertArrayEquals(new String[]{"42", "7"}, match.values());
+        assertNull(router.match("/users//orders/7"));
+        assertNull(router.match("/users/42/orders"));
+    }
+
+    @Test
+    public void testLiteralTakesPrecedenceOverVariable() throws Exception {
+        Router router = router("/calculate/{op}", handler("a"), "/calculate/suma", handler("b"));
+
+        assertEquals(handler("b"), router.match("/calculate/suma").method());
+        Router.Match match = router.match("/calculate/resta");
+        assertEquals(handler("a"), match.method());
+        assertArrayEquals(new String[]{"resta"}, match.values());
+    }
+
+    @Test
+    public void testBacktracksWhenLiteralBranchFails() throws Exception {
+        Router router = router("/files/latest/info", handler("a"), "/files/{name}/download", handler("b"));
+
+        Router.Match match = router.match("/files/latest/download");
+        assertEquals(handler("b"), match.method());
+        assertArrayEquals(new String[]{"latest"}, match.values());
+    }
+
+    @Test
+    public void testWildcards() throws Exception {
+        Router router = router("/static/*/logo", handler("a"), "/docs/**", handler("b"));
+
+        Router.Match single = router.match("/static/v2/logo");
+        assertEquals(handler("a"), single.method());
+        assertArrayEquals(new String[]{null}, single.names());
+        assertNull(router.match("/static/v2/v3/logo"));
+
+        Router.Match rest = router.match("/docs/guide/intro.html");
+        assertEquals(handler("b"), rest.method());
+        assertArrayEquals(new String[]{Router.CATCH_ALL}, rest.names());
+        assertArrayEquals(new String[]{"guide/intro.html"}, rest.values());
+        assertArrayEquals(new String[]{""}, router.match("/docs/").values());
+    }
+
+    @Test
+    public void testInvalidPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> Router.validate("/file-{id}"));
+        assertThrows(IllegalArgumentException.class, () -> Router.validate("/a/**/b"));
+        assertThrows(IllegalArgumentException.class, () -> Router.validate("/a/{}"));
+        assertThrows(IllegalArgumentException.class, () -> Router.validate("/a*"));
+    }
+
+    @Test
+    public void testManyRoutes() throws Exception {
+        Map<String, Method> routes = new LinkedHashMap<>();
+        for (int i = 0; i < 500; i++) {
+            routes.put("/resource" + i + "/{id}", handler(i % 2 == 0 ? "a" : "b"));
+        }
+        Router router = Router.compile(routes);
+
+        Router.Match match = router.match("/resource317/abc");
+        assertEquals("/resource317/{id}", match.pattern());
+        assertArrayEquals(new String[]{"abc"}, match.values());
+        assertNull(router.match("/resource500/abc"));
+    }
+}
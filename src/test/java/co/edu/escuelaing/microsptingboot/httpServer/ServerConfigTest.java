@@ -0,0 +1,143 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Pruebas unitarias para ServerConfig
+ *
+ * @author Sebastian
+ */
+public class ServerConfigTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Properties properties(String... pairs) {
+        Properties properties = new Properties();
+        for (int i = 0; i < pairs.length; i += 2) {
+            properties.setProperty(pairs[i], pairs[i + 1]);
+        }
+        return properties;
+    }
+
+    @Test
+    public void testDefaults() {
+        ServerConfig config = ServerConfig.load(new String[0], new Properties(), Map.of());
+
+        assertEquals("35000", config.get("server.port"));
+        assertEquals("", config.get("server.address"));
+        assertEquals("true", config.get("server.tcp-no-delay"));
+        assertEquals("BLOCKING", config.get("server.engine"));
+        assertThrows(IllegalArgumentException.class, () -> config.get("server.nada"));
+    }
+
+    @Test
+    public void testPrecedence() throws IOException {
+        Path file = tempDir.resolve("server.properties");
+        Files.writeString(file, "server.port=1000\nserver.backlog=10\nserver.acceptors=3\nserver.engine=nio\n");
+        Properties system = properties("server.port", "2000", "server.backlog", "20", "config.file", file.toString());
+        Map<String, String> environment = Map.of("SERVER_PORT", "3000", "SERVER_BACKLOG", "30", "SERVER_ACCEPTORS", "4");
+
+        ServerConfig config = ServerConfig.load(new String[]{"--server.port=4000"}, system, environment);
+
+        // Línea de comandos, propiedades del sistema, entorno y archivo, en ese orden
+        assertEquals("4000", config.get("server.port"));
+        assertEquals("20", config.get("server.backlog"));
+        assertEquals("4", config.get("server.acceptors"));
+        assertEquals("nio", config.get("server.engine"));
+    }
+
+    @Test
+    public void testEnvironmentNames() {
+        assertEquals("SERVER_PORT", ServerConfig.environmentName("server.port"));
+        assertEquals("ACCESS_LOG_BLOCK_WHEN_FULL", ServerConfig.environmentName("access-log.block-when-full"));
+
+        ServerConfig config = ServerConfig.load(new String[0], new Properties(), Map.of("ACCESS_LOG_FILE", "logs/access.log"));
+        assertEquals("logs/access.log", config.get("access-log.file"));
+    }
+
+    @Test
+    public void testArgumentsThatAreNotOptionsAreKept() {
+        ServerConfig config = ServerConfig.load(new String[]{"--server.port=8080",
+            "co.edu.escuelaing.microsptingboot.controller.GreetingController"}, new Properties(), Map.of());
+
+        assertArrayEquals(new String[]{"co.edu.escuelaing.microsptingboot.controller.GreetingController"}, config.arguments());
+    }
+
+    @Test
+    public void testUnknownOptionsAreRejected() throws IOException {
+        assertThrows(IllegalArgumentException.class,
+                () -> ServerConfig.load(new String[]{"--server.prot=8080"}, new Properties(), Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ServerConfig.load(new String[]{"--server.port"}, new Properties(), Map.of()));
+
+        Path file = tempDir.resolve("typo.properties");
+        Files.writeString(file, "server.prot=8080\n");
+        assertThrows(IllegalArgumentException.class,
+                () -> ServerConfig.load(new String[]{"--config.file=" + file}, new Properties(), Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ServerConfig.load(new String[]{"--config.file=" + tempDir.resolve("missing.properties")}, new Properties(), Map.of()));
+    }
+
+    @Test
+    public void testInvalidValueNamesItsOrigin() {
+        ServerConfig config = ServerConfig.load(new String[0], new Properties(), Map.of("SERVER_PORT", "abc"));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, config::apply);
+        assertTrue(error.getMessage().contains("server.port"));
+        assertTrue(error.getMessage().contains("environment SERVER_PORT"));
+
+        ServerConfig flag = ServerConfig.load(new String[]{"--server.tcp-no-delay=si"}, new Properties(), Map.of());
+        assertThrows(IllegalArgumentException.class, flag::apply);
+    }
+
+    @Test
+    public void testApplyStartsReusePortAcceptors() throws Exception {
+        HttpServer.services.clear();
+        ServerConfig config = ServerConfig.load(new String[]{"--server.address=127.0.0.1", "--server.port=0",
+            "--server.acceptors=2", "--access-log.level=OFF",
+            "co.edu.escuelaing.microsptingboot.controller.GreetingController"}, new Properties(), Map.of());
+        config.apply();
+        Thread serverThread = new Thread(() -> {
+            try {
+                HttpServer.startServer(config.arguments());
+            } catch (Exception e) {
+                fail("No se pudo iniciar el servidor: " + e.getMessage());
+            }
+        });
+        serverThread.start();
+
+        try {
+            int port = -1;
+            for (int i = 0; i < 100 && port <= 0; i++) {
+                Thread.sleep(50);
+                port = HttpServer.isRunning() ? HttpServer.getLocalPort() : -1;
+            }
+            assertTrue(port > 0);
+            // Las conexiones se reparten entre los dos sockets; todas se atienden
+            for (int i = 0; i < 8; i++) {
+                try (Socket client = new Socket("127.0.0.1", port)) {
+                    client.setSoTimeout(5000);
+                    client.getOutputStream().write("GET /app/status HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                    String response = new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                    assertTrue(response.startsWith("HTTP/1.1 200 OK"), response);
+                }
+            }
+        } finally {
+            HttpServer.stopServer();
+            serverThread.join(5000);
+            ServerConfig.load(new String[0], new Properties(), Map.of()).apply();
+        }
+        assertFalse(serverThread.isAlive());
+    }
+}
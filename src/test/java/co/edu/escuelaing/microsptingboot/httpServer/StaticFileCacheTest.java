@@ -0,0 +1,215 @@
+package co.edu.escuelaing.microsptingboot.httpServer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Pruebas unitarias para StaticFileCache
+ *
+ * @author Sebastian
+ */
+public class StaticFileCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRenderedResponse() throws IOException {
+        Path file = tempDir.resolve("index.html");
+        Files.writeString(file, "<h1>Hola</h1>");
+        StaticFileCache cache = new StaticFileCache();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.get(file, "text/html").writeTo(out, true, null);
+
+        String response = out.toString(StandardCharsets.UTF_8);
+        assertTrue(response.startsWith("HTTP/1.1 200 OK\r\n"));
+        assertTrue(response.contains("Content-Type: text/html\r\n"));
+        assertTrue(response.contains("Content-Length: 13\r\n"));
+        assertTrue(response.contains("Connection: keep-alive\r\n\r\n<h1>Hola</h1>"));
+    }
+
+    @Test
+    public void testCompressedVariants() throws IOException {
+        Path file = tempDir.resolve("app.js");
+        String content = "console.log('hola');\n".repeat(100);
+        Files.writeString(file, content);
+        StaticFileCache cache = new StaticFileCache();
+
+        StaticFileCache.Entry entry = cache.get(file, "text/javascript");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entry.writeTo(out, false, ContentEncoding.GZIP);
+
+        String response = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(response.contains("Content-Encoding: gzip\r\n"));
+        assertTrue(response.contains("Vary: Accept-Encoding\r\n"));
+        assertTrue(response.contains("Content-Length: " + entry.body(ContentEncoding.GZIP).length + "\r\n"));
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(entry.body(ContentEncoding.GZIP)))) {
+            assertEquals(content, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertTrue(entry.body(ContentEncoding.DEFLATE).length < content.length());
+    }
+
+    @Test
+    public void testValidatorsAndNotModified() throws IOException {
+        Path file = tempDir.resolve("main.css");
+        String content = "p { color: red; }\n".repeat(100);
+        Files.writeString(file, content);
+        StaticFileCache cache = new StaticFileCache();
+
+        StaticFileCache.Entry entry = cache.get(file, "text/css", "max-age=60");
+        String etag = entry.etag(null);
+        assertEquals(ETagCache.compute(content.getBytes(StandardCharsets.UTF_8)), etag);
+        assertNotEquals(etag, entry.etag(ContentEncoding.GZIP));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entry.writeTo(out, true, null);
+        String response = out.toString(StandardCharsets.UTF_8);
+        assertTrue(response.contains("ETag: " + etag + "\r\n"));
+        assertTrue(response.contains("Last-Modified: " + ConditionalRequest.formatDate(entry.lastModified) + "\r\n"));
+        assertTrue(response.contains("Cache-Control: max-age=60\r\n"));
+
+        out.reset();
+        entry.writeNotModified(out, false, ContentEncoding.GZIP);
+        String notModified = out.toString(StandardCharsets.UTF_8);
+        assertTrue(notModified.startsWith("HTTP/1.1 304 Not Modified\r\n"));
+        assertTrue(notModified.contains("ETag: " + entry.etag(ContentEncoding.GZIP) + "\r\n"));
+        assertFalse(notModified.contains("Content-Length"));
+        assertTrue(notModified.endsWith("Connection: close\r\n\r\n"));
+    }
+
+    @Test
+    public void testSmallFileIsNotCompressed() throws IOException {
+        Path file = tempDir.resolve("small.css");
+        Files.writeString(file, "body {}");
+        StaticFileCache cache = new StaticFileCache();
+
+        StaticFileCache.Entry entry = cache.get(file, "text/css");
+        assertSame(entry.body, entry.body(ContentEncoding.GZIP));
+    }
+
+    @Test
+    public void testPrecompressedSiblingIsUsed() throws IOException {
+        Path file = tempDir.resolve("page.html");
+        Files.writeString(file, "<p>hola</p>".repeat(200));
+        byte[] precompressed = ContentEncoding.encode("precomprimido".getBytes(StandardCharsets.UTF_8), ContentEncoding.GZIP);
+        Path sibling = tempDir.resolve("page.html.gz");
+        Files.write(sibling, precompressed);
+        Files.setLastModifiedTime(sibling, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+        StaticFileCache cache = new StaticFileCache();
+
+        assertArrayEquals(precompressed, cache.get(file, "text/html").body(ContentEncoding.GZIP));
+    }
+
+    @Test
+    public void testReplacedOrDeletedSiblingIsReloaded() throws IOException {
+        Path file = tempDir.resolve("page.html");
+        String content = "<p>hola</p>".repeat(200);
+        Files.writeString(file, content);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        Path sibling = tempDir.resolve("page.html.gz");
+        Files.write(sibling, ContentEncoding.encode("uno".getBytes(StandardCharsets.UTF_8), ContentEncoding.GZIP));
+        Files.setLastModifiedTime(sibling, FileTime.fromMillis(lastModified + 1000));
+        StaticFileCache cache = new StaticFileCache(1024 * 1024, 1024 * 1024, 0);
+        cache.get(file, "text/html");
+
+        // Solo cambia el .gz: el original queda igual
+        byte[] replaced = ContentEncoding.encode("dos".getBytes(StandardCharsets.UTF_8), ContentEncoding.GZIP);
+        Files.write(sibling, replaced);
+        Files.setLastModifiedTime(sibling, FileTime.fromMillis(lastModified + 2000));
+        assertArrayEquals(replaced, cache.get(file, "text/html").body(ContentEncoding.GZIP));
+
+        Files.delete(sibling);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(cache.get(file, "text/html").body(ContentEncoding.GZIP)))) {
+            assertEquals(content, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testHitReturnsSameEntry() throws IOException {
+        Path file = tempDir.resolve("style.css");
+        Files.writeString(file, "body {}");
+        StaticFileCache cache = new StaticFileCache();
+
+        StaticFileCache.Entry first = cache.get(file, "text/css");
+        assertSame(first, cache.get(file, "text/css"));
+        assertTrue(cache.contains(file));
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void testModifiedFileIsReloaded() throws IOException {
+        Path file = tempDir.resolve("script.js");
+        Files.writeString(file, "uno");
+        StaticFileCache cache = new StaticFileCache(1024, 1024, 0);
+
+        StaticFileCache.Entry first = cache.get(file, "text/javascript");
+        Files.writeString(file, "dos");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(first.lastModified + 5000));
+
+        StaticFileCache.Entry second = cache.get(file, "text/javascript");
+        assertNotSame(first, second);
+        assertEquals("dos", new String(second.body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testMissingFile() throws IOException {
+        StaticFileCache cache = new StaticFileCache();
+
+        assertNull(cache.get(tempDir.resolve("nonexistent.html"), "text/html"));
+        assertNull(cache.get(tempDir, "text/html"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws IOException {
+        Path a = tempDir.resolve("a.css");
+        Path b = tempDir.resolve("b.css");
+        Path c = tempDir.resolve("c.css");
+        Files.writeString(a, "a".repeat(100));
+        Files.writeString(b, "b".repeat(100));
+        Files.writeString(c, "c".repeat(100));
+        // Cabe un poco más de dos entradas
+        StaticFileCache probe = new StaticFileCache();
+        probe.get(a, "text/css");
+        long budget = probe.size() * 5 / 2;
+        StaticFileCache cache = new StaticFileCache(budget, budget, 0);
+
+        cache.get(a, "text/css");
+        cache.get(b, "text/css");
+        cache.get(a, "text/css");
+        cache.get(c, "text/css");
+
+        assertTrue(cache.contains(a));
+        assertFalse(cache.contains(b));
+        assertTrue(cache.contains(c));
+        assertTrue(cache.size() <= budget);
+    }
+
+    @Test
+    public void testLargeFileIsServedWithoutCaching() throws IOException {
+        Path file = tempDir.resolve("big.js");
+        Files.writeString(file, "x".repeat(2048));
+        StaticFileCache cache = new StaticFileCache(4096, 1024, 0);
+
+        StaticFileCache.Entry entry = cache.get(file, "text/javascript");
+        assertEquals(2048, entry.size);
+        // Se decide con el tamaño: el archivo no se lee ni se comprime
+        assertFalse(entry.isInMemory());
+        assertNull(entry.body);
+        assertFalse(cache.contains(file));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.misses());
+    }
+}
@@ -0,0 +1,134 @@
+package co.edu.escuelaing.microsptingboot.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Pruebas unitarias para RouteIndexProcessor: compilan un controlador con
+ * el procesador y revisan el índice generado
+ *
+ * @author Sebastian
+ */
+public class RouteIndexProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private int compile(String className, String source) throws IOException {
+        Path sourceFile = tempDir.resolve("src/demo/" + className + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source);
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        return compiler.run(null, null, null,
+                "-classpath", System.getProperty("java.class.path"),
+                "-processor", RouteIndexProcessor.class.getName(),
+                "-d", classes.toString(),
+                sourceFile.toString());
+    }
+
+    @Test
+    public void testIndexContainsStaticGetMappings() throws IOException {
+        int result = compile("DemoController", """
+                package demo;
+
+                import co.edu.escuelaing.microsptingboot.annotations.*;
+
+                @RestController
+                public class DemoController {
+
+                    @GetMapping("/demo")
+                    public static String demo(@RequestParam(value = "n", defaultValue = "1") String n) {
+                        return n;
+                    }
+
+                    @GetMapping("/arrays")
+                    public static String arrays(int[] values, java.util.List<String> names) {
+                        return "";
+                    }
+
+                    @GetMapping("/instance")
+                    public String instance() {
+                        return "";
+                    }
+
+                    public static String notMapped() {
+                        return "";
+                    }
+
+                    @RestController
+                    public static class Inner {
+
+                        @GetMapping("/inner")
+                        public static String inner() {
+                            return "";
+                        }
+                    }
+                }
+                """);
+        assertEquals(0, result);
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("classes").resolve(RouteIndexProcessor.INDEX_LOCATION));
+        assertTrue(lines.contains("GET\t/demo\tdemo.DemoController\tdemo\tjava.lang.String"));
+        assertTrue(lines.contains("GET\t/arrays\tdemo.DemoController\tarrays\tint[],java.util.List"));
+        assertTrue(lines.contains("GET\t/inner\tdemo.DemoController$Inner\tinner\t"));
+        assertTrue(lines.stream().noneMatch(line -> line.contains("/instance") || line.contains("notMapped")));
+    }
+
+    @Test
+    public void testIndexContainsHttpMethodOfEachMapping() throws IOException {
+        int result = compile("ItemController", """
+                package demo;
+
+                import co.edu.escuelaing.microsptingboot.annotations.*;
+
+                @RestController
+                public class ItemController {
+
+                    @GetMapping("/items/{id}")
+                    @DeleteMapping("/items/{id}")
+                    public static String item(@PathVariable("id") String id) {
+                        return id;
+                    }
+
+                    @PostMapping("/items")
+                    public static String create(@RequestBody byte[] body) {
+                        return "";
+                    }
+
+                    @PutMapping("/items/{id}")
+                    public static String replace(@PathVariable("id") String id, @RequestBody java.io.InputStream body) {
+                        return id;
+                    }
+                }
+                """);
+        assertEquals(0, result);
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("classes").resolve(RouteIndexProcessor.INDEX_LOCATION));
+        assertTrue(lines.contains("GET\t/items/{id}\tdemo.ItemController\titem\tjava.lang.String"));
+        assertTrue(lines.contains("DELETE\t/items/{id}\tdemo.ItemController\titem\tjava.lang.String"));
+        assertTrue(lines.contains("POST\t/items\tdemo.ItemController\tcreate\tbyte[]"));
+        assertTrue(lines.contains("PUT\t/items/{id}\tdemo.ItemController\treplace\tjava.lang.String,java.io.InputStream"));
+    }
+
+    @Test
+    public void testNoIndexWithoutControllers() throws IOException {
+        int result = compile("Plain", """
+                package demo;
+
+                public class Plain {
+                }
+                """);
+        assertEquals(0, result);
+        assertFalse(Files.exists(tempDir.resolve("classes").resolve(RouteIndexProcessor.INDEX_LOCATION)));
+    }
+}